@@ -1,5 +1,6 @@
 package net.helix.pendulum;
 
+import net.helix.pendulum.controllers.BundleViewModel;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.crypto.Sha3;
 import net.helix.pendulum.crypto.Sponge;
@@ -229,13 +230,24 @@ public class BundleValidator {
         final Map<Hash, TransactionViewModel> bundleTransactions = new HashMap<>();
         final Hash bundleHash = tail.getBundleHash();
         try {
+            // load as many transactions indexed under the bundle hash as the bundle has with a single lookup, the
+            // walk down the trunk picks the ones of this bundle instance and loads the missing ones one by one, e.g.
+            // if the index also holds reattachments
+            final Map<Hash, TransactionViewModel> indexedTransactions = new HashMap<>();
+            int prefetch = (int) Math.max(0, Math.min(tail.lastIndex() + 1, Tangle.PAGE_SIZE));
+            for (TransactionViewModel indexed : TransactionViewModel.fromHashes(tangle,
+                    BundleViewModel.loadPage(tangle, bundleHash, null, prefetch))) {
+                indexedTransactions.put(indexed.getHash(), indexed);
+            }
+
             TransactionViewModel tx = tail;
             long i = 0;
             long end = tx.lastIndex();
             do {
                 bundleTransactions.put(tx.getHash(), tx);
-                tx = tx.getTrunkTransaction(tangle);
-            } while (i++ < end && tx.getCurrentIndex() != 0 && tx.getBundleHash().equals(bundleHash));
+                TransactionViewModel trunk = indexedTransactions.get(tx.getTrunkTransactionHash());
+                tx = trunk != null ? trunk : tx.getTrunkTransaction(tangle);
+            } while (i++ < end && tx.getCurrentIndex() != 0 && tx.getView().bundleEquals(bundleHash));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -9,10 +9,12 @@ import net.helix.pendulum.conf.PendulumConfig;
 import net.helix.pendulum.service.API;
 import net.helix.pendulum.service.ApiArgs;
 import net.helix.pendulum.service.Spammer;
+import net.helix.pendulum.service.checkpoint.impl.CheckpointManagerImpl;
 import net.helix.pendulum.service.milestone.impl.MilestonePublisher;
 import net.helix.pendulum.service.restserver.resteasy.RestEasy;
 import net.helix.pendulum.utils.PendulumIOUtils;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -104,6 +106,7 @@ public class Main {
          * Starts hlx. Setup is as follows:
          * <ul>
          *     <li>Load the configuration.</li>
+         *     <li>Restore the database from a checkpoint, if one is given.</li>
          *     <li>Create {@link Pendulum}, {@link XI} and {@link API}.</li>
          *     <li>Listen for node shutdown.</li>
          *     <li>Initialize {@link Pendulum}, {@link XI} and {@link API} using their <tt>init()</tt> methods.</li>
@@ -118,6 +121,10 @@ public class Main {
             PendulumConfig config = createConfiguration(args);
             log.info("Welcome to {} {}", config.isTestnet() ? TESTNET_NAME : MAINNET_NAME, VERSION);
 
+            if (StringUtils.isNotEmpty(config.getDbRestoreCheckpoint())) {
+                CheckpointManagerImpl.restoreCheckpoint(new File(config.getDbRestoreCheckpoint()), config);
+            }
+
             pendulum = new Pendulum(config);
             XI = new XI(pendulum);
             ApiArgs apiArgs = new ApiArgs(pendulum, XI);
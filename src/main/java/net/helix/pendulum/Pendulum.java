@@ -10,6 +10,7 @@ import net.helix.pendulum.network.UDPReceiver;
 import net.helix.pendulum.network.impl.TransactionRequesterWorkerImpl;
 import net.helix.pendulum.network.replicator.Replicator;
 import net.helix.pendulum.service.TipsSolidifier;
+import net.helix.pendulum.service.checkpoint.impl.CheckpointManagerImpl;
 import net.helix.pendulum.service.curator.impl.CandidateSolidifierImpl;
 import net.helix.pendulum.service.curator.impl.CandidateTrackerImpl;
 import net.helix.pendulum.service.curator.impl.CuratorServiceImpl;
@@ -42,7 +43,9 @@ import net.helix.pendulum.service.transactionpruning.async.AsyncTransactionPrune
 import net.helix.pendulum.storage.Indexable;
 import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.storage.PersistenceProvider;
+import net.helix.pendulum.storage.AsyncTangle;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.memory.InMemoryPersistenceProvider;
 import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
 import net.helix.pendulum.utils.Pair;
 import net.helix.pendulum.zmq.MessageQProviderImpl;
@@ -95,6 +98,7 @@ public class Pendulum {
     public final SnapshotProviderImpl snapshotProvider;
     public final SnapshotServiceImpl snapshotService;
     public final LocalSnapshotManagerImpl localSnapshotManager;
+    public final CheckpointManagerImpl checkpointManager;
     public final MilestoneServiceImpl milestoneService;
     public final CuratorServiceImpl curatorService;
     public final MilestoneTrackerImpl latestMilestoneTracker;
@@ -108,6 +112,10 @@ public class Pendulum {
     public final TransactionRequesterWorkerImpl transactionRequesterWorker;
 
     public final Tangle tangle;
+    /**
+     * Runs database operations asynchronously, {@code null} if they run on the calling threads.
+     */
+    public final AsyncTangle asyncTangle;
     public final TransactionValidator transactionValidator;
     public final TipsSolidifier tipsSolidifier;
     public final TransactionRequester transactionRequester;
@@ -139,6 +147,7 @@ public class Pendulum {
         localSnapshotManager = configuration.getLocalSnapshotsEnabled()
                 ? new LocalSnapshotManagerImpl()
                 : null;
+        checkpointManager = new CheckpointManagerImpl();
         milestoneService = new MilestoneServiceImpl();
         //nomineeService = new NomineeServiceImpl();
         curatorService = new CuratorServiceImpl();
@@ -157,7 +166,11 @@ public class Pendulum {
 
         // legacy code
         bundleValidator = new BundleValidator();
-        tangle = new Tangle();
+        tangle = new Tangle(configuration.getDbTransactionCacheSize(), configuration.isDbArrivalTimeIndex(),
+                configuration.getDbRoundCacheSize());
+        asyncTangle = configuration.getDbIoThreads() > 0
+                ? new AsyncTangle(tangle, configuration.getDbIoThreads(), configuration.getDbIoQueueSize())
+                : null;
         tipsViewModel = new TipsViewModel();
         transactionRequester = new TransactionRequester(tangle, snapshotProvider);
         transactionValidator = new TransactionValidator(tangle, snapshotProvider, tipsViewModel, transactionRequester, configuration);
@@ -215,6 +228,7 @@ public class Pendulum {
         if (transactionPruner != null) {
             transactionPruner.start();
         }
+        checkpointManager.start();
 
         if (configuration.isZmqEnabled()) {
             tangle.addMessageQueueProvider(new MessageQProviderImpl(configuration));
@@ -232,7 +246,9 @@ public class Pendulum {
         snapshotProvider.init(configuration);
         spentAddressesProvider.init(configuration);
         spentAddressesService.init(tangle, snapshotProvider, spentAddressesProvider);
-        snapshotService.init(tangle, snapshotProvider, spentAddressesService, spentAddressesProvider, configuration);
+        checkpointManager.init(tangle, configuration);
+        snapshotService.init(tangle, snapshotProvider, spentAddressesService, spentAddressesProvider, checkpointManager,
+                configuration);
         if (localSnapshotManager != null) {
             localSnapshotManager.init(snapshotProvider, snapshotService, transactionPruner, configuration);
         }
@@ -254,6 +270,7 @@ public class Pendulum {
                     .restoreState();
         }
         transactionRequesterWorker.init(tangle, transactionRequester, tipsViewModel, node);
+        node.setAsyncTangle(asyncTangle);
     }
 
     private void rescanDb() throws Exception {
@@ -263,6 +280,7 @@ public class Pendulum {
         tangle.clearColumn(net.helix.pendulum.model.persistables.Approvee.class);
         tangle.clearColumn(net.helix.pendulum.model.persistables.BundleNonce.class);
         tangle.clearColumn(net.helix.pendulum.model.persistables.Tag.class);
+        tangle.clearColumn(net.helix.pendulum.model.persistables.ArrivalTime.class);
         tangle.clearColumn(net.helix.pendulum.model.persistables.Round.class);
         tangle.clearColumn(net.helix.pendulum.model.StateDiff.class);
         tangle.clearMetadata(net.helix.pendulum.model.persistables.Transaction.class);
@@ -274,7 +292,7 @@ public class Pendulum {
             if (++counter % 10000 == 0) {
                 log.info("Rescanned {} Transactions", counter);
             }
-            List<Pair<Indexable, Persistable>> saveBatch = tx.getSaveBatch();
+            List<Pair<Indexable, Persistable>> saveBatch = tx.getSaveBatch(tangle);
             saveBatch.remove(5);
             tangle.saveBatch(saveBatch);
             tx = tx.next(tangle);
@@ -299,12 +317,16 @@ public class Pendulum {
         if (localSnapshotManager != null) {
             localSnapshotManager.shutdown();
         }
+        checkpointManager.shutdown();
 
         tipsSolidifier.shutdown();
         node.shutdown();
         udpReceiver.shutdown();
         replicator.shutdown();
         transactionValidator.shutdown();
+        if (asyncTangle != null) {
+            asyncTangle.shutdown();
+        }
         tangle.shutdown();
 
         // free the resources of the snapshot provider last because all other instances need it
@@ -315,9 +337,14 @@ public class Pendulum {
         switch (configuration.getMainDb()) {
             case "rocksdb": {
                 tangle.addPersistenceProvider(new RocksDBPersistenceProvider(
-                        configuration.getDbPath(),
-                        configuration.getDbLogPath(),
-                        configuration.getDbCacheSize(),
+                        configuration,
+                        Tangle.COLUMN_FAMILIES,
+                        Tangle.METADATA_COLUMN_FAMILY)
+                );
+                break;
+            }
+            case "memory": {
+                tangle.addPersistenceProvider(new InMemoryPersistenceProvider(
                         Tangle.COLUMN_FAMILIES,
                         Tangle.METADATA_COLUMN_FAMILY)
                 );
@@ -50,7 +50,9 @@ public abstract class BasePendulumConfig implements PendulumConfig {
 
     //Network
     protected int udpReceiverPort = Defaults.UDP_RECEIVER_PORT;
+    protected int udpReceiverThreads = Defaults.UDP_RECEIVER_THREADS;
     protected int tcpReceiverPort = Defaults.TCP_RECEIVER_PORT;
+    protected int tcpReplicatorThreads = Defaults.TCP_REPLICATOR_THREADS;
     protected double pRemoveRequest = Defaults.P_REMOVE_REQUEST;
     protected double pDropCacheEntry = Defaults.P_DROP_CACHE_ENTRY;
     protected int sendLimit = Defaults.SEND_LIMIT;
@@ -69,6 +71,20 @@ public abstract class BasePendulumConfig implements PendulumConfig {
     protected String mainDb = Defaults.ROCKS_DB;
     protected boolean revalidate = Defaults.REVALIDATE;
     protected boolean rescanDb = Defaults.RESCAN_DB;
+    protected List<String> dbColumnFamilyProfiles = Defaults.DB_COLUMN_FAMILY_PROFILES;
+    protected String dbCacheType = Defaults.DB_CACHE_TYPE;
+    protected int dbCacheShardBits = Defaults.DB_CACHE_SHARD_BITS;
+    protected int dbRowCacheSize = Defaults.DB_ROW_CACHE_SIZE; //KB
+    protected int dbTransactionCacheSize = Defaults.DB_TRANSACTION_CACHE_SIZE;
+    protected int dbRoundCacheSize = Defaults.DB_ROUND_CACHE_SIZE;
+    protected boolean dbArrivalTimeIndex = Defaults.DB_ARRIVAL_TIME_INDEX;
+    protected int dbIoThreads = Defaults.DB_IO_THREADS;
+    protected int dbIoQueueSize = Defaults.DB_IO_QUEUE_SIZE;
+    protected String dbCheckpointPath = Defaults.DB_CHECKPOINT_PATH;
+    protected int dbCheckpointInterval = Defaults.DB_CHECKPOINT_INTERVAL;
+    protected int dbCheckpointRetention = Defaults.DB_CHECKPOINT_RETENTION;
+    protected boolean dbCheckpointAfterLocalSnapshot = Defaults.DB_CHECKPOINT_AFTER_LOCAL_SNAPSHOT;
+    protected String dbRestoreCheckpoint;
 
     //Protocol
     protected double pReplyRandomTip = Defaults.P_REPLY_RANDOM_TIP;
@@ -84,7 +100,11 @@ public abstract class BasePendulumConfig implements PendulumConfig {
     protected int zmqThreads = Defaults.ZMQ_THREADS;
     protected String zmqIpc = Defaults.ZMQ_IPC;
     protected int qSizeNode = Defaults.QUEUE_SIZE;
+    protected String queueDropPolicy = Defaults.QUEUE_DROP_POLICY;
+    protected int receiveThreads = Defaults.RECEIVE_THREADS;
     protected int cacheSizeBytes = Defaults.CACHE_SIZE_BYTES;
+    protected int groupCommitLatency = Defaults.GROUP_COMMIT_LATENCY; //ms
+    protected int groupCommitBatchSize = Defaults.GROUP_COMMIT_BATCH_SIZE;
     /**
      * @deprecated This field was replaced by {@link #zmqEnableTcp} and {@link #zmqEnableIpc}. It is only needed
      * for backward compatibility to --zmq-enabled parameter with JCommander.
@@ -298,6 +318,17 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         this.udpReceiverPort = udpReceiverPort;
     }
 
+    @Override
+    public int getUdpReceiverThreads() {
+        return udpReceiverThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--udp-receiver-threads", description = NetworkConfig.Descriptions.UDP_RECEIVER_THREADS)
+    protected void setUdpReceiverThreads(int udpReceiverThreads) {
+        this.udpReceiverThreads = udpReceiverThreads;
+    }
+
     @Override
     public int getTcpReceiverPort() {
         return tcpReceiverPort;
@@ -309,6 +340,17 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         this.tcpReceiverPort = tcpReceiverPort;
     }
 
+    @Override
+    public int getTcpReplicatorThreads() {
+        return tcpReplicatorThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--tcp-replicator-threads", description = NetworkConfig.Descriptions.TCP_REPLICATOR_THREADS)
+    protected void setTcpReplicatorThreads(int tcpReplicatorThreads) {
+        this.tcpReplicatorThreads = tcpReplicatorThreads;
+    }
+
     @Override
     public double getpRemoveRequest() {
         return pRemoveRequest;
@@ -452,6 +494,162 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         this.rescanDb = rescanDb;
     }
 
+    @Override
+    public List<String> getDbColumnFamilyProfiles() {
+        return dbColumnFamilyProfiles;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-cf-profiles"}, description = DbConfig.Descriptions.DB_COLUMN_FAMILY_PROFILES)
+    protected void setDbColumnFamilyProfiles(String dbColumnFamilyProfiles) {
+        this.dbColumnFamilyProfiles = PendulumUtils.splitStringToImmutableList(dbColumnFamilyProfiles, ";");
+    }
+
+    @Override
+    public String getDbCacheType() {
+        return dbCacheType;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-cache-type"}, description = DbConfig.Descriptions.DB_CACHE_TYPE)
+    protected void setDbCacheType(String dbCacheType) {
+        this.dbCacheType = dbCacheType;
+    }
+
+    @Override
+    public int getDbCacheShardBits() {
+        return dbCacheShardBits;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-cache-shard-bits"}, description = DbConfig.Descriptions.DB_CACHE_SHARD_BITS)
+    protected void setDbCacheShardBits(int dbCacheShardBits) {
+        this.dbCacheShardBits = dbCacheShardBits;
+    }
+
+    @Override
+    public int getDbRowCacheSize() {
+        return dbRowCacheSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-row-cache-size"}, description = DbConfig.Descriptions.DB_ROW_CACHE_SIZE)
+    protected void setDbRowCacheSize(int dbRowCacheSize) {
+        this.dbRowCacheSize = dbRowCacheSize;
+    }
+
+    @Override
+    public int getDbTransactionCacheSize() {
+        return dbTransactionCacheSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-transaction-cache-size"}, description = DbConfig.Descriptions.DB_TRANSACTION_CACHE_SIZE)
+    protected void setDbTransactionCacheSize(int dbTransactionCacheSize) {
+        this.dbTransactionCacheSize = dbTransactionCacheSize;
+    }
+
+    @Override
+    public int getDbRoundCacheSize() {
+        return dbRoundCacheSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-round-cache-size"}, description = DbConfig.Descriptions.DB_ROUND_CACHE_SIZE)
+    protected void setDbRoundCacheSize(int dbRoundCacheSize) {
+        this.dbRoundCacheSize = dbRoundCacheSize;
+    }
+
+    @Override
+    public boolean isDbArrivalTimeIndex() {
+        return dbArrivalTimeIndex;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-arrival-time-index"}, description = DbConfig.Descriptions.DB_ARRIVAL_TIME_INDEX,
+            arity = 1)
+    protected void setDbArrivalTimeIndex(boolean dbArrivalTimeIndex) {
+        this.dbArrivalTimeIndex = dbArrivalTimeIndex;
+    }
+
+    @Override
+    public int getDbIoThreads() {
+        return dbIoThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-io-threads"}, description = DbConfig.Descriptions.DB_IO_THREADS)
+    protected void setDbIoThreads(int dbIoThreads) {
+        this.dbIoThreads = dbIoThreads;
+    }
+
+    @Override
+    public int getDbIoQueueSize() {
+        return dbIoQueueSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-io-queue-size"}, description = DbConfig.Descriptions.DB_IO_QUEUE_SIZE)
+    protected void setDbIoQueueSize(int dbIoQueueSize) {
+        this.dbIoQueueSize = dbIoQueueSize;
+    }
+
+    @Override
+    public String getDbCheckpointPath() {
+        return dbCheckpointPath;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-checkpoint-path"}, description = DbConfig.Descriptions.DB_CHECKPOINT_PATH)
+    protected void setDbCheckpointPath(String dbCheckpointPath) {
+        this.dbCheckpointPath = dbCheckpointPath;
+    }
+
+    @Override
+    public int getDbCheckpointInterval() {
+        return dbCheckpointInterval;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-checkpoint-interval"}, description = DbConfig.Descriptions.DB_CHECKPOINT_INTERVAL)
+    protected void setDbCheckpointInterval(int dbCheckpointInterval) {
+        this.dbCheckpointInterval = dbCheckpointInterval;
+    }
+
+    @Override
+    public int getDbCheckpointRetention() {
+        return dbCheckpointRetention;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-checkpoint-retention"}, description = DbConfig.Descriptions.DB_CHECKPOINT_RETENTION)
+    protected void setDbCheckpointRetention(int dbCheckpointRetention) {
+        this.dbCheckpointRetention = dbCheckpointRetention;
+    }
+
+    @Override
+    public boolean isDbCheckpointAfterLocalSnapshot() {
+        return dbCheckpointAfterLocalSnapshot;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-checkpoint-after-local-snapshot"}, description =
+            DbConfig.Descriptions.DB_CHECKPOINT_AFTER_LOCAL_SNAPSHOT, arity = 1)
+    protected void setDbCheckpointAfterLocalSnapshot(boolean dbCheckpointAfterLocalSnapshot) {
+        this.dbCheckpointAfterLocalSnapshot = dbCheckpointAfterLocalSnapshot;
+    }
+
+    @Override
+    public String getDbRestoreCheckpoint() {
+        return dbRestoreCheckpoint;
+    }
+
+    @JsonProperty
+    @Parameter(names = {"--db-restore-checkpoint"}, description = DbConfig.Descriptions.DB_RESTORE_CHECKPOINT)
+    protected void setDbRestoreCheckpoint(String dbRestoreCheckpoint) {
+        this.dbRestoreCheckpoint = dbRestoreCheckpoint;
+    }
+
     @Override
     public int getMwm() {
         return Defaults.MWM;
@@ -726,6 +924,28 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         this.qSizeNode = qSizeNode;
     }
 
+    @Override
+    public String getQueueDropPolicy() {
+        return queueDropPolicy;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--queue-drop-policy", description = NetworkConfig.Descriptions.Q_DROP_POLICY)
+    protected void setQueueDropPolicy(String queueDropPolicy) {
+        this.queueDropPolicy = queueDropPolicy;
+    }
+
+    @Override
+    public int getReceiveThreads() {
+        return receiveThreads;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--receive-threads", description = NetworkConfig.Descriptions.RECEIVE_THREADS)
+    protected void setReceiveThreads(int receiveThreads) {
+        this.receiveThreads = receiveThreads;
+    }
+
     @Override
     public double getpDropCacheEntry() {
         return pDropCacheEntry;
@@ -748,6 +968,28 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         this.cacheSizeBytes = cacheSizeBytes;
     }
 
+    @Override
+    public int getGroupCommitLatency() {
+        return groupCommitLatency;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--group-commit-latency", description = NetworkConfig.Descriptions.GROUP_COMMIT_LATENCY)
+    protected void setGroupCommitLatency(int groupCommitLatency) {
+        this.groupCommitLatency = groupCommitLatency;
+    }
+
+    @Override
+    public int getGroupCommitBatchSize() {
+        return groupCommitBatchSize;
+    }
+
+    @JsonProperty
+    @Parameter(names = "--group-commit-batch-size", description = NetworkConfig.Descriptions.GROUP_COMMIT_BATCH_SIZE)
+    protected void setGroupCommitBatchSize(int groupCommitBatchSize) {
+        this.groupCommitBatchSize = groupCommitBatchSize;
+    }
+
     @Override
     public int getMaxDepth() {
         return maxDepth;
@@ -956,7 +1198,9 @@ public abstract class BasePendulumConfig implements PendulumConfig {
 
         //Network
         int UDP_RECEIVER_PORT = 4100;
+        int UDP_RECEIVER_THREADS = 2;
         int TCP_RECEIVER_PORT = 5100;
+        int TCP_REPLICATOR_THREADS = 2;
         double P_REMOVE_REQUEST = 0.01d;
         int SEND_LIMIT = -1;
         int MAX_PEERS = 0;
@@ -973,6 +1217,19 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         String ROCKS_DB = "rocksdb";
         boolean REVALIDATE = false;
         boolean RESCAN_DB = false;
+        List<String> DB_COLUMN_FAMILY_PROFILES = PendulumUtils.createImmutableList();
+        String DB_CACHE_TYPE = "lru";
+        int DB_CACHE_SHARD_BITS = 6;
+        int DB_ROW_CACHE_SIZE = 0;
+        int DB_TRANSACTION_CACHE_SIZE = 20_000;
+        int DB_ROUND_CACHE_SIZE = 5_000;
+        boolean DB_ARRIVAL_TIME_INDEX = false;
+        int DB_IO_THREADS = 4;
+        int DB_IO_QUEUE_SIZE = 1000;
+        String DB_CHECKPOINT_PATH = "checkpoints";
+        int DB_CHECKPOINT_INTERVAL = 0;
+        int DB_CHECKPOINT_RETENTION = 3;
+        boolean DB_CHECKPOINT_AFTER_LOCAL_SNAPSHOT = false;
 
         //Protocol
         double P_REPLY_RANDOM_TIP = 0.66d;
@@ -984,8 +1241,12 @@ public abstract class BasePendulumConfig implements PendulumConfig {
         int PACKET_SIZE = 800;
         int REQ_HASH_SIZE = 32;
         int QUEUE_SIZE = 1_000;
+        String QUEUE_DROP_POLICY = "drop-oldest";
+        int RECEIVE_THREADS = 4;
         double P_DROP_CACHE_ENTRY = 0.02d;
         int CACHE_SIZE_BYTES = 150_000;
+        int GROUP_COMMIT_LATENCY = 5;
+        int GROUP_COMMIT_BATCH_SIZE = 500;
 
         //Zmq
         int ZMQ_THREADS = 1;
@@ -1,5 +1,7 @@
 package net.helix.pendulum.conf;
 
+import java.util.List;
+
 public interface DbConfig extends Config {
     /**
      * @return Descriptions#DB_PATH
@@ -31,14 +33,114 @@ public interface DbConfig extends Config {
      */
     boolean isRescanDb();
 
+    /**
+     * @return {@value Descriptions#DB_COLUMN_FAMILY_PROFILES}
+     */
+    List<String> getDbColumnFamilyProfiles();
+
+    /**
+     * @return {@value Descriptions#DB_CACHE_TYPE}
+     */
+    String getDbCacheType();
+
+    /**
+     * @return {@value Descriptions#DB_CACHE_SHARD_BITS}
+     */
+    int getDbCacheShardBits();
+
+    /**
+     * @return {@value Descriptions#DB_ROW_CACHE_SIZE}
+     */
+    int getDbRowCacheSize();
+
+    /**
+     * @return {@value Descriptions#DB_TRANSACTION_CACHE_SIZE}
+     */
+    int getDbTransactionCacheSize();
+
+    /**
+     * @return {@value Descriptions#DB_ROUND_CACHE_SIZE}
+     */
+    int getDbRoundCacheSize();
+
+    /**
+     * @return {@value Descriptions#DB_ARRIVAL_TIME_INDEX}
+     */
+    boolean isDbArrivalTimeIndex();
+
+    /**
+     * @return {@value Descriptions#DB_IO_THREADS}
+     */
+    int getDbIoThreads();
+
+    /**
+     * @return {@value Descriptions#DB_IO_QUEUE_SIZE}
+     */
+    int getDbIoQueueSize();
+
+    /**
+     * @return {@value Descriptions#DB_CHECKPOINT_PATH}
+     */
+    String getDbCheckpointPath();
+
+    /**
+     * @return {@value Descriptions#DB_CHECKPOINT_INTERVAL}
+     */
+    int getDbCheckpointInterval();
+
+    /**
+     * @return {@value Descriptions#DB_CHECKPOINT_RETENTION}
+     */
+    int getDbCheckpointRetention();
+
+    /**
+     * @return {@value Descriptions#DB_CHECKPOINT_AFTER_LOCAL_SNAPSHOT}
+     */
+    boolean isDbCheckpointAfterLocalSnapshot();
+
+    /**
+     * @return {@value Descriptions#DB_RESTORE_CHECKPOINT}
+     */
+    String getDbRestoreCheckpoint();
+
     interface Descriptions {
 
         String DB_PATH = "The folder where the DB saves its data.";
         String DB_LOG_PATH = "The folder where the DB logs info";
         String DB_CACHE_SIZE = "The size of the DB cache in KB";
-        String MAIN_DB = "The DB engine used to store the transactions. Currently only RocksDB is supported.";
+        String MAIN_DB = "The DB engine used to store the transactions: rocksdb or memory. The memory engine keeps " +
+                "all data on the heap and loses it on shutdown, it is meant for tests, benchmarks and ephemeral nodes.";
         String REVALIDATE = "Reload from the db data about confirmed transaction (milestones), state of the ledger, " +
                 "and transaction metadata.";
         String RESCAN_DB = "Rescan all transaction metadata (Approvees, Bundles, and Tags)";
+        String DB_COLUMN_FAMILY_PROFILES = "Overrides of the built-in RocksDB tuning of single column families, " +
+                "separated by ';'. Each override has the form <column family>:<option>=<value>[,<option>=<value>]. " +
+                "Options: writeBufferSize, maxWriteBufferNumber, compactionStyle, compression, blockSize, bloomBits, " +
+                "prefixLength, pointLookup.";
+        String DB_CACHE_TYPE = "The implementation of the block cache shared by all column families: lru or clock. " +
+                "The clock cache requires a RocksDB build with TBB support.";
+        String DB_CACHE_SHARD_BITS = "The block cache is split into 2^n shards, each guarded by its own mutex. " +
+                "Raise it on machines with many cores to reduce lock contention.";
+        String DB_ROW_CACHE_SIZE = "The size of the DB row cache in KB, which caches single values of point lookups. " +
+                "0 disables the row cache.";
+        String DB_TRANSACTION_CACHE_SIZE = "The number of parsed transactions kept in memory in front of the DB. " +
+                "0 disables the transaction cache.";
+        String DB_ROUND_CACHE_SIZE = "The number of rounds kept in memory in front of the DB. The latest rounds are " +
+                "kept in a fixed window, older ones are evicted when they were not used recently. 0 disables the " +
+                "round cache.";
+        String DB_ARRIVAL_TIME_INDEX = "Index transactions by their arrival time, so recently arrived transactions " +
+                "can be read with a range scan instead of a traversal of the tangle.";
+        String DB_IO_THREADS = "The number of threads that run asynchronous DB operations, like the lookups of " +
+                "transactions requested by neighbors. 0 runs all DB operations on the calling threads.";
+        String DB_IO_QUEUE_SIZE = "The maximum number of asynchronous DB operations waiting for a thread. Once it is " +
+                "reached, callers run their operations themselves.";
+        String DB_CHECKPOINT_PATH = "The folder where checkpoints of the DB are created. Checkpoints hard link the " +
+                "immutable files of the DB, so they only take space for data that was written since.";
+        String DB_CHECKPOINT_INTERVAL = "The interval in minutes in which a checkpoint of the DB is created. " +
+                "0 disables periodic checkpoints.";
+        String DB_CHECKPOINT_RETENTION = "The number of checkpoints that are kept, older ones are deleted.";
+        String DB_CHECKPOINT_AFTER_LOCAL_SNAPSHOT = "Create a checkpoint of the DB after every local snapshot.";
+        String DB_RESTORE_CHECKPOINT = "A checkpoint folder the node is started from. Its DB and local snapshot " +
+                "files replace the ones of the node before it starts.";
     }
 }
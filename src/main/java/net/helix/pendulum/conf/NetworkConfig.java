@@ -11,10 +11,18 @@ public interface NetworkConfig extends Config {
      * @return Descriptions#UDP_RECEIVER_PORT
      */
     int getUdpReceiverPort();
+    /**
+     * @return Descriptions#UDP_RECEIVER_THREADS
+     */
+    int getUdpReceiverThreads();
     /**
      * @return Descriptions#TCP_RECEIVER_PORT
      */
     int getTcpReceiverPort();
+    /**
+     * @return Descriptions#TCP_REPLICATOR_THREADS
+     */
+    int getTcpReplicatorThreads();
     /**
      * @return Descriptions#P_REMOVE_REQUEST
      */
@@ -43,6 +51,14 @@ public interface NetworkConfig extends Config {
      * @return Descriptions#Q_SIZE_NODE
      */
     int getqSizeNode();
+    /**
+     * @return Descriptions#Q_DROP_POLICY
+     */
+    String getQueueDropPolicy();
+    /**
+     * @return Descriptions#RECEIVE_THREADS
+     */
+    int getReceiveThreads();
     /**
      * @return Descriptions#P_DROP_CACHE_ENTRY
      */
@@ -51,10 +67,21 @@ public interface NetworkConfig extends Config {
      * @return Descriptions#CACHE_SIZE_BYTES
      */
     int getCacheSizeBytes();
+    /**
+     * @return Descriptions#GROUP_COMMIT_LATENCY
+     */
+    int getGroupCommitLatency();
+    /**
+     * @return Descriptions#GROUP_COMMIT_BATCH_SIZE
+     */
+    int getGroupCommitBatchSize();
 
     interface Descriptions {
         String UDP_RECEIVER_PORT = "The UDP Receiver Port.";
+        String UDP_RECEIVER_THREADS = "The number of threads that read and validate the packets received over UDP.";
         String TCP_RECEIVER_PORT = "The TCP Receiver Port.";
+        String TCP_REPLICATOR_THREADS = "The number of threads that read and write the TCP connections of all " +
+                "neighbors.";
         String P_REMOVE_REQUEST = DescriptionHelper.PROB_OF + " stopping to request a transaction. This number should be " +
                 "closer to 0 so non-existing transaction hashes will eventually be removed.";
         String SEND_LIMIT = "The maximum number of packets that may be sent by this node in a 1 second interval. If this number is below 0 then there is no limit.";
@@ -63,7 +90,15 @@ public interface NetworkConfig extends Config {
         String DNS_RESOLUTION_ENABLED = "Enable using DNS for neighbor peering.";
         String NEIGHBORS = "Urls of peer nodes.";
         String Q_SIZE_NODE = "The size of the REPLY, BROADCAST, and RECEIVE network queues.";
+        String Q_DROP_POLICY = "What the network queues drop when they are full: drop-newest rejects new " +
+                "transactions, drop-oldest removes the oldest queued one and random-early-drop rejects new transactions " +
+                "with a growing probability once a queue is half full.";
+        String RECEIVE_THREADS = "The number of threads that store received transactions. Every thread processes " +
+                "its own share of the transaction hashes, so a transaction is never processed by two threads at once.";
         String P_DROP_CACHE_ENTRY = DescriptionHelper.PROB_OF + "dropping recently seen transactions out of the network cache.";
         String CACHE_SIZE_BYTES = "The size of the network cache in bytes";
+        String GROUP_COMMIT_LATENCY = "The maximum time in milliseconds a received transaction waits until it is " +
+                "written to the DB together with other received transactions. 0 stores every transaction on its own.";
+        String GROUP_COMMIT_BATCH_SIZE = "The maximum number of received transactions written to the DB in one batch.";
     }
 }
@@ -8,6 +8,7 @@ import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.storage.Tangle;
 import net.helix.pendulum.utils.Pair;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -51,6 +52,29 @@ public class AddressViewModel implements HashesViewModel {
         return new AddressViewModel((Address) tangle.load(Address.class, hash), hash);
     }
 
+    /**
+    * Iterate the transaction hashes belonging to an address straight from the database, loading only
+    * {@link Tangle#PAGE_SIZE} of them into memory at a time.
+    * @param tangle
+    * @param hash address hash
+    * @return <code> Iterable<Hash> </code> transaction hashes ordered by hash
+    */
+    public static Iterable<Hash> iterate(Tangle tangle, Indexable hash) throws Exception {
+        return tangle.iterateHashes(Address.class, hash);
+    }
+
+    /**
+    * Load a page of the transaction hashes belonging to an address, ordered by hash.
+    * @param tangle
+    * @param hash address hash
+    * @param after the last transaction hash of the previous page, <code> null </code> for the first page
+    * @param limit maximum number of transaction hashes to load
+    * @return <code> List<Hash> </code> transaction hashes, empty if there are no more
+    */
+    public static List<Hash> loadPage(Tangle tangle, Indexable hash, Hash after, int limit) throws Exception {
+        return tangle.loadPage(Address.class, hash, after, limit);
+    }
+
     /**
     * Store the address hash + belonging transaction hashes in the database.
     * @param tangle
@@ -9,6 +9,7 @@ import net.helix.pendulum.storage.Tangle;
 import net.helix.pendulum.utils.Pair;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -53,6 +54,29 @@ public class BundleViewModel implements HashesViewModel {
         return new BundleViewModel((Bundle) tangle.load(Bundle.class, hash), hash);
     }
 
+    /**
+    * Iterate the transaction hashes belonging to a bundle straight from the database, loading only
+    * {@link Tangle#PAGE_SIZE} of them into memory at a time.
+    * @param tangle
+    * @param hash bundle hash
+    * @return <code> Iterable<Hash> </code> transaction hashes ordered by hash
+    */
+    public static Iterable<Hash> iterate(Tangle tangle, Indexable hash) throws Exception {
+        return tangle.iterateHashes(Bundle.class, hash);
+    }
+
+    /**
+    * Load a page of the transaction hashes belonging to a bundle, ordered by hash.
+    * @param tangle
+    * @param hash bundle hash
+    * @param after the last transaction hash of the previous page, <code> null </code> for the first page
+    * @param limit maximum number of transaction hashes to load
+    * @return <code> List<Hash> </code> transaction hashes, empty if there are no more
+    */
+    public static List<Hash> loadPage(Tangle tangle, Indexable hash, Hash after, int limit) throws Exception {
+        return tangle.loadPage(Bundle.class, hash, after, limit);
+    }
+
     /**
     * Convert a transaction set hash into the bundle model.
     * @param hash transaction hash
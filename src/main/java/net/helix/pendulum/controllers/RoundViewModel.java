@@ -9,6 +9,7 @@ import net.helix.pendulum.model.persistables.Round;
 import net.helix.pendulum.service.milestone.MilestoneTracker;
 import net.helix.pendulum.storage.Indexable;
 import net.helix.pendulum.storage.Persistable;
+import net.helix.pendulum.storage.RoundCache;
 import net.helix.pendulum.storage.Tangle;
 import net.helix.pendulum.utils.Pair;
 import net.helix.pendulum.utils.Serializer;
@@ -21,7 +22,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -33,17 +33,21 @@ public class RoundViewModel {
     //todo might be nice to have direct access of confirmedTips and confirming Milestones
     //private final Set<Hash> confirmedTips = new HashSet<>();
     //private final Set<Hash> confirmingMilestones = new HashSet<>();
-    private static final Map<Integer, RoundViewModel> rounds = new ConcurrentHashMap<>();
 
     private RoundViewModel(final Round round) {
         this.round = round;
     }
 
     /**
-     * Removes the contents of the stored {@link Round} object set.
+     * Removes all cached {@link Round} objects of a tangle.
+     *
+     * @param tangle the tangle whose round cache is cleared
      */
-    public static void clear() {
-        rounds.clear();
+    public static void clear(Tangle tangle) {
+        RoundCache roundCache = tangle.getRoundCache();
+        if (roundCache != null) {
+            roundCache.clear();
+        }
     }
 
     /**
@@ -52,10 +56,14 @@ public class RoundViewModel {
      * It is used by the {@link net.helix.pendulum.service.transactionpruning.TransactionPruner} to remove rounds that
      * were deleted in the database, so that the runtime environment correctly reflects the database state.
      *
+     * @param tangle the tangle whose round cache is updated
      * @param index the index of the round
      */
-    public static void clear(int index) {
-        rounds.remove(index);
+    public static void clear(Tangle tangle, int index) {
+        RoundCache roundCache = tangle.getRoundCache();
+        if (roundCache != null) {
+            roundCache.invalidate(index);
+        }
     }
 
     /**
@@ -72,9 +80,9 @@ public class RoundViewModel {
     }
 
     /**
-     * Fetches an existing {@link RoundViewModel} if its index reference can be found in the controller. If the
-     * {@link RoundViewModel} is null, but the indexed {@link Round} object exists in the database, a new
-     * controller is created for the {@link Round} object.
+     * Fetches an existing {@link RoundViewModel} if its index reference can be found in the round cache of the tangle.
+     * If the {@link Round} is not cached, but the indexed {@link Round} object exists in the database, it is loaded and
+     * cached. Controllers of the same cached round share its {@link Round} object.
      *
      * @param tangle The tangle reference for the database
      * @param index The integer index of the {@link Round} object that the controller should be returned for
@@ -82,11 +90,18 @@ public class RoundViewModel {
      * @throws Exception Thrown if the database fails to load the indexed {@link Round} object
      */
     public static RoundViewModel get(Tangle tangle, int index) throws Exception {
-        RoundViewModel roundViewModel = rounds.get(index);
-        if(roundViewModel == null && load(tangle, index)) {
-            roundViewModel = rounds.get(index);
+        RoundCache roundCache = tangle.getRoundCache();
+        Round round = roundCache == null ? null : roundCache.get(index);
+        if (round == null) {
+            round = loadRound(tangle, index);
+            if (round == null) {
+                return null;
+            }
+            if (roundCache != null) {
+                round = roundCache.putIfAbsent(round);
+            }
         }
-        return roundViewModel;
+        return new RoundViewModel(round);
     }
 
     public static TransactionViewModel getMilestone(Tangle tangle, int index, Hash address) throws Exception {
@@ -103,7 +118,7 @@ public class RoundViewModel {
     /**
      * Fetches a {@link Round} object from the database using its integer index. If the {@link Round} and the
      * associated {@link Hash} identifier are not null, a new {@link RoundViewModel} is created for the
-     * {@link Round} object, and it is placed into the <tt>Milestones</tt> set, indexed by the provided integer
+     * {@link Round} object, and it is placed into the round cache of the tangle, indexed by the provided integer
      * index.
      *
      * @param tangle The tangle reference for the database
@@ -112,13 +127,21 @@ public class RoundViewModel {
      * @throws Exception Thrown if the database fails to load the {@link Round} object
      */
     public static boolean load(Tangle tangle, int index) throws Exception {
+        Round round = loadRound(tangle, index);
+        if (round == null) {
+            return false;
+        }
+        RoundCache roundCache = tangle.getRoundCache();
+        if (roundCache != null) {
+            roundCache.putIfAbsent(round);
+        }
+        return true;
+    }
+
+    private static Round loadRound(Tangle tangle, int index) throws Exception {
         Round round = (Round) tangle.load(Round.class, new IntegerIndex(index));
         // todo didn't really get this, because tangle.load never returns null
-        if (round != null && round.index != null) {
-            rounds.put(index, new RoundViewModel(round));
-            return true;
-        }
-        return false;
+        return round != null && round.index != null ? round : null;
     }
 
     /**
@@ -251,13 +274,13 @@ public class RoundViewModel {
             // add previous milestones to non analyzed transactions
             RoundViewModel prevMilestone = RoundViewModel.get(tangle, round-1);
             if (prevMilestone == null) {
-                if (transaction.getBranchTransactionHash().equals(Hash.NULL_HASH)) {
+                if (transaction.getView().branchEquals(Hash.NULL_HASH)) {
                     trunk.add(Hash.NULL_HASH);
                 }
             } else {
                 Set<Hash> prevMilestones = prevMilestone.getHashes();
                 List<List<Hash>> merkleTree = Merkle.buildMerkleTree(new ArrayList<>(prevMilestones));
-                if (transaction.getTrunkTransactionHash().equals(merkleTree.get(merkleTree.size() - 1).get(0))) {
+                if (transaction.getView().trunkEquals(merkleTree.get(merkleTree.size() - 1).get(0))) {
                     //System.out.println("trunk (prev. milestones): ");
                     if (prevMilestones.isEmpty()) {
                         trunk.add(Hash.NULL_HASH);
@@ -289,7 +312,7 @@ public class RoundViewModel {
             List<List<Hash>> merkleTree = Merkle.buildMerkleTree(new ArrayList<>(confirmedTips));
             //System.out.println("merkleRoot: " + transaction.getBranchTransactionHash().hexString());
             //System.out.println("recalculated merkleRoot: " + merkleTree.get(merkleTree.size()-1).get(0).hexString());
-            if (transaction.getBranchTransactionHash().equals(merkleTree.get(merkleTree.size()-1).get(0))) {
+            if (transaction.getView().branchEquals(merkleTree.get(merkleTree.size()-1).get(0))) {
                 //System.out.println("branch (tips): ");
                 if (confirmedTips.isEmpty()){
                     branch.add(Hash.NULL_HASH);
@@ -304,13 +327,13 @@ public class RoundViewModel {
             // add previous milestones to non analyzed transactions
             RoundViewModel prevMilestone = RoundViewModel.get(tangle, round-1);
             if (prevMilestone == null) {
-                if (transaction.getBranchTransactionHash().equals(Hash.NULL_HASH)) {
+                if (transaction.getView().branchEquals(Hash.NULL_HASH)) {
                     branch.add(Hash.NULL_HASH);
                 }
             } else {
                 Set<Hash> prevMilestones = prevMilestone.getHashes();
                 List<List<Hash>> merkleTree = Merkle.buildMerkleTree(new ArrayList<>(prevMilestones));
-                if (transaction.getBranchTransactionHash().equals(merkleTree.get(merkleTree.size() - 1).get(0))) {
+                if (transaction.getView().branchEquals(merkleTree.get(merkleTree.size() - 1).get(0))) {
                     //System.out.println("branch (prev. milestones): ");
                     if (prevMilestones.isEmpty()) {
                         branch.add(Hash.NULL_HASH);
@@ -332,9 +355,8 @@ public class RoundViewModel {
         BundleViewModel bundle = BundleViewModel.load(tangle, milestoneTx.getBundleHash());
         Set<Hash> tips = new HashSet<>();
 
-        for (Hash bundleTxHash : bundle.getHashes()) {
+        for (TransactionViewModel bundleTx : TransactionViewModel.fromHashes(tangle, new ArrayList<>(bundle.getHashes()))) {
 
-            TransactionViewModel bundleTx = TransactionViewModel.fromHash(tangle, bundleTxHash);
             if ((bundleTx.getCurrentIndex() > security)) {
 
                 for (int i = 0; i < 16; i++) {
@@ -446,7 +468,6 @@ public class RoundViewModel {
      */
     public void delete(Tangle tangle) throws Exception {
         tangle.delete(Round.class, round.index);
-        clear(round.index.getValue());
     }
 
     /**
@@ -66,6 +66,7 @@ public class TransactionViewModel {
     private ApproveeViewModel approovers;
     private TransactionViewModel trunk;
     private TransactionViewModel branch;
+    private TransactionView view;
     private final Hash hash;
 
 
@@ -99,6 +100,23 @@ public class TransactionViewModel {
         return transactionViewModel;
     }
 
+    /**
+    * Find the transaction with the lowest hash that starts with the given bytes. Uses @see #Tangle.findByPrefix(Class<?>, byte[]),
+    * which stops at the first match.
+    * @param tangle
+    * @param prefix the first bytes of the transaction hash
+    * @return <code>TransactionViewModel</code> of the transaction or <code>null</code> if no hash starts with the prefix
+    */
+    public static TransactionViewModel findByPrefix(Tangle tangle, byte[] prefix) throws Exception {
+        Pair<Indexable, Persistable> found = tangle.findByPrefix(Transaction.class, prefix);
+        if (found.low == null) {
+            return null;
+        }
+        TransactionViewModel transactionViewModel = new TransactionViewModel((Transaction) found.hi, (Hash) found.low);
+        fillMetadata(tangle, transactionViewModel);
+        return transactionViewModel;
+    }
+
     /**
     * Get TransactionViewModel of a given transaction hash. Uses @see #Tangle.load(Class<?>, Indexable)
     * @param tangle
@@ -111,6 +129,25 @@ public class TransactionViewModel {
         return transactionViewModel;
     }
 
+    /**
+    * Get the TransactionViewModels of several transaction hashes at once. Uses @see #Tangle.loadBatch(Class<?>, List),
+    * which loads all transactions with a single database lookup.
+    * @param tangle
+    * @param hashes transaction hashes
+    * @return <code>List<TransactionViewModel></code> of the transactions in the order of the hashes
+    */
+    public static List<TransactionViewModel> fromHashes(Tangle tangle, final List<Hash> hashes) throws Exception {
+        List<Persistable> transactions = tangle.loadBatch(Transaction.class, hashes);
+        List<TransactionViewModel> transactionViewModels = new ArrayList<>(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            TransactionViewModel transactionViewModel = new TransactionViewModel((Transaction) transactions.get(i),
+                    hashes.get(i));
+            fillMetadata(tangle, transactionViewModel);
+            transactionViewModels.add(transactionViewModel);
+        }
+        return transactionViewModels;
+    }
+
     /**
     * Get TransactionViewModel of a given transaction hash. Uses @see #Tangle.maybeHas(Class<?>, Indexable),
     * which checks the possible existence of an entry in the database.
@@ -262,6 +299,101 @@ public class TransactionViewModel {
         return hashesList;
     }
 
+    /**
+     * Same as {@link #getSaveBatch()}, but also adds the entries of the optional indexes the tangle maintains, like
+     * the arrival time index (@see Tangle#isArrivalTimeIndexed()). Transactions without an arrival time are not
+     * added to the arrival time index.
+     *
+     * @param tangle the tangle the batch is saved to
+     * @return the models to save with their keys
+     * @throws Exception if the batch could not be built
+     */
+    public List<Pair<Indexable, Persistable>> getSaveBatch(Tangle tangle) throws Exception {
+        List<Pair<Indexable, Persistable>> hashesList = getSaveBatch();
+        if (tangle.isArrivalTimeIndexed() && getArrivalTime() > 0) {
+            hashesList.add(new Pair<>(new LongIndex(getArrivalTime()), new ArrivalTime(hash)));
+        }
+        return hashesList;
+    }
+
+    /**
+     * Lists the keys that {@link #getSaveBatch(Tangle)} stores for the transaction itself and for the optional indexes,
+     * so the transaction can be pruned without leaving entries of the indexes behind. The entries of the sets that
+     * reference the transaction, like its bundle, are not included.
+     *
+     * @param tangle the tangle the transaction is deleted from
+     * @return the keys to delete with their models
+     */
+    public List<Pair<Indexable, ? extends Class<? extends Persistable>>> getDeleteBatch(Tangle tangle) {
+        List<Pair<Indexable, ? extends Class<? extends Persistable>>> deleteBatch = new ArrayList<>();
+        deleteBatch.add(new Pair<>(hash, Transaction.class));
+        if (tangle.isArrivalTimeIndexed() && getArrivalTime() > 0) {
+            deleteBatch.add(new Pair<>(new ElementIndex(new LongIndex(getArrivalTime()), hash), ArrivalTime.class));
+        }
+        return deleteBatch;
+    }
+
+    /**
+     * Loads the hashes of the transactions that arrived in a time window, in the order of their arrival, with range
+     * scans of the arrival time index (@see Tangle#isArrivalTimeIndexed()). The index entries of pruned transactions
+     * are removed together with the transactions (@see #getDeleteBatch(Tangle)).
+     *
+     * @param tangle the tangle reference for the database
+     * @param from the first arrival time of the window in seconds
+     * @param to the end of the window in seconds, which is not included
+     * @param limit the maximum number of hashes to load
+     * @return up to {@code limit} hashes ordered by arrival time
+     * @throws Exception if the index could not be read
+     */
+    public static List<Hash> arrivedBetween(Tangle tangle, long from, long to, int limit) throws Exception {
+        List<Hash> hashes = new ArrayList<>();
+        if (limit > 0) {
+            forEachArrivedBetween(tangle, from, to, hash -> hashes.add(hash) && hashes.size() < limit);
+        }
+        return hashes;
+    }
+
+    /**
+     * Visits the hashes of the transactions that arrived in a time window like {@link #arrivedBetween}, but only
+     * keeps one page of the index in memory.
+     *
+     * @param tangle the tangle reference for the database
+     * @param from the first arrival time of the window in seconds
+     * @param to the end of the window in seconds, which is not included
+     * @param visitor receives the hashes in the order of their arrival
+     * @throws Exception if the index could not be read or the visitor failed
+     */
+    public static void forEachArrivedBetween(Tangle tangle, long from, long to, HashVisitor visitor)
+            throws Exception {
+        Indexable start = new LongIndex(from);
+        Hash after = null;
+        List<Pair<Indexable, Hash>> page;
+        while (!(page = tangle.getRange(ArrivalTime.class, start, after, new LongIndex(to), Tangle.PAGE_SIZE))
+                .isEmpty()) {
+            for (Pair<Indexable, Hash> entry : page) {
+                if (!visitor.visit(entry.hi)) {
+                    return;
+                }
+            }
+            Pair<Indexable, Hash> last = page.get(page.size() - 1);
+            start = last.low;
+            after = last.hi;
+        }
+    }
+
+    /**
+     * Receives the hashes visited by {@link #forEachArrivedBetween}.
+     */
+    @FunctionalInterface
+    public interface HashVisitor {
+        /**
+         * @param hash the visited hash
+         * @return <code>false</code> to stop visiting
+         * @throws Exception if the hash could not be processed
+         */
+        boolean visit(Hash hash) throws Exception;
+    }
+
     /**
     * Get first transaction entry from database.
     * @param tangle
@@ -307,7 +439,7 @@ public class TransactionViewModel {
             return false;
         }
 
-        List<Pair<Indexable, Persistable>> batch = getSaveBatch();
+        List<Pair<Indexable, Persistable>> batch = getSaveBatch(tangle);
         if (exists(tangle, hash)) {
             return false;
         }
@@ -390,6 +522,19 @@ public class TransactionViewModel {
         return hash;
     }
 
+    /**
+     * Gets a {@link TransactionView} of the bytes of the {@link Transaction}, which decodes fields on demand and
+     * compares hash fields in place, without creating and caching {@link Hash} objects like the getters of this class.
+     *
+     * @return The view of the transaction bytes
+     */
+    public TransactionView getView() {
+        if (view == null) {
+            view = TransactionView.of(getBytes());
+        }
+        return view;
+    }
+
     /**
      * Gets the {@link AddressViewModel} associated with this {@link Transaction}.
      *
@@ -6,83 +6,93 @@ import net.helix.pendulum.utils.Converter;
 import org.bouncycastle.util.encoders.Hex;
 
 import java.io.Serializable;
-import java.util.Arrays;
 
 
 /**
  * Base implementation of a hash object.
+ *
+ * <p>
+ *     Hashes are immutable values of up to {@value Hash#SIZE_IN_BYTES} bytes, which are stored in four big-endian
+ *     <code>long</code> words next to their cached hash code. This keeps the millions of hashes held in sets and maps
+ *     free of any further objects and lets {@link #equals(Object)} compare four words instead of a byte array.
+ * </p>
  */
 @SuppressWarnings("ALL")
 public abstract class AbstractHash implements Hash, Serializable {
 
-    private byte[] data;
-    private Integer hashCode;
-    private final Object lock = new Object();
+    private static final int WORDS = Hash.SIZE_IN_BYTES / Long.BYTES;
 
-    /**
-     * Empty Constructor for a placeholder hash identifier object. Creates a hash identifier object with no properties.
-     */
-    public AbstractHash() {
-    }
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final int hashCode;
 
     /**
      * Constructor for a hash object using a byte source array.
+     * Source data is cut if it's too long; zeros are added if source data is too short.
      *
      * @param source A byte array containing the source information in byte format
      * @param sourceOffset The offset defining the start point for the hash object in the source
      * @param sourceSize The size of the source information in the byte array
      */
     public AbstractHash(byte[] source, int sourceOffset, int sourceSize) {
-        read(source, sourceOffset, sourceSize);
+        int length = Math.min(getByteSize(), Math.min(source.length, sourceSize));
+        word0 = readWord(source, sourceOffset, length, 0);
+        word1 = readWord(source, sourceOffset, length, 1);
+        word2 = readWord(source, sourceOffset, length, 2);
+        word3 = readWord(source, sourceOffset, length, 3);
+        hashCode = 31 * (31 * (31 * Long.hashCode(word0) + Long.hashCode(word1)) + Long.hashCode(word2))
+                + Long.hashCode(word3);
     }
 
     protected abstract int getByteSize();
 
     /**
-     * Assigns the input byte data to the hash object. Each hash object can only be initialized with data
-     * once. If the byte array is not null, an <tt>IllegalStateException</tt> is thrown.
+     * Hashes are immutable and can only be created by the {@link HashFactory}.
      *
      * @param source A byte array containing the source bytes
-     * @throws IllegalStateException in case bytes are already initialized
+     * @throws UnsupportedOperationException always
      */
     @Override
     public void read(byte[] source) {
-        if (source != null) {
-            synchronized (lock) {
-                if (data != null) {
-                    throw new IllegalStateException("I cannot be initialized with data twice.");
-                }
-                read(source, 0, source.length);
-            }
+        throw new UnsupportedOperationException("Hashes are immutable, please use the HashFactory to create them");
+    }
+
+    private static long readWord(byte[] source, int offset, int length, int word) {
+        long value = 0;
+        for (int i = word * Long.BYTES; i < (word + 1) * Long.BYTES; i++) {
+            value = (value << 8) | (i < length ? source[offset + i] & 0xFF : 0);
         }
+        return value;
     }
 
-    /**
-     * Private method for reading in the byte array.
-     * Source data is cut if it's too long; zeros are added if source data is too short.
-     * 
-     * @param source byte array
-     * @param offset The offset defining the start point for the hash object in the source
-     * @param length The size of the source information in the byte array
-     */
-    private void read(byte[] source, int offset, int length) {
-        data = new byte[getByteSize()];
-        System.arraycopy(source, offset, data, 0, Math.min(data.length, Math.min(source.length, length)));
-        hashCode = Arrays.hashCode(data);
+    @Override
+    public long word(int index) {
+        switch (index) {
+            case 0:
+                return word0;
+            case 1:
+                return word1;
+            case 2:
+                return word2;
+            default:
+                return word3;
+        }
     }
 
     /**
-     * Checks if the hash object is storing a byte array. If there
-     * is no byte array present, a <tt>NullPointerException</tt> will be thrown.
+     * Returns a new copy of the bytes of the hash, so callers may modify it.
      *
-     * @return The stored byte array containing the hash values
+     * @return The byte array containing the hash values
      */
     @Override
     public byte[] bytes() {
-        if (data == null) {
-            throw new NullPointerException("No bytes initialized, please use read(byte[]) to read in the byte array");
+        byte[] bytes = new byte[getByteSize()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (word(i / Long.BYTES) >>> (Long.SIZE - Byte.SIZE * (i % Long.BYTES + 1)));
         }
-        return data;
+        return bytes;
     }
 
     /**
@@ -92,13 +102,18 @@ public abstract class AbstractHash implements Hash, Serializable {
      */
     @Override
     public int trailingZeros() {
-        final byte[] bytes = bytes();
-        int index = getByteSize();
+        int words = (getByteSize() + Long.BYTES - 1) / Long.BYTES;
         int zeros = 0;
-        while (index-- > 0 && bytes[index] == 0) {
-            zeros++;
+        for (int i = words - 1; i >= 0; i--) {
+            long word = word(i);
+            if (word != 0) {
+                zeros += Long.numberOfTrailingZeros(word) / Byte.SIZE;
+                break;
+            }
+            zeros += Long.BYTES;
         }
-        return zeros;
+        // the unused bytes of the last word are zero as well
+        return zeros - (words * Long.BYTES - getByteSize());
     }
 
     /**
@@ -108,14 +123,16 @@ public abstract class AbstractHash implements Hash, Serializable {
      */
     @Override
     public int leadingZeros() {
-        final byte[] bytes = bytes();
-        int index = 0;
         int zeros = 0;
-        while (index < getByteSize() && bytes[index] == 0) {
-            zeros++;
-            index++;
+        for (int i = 0; i < WORDS; i++) {
+            long word = word(i);
+            if (word != 0) {
+                zeros += Long.numberOfLeadingZeros(word) / Byte.SIZE;
+                break;
+            }
+            zeros += Long.BYTES;
         }
-        return zeros;
+        return Math.min(zeros, getByteSize());
     }
 
 
@@ -133,8 +150,9 @@ public abstract class AbstractHash implements Hash, Serializable {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
-        Hash hash = (Hash) o;
-        return Arrays.equals(bytes(), hash.bytes());
+        AbstractHash hash = (AbstractHash) o;
+        return hashCode == hash.hashCode && word0 == hash.word0 && word1 == hash.word1 && word2 == hash.word2
+                && word3 == hash.word3;
     }
 
     /**
@@ -144,7 +162,6 @@ public abstract class AbstractHash implements Hash, Serializable {
      */
     @Override
     public int hashCode() {
-        bytes();
         return hashCode;
     }
 
@@ -180,7 +197,8 @@ public abstract class AbstractHash implements Hash, Serializable {
         if (this.equals(hash)) {
             return 0;
         }
-        long diff = Converter.bytesToLong(hash.bytes(), 0) - Converter.bytesToLong(bytes(), 0);
+        long other = hash instanceof AbstractHash ? ((AbstractHash) hash).word0 : Converter.bytesToLong(hash.bytes(), 0);
+        long diff = other - word0;
         if (Math.abs(diff) > Integer.MAX_VALUE) {
             return diff > 0L ? Integer.MAX_VALUE : Integer.MIN_VALUE + 1;
         }
@@ -2,9 +2,6 @@ package net.helix.pendulum.model;
 
 public class AddressHash extends AbstractHash {
 
-    public AddressHash() {
-    }
-
     protected AddressHash(byte[] bytes, int offset, int sizeInBytes) {
         super(bytes, offset, sizeInBytes);
     }
@@ -2,9 +2,6 @@ package net.helix.pendulum.model;
 
 public class BundleNonceHash extends AbstractHash {
     
-    public BundleNonceHash() {
-    }
-    
     protected BundleNonceHash(byte[] tagBytes, int offset, int tagSizeInBytes) {
         super(tagBytes, offset, tagSizeInBytes);
     }
@@ -0,0 +1,73 @@
+package net.helix.pendulum.model;
+
+import net.helix.pendulum.storage.Indexable;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * The ElementIndex model class is an implementation of the <code> Indexable </code> interface.
+ * It is the key of a single hash of a {@link net.helix.pendulum.storage.PrefixKeyed} set, which consists of the index
+ * of the set followed by the hash, and allows to delete one hash without touching the rest of the set.
+ */
+public class ElementIndex implements Indexable {
+    private byte[] bytes;
+
+    public ElementIndex(Indexable index, Hash hash) {
+        this.bytes = ArrayUtils.addAll(index.bytes(), hash.bytes());
+    }
+
+    public ElementIndex() {}
+
+    @Override
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public Indexable incremented() {
+        return null;
+    }
+
+    @Override
+    public Indexable decremented() {
+        return null;
+    }
+
+    @Override
+    public int compareTo(Indexable o) {
+        byte[] other = o.bytes();
+        int length = Math.min(bytes.length, other.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (bytes[i] & 0xFF) - (other[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return bytes.length - other.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        return Arrays.equals(bytes, ((ElementIndex) obj).bytes);
+    }
+}
@@ -42,4 +42,12 @@ public interface Hash extends Indexable, HashId {
      */
     int leadingZeros();
 
+    /**
+     * The bytes of this hash as big-endian <code>long</code> words, which lets collections store and compare hashes
+     * without copying their bytes. Bytes beyond the size of the hash are zero.
+     * @param index the index of the word, from 0 to 3
+     * @return the word
+     */
+    long word(int index);
+
 }
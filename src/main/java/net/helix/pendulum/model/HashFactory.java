@@ -1,6 +1,7 @@
 package net.helix.pendulum.model;
 
 import net.helix.pendulum.model.persistables.*;
+import net.helix.pendulum.storage.Indexable;
 import net.helix.pendulum.storage.Persistable;
 import org.bouncycastle.util.encoders.Hex;
 import org.slf4j.Logger;
@@ -112,4 +113,31 @@ public enum HashFactory {
             return new TransactionHash(source, sourceOffset, sourceSize);
         }
     }
+
+    /**
+     * Creates an index of the given class from its bytes. Hashes are immutable and created with the factory of their
+     * type, all other indexes are instantiated and read.
+     *
+     * @param indexClass the class of the index
+     * @param bytes the bytes of the index
+     * @return the index
+     * @throws ReflectiveOperationException if the index cannot be instantiated
+     */
+    public static Indexable createIndex(Class<? extends Indexable> indexClass, byte[] bytes)
+            throws ReflectiveOperationException {
+        if (indexClass.equals(TransactionHash.class)) {
+            return TRANSACTION.create(bytes);
+        } else if (indexClass.equals(AddressHash.class)) {
+            return ADDRESS.create(bytes);
+        } else if (indexClass.equals(BundleHash.class)) {
+            return BUNDLE.create(bytes);
+        } else if (indexClass.equals(TagHash.class)) {
+            return TAG.create(bytes);
+        } else if (indexClass.equals(BundleNonceHash.class)) {
+            return BUNDLENONCE.create(bytes);
+        }
+        Indexable index = indexClass.newInstance();
+        index.read(bytes);
+        return index;
+    }
 }
@@ -0,0 +1,67 @@
+package net.helix.pendulum.model;
+
+import net.helix.pendulum.storage.Indexable;
+import net.helix.pendulum.utils.Serializer;
+
+/**
+ * The LongIndex model class is an implementation of the <code> Indexable </code> interface.
+ * It consists of a single <code> long </code> value, which is serialized in big-endian order, so the keys of
+ * non-negative values are ordered like the values themselves.
+ */
+public class LongIndex implements Indexable {
+    private long value;
+
+    public LongIndex(long value) {
+        this.value = value;
+    }
+
+    public LongIndex() {}
+
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return Serializer.serialize(value);
+    }
+
+    @Override
+    public void read(byte[] bytes) {
+        this.value = Serializer.getLong(bytes);
+    }
+
+    @Override
+    public Indexable incremented() {
+        return new LongIndex(value + 1);
+    }
+
+    @Override
+    public Indexable decremented() {
+        return new LongIndex(value - 1);
+    }
+
+    @Override
+    public int compareTo(Indexable o) {
+        return Long.compare(value, ((LongIndex) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        return this.value == ((LongIndex) obj).value;
+    }
+}
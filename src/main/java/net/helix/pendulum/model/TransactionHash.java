@@ -6,9 +6,6 @@ import org.bouncycastle.util.encoders.Hex;
 
 public class TransactionHash extends AbstractHash {
 
-    public TransactionHash() {
-    }
-
     protected TransactionHash(byte[] source, int offset, int sourceSize) {
         super(source, offset, sourceSize);
     }
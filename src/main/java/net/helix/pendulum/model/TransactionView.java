@@ -0,0 +1,195 @@
+package net.helix.pendulum.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static net.helix.pendulum.controllers.TransactionViewModel.ADDRESS_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.ATTACHMENT_TIMESTAMP_LOWER_BOUND_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.ATTACHMENT_TIMESTAMP_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.ATTACHMENT_TIMESTAMP_UPPER_BOUND_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.BRANCH_TRANSACTION_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.BUNDLE_NONCE_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.BUNDLE_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.CURRENT_INDEX_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.LAST_INDEX_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.SIZE;
+import static net.helix.pendulum.controllers.TransactionViewModel.TAG_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.TAG_SIZE;
+import static net.helix.pendulum.controllers.TransactionViewModel.TIMESTAMP_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.TRUNK_TRANSACTION_OFFSET;
+import static net.helix.pendulum.controllers.TransactionViewModel.VALUE_OFFSET;
+
+/**
+ * Flyweight view of the raw {@value net.helix.pendulum.controllers.TransactionViewModel#SIZE} bytes of a transaction
+ * in a heap or direct {@link ByteBuffer}.
+ *
+ * <p>
+ *     Fields are decoded on demand straight from the buffer. Numeric fields and comparisons of the hash fields with a
+ *     given {@link Hash} do not allocate anything, only the getters of hash fields create a new {@link Hash}. A view
+ *     can be moved to another transaction with {@link #wrap(ByteBuffer, int)}, so a single instance can scan many
+ *     transactions, e.g. in a receive buffer. It does not copy the bytes, so it sees changes to the buffer and must not
+ *     be used after the buffer was reused for something else.
+ * </p>
+ * <p>
+ *     Views are not thread-safe while they are being moved.
+ * </p>
+ */
+public final class TransactionView {
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Creates a view that does not point at a transaction yet, @see #wrap(ByteBuffer, int).
+     */
+    public TransactionView() {
+    }
+
+    /**
+     * Creates a view of the transaction bytes of an array.
+     *
+     * @param bytes the transaction bytes
+     * @return the view
+     */
+    public static TransactionView of(byte[] bytes) {
+        return new TransactionView().wrap(ByteBuffer.wrap(bytes), 0);
+    }
+
+    /**
+     * Points the view at the transaction that starts at the given absolute position of a buffer. The position and
+     * limit of the buffer are not used or changed.
+     *
+     * @param buffer the buffer
+     * @param offset the absolute position of the transaction in the buffer
+     * @return this view
+     * @throws IllegalArgumentException if the buffer does not contain a whole transaction at the position
+     */
+    public TransactionView wrap(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset + SIZE > buffer.capacity()) {
+            throw new IllegalArgumentException("the buffer does not contain a transaction at " + offset);
+        }
+        this.buffer = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.offset = offset;
+        return this;
+    }
+
+    public long getValue() {
+        return buffer.getLong(offset + VALUE_OFFSET);
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public long getCurrentIndex() {
+        return buffer.getLong(offset + CURRENT_INDEX_OFFSET);
+    }
+
+    public long getLastIndex() {
+        return buffer.getLong(offset + LAST_INDEX_OFFSET);
+    }
+
+    /**
+     * @return <code>true</code> if the transaction is the first one of its bundle
+     */
+    public boolean isTail() {
+        return getCurrentIndex() == 0;
+    }
+
+    public long getAttachmentTimestamp() {
+        return buffer.getLong(offset + ATTACHMENT_TIMESTAMP_OFFSET);
+    }
+
+    public long getAttachmentTimestampLowerBound() {
+        return buffer.getLong(offset + ATTACHMENT_TIMESTAMP_LOWER_BOUND_OFFSET);
+    }
+
+    public long getAttachmentTimestampUpperBound() {
+        return buffer.getLong(offset + ATTACHMENT_TIMESTAMP_UPPER_BOUND_OFFSET);
+    }
+
+    public Hash getAddressHash() {
+        return createHash(HashFactory.ADDRESS, ADDRESS_OFFSET, Hash.SIZE_IN_BYTES);
+    }
+
+    public Hash getBundleNonceHash() {
+        return createHash(HashFactory.BUNDLENONCE, BUNDLE_NONCE_OFFSET, Hash.SIZE_IN_BYTES);
+    }
+
+    public Hash getBundleHash() {
+        return createHash(HashFactory.BUNDLE, BUNDLE_OFFSET, Hash.SIZE_IN_BYTES);
+    }
+
+    public Hash getTrunkTransactionHash() {
+        return createHash(HashFactory.TRANSACTION, TRUNK_TRANSACTION_OFFSET, Hash.SIZE_IN_BYTES);
+    }
+
+    public Hash getBranchTransactionHash() {
+        return createHash(HashFactory.TRANSACTION, BRANCH_TRANSACTION_OFFSET, Hash.SIZE_IN_BYTES);
+    }
+
+    public Hash getTagValue() {
+        return createHash(HashFactory.TAG, TAG_OFFSET, TAG_SIZE);
+    }
+
+    /**
+     * Compares the address with a hash in place.
+     *
+     * @param hash the hash
+     * @return <code>true</code> if the address has the bytes of the hash
+     */
+    public boolean addressEquals(Hash hash) {
+        return hashEquals(ADDRESS_OFFSET, hash);
+    }
+
+    /**
+     * Compares the bundle hash with a hash in place.
+     *
+     * @param hash the hash
+     * @return <code>true</code> if the bundle hash has the bytes of the hash
+     */
+    public boolean bundleEquals(Hash hash) {
+        return hashEquals(BUNDLE_OFFSET, hash);
+    }
+
+    /**
+     * Compares the trunk transaction hash with a hash in place.
+     *
+     * @param hash the hash
+     * @return <code>true</code> if the trunk transaction hash has the bytes of the hash
+     */
+    public boolean trunkEquals(Hash hash) {
+        return hashEquals(TRUNK_TRANSACTION_OFFSET, hash);
+    }
+
+    /**
+     * Compares the branch transaction hash with a hash in place.
+     *
+     * @param hash the hash
+     * @return <code>true</code> if the branch transaction hash has the bytes of the hash
+     */
+    public boolean branchEquals(Hash hash) {
+        return hashEquals(BRANCH_TRANSACTION_OFFSET, hash);
+    }
+
+    private boolean hashEquals(int field, Hash hash) {
+        int position = offset + field;
+        for (int i = 0; i < Hash.SIZE_IN_BYTES / Long.BYTES; i++) {
+            if (buffer.getLong(position + i * Long.BYTES) != hash.word(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Hash createHash(HashFactory factory, int field, int size) {
+        if (buffer.hasArray()) {
+            return factory.create(buffer.array(), buffer.arrayOffset() + offset + field, size);
+        }
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = buffer.get(offset + field + i);
+        }
+        return factory.create(bytes, 0, size);
+    }
+}
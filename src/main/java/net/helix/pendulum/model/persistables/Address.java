@@ -5,12 +5,13 @@ package net.helix.pendulum.model.persistables;
  */
 
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.storage.PrefixKeyed;
 
 /**
  * Address model class is based on <code> Hashes </code>.
  * It's a set of transaction hashes belonging to one address.
  */
-public class Address extends Hashes {
+public class Address extends Hashes implements PrefixKeyed {
     public Address(){}
     public Address(Hash hash) {
         set.add(hash);
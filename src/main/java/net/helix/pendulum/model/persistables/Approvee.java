@@ -5,12 +5,13 @@ package net.helix.pendulum.model.persistables;
  */
 
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.storage.PrefixKeyed;
 
 /**
  * Approvee model class based on <code> Hashes </code>.
  * It's a set of transaction hashes approving the same transaction.
  */
-public class Approvee extends Hashes {
+public class Approvee extends Hashes implements PrefixKeyed {
     public Approvee(Hash hash) {
         set.add(hash);
     }
@@ -0,0 +1,20 @@
+package net.helix.pendulum.model.persistables;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.storage.PrefixKeyed;
+
+/**
+ * ArrivalTime model class based on <code> Hashes </code>.
+ * It's a set of transaction hashes that arrived in the same second, indexed by the arrival time in seconds
+ * (@see net.helix.pendulum.model.LongIndex). Since the keys are ordered by time, the transactions that arrived in a
+ * time window can be read with a single range scan.
+ */
+public class ArrivalTime extends Hashes implements PrefixKeyed {
+    public ArrivalTime(Hash hash) {
+        set.add(hash);
+    }
+
+    public ArrivalTime() {
+
+    }
+}
@@ -5,12 +5,13 @@ package net.helix.pendulum.model.persistables;
  */
 
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.storage.PrefixKeyed;
 
 /**
  * The Bundle model class is based on <code> Hashes </code>.
  * It's a set of transaction hashes belonging to the same bundle.
  */
-public class Bundle extends Hashes {
+public class Bundle extends Hashes implements PrefixKeyed {
     public Bundle(Hash hash) {
         set.add(hash);
     }
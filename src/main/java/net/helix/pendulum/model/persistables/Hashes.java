@@ -3,9 +3,11 @@ package net.helix.pendulum.model.persistables;
 import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.storage.Persistable;
-import org.apache.commons.lang3.ArrayUtils;
 
+import java.nio.ByteBuffer;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -17,20 +19,37 @@ import java.util.Set;
  * It contains a set <code> LinkedHashSet </code> and delimiter <code> byte </code>.
  * The <code> LinkedHashSet </code> is a hash table with linked entries, which can be converted into a byte array.
  * The delimiter is used as indicator for next element of the LinkedHashSet.
+ *
+ * Every element is serialized with a fixed width of {@link Hash#SIZE_IN_BYTES} bytes followed by the delimiter, which
+ * is the same layout the <code> StringAppendOperator </code> of the database produces when merging new hashes into an
+ * entry. This allows to iterate the hashes of a serialized set by offset (@see #iterator(byte[], int)) without
+ * building the set first.
  */
 public class Hashes implements Persistable {
     public Set<Hash> set = new LinkedHashSet<>();
     static final byte delimiter = ",".getBytes()[0];
 
+    /**
+     * Size of a serialized element including its delimiter.
+     */
+    private static final int ENTRY_SIZE = 1 + Hash.SIZE_IN_BYTES;
+
     /**
     * Get byte array of the set.
     * @return a <code> byte[] </code>
     */
     public byte[] bytes() {
-        return set.parallelStream()
-                .map(Hash::bytes)
-                .reduce((a,b) -> ArrayUtils.addAll(ArrayUtils.add(a, delimiter), b))
-                .orElse(new byte[0]);
+        if (set.isEmpty()) {
+            return new byte[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(set.size() * ENTRY_SIZE - 1);
+        for (Hash hash : set) {
+            if (buffer.position() > 0) {
+                buffer.put(delimiter);
+            }
+            buffer.put(hash.bytes());
+        }
+        return buffer.array();
     }
 
     /**
@@ -49,13 +68,60 @@ public class Hashes implements Persistable {
     */
     protected void read(byte[] bytes, int offset) {
         if (bytes != null) {
-            set = new LinkedHashSet<>((bytes.length - offset) / (1 + Hash.SIZE_IN_BYTES) + 1);
-            for (int i = offset; i < bytes.length; i += 1 + Hash.SIZE_IN_BYTES) {
-                set.add(HashFactory.TRANSACTION.create(bytes, i, Hash.SIZE_IN_BYTES));
-            }
+            set = new LinkedHashSet<>(size(bytes, offset) + 1);
+            iterator(bytes, offset).forEachRemaining(set::add);
         }
     }
 
+    /**
+    * Iterate the hashes of a serialized set of this model without building the set.
+    * Subclasses that prefix the set with additional fields skip them.
+    * @param bytes is a <code> byte[] </code> as returned by the database for this model
+    * @return an <code> Iterator </code> over the hashes, which returns a hash that was merged into the entry
+    * more than once also more than once
+    */
+    public Iterator<Hash> iterator(byte[] bytes) {
+        return iterator(bytes, 0);
+    }
+
+    /**
+    * Iterate the hashes of a serialized set without building the set.
+    * Every hash is only created when the iterator reaches it, so callers that stop early don't parse the rest.
+    * @param bytes is a <code> byte[] </code>
+    * @param offset the offset defining the start point for hash objects in the array
+    * @return an <code> Iterator </code> over the hashes, including duplicates
+    */
+    protected static Iterator<Hash> iterator(byte[] bytes, int offset) {
+        return new Iterator<Hash>() {
+            private int position = offset;
+
+            @Override
+            public boolean hasNext() {
+                return bytes != null && position + Hash.SIZE_IN_BYTES <= bytes.length;
+            }
+
+            @Override
+            public Hash next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Hash hash = HashFactory.TRANSACTION.create(bytes, position, Hash.SIZE_IN_BYTES);
+                position += ENTRY_SIZE;
+                return hash;
+            }
+        };
+    }
+
+    /**
+    * Get the number of serialized hashes, including duplicates, without parsing them.
+    * @param bytes is a <code> byte[] </code>
+    * @param offset the offset defining the start point for hash objects in the array
+    * @return the number of hashes as an <code> int </code>
+    */
+    protected static int size(byte[] bytes, int offset) {
+        return bytes == null || bytes.length <= offset ? 0 : (bytes.length - offset + 1) / ENTRY_SIZE;
+    }
+
     /**
     * Get metadata: a zero byte stream
     * @return a <code> byte[] </code>
@@ -1,9 +1,12 @@
 package net.helix.pendulum.model.persistables;
 
+import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.IntegerIndex;
 import net.helix.pendulum.utils.Serializer;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.Iterator;
+
 public class Nominees extends Hashes {
     public IntegerIndex index;
 
@@ -19,4 +22,9 @@ public class Nominees extends Hashes {
             read(bytes, Integer.BYTES);
         }
     }
+
+    @Override
+    public Iterator<Hash> iterator(byte[] bytes) {
+        return iterator(bytes, Integer.BYTES);
+    }
 }
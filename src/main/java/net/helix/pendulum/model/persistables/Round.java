@@ -1,9 +1,12 @@
 package net.helix.pendulum.model.persistables;
 
+import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.IntegerIndex;
 import net.helix.pendulum.utils.Serializer;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.Iterator;
+
  /**
  * The Round model class consists of a set of milestone hashes and a corresponding index.
  */
@@ -22,4 +25,9 @@ public class Round extends Hashes {
             read(bytes, Integer.BYTES);
         }
     }
+
+    @Override
+    public Iterator<Hash> iterator(byte[] bytes) {
+        return iterator(bytes, Integer.BYTES);
+    }
 }
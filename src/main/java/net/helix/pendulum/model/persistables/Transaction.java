@@ -3,11 +3,16 @@ package net.helix.pendulum.model.persistables;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.HashFactory;
+import net.helix.pendulum.storage.MutableMetadata;
 import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.utils.Serializer;
 import org.bouncycastle.util.encoders.Hex;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import static net.helix.pendulum.controllers.TransactionViewModel.TAG_SIZE;
 
@@ -21,10 +26,22 @@ import static net.helix.pendulum.controllers.TransactionViewModel.TAG_SIZE;
  * the value, the timestamp or the tag hash.
  * To get and read transaction bytes @see #bytes() and @see #read(byte[]).
  * To get and read meta data bytes @see #metadata() and @see #readMetadata(byte[]).
+ * The validity, height, flags and snapshot are additionally stored as state, @see #state() and @see #readState(byte[]).
  */
-public class Transaction implements Persistable {
+public class Transaction implements Persistable, MutableMetadata {
     public static final int SIZE = 768;
 
+     /**
+      * Size of the serialized state: validity, height, flags and snapshot.
+      */
+     public static final int STATE_SIZE = Integer.BYTES + Long.BYTES + 1 + Integer.BYTES;
+
+     /**
+      * Items of {@link net.helix.pendulum.controllers.TransactionViewModel#update} which are part of the state.
+      */
+     private static final Set<String> STATE_ITEMS = Collections.unmodifiableSet(
+             new HashSet<>(Arrays.asList("validity", "height", "solid", "milestone", "snapshot")));
+
      /**
       * Bitmask used to access and store the solid flag.
       */
@@ -112,10 +129,7 @@ public class Transaction implements Persistable {
         buffer.put(Serializer.serialize(height));
         //buffer.put((byte) (confirmed ? 1:0));
 
-        byte flags = 0;
-        flags |= solid ? IS_SOLID_BITMASK : 0;
-        flags |= milestone ? IS_MILESTONE_BITMASK : 0;
-        buffer.put(flags);
+        buffer.put(flags());
 
         buffer.put(Serializer.serialize(snapshot));
         buffer.put(sender.getBytes());
@@ -183,6 +197,91 @@ public class Transaction implements Persistable {
         }
     }
 
+    /**
+     * Creates a copy of this transaction that can be modified independently. The transaction bytes and the hashes
+     * are never modified in place, so they are shared with the copy.
+     *
+     * @return a new <code> Transaction </code> with the same fields
+     */
+    public Transaction copy() {
+        Transaction copy = new Transaction();
+        copy.bytes = bytes;
+        copy.address = address;
+        copy.bundle = bundle;
+        copy.trunk = trunk;
+        copy.branch = branch;
+        copy.bundleNonce = bundleNonce;
+        copy.value = value;
+        copy.currentIndex = currentIndex;
+        copy.lastIndex = lastIndex;
+        copy.timestamp = timestamp;
+        copy.tag = tag;
+        copy.attachmentTimestamp = attachmentTimestamp;
+        copy.attachmentTimestampLowerBound = attachmentTimestampLowerBound;
+        copy.attachmentTimestampUpperBound = attachmentTimestampUpperBound;
+        copy.validity = validity;
+        copy.type = type;
+        copy.arrivalTime = arrivalTime;
+        copy.parsed = parsed;
+        copy.solid = solid;
+        copy.milestone = milestone;
+        copy.height = height;
+        copy.sender = sender;
+        copy.snapshot = snapshot;
+        return copy;
+    }
+
+    @Override
+    public byte[] state() {
+        ByteBuffer buffer = ByteBuffer.allocate(STATE_SIZE);
+        buffer.put(Serializer.serialize(validity));
+        buffer.put(Serializer.serialize(height));
+        buffer.put(flags());
+        buffer.put(Serializer.serialize(snapshot));
+        return buffer.array();
+    }
+
+    @Override
+    public void readState(byte[] bytes) {
+        if (bytes != null && bytes.length == STATE_SIZE) {
+            int i = 0;
+            validity = Serializer.getInteger(bytes, i);
+            i += Integer.BYTES;
+            height = Serializer.getLong(bytes, i);
+            i += Long.BYTES;
+            solid = (bytes[i] & IS_SOLID_BITMASK) != 0;
+            milestone = (bytes[i] & IS_MILESTONE_BITMASK) != 0;
+            i++;
+            snapshot = Serializer.getInteger(bytes, i);
+        }
+    }
+
+    @Override
+    public boolean isStateUpdate(String item) {
+        if (item == null || item.isEmpty()) {
+            return false;
+        }
+        for (String field : item.split("\\|")) {
+            if (!STATE_ITEMS.contains(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isSolid(byte[] state) {
+        return state != null && state.length == STATE_SIZE
+                && (state[Integer.BYTES + Long.BYTES] & IS_SOLID_BITMASK) != 0;
+    }
+
+    private byte flags() {
+        byte flags = 0;
+        flags |= solid ? IS_SOLID_BITMASK : 0;
+        flags |= milestone ? IS_MILESTONE_BITMASK : 0;
+        return flags;
+    }
+
     @Override
     public boolean merge() {
         return false;
@@ -0,0 +1,336 @@
+package net.helix.pendulum.network;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A bounded lock-free queue for several producers and consumers, which connects the network threads of the
+ * {@link Node}.
+ *
+ * <p>
+ *     The elements are kept in a ring buffer whose slots carry a sequence number, which tells producers and consumers
+ *     whether a slot is free or filled (the algorithm of D. Vyukov). Producers and consumers only compete for a
+ *     compare-and-set on the tail or head position, so neither of them takes a lock or allocates anything. Consumers
+ *     that find the queue empty park until a producer wakes them up (@see #poll(long, TimeUnit)).
+ * </p>
+ * <p>
+ *     When the queue is full, the {@link DropPolicy} decides which element is dropped. The queue counts offered,
+ *     dropped and polled elements and measures how long the polled elements waited (@see #getStatistics()).
+ * </p>
+ *
+ * @param <E> the type of the elements
+ */
+public class BoundedQueue<E> {
+
+    /**
+     * Decides which element is dropped if the queue is full.
+     */
+    public enum DropPolicy {
+        /**
+         * Rejects new elements while the queue is full.
+         */
+        DROP_NEWEST("drop-newest"),
+
+        /**
+         * Removes the oldest element to make room for a new one.
+         */
+        DROP_OLDEST("drop-oldest"),
+
+        /**
+         * Rejects new elements with a probability that grows linearly from 0, when the queue is half full, to 1,
+         * when it is full. This spreads the drops over all senders before the queue overflows.
+         */
+        RANDOM_EARLY_DROP("random-early-drop");
+
+        private final String name;
+
+        DropPolicy(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param name the configured name of a policy, like <code>drop-oldest</code>
+         * @return the policy
+         * @throws IllegalArgumentException if there is no policy with the name
+         */
+        public static DropPolicy fromName(String name) {
+            for (DropPolicy policy : values()) {
+                if (policy.name.equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown queue drop policy: " + name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final String name;
+    private final int capacity;
+    private final DropPolicy dropPolicy;
+
+    private final int mask;
+    private final Object[] elements;
+    private final long[] queueTimes;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The consumers parked in {@link #poll(long, TimeUnit)}.
+     */
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder polled = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * @param name the prefix of the counters of the queue
+     * @param capacity the maximum number of elements
+     * @param dropPolicy decides which element is dropped if the queue is full
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public BoundedQueue(String name, int capacity, DropPolicy dropPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("the capacity of a queue has to be positive: " + capacity);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.dropPolicy = dropPolicy;
+
+        int slots = Integer.highestOneBit(capacity);
+        if (slots < capacity) {
+            slots <<= 1;
+        }
+        this.mask = slots - 1;
+        this.elements = new Object[slots];
+        this.queueTimes = new long[slots];
+        this.sequences = new AtomicLongArray(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            sequences.set(slot, slot);
+        }
+    }
+
+    /**
+     * Adds an element unless the {@link DropPolicy} drops it, and wakes up a waiting consumer.
+     *
+     * @param element the element
+     * @return <code>true</code> if the element was added, <code>false</code> if it was dropped
+     */
+    public boolean offer(E element) {
+        offered.increment();
+        if (dropPolicy == DropPolicy.RANDOM_EARLY_DROP && isDroppedEarly()) {
+            dropped.increment();
+            return false;
+        }
+        while (!tryOffer(element)) {
+            if (dropPolicy != DropPolicy.DROP_OLDEST) {
+                dropped.increment();
+                return false;
+            }
+            if (tryPoll(false) != null) {
+                dropped.increment();
+            }
+        }
+        Thread waiter = waiters.poll();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the oldest element without waiting.
+     *
+     * @return the element or {@code null} if the queue is empty
+     */
+    public E poll() {
+        return tryPoll(true);
+    }
+
+    /**
+     * Removes the oldest element and waits for one if the queue is empty. The waiting consumer is parked, so it does
+     * not use any CPU until a producer adds an element or the timeout elapses.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the element or {@code null} if the queue was still empty after the timeout
+     * @throws InterruptedException if the thread was interrupted while it was waiting
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(timeout, unit, () -> false);
+    }
+
+    /**
+     * Like {@link #poll(long, TimeUnit)}, but also stops waiting as soon as a condition is met. This lets a consumer
+     * wait for this queue and another source of work at the same time: the other source has to make the condition
+     * true and then call {@link #wakeUp()}.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @param wakeUp the condition that ends the wait
+     * @return the element or {@code null} if the queue was still empty after the timeout or the condition was met
+     * @throws InterruptedException if the thread was interrupted while it was waiting
+     */
+    public E poll(long timeout, TimeUnit unit, BooleanSupplier wakeUp) throws InterruptedException {
+        E element = tryPoll(true);
+        if (element != null) {
+            return element;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        while (true) {
+            // registering before checking again makes sure that a producer either sees the waiter or we see its element
+            waiters.add(current);
+            try {
+                element = tryPoll(true);
+                if (element != null || wakeUp.getAsBoolean()) {
+                    return element;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            } finally {
+                waiters.remove(current);
+            }
+        }
+    }
+
+    /**
+     * Wakes up the consumers waiting in {@link #poll(long, TimeUnit, BooleanSupplier)}, which return if their
+     * condition is met and keep waiting otherwise.
+     */
+    public void wakeUp() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * @return the number of queued elements, which may already be outdated when it is returned
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Reports the depth of the queue, the number of offered, dropped and polled elements and the time the polled
+     * elements waited in the queue. Elements removed by {@link DropPolicy#DROP_OLDEST} are counted as dropped only.
+     *
+     * @return the counters by name, latencies are in microseconds
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long polledCount = polled.sum();
+        stats.put(name + "QueueSize", (long) size());
+        stats.put(name + "QueueCapacity", (long) capacity);
+        stats.put(name + "QueueOffered", offered.sum());
+        stats.put(name + "QueueDropped", dropped.sum());
+        stats.put(name + "QueuePolled", polledCount);
+        stats.put(name + "QueueAverageLatency", polledCount == 0 ? 0L : totalLatency.sum() / polledCount / 1000);
+        stats.put(name + "QueueMaxLatency", maxLatency.get() / 1000);
+        return stats;
+    }
+
+    private boolean isDroppedEarly() {
+        int size = size();
+        int threshold = capacity / 2;
+        if (size <= threshold) {
+            return false;
+        }
+        double probability = (double) (size - threshold) / (capacity - threshold);
+        return ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private boolean tryOffer(E element) {
+        long position = tail.get();
+        int slot;
+        while (true) {
+            if (position - head.get() >= capacity) {
+                return false;
+            }
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the consumer of the previous round has not freed the slot yet
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        elements[slot] = element;
+        queueTimes[slot] = System.nanoTime();
+        // publishes the element and its time to the consumer that reads the sequence
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * @param consumed <code>false</code> if the element is dropped, which is not counted as a polled element
+     * @return the oldest element or {@code null} if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    private E tryPoll(boolean consumed) {
+        long position = head.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+        E element = (E) elements[slot];
+        long latency = System.nanoTime() - queueTimes[slot];
+        elements[slot] = null;
+        sequences.set(slot, position + mask + 1);
+
+        if (consumed) {
+            polled.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,68 @@
+package net.helix.pendulum.network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps released direct buffers for reuse, so the network threads do not allocate a direct buffer for every packet.
+ *
+ * <p>
+ *     Direct buffers are passed to the socket without the copy the JDK makes for heap buffers, but they are expensive
+ *     to allocate and are only freed by the garbage collector. The pool keeps at most a fixed number of buffers, a
+ *     buffer released to a full pool is left to the garbage collector.
+ * </p>
+ */
+public class ByteBufferPool {
+
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    /**
+     * @param maxPooledBuffers the maximum number of buffers kept for reuse
+     */
+    public ByteBufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Returns a pooled buffer or allocates a new one if the pool is empty or its next buffer is too small.
+     *
+     * @param size the number of bytes the buffer has to hold
+     * @return a direct buffer whose position is 0 and whose limit is the size
+     */
+    public ByteBuffer acquire(int size) {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer != null) {
+            pooledBuffers.decrementAndGet();
+            if (buffer.capacity() >= size) {
+                buffer.clear();
+                buffer.limit(size);
+                return buffer;
+            }
+        }
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used after it was released.
+     *
+     * @param buffer a buffer returned by {@link #acquire(int)}
+     */
+    public void release(ByteBuffer buffer) {
+        if (pooledBuffers.incrementAndGet() <= maxPooledBuffers) {
+            buffers.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of buffers kept for reuse
+     */
+    public int size() {
+        return pooledBuffers.get();
+    }
+}
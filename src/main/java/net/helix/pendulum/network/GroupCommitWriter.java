@@ -0,0 +1,295 @@
+package net.helix.pendulum.network;
+
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.persistables.Transaction;
+import net.helix.pendulum.service.snapshot.SnapshotProvider;
+import net.helix.pendulum.storage.Indexable;
+import net.helix.pendulum.storage.Persistable;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.Pair;
+import net.helix.pendulum.utils.thread.ThreadIdentifier;
+import net.helix.pendulum.utils.thread.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores received transactions in groups instead of one by one.
+ *
+ * <p>
+ *     Storing a single transaction costs several synchronous writes to the database. Under gossip load these writes
+ *     dominate the processing of received transactions. This writer collects the transactions queued by
+ *     {@link #store(TransactionViewModel, Callback)} and writes them with a single {@link Tangle#saveBatch(List)} once
+ *     either the oldest of them waited for the configured latency or the configured batch size was reached.
+ * </p>
+ * <p>
+ *     The transactions have to carry their complete metadata (like arrival time and sender) when they are queued, since
+ *     it is written in the same batch. The {@link Callback} of every transaction is invoked by the writer thread after
+ *     the batch was written, so it should only hand the transaction over to another thread.
+ * </p>
+ */
+public class GroupCommitWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    /**
+     * Time the writer thread waits for the first transaction of a batch before it checks for interrupts again.
+     */
+    private static final long IDLE_TIMEOUT_MS = 100;
+
+    /**
+     * Number of full batches the queue holds before {@link #store(TransactionViewModel, Callback)} blocks.
+     */
+    private static final int QUEUED_BATCHES = 4;
+
+    /**
+     * Holds a reference to the {@link ThreadIdentifier} for the writer thread.
+     *
+     * Using a {@link ThreadIdentifier} for spawning the thread allows the {@link ThreadUtils} to spawn exactly one
+     * thread for this instance even when we call the {@link #start()} method multiple times.
+     */
+    private final ThreadIdentifier writerThreadIdentifier = new ThreadIdentifier("Group Commit Writer");
+
+    private final Tangle tangle;
+    private final SnapshotProvider snapshotProvider;
+    private final long maxLatencyNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingStore> queue;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong storedTransactions = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchLatency = new AtomicLong();
+    private final AtomicLong maxBatchLatency = new AtomicLong();
+    private final AtomicLong totalBatchLatency = new AtomicLong();
+    private final AtomicLong lastWriteTime = new AtomicLong();
+
+    /**
+     * Receives the outcome of a queued store.
+     */
+    @FunctionalInterface
+    public interface Callback {
+
+        /**
+         * Invoked by the writer thread after the batch containing the transaction was written. The next batch is only
+         * written once all callbacks returned.
+         *
+         * @param stored {@code true} if the transaction was new and got stored
+         * @param error the error that prevented the batch from being written or {@code null} if it succeeded
+         */
+        void onCommit(boolean stored, Exception error);
+    }
+
+    /**
+     * @param tangle the database the transactions are written to
+     * @param snapshotProvider provides the solid entry points, which are never stored
+     * @param maxLatency the maximum time in milliseconds a transaction waits for its batch to be written
+     * @param maxBatchSize the maximum number of transactions written in one batch
+     */
+    public GroupCommitWriter(Tangle tangle, SnapshotProvider snapshotProvider, int maxLatency, int maxBatchSize) {
+        this.tangle = tangle;
+        this.snapshotProvider = snapshotProvider;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLatency));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        // a full queue blocks the callers, so a slow database throttles the receiving side
+        this.queue = new LinkedBlockingQueue<>(QUEUED_BATCHES * this.maxBatchSize);
+    }
+
+    /**
+     * @param maxBatchSize the maximum number of transactions written in one batch
+     * @return the maximum number of transactions a writer holds at once, the queued ones and those being written
+     */
+    public static int capacity(int maxBatchSize) {
+        return (QUEUED_BATCHES + 1) * Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Starts the thread writing the queued transactions.
+     */
+    public void start() {
+        ThreadUtils.spawnThread(this::writeThread, writerThreadIdentifier);
+    }
+
+    /**
+     * Stops the writer thread. Transactions that are already queued are still written.
+     */
+    public void shutdown() {
+        ThreadUtils.stopThread(writerThreadIdentifier);
+    }
+
+    /**
+     * Queues a transaction to be written with the next batch.
+     *
+     * @param transactionViewModel the transaction including its final metadata
+     * @param callback receives the outcome once the batch was written
+     * @throws InterruptedException if the calling thread is interrupted while the queue is full
+     */
+    public void store(TransactionViewModel transactionViewModel, Callback callback) throws InterruptedException {
+        queue.put(new PendingStore(transactionViewModel, callback, System.nanoTime()));
+    }
+
+    /**
+     * @return the number of transactions waiting to be written
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Reports the number of written batches and transactions and the latency of the batches. The latency of a batch
+     * is the time between queueing its oldest transaction and the end of the write.
+     *
+     * @return the counters by name, latencies are in microseconds
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        stats.put("groupCommitBatches", batchCount);
+        stats.put("groupCommitTransactions", transactions.get());
+        stats.put("groupCommitStoredTransactions", storedTransactions.get());
+        stats.put("groupCommitQueueSize", (long) queue.size());
+        stats.put("groupCommitLastBatchSize", lastBatchSize.get());
+        stats.put("groupCommitLastBatchLatency", lastBatchLatency.get());
+        stats.put("groupCommitMaxBatchLatency", maxBatchLatency.get());
+        stats.put("groupCommitAverageBatchLatency", batchCount == 0 ? 0L : totalBatchLatency.get() / batchCount);
+        stats.put("groupCommitLastWriteTime", lastWriteTime.get());
+        return stats;
+    }
+
+    /**
+     * Collects batches until the thread is interrupted and writes whatever is left afterwards.
+     */
+    private void writeThread() {
+        List<PendingStore> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingStore first = queue.poll(IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queued + maxLatencyNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingStore next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            log.debug("Group Commit Writer interrupted", e);
+        }
+
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            commit(batch);
+        }
+    }
+
+    /**
+     * Writes the transactions of a batch that are not stored yet and notifies their callbacks.
+     */
+    private void commit(List<PendingStore> batch) {
+        List<Pair<Indexable, Persistable>> models = new ArrayList<>();
+        Set<Hash> batchHashes = new HashSet<>();
+        boolean[] stored = new boolean[batch.size()];
+        Exception error = null;
+
+        long start = System.nanoTime();
+        try {
+            Set<Hash> existing = findStored(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                TransactionViewModel transactionViewModel = batch.get(i).transactionViewModel;
+                Hash hash = transactionViewModel.getHash();
+                if (!snapshotProvider.getInitialSnapshot().hasSolidEntryPoint(hash)
+                        && !existing.contains(hash) && batchHashes.add(hash)) {
+                    models.addAll(transactionViewModel.getSaveBatch(tangle));
+                    stored[i] = true;
+                }
+            }
+            if (!models.isEmpty()) {
+                tangle.saveBatch(models);
+            }
+        } catch (Exception e) {
+            log.error("Error writing a batch of {} transactions.", batch.size(), e);
+            error = e;
+        }
+        long end = System.nanoTime();
+
+        long latency = TimeUnit.NANOSECONDS.toMicros(end - batch.get(0).queued);
+        batches.incrementAndGet();
+        transactions.addAndGet(batch.size());
+        storedTransactions.addAndGet(error == null ? batchHashes.size() : 0);
+        lastBatchSize.set(batch.size());
+        lastBatchLatency.set(latency);
+        maxBatchLatency.accumulateAndGet(latency, Math::max);
+        totalBatchLatency.addAndGet(latency);
+        lastWriteTime.set(TimeUnit.NANOSECONDS.toMicros(end - start));
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                batch.get(i).callback.onCommit(error == null && stored[i], error);
+            } catch (Exception e) {
+                log.error("Error processing stored transaction.", e);
+            }
+        }
+    }
+
+    /**
+     * Finds the transactions of a batch that are already stored. The bloom filters rule out most of the new
+     * transactions, the remaining ones are looked up with a single {@link Tangle#loadBatch(Class, List)}.
+     *
+     * @return the hashes of the stored transactions
+     */
+    private Set<Hash> findStored(List<PendingStore> batch) throws Exception {
+        List<Hash> candidates = new ArrayList<>();
+        for (PendingStore pendingStore : batch) {
+            Hash hash = pendingStore.transactionViewModel.getHash();
+            if (TransactionViewModel.mightExist(tangle, hash)) {
+                candidates.add(hash);
+            }
+        }
+        Set<Hash> stored = new HashSet<>();
+        if (candidates.isEmpty()) {
+            return stored;
+        }
+        List<Persistable> transactions = tangle.loadBatch(Transaction.class, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (((Transaction) transactions.get(i)).type == TransactionViewModel.FILLED_SLOT) {
+                stored.add(candidates.get(i));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * A queued transaction together with its callback and the time it was queued at.
+     */
+    private static class PendingStore {
+        private final TransactionViewModel transactionViewModel;
+        private final Callback callback;
+        private final long queued;
+
+        private PendingStore(TransactionViewModel transactionViewModel, Callback callback, long queued) {
+            this.transactionViewModel = transactionViewModel;
+            this.callback = callback;
+            this.queued = queued;
+        }
+    }
+}
@@ -18,6 +18,7 @@ public abstract class Neighbor {
     private long randomTransactionRequests;
     private long numberOfSentTransactions;
     private long numberOfStaleTransactions;
+    private long numberOfDroppedPackets;
 
     private final boolean flagged;
 
@@ -97,6 +98,10 @@ public abstract class Neighbor {
         numberOfSentTransactions++;
     }
 
+    protected void incDroppedPackets() {
+        numberOfDroppedPackets++;
+    }
+
     public long getNumberOfAllTransactions() {
         return numberOfAllTransactions;
     }
@@ -121,4 +126,11 @@ public abstract class Neighbor {
         return numberOfSentTransactions;
     }
 
+    /**
+     * @return the number of packets from or to the neighbor that were dropped because a queue was full
+     */
+    public long getNumberOfDroppedPackets() {
+        return numberOfDroppedPackets;
+    }
+
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.model.TransactionHash;
 import net.helix.pendulum.service.milestone.MilestoneTracker;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
+import net.helix.pendulum.storage.AsyncTangle;
 import net.helix.pendulum.storage.Tangle;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.*;
 import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -52,23 +54,67 @@ public class Node {
     private final int reqHashSize;
 
 
-    private int BROADCAST_QUEUE_SIZE;
-    private int RECV_QUEUE_SIZE;
-    private int REPLY_QUEUE_SIZE;
-    private static final int PAUSE_BETWEEN_TRANSACTIONS = 1;
+    /**
+     * The time the worker threads wait for a queued element, before they check whether the node is shutting down.
+     */
+    private static final long QUEUE_POLL_TIMEOUT_MS = 500;
+
+    /**
+     * The number of recently published bundles that are remembered, so every transaction of a complete bundle that
+     * is processed after the bundle became complete does not publish it again.
+     */
+    private static final int PUBLISHED_BUNDLES_CAPACITY = 10_000;
+
+    /**
+     * The broadcaster, tip requester, DNS refresher, reply and publisher threads, which run besides the receive
+     * threads.
+     */
+    private static final int SERVICE_THREADS = 5;
 
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
 
     private final List<Neighbor> neighbors = new CopyOnWriteArrayList<>();
-    private final ConcurrentSkipListSet<TransactionViewModel> broadcastQueue = weightQueue();
-    private final ConcurrentSkipListSet<Pair<TransactionViewModel, Neighbor>> receiveQueue = weightQueueTxPair();
-    private final ConcurrentSkipListSet<Pair<Hash, Neighbor>> replyQueue = weightQueueHashPair();
+    private final BoundedQueue<TransactionViewModel> broadcastQueue;
+    /**
+     * One queue per receive thread, a transaction is queued in the partition of its hash
+     * (@see #receivePartition(TransactionViewModel)).
+     */
+    private final List<BoundedQueue<Pair<TransactionViewModel, Neighbor>>> receiveQueues;
+    /**
+     * The transactions written by the {@link GroupCommitWriter}, per receive partition. The receive threads finish
+     * their processing, so the writer thread only writes. A receive thread empties its queue before it stores another
+     * transaction, so the queue never holds more transactions than the writer accepts and never drops one.
+     */
+    private final List<BoundedQueue<Pair<TransactionViewModel, Neighbor>>> committedQueues;
+    private final BoundedQueue<Pair<Hash, Neighbor>> replyQueue;
+    /**
+     * The stored transactions whose bundles may have to be published. Unlike the other queues it never drops a
+     * transaction, the receive threads wait while it is full (@see #queuePublish(TransactionViewModel)).
+     */
+    private final BlockingQueue<TransactionViewModel> publishQueue;
+    private final AtomicLong publishQueueBlocked = new AtomicLong();
+    private final AtomicLong publishedBundleCount = new AtomicLong();
+    private final AtomicLong duplicateBundleCount = new AtomicLong();
+
+    /**
+     * The hashes of the recently published bundles, only used by the publish thread.
+     */
+    private final Set<Hash> publishedBundles = Collections.newSetFromMap(new LinkedHashMap<Hash, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Hash, Boolean> eldest) {
+            return size() > PUBLISHED_BUNDLES_CAPACITY;
+        }
+    });
 
 
-    private final DatagramPacket sendingPacket;
+    /**
+     * The UDP payload buffer of the sending thread, neighbors copy or send the packet before {@link Neighbor#send}
+     * returns, so every thread can reuse its packet.
+     */
+    private final ThreadLocal<DatagramPacket> sendingPacket;
     private final DatagramPacket tipRequestingPacket;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    private final ExecutorService executor;
     private final NodeConfig configuration;
     private final Tangle tangle;
     private final SnapshotProvider snapshotProvider;
@@ -89,7 +135,18 @@ public class Node {
     private static AtomicLong sendPacketsTimer = new AtomicLong(0L);
 
     public static final ConcurrentSkipListSet<String> rejectedAddresses = new ConcurrentSkipListSet<String>();
-    private DatagramSocket udpSocket;
+    private DatagramChannel udpChannel;
+
+    /**
+     * Writes received transactions in groups, {@code null} if every transaction is stored on its own.
+     */
+    private GroupCommitWriter groupCommitWriter;
+
+    /**
+     * Looks up requested transactions without blocking the reply thread, {@code null} if they are looked up
+     * synchronously.
+     */
+    private AsyncTangle asyncTangle;
 
     /**
      * Internal map used to keep track of neighbor's IP vs DNS name
@@ -119,9 +176,29 @@ public class Node {
         this.tipsViewModel = tipsViewModel;
         this.reqHashSize = configuration.getRequestHashSize();
         int packetSize = configuration.getTransactionPacketSize();
-        this.sendingPacket = new DatagramPacket(new byte[packetSize], packetSize);
+        this.sendingPacket = ThreadLocal.withInitial(() -> new DatagramPacket(new byte[packetSize], packetSize));
         this.tipRequestingPacket = new DatagramPacket(new byte[packetSize], packetSize);
 
+        int queueSize = configuration.getqSizeNode();
+        BoundedQueue.DropPolicy dropPolicy = BoundedQueue.DropPolicy.fromName(configuration.getQueueDropPolicy());
+        this.broadcastQueue = new BoundedQueue<>("broadcast", queueSize, dropPolicy);
+        this.replyQueue = new BoundedQueue<>("reply", queueSize, dropPolicy);
+        this.publishQueue = new LinkedBlockingQueue<>(Math.max(1, queueSize));
+
+        // the partitions share the configured queue size, so more threads do not queue more transactions
+        int receiveThreads = Math.max(1, configuration.getReceiveThreads());
+        int partitionSize = Math.max(1, (queueSize + receiveThreads - 1) / receiveThreads);
+        List<BoundedQueue<Pair<TransactionViewModel, Neighbor>>> partitions = new ArrayList<>(receiveThreads);
+        List<BoundedQueue<Pair<TransactionViewModel, Neighbor>>> committed = new ArrayList<>(receiveThreads);
+        int committedSize = GroupCommitWriter.capacity(configuration.getGroupCommitBatchSize());
+        for (int partition = 0; partition < receiveThreads; partition++) {
+            partitions.add(new BoundedQueue<>("receive" + partition, partitionSize, dropPolicy));
+            committed.add(new BoundedQueue<>("committed" + partition, committedSize,
+                    BoundedQueue.DropPolicy.DROP_NEWEST));
+        }
+        this.receiveQueues = Collections.unmodifiableList(partitions);
+        this.committedQueues = Collections.unmodifiableList(committed);
+        this.executor = Executors.newFixedThreadPool(SERVICE_THREADS + receiveThreads);
     }
 
     /**
@@ -133,37 +210,45 @@ public class Node {
         //TODO ask Alon
         sendLimit = (long) ((configuration.getSendLimit() * 1000000) / (configuration.getTransactionPacketSize() * 8));
 
-        BROADCAST_QUEUE_SIZE = RECV_QUEUE_SIZE = REPLY_QUEUE_SIZE = configuration.getqSizeNode();
         recentSeenBytes = new FIFOCache<>(configuration.getCacheSizeBytes(), configuration.getpDropCacheEntry());
 
         parseNeighborsConfig();
 
+        if (configuration.getGroupCommitLatency() > 0) {
+            groupCommitWriter = new GroupCommitWriter(tangle, snapshotProvider, configuration.getGroupCommitLatency(),
+                    configuration.getGroupCommitBatchSize());
+            groupCommitWriter.start();
+        }
+
         executor.submit(spawnBroadcasterThread());
         executor.submit(spawnTipRequesterThread());
         executor.submit(spawnNeighborDNSRefresherThread());
-        executor.submit(spawnProcessReceivedThread());
+        for (int partition = 0; partition < receiveQueues.size(); partition++) {
+            executor.submit(spawnProcessReceivedThread(partition));
+        }
+        executor.submit(spawnPublishBundleThread());
         executor.submit(spawnReplyToRequestThread());
 
         executor.shutdown();
     }
 
     /**
-     * Keeps the passed UDP DatagramSocket reference from {@link UDPReceiver}.
+     * Keeps the passed UDP DatagramChannel reference from {@link UDPReceiver}.
      * This is currently only used in creating a new {@link UDPNeighbor}.
      *
-     * @param {@link DatagramSocket} socket created by UDPReceiver
+     * @param {@link DatagramChannel} non-blocking channel created by UDPReceiver
      */
-    public void setUDPSocket(final DatagramSocket socket) {
-        this.udpSocket = socket;
+    public void setUDPChannel(final DatagramChannel channel) {
+        this.udpChannel = channel;
     }
 
     /**
-     * Returns the stored UDP DatagramSocket reference from {@link UDPReceiver}.
+     * Returns the stored UDP DatagramChannel reference from {@link UDPReceiver}.
      *
-     * @return {@link DatagramSocket} socket created by UDPReceiver
+     * @return {@link DatagramChannel} non-blocking channel created by UDPReceiver
      */
-    public DatagramSocket getUdpSocket() {
-        return udpSocket;
+    public DatagramChannel getUdpChannel() {
+        return udpChannel;
     }
 
     /**
@@ -273,7 +358,7 @@ public class Node {
      * a {@link TransactionViewModel} object from it and perform some basic validation
      * on the received transaction via  {@link TransactionValidator#runValidation}
      *
-     * The packet is then added to receiveQueue for further processing.
+     * The packet is then added to the receive queue of its partition for further processing.
      */
 
     public void preProcessReceivedData(byte[] receivedData, SocketAddress senderAddress, String uriScheme) {
@@ -401,34 +486,46 @@ public class Node {
     }
 
     /**
-     * Adds incoming transactions to the {@link Node#receiveQueue} to be processed later.
+     * Adds incoming transactions to the {@link Node#receiveQueues} to be processed later. All copies of a transaction
+     * end up in the same partition, so they are processed one after another by the same thread. A transaction
+     * rejected by the full queue is counted as a dropped packet of the neighbor.
      */
     public void addReceivedDataToReceiveQueue(TransactionViewModel receivedTransactionViewModel, Neighbor neighbor) {
-        receiveQueue.add(new ImmutablePair<>(receivedTransactionViewModel, neighbor));
-        if (receiveQueue.size() > RECV_QUEUE_SIZE) {
-            receiveQueue.pollLast();
+        if (!receiveQueues.get(receivePartition(receivedTransactionViewModel))
+                .offer(new ImmutablePair<>(receivedTransactionViewModel, neighbor))) {
+            neighbor.incDroppedPackets();
         }
+    }
 
+    /**
+     * @param transactionViewModel a received transaction
+     * @return the index of the receive queue of the transaction, which only depends on its hash
+     */
+    int receivePartition(TransactionViewModel transactionViewModel) {
+        return Math.floorMod(transactionViewModel.getHash().hashCode(), receiveQueues.size());
     }
 
     /**
-     * Adds incoming transactions to the {@link Node#replyQueue} to be processed later
+     * Adds incoming transactions to the {@link Node#replyQueue} to be processed later. A request rejected by the full
+     * queue is counted as a dropped packet of the neighbor.
      */
     public void addReceivedDataToReplyQueue(Hash requestedHash, Neighbor neighbor) {
-        replyQueue.add(new ImmutablePair<>(requestedHash, neighbor));
-        if (replyQueue.size() > REPLY_QUEUE_SIZE) {
-            replyQueue.pollLast();
+        if (!replyQueue.offer(new ImmutablePair<>(requestedHash, neighbor))) {
+            neighbor.incDroppedPackets();
         }
     }
 
     /**
-     * Picks up a transaction and neighbor pair from receive queue. Calls
+     * Picks up a transaction and neighbor pair from the first receive queue that is not empty. Calls
      * {@link Node#processReceivedData} on the pair.
      */
     public void processReceivedDataFromQueue() {
-        final Pair<TransactionViewModel, Neighbor> receivedData = receiveQueue.pollFirst();
-        if (receivedData != null) {
-            processReceivedData(receivedData.getLeft(), receivedData.getRight());
+        for (BoundedQueue<Pair<TransactionViewModel, Neighbor>> receiveQueue : receiveQueues) {
+            final Pair<TransactionViewModel, Neighbor> receivedData = receiveQueue.poll();
+            if (receivedData != null) {
+                processReceivedData(receivedData.getLeft(), receivedData.getRight());
+                return;
+            }
         }
     }
 
@@ -437,7 +534,7 @@ public class Node {
      * {@link Node#replyToRequest} on the pair.
      */
     public void replyToRequestFromQueue() {
-        final Pair<Hash, Neighbor> receivedData = replyQueue.pollFirst();
+        final Pair<Hash, Neighbor> receivedData = replyQueue.poll();
         if (receivedData != null) {
             replyToRequest(receivedData.getLeft(), receivedData.getRight());
         }
@@ -445,15 +542,48 @@ public class Node {
 
     /**
      * This is second step of incoming transaction processing. The newly received
-     * and validated transactions are stored in {@link Node#receiveQueue}. This function
+     * and validated transactions are stored in {@link Node#receiveQueues}. This function
      * picks up these transaction and stores them into the {@link Tangle} Database. The
-     * transaction is then added to the broadcast queue, to be fruther spammed to the neighbors.
+     * transaction is then added to the broadcast queue, to be fruther spammed to the neighbors,
+     * and to the publish queue, whose thread publishes its bundle.
+     *
+     * If group commits are enabled, the transaction is handed to the {@link GroupCommitWriter} together with its
+     * arrival time and sender. Once its batch was written, the transaction is queued in the committed queue of its
+     * partition and the receive thread of the partition runs the remaining steps.
      */
     public void processReceivedData(TransactionViewModel receivedTransactionViewModel, Neighbor neighbor) {
 
+        if (groupCommitWriter != null) {
+            receivedTransactionViewModel.setArrivalTime(System.currentTimeMillis()/1000L);
+            try {
+                receivedTransactionViewModel.updateSender(neighbor.getAddress().toString());
+                int partition = receivePartition(receivedTransactionViewModel);
+                BoundedQueue<Pair<TransactionViewModel, Neighbor>> committedQueue = committedQueues.get(partition);
+                BoundedQueue<Pair<TransactionViewModel, Neighbor>> receiveQueue = receiveQueues.get(partition);
+                groupCommitWriter.store(receivedTransactionViewModel, (stored, error) -> {
+                    if (error != null) {
+                        neighbor.incInvalidTransactions();
+                    } else if (stored) {
+                        if (!committedQueue.offer(new ImmutablePair<>(receivedTransactionViewModel, neighbor))) {
+                            log.warn("Dropped the stored transaction {}", receivedTransactionViewModel.getHash());
+                        }
+                        // the receive thread waits for its receive queue
+                        receiveQueue.wakeUp();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error accessing persistence store.", e);
+                neighbor.incInvalidTransactions();
+            }
+            return;
+        }
+
         boolean stored = false;
 
-        //store new transaction
+        //store new transaction, the arrival time is set first so it is part of the arrival time index
+        receivedTransactionViewModel.setArrivalTime(System.currentTimeMillis()/1000L);
         try {
             stored = receivedTransactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot());
         } catch (Exception e) {
@@ -463,7 +593,6 @@ public class Node {
 
         //if new, then broadcast to all neighbors
         if (stored) {
-            receivedTransactionViewModel.setArrivalTime(System.currentTimeMillis()/1000L);
             try {
                 transactionValidator.updateStatus(receivedTransactionViewModel);
                 receivedTransactionViewModel.updateSender(neighbor.getAddress().toString());
@@ -473,45 +602,92 @@ public class Node {
             }
             neighbor.incNewTransactions();
             broadcast(receivedTransactionViewModel);
+            queuePublish(receivedTransactionViewModel);
+        }
+    }
 
-            //zmq
-            try {
-                BundleViewModel receivedBundle = BundleViewModel.load(tangle, receivedTransactionViewModel.getBundleHash());
-                if (receivedTransactionViewModel.lastIndex() == receivedBundle.size() - 1) {
-                    JsonArray preBundle = new JsonArray();
-                    JsonArray publishBundle = new JsonArray();
-                    String oracleTopic = null;
-
-                    for (Hash txHash : receivedBundle.getHashes()) {
-                        TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, txHash);
-                        JsonObject addressTopicJson = new JsonObject();
-                        addressTopicJson.addProperty("tx_hash", transactionViewModel.getHash().toString());
-                        addressTopicJson.addProperty("bundle_hash", transactionViewModel.getBundleHash().toString());
-                        addressTopicJson.addProperty("signature", Hex.toHexString(transactionViewModel.getSignature()));
-                        addressTopicJson.addProperty("bundle_index", transactionViewModel.getCurrentIndex());
-                        preBundle.add(addressTopicJson);
-
-                        if (transactionViewModel.getCurrentIndex() == 0) {
-                            oracleTopic = transactionViewModel.getAddressHash().toString();
-                        }
-                    }
-                    for (int i = preBundle.size()-1; i >= 0; i--) {
-                        publishBundle.add(preBundle.get(i));
+    /**
+     * Finishes the processing of a received transaction that was written by the {@link GroupCommitWriter} including
+     * its arrival time and sender.
+     */
+    private void processStoredData(TransactionViewModel receivedTransactionViewModel, Neighbor neighbor) {
+        try {
+            transactionValidator.updateStatus(receivedTransactionViewModel);
+        } catch (Exception e) {
+            log.error("Error updating transactions.", e);
+        }
+        neighbor.incNewTransactions();
+        broadcast(receivedTransactionViewModel);
+        queuePublish(receivedTransactionViewModel);
+    }
+
+    /**
+     * Queues a stored transaction for {@link #publishBundle(TransactionViewModel)}. If the publish thread falls behind,
+     * the calling receive thread waits until there is room instead of dropping the publication.
+     */
+    private void queuePublish(TransactionViewModel storedTransactionViewModel) {
+        try {
+            if (publishQueue.offer(storedTransactionViewModel)) {
+                return;
+            }
+            publishQueueBlocked.incrementAndGet();
+            while (!shuttingDown.get()) {
+                if (publishQueue.offer(storedTransactionViewModel, QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publishes the bundle of a received transaction on the ORACLE zmq topic once all of its transactions arrived. A
+     * bundle is only published once, even if several of its transactions are processed after it became complete.
+     */
+    private void publishBundle(TransactionViewModel receivedTransactionViewModel) {
+        //zmq
+        try {
+            BundleViewModel receivedBundle = BundleViewModel.load(tangle, receivedTransactionViewModel.getBundleHash());
+            if (receivedTransactionViewModel.lastIndex() == receivedBundle.size() - 1) {
+                if (!publishedBundles.add(receivedTransactionViewModel.getBundleHash())) {
+                    duplicateBundleCount.incrementAndGet();
+                    return;
+                }
+                publishedBundleCount.incrementAndGet();
+                JsonArray preBundle = new JsonArray();
+                JsonArray publishBundle = new JsonArray();
+                String oracleTopic = null;
+
+                for (Hash txHash : receivedBundle.getHashes()) {
+                    TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, txHash);
+                    JsonObject addressTopicJson = new JsonObject();
+                    addressTopicJson.addProperty("tx_hash", transactionViewModel.getHash().toString());
+                    addressTopicJson.addProperty("bundle_hash", transactionViewModel.getBundleHash().toString());
+                    addressTopicJson.addProperty("signature", Hex.toHexString(transactionViewModel.getSignature()));
+                    addressTopicJson.addProperty("bundle_index", transactionViewModel.getCurrentIndex());
+                    preBundle.add(addressTopicJson);
+
+                    if (transactionViewModel.getCurrentIndex() == 0) {
+                        oracleTopic = transactionViewModel.getAddressHash().toString();
                     }
-                    tangle.publish("%s %s",
-                            "ORACLE_" + (oracleTopic != null ?
-                                    oracleTopic : receivedTransactionViewModel.getAddressHash().toString())
-                            , publishBundle.toString());
                 }
-            } catch (Exception e) {
-                log.error("Error publishing bundle.", e);
+                for (int i = preBundle.size()-1; i >= 0; i--) {
+                    publishBundle.add(preBundle.get(i));
+                }
+                tangle.publish("%s %s",
+                        "ORACLE_" + (oracleTopic != null ?
+                                oracleTopic : receivedTransactionViewModel.getAddressHash().toString())
+                        , publishBundle.toString());
             }
+        } catch (Exception e) {
+            log.error("Error publishing bundle.", e);
         }
     }
 
     /**
      * This is second step of incoming transaction processing. The newly received
-     * and validated transactions are stored in {@link Node#receiveQueue}. This function
+     * and validated transactions are stored in {@link Node#receiveQueues}. This function
      * picks up these transaction and stores them into the {@link Tangle} Database. The
      * transaction is then added to the broadcast queue, to be fruther spammed to the neighbors.
      */
@@ -536,21 +712,48 @@ public class Node {
             } catch (Exception e) {
                 log.error("Error getting random tip.", e);
             }
+        } else if (asyncTangle != null) {
+            //find requested txvm on the I/O threads and answer once it was loaded
+            asyncTangle.callAsync(() -> findRequestedTransaction(requestedHash)).whenComplete((found, error) -> {
+                if (error != null) {
+                    log.error("Error while searching for transaction.", error);
+                }
+                answerRequest(requestedHash, found, neighbor);
+            });
+            return;
         } else {
             //find requested txvm
             try {
-                //transactionViewModel = TransactionViewModel.find(Arrays.copyOf(requestedHash.bytes(), TransactionRequester.REQUEST_HASH_SIZE));
-                transactionViewModel = TransactionViewModel.fromHash(tangle, HashFactory.TRANSACTION.create(requestedHash.bytes(), 0, reqHashSize));
-                //log.debug("Requested Hash: " + requestedHash + " \nFound: " + transactionViewModel.getHash()); TODO: remove unused code
+                transactionViewModel = findRequestedTransaction(requestedHash);
             } catch (Exception e) {
                 log.error("Error while searching for transaction.", e);
             }
         }
 
+        answerRequest(requestedHash, transactionViewModel, neighbor);
+    }
+
+    private TransactionViewModel findRequestedTransaction(Hash requestedHash) throws Exception {
+        //transactionViewModel = TransactionViewModel.find(Arrays.copyOf(requestedHash.bytes(), TransactionRequester.REQUEST_HASH_SIZE));
+        TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle,
+                HashFactory.TRANSACTION.create(requestedHash.bytes(), 0, reqHashSize));
+        if (transactionViewModel.getType() != TransactionViewModel.FILLED_SLOT && reqHashSize < Hash.SIZE_IN_BYTES) {
+            // the omitted bytes of a shortened request are not necessarily zero
+            transactionViewModel = TransactionViewModel.findByPrefix(tangle,
+                    Arrays.copyOf(requestedHash.bytes(), reqHashSize));
+        }
+        //log.debug("Requested Hash: " + requestedHash + " \nFound: " + transactionViewModel.getHash()); TODO: remove unused code
+        return transactionViewModel;
+    }
+
+    /**
+     * Sends the requested transaction to the neighbor or, if it is missing, may request it from the other neighbors.
+     */
+    private void answerRequest(Hash requestedHash, TransactionViewModel transactionViewModel, Neighbor neighbor) {
         if (transactionViewModel != null && transactionViewModel.getType() == TransactionViewModel.FILLED_SLOT) {
             // send txvm back to neighbor
             try {
-                sendPacket(sendingPacket, transactionViewModel, neighbor);
+                sendPacket(sendingPacket.get(), transactionViewModel, neighbor);
 
                 ByteBuffer digest = getBytesDigest(transactionViewModel.getBytes());
                 synchronized (recentSeenBytes) {
@@ -586,7 +789,7 @@ public class Node {
      * to the outgoing packet. Note that this is only used for UDP handling. For TCP
      * the outgoing packets are sent by ReplicatorSinkProcessor
      *
-     * @param {@link DatagramPacket} sendingPacket the UDP payload buffer
+     * @param {@link DatagramPacket} sendingPacket the UDP payload buffer, which must not be shared between threads
      * @param {@link TransactionViewModel} transactionViewModel which should be sent.
      * @praram {@link Neighbor} the neighbor where this should be sent.
      *
@@ -606,29 +809,25 @@ public class Node {
             return;
         }
 
-        synchronized (sendingPacket) {
-            System.arraycopy(transactionViewModel.getBytes(), 0, sendingPacket.getData(), 0, TransactionViewModel.SIZE);
-            Hash hash = transactionRequester.transactionToRequest(rnd.nextDouble() < configuration.getpSelectMilestoneChild());
-            System.arraycopy(hash != null ? hash.bytes() : transactionViewModel.getHash().bytes(), 0,
-                    sendingPacket.getData(), TransactionViewModel.SIZE, reqHashSize);
-            neighbor.send(sendingPacket);
-        }
+        System.arraycopy(transactionViewModel.getBytes(), 0, sendingPacket.getData(), 0, TransactionViewModel.SIZE);
+        Hash hash = transactionRequester.transactionToRequest(rnd.nextDouble() < configuration.getpSelectMilestoneChild());
+        System.arraycopy(hash != null ? hash.bytes() : transactionViewModel.getHash().bytes(), 0,
+                sendingPacket.getData(), TransactionViewModel.SIZE, reqHashSize);
+        neighbor.send(sendingPacket);
 
         sendPacketsCounter.getAndIncrement();
     }
 
     /**
      * Does the same as {@link #sendPacket(DatagramPacket, TransactionViewModel, Neighbor)} but defaults to using the
-     * same internal {@link #sendingPacket} as all the other methods in this class, which allows external callers to
-     * send packets that are in "sync" (sending is synchronized over the packet object) with the rest of the methods
-     * used in this class.<br />
+     * internal {@link #sendingPacket} of the calling thread, like all the other methods in this class.<br />
      *
      * @param transactionViewModel the transaction that shall be sent
      * @param neighbor the neighbor that should receive the packet
      * @throws Exception if anything unexpected happens during the sending of the packet
      */
     public void sendPacket(TransactionViewModel transactionViewModel, Neighbor neighbor) throws Exception {
-        sendPacket(sendingPacket, transactionViewModel, neighbor);
+        sendPacket(sendingPacket.get(), transactionViewModel, neighbor);
     }
 
     /**
@@ -645,18 +844,21 @@ public class Node {
             while (!shuttingDown.get()) {
 
                 try {
-                    final TransactionViewModel transactionViewModel = broadcastQueue.pollFirst();
+                    final TransactionViewModel transactionViewModel = broadcastQueue.poll(QUEUE_POLL_TIMEOUT_MS,
+                            TimeUnit.MILLISECONDS);
                     if (transactionViewModel != null) {
 
                         for (final Neighbor neighbor : neighbors) {
                             try {
-                                sendPacket(sendingPacket, transactionViewModel, neighbor);
+                                sendPacket(sendingPacket.get(), transactionViewModel, neighbor);
                             } catch (final Exception e) {
                                 // ignore
                             }
                         }
                     }
-                    Thread.sleep(PAUSE_BETWEEN_TRANSACTIONS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (final Exception e) {
                     log.error("Broadcaster Thread Exception:", e);
                 }
@@ -708,101 +910,112 @@ public class Node {
         };
     }
 
-    private Runnable spawnProcessReceivedThread() {
+    /**
+     * @param partition the index of the receive queue that is processed by the thread
+     */
+    private Runnable spawnProcessReceivedThread(int partition) {
+        final BoundedQueue<Pair<TransactionViewModel, Neighbor>> receiveQueue = receiveQueues.get(partition);
+        final BoundedQueue<Pair<TransactionViewModel, Neighbor>> committedQueue = committedQueues.get(partition);
         return () -> {
 
-            log.info("Spawning Process Received Data Thread");
+            log.info("Spawning Process Received Data Thread {}", partition);
 
             while (!shuttingDown.get()) {
 
                 try {
-                    processReceivedDataFromQueue();
-                    Thread.sleep(1);
+                    final Pair<TransactionViewModel, Neighbor> committedData = committedQueue.poll();
+                    if (committedData != null) {
+                        processStoredData(committedData.getLeft(), committedData.getRight());
+                        continue;
+                    }
+                    final Pair<TransactionViewModel, Neighbor> receivedData = receiveQueue.poll(
+                            QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS, () -> !committedQueue.isEmpty());
+                    if (receivedData != null) {
+                        processReceivedData(receivedData.getLeft(), receivedData.getRight());
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (final Exception e) {
                     log.error("Process Received Data Thread Exception:", e);
                 }
             }
-            log.info("Shutting down Process Received Data Thread");
+            log.info("Shutting down Process Received Data Thread {}", partition);
         };
     }
 
-    private Runnable spawnReplyToRequestThread() {
+    /**
+     * Publishes the bundles of the stored transactions, so the receive threads do not wait for the bundle lookups and
+     * the zmq messages.
+     */
+    private Runnable spawnPublishBundleThread() {
         return () -> {
 
-            log.info("Spawning Reply To Request Thread");
+            log.info("Spawning Publish Bundle Thread");
 
             while (!shuttingDown.get()) {
 
                 try {
-                    replyToRequestFromQueue();
-                    Thread.sleep(1);
+                    final TransactionViewModel storedTransaction = publishQueue.poll(QUEUE_POLL_TIMEOUT_MS,
+                            TimeUnit.MILLISECONDS);
+                    if (storedTransaction != null) {
+                        publishBundle(storedTransaction);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (final Exception e) {
-                    log.error("Reply To Request Thread Exception:", e);
+                    log.error("Publish Bundle Thread Exception:", e);
                 }
             }
-            log.info("Shutting down Reply To Request Thread");
+            log.info("Shutting down Publish Bundle Thread");
         };
     }
 
+    private Runnable spawnReplyToRequestThread() {
+        return () -> {
 
-    private static ConcurrentSkipListSet<TransactionViewModel> weightQueue() {
-        return new ConcurrentSkipListSet<>((transaction1, transaction2) -> {
-            if (transaction1.weightMagnitude == transaction2.weightMagnitude) {
-                for (int i = Hash.SIZE_IN_BYTES; i-- > 0; ) {
-                    if (transaction1.getHash().bytes()[i] != transaction2.getHash().bytes()[i]) {
-                        return transaction2.getHash().bytes()[i] - transaction1.getHash().bytes()[i];
-                    }
-                }
-                return 0;
-            }
-            return transaction2.weightMagnitude - transaction1.weightMagnitude;
-        });
-    }
-
-    //TODO generalize these weightQueues
-    private static ConcurrentSkipListSet<Pair<Hash, Neighbor>> weightQueueHashPair() {
-        return new ConcurrentSkipListSet<Pair<Hash, Neighbor>>((transaction1, transaction2) -> {
-            Hash tx1 = transaction1.getLeft();
-            Hash tx2 = transaction2.getLeft();
-
-            for (int i = Hash.SIZE_IN_BYTES; i-- > 0; ) {
-                if (tx1.bytes()[i] != tx2.bytes()[i]) {
-                    return tx2.bytes()[i] - tx1.bytes()[i];
-                }
-            }
-            return 0;
-
-        });
-    }
+            log.info("Spawning Reply To Request Thread");
 
-    private static ConcurrentSkipListSet<Pair<TransactionViewModel, Neighbor>> weightQueueTxPair() {
-        return new ConcurrentSkipListSet<Pair<TransactionViewModel, Neighbor>>((transaction1, transaction2) -> {
-            TransactionViewModel tx1 = transaction1.getLeft();
-            TransactionViewModel tx2 = transaction2.getLeft();
+            while (!shuttingDown.get()) {
 
-            if (tx1.weightMagnitude == tx2.weightMagnitude) {
-                for (int i = Hash.SIZE_IN_BYTES; i-- > 0; ) {
-                    if (tx1.getHash().bytes()[i] != tx2.getHash().bytes()[i]) {
-                        return tx2.getHash().bytes()[i] - tx1.getHash().bytes()[i];
+                try {
+                    final Pair<Hash, Neighbor> receivedData = replyQueue.poll(QUEUE_POLL_TIMEOUT_MS,
+                            TimeUnit.MILLISECONDS);
+                    if (receivedData != null) {
+                        replyToRequest(receivedData.getLeft(), receivedData.getRight());
                     }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (final Exception e) {
+                    log.error("Reply To Request Thread Exception:", e);
                 }
-                return 0;
             }
-            return tx2.weightMagnitude - tx1.weightMagnitude;
-        });
+            log.info("Shutting down Reply To Request Thread");
+        };
     }
 
+    /**
+     * Lets the node look up the transactions requested by its neighbors asynchronously, so the reply thread can
+     * continue with the next request while the database reads. Has to be called before {@link #init()}.
+     *
+     * @param asyncTangle the asynchronous tangle or {@code null} to look up transactions synchronously
+     */
+    public void setAsyncTangle(AsyncTangle asyncTangle) {
+        this.asyncTangle = asyncTangle;
+    }
 
     public void broadcast(final TransactionViewModel transactionViewModel) {
-        broadcastQueue.add(transactionViewModel);
-        if (broadcastQueue.size() > BROADCAST_QUEUE_SIZE) {
-            broadcastQueue.pollLast();
-        }
+        broadcastQueue.offer(transactionViewModel);
     }
 
     public void shutdown() throws InterruptedException {
         shuttingDown.set(true);
         executor.awaitTermination(6, TimeUnit.SECONDS);
+        if (groupCommitWriter != null) {
+            groupCommitWriter.shutdown();
+        }
     }
 
     private ByteBuffer getBytesDigest(byte[] receivedData) throws NoSuchAlgorithmException {
@@ -846,7 +1059,7 @@ public class Node {
                 return new TCPNeighbor(new InetSocketAddress(uri.getHost(), uri.getPort()), isConfigured);
             }
             if (uri.getScheme().equals("udp")) {
-                return new UDPNeighbor(new InetSocketAddress(uri.getHost(), uri.getPort()), udpSocket, isConfigured);
+                return new UDPNeighbor(new InetSocketAddress(uri.getHost(), uri.getPort()), udpChannel, isConfigured);
             }
         }
         throw new IllegalArgumentException(uri.toString());
@@ -890,13 +1103,49 @@ public class Node {
     }
 
     public int getReceiveQueueSize() {
-        return receiveQueue.size();
+        int size = 0;
+        for (BoundedQueue<Pair<TransactionViewModel, Neighbor>> receiveQueue : receiveQueues) {
+            size += receiveQueue.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the batch counters and latencies of the {@link GroupCommitWriter}, empty if group commits are disabled
+     */
+    public Map<String, Long> getGroupCommitStatistics() {
+        return groupCommitWriter == null ? Collections.emptyMap() : groupCommitWriter.getStatistics();
     }
 
     public int getReplyQueueSize() {
         return replyQueue.size();
     }
 
+    /**
+     * @return the depth, the offered, dropped and polled elements and the latency of the broadcast, receive and reply
+     *         queues, the receive queues are reported per partition, as well as the depth of the publish queue, how
+     *         often it made a receive thread wait and the number of published and of skipped duplicate bundles
+     */
+    public Map<String, Long> getQueueStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        for (BoundedQueue<Pair<TransactionViewModel, Neighbor>> receiveQueue : receiveQueues) {
+            statistics.putAll(receiveQueue.getStatistics());
+        }
+        if (groupCommitWriter != null) {
+            for (BoundedQueue<Pair<TransactionViewModel, Neighbor>> committedQueue : committedQueues) {
+                statistics.putAll(committedQueue.getStatistics());
+            }
+        }
+        statistics.put("publishQueueSize", (long) publishQueue.size());
+        statistics.put("publishQueueCapacity", (long) (publishQueue.size() + publishQueue.remainingCapacity()));
+        statistics.put("publishQueueBlocked", publishQueueBlocked.get());
+        statistics.put("publishedBundles", publishedBundleCount.get());
+        statistics.put("duplicateBundles", duplicateBundleCount.get());
+        statistics.putAll(replyQueue.getStatistics());
+        statistics.putAll(broadcastQueue.getStatistics());
+        return statistics;
+    }
+
     public class FIFOCache<K, V> {
 
         private final int capacity;
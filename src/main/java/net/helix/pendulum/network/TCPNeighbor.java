@@ -6,10 +6,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.nio.ByteBuffer;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 
 /**
  * Created by paul on 4/15/17.
@@ -17,32 +16,55 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * This class Extends {@link Neighbor} base class with TCP specific functionality.
- * It keeps reference of Source and Sink while maintaining a sendQueue for keeping
- * outgoing requests.
+ * It keeps reference of Source and Sink channels while maintaining a bounded sendQueue for keeping
+ * outgoing requests. The sink of the neighbor writes the queued requests whenever its connection accepts them.
  *
  */
 public class TCPNeighbor extends Neighbor {
     private static final Logger log = LoggerFactory.getLogger(Neighbor.class);
+
+    /**
+     * The number of outgoing packets that wait for the sink before new packets are dropped.
+     */
+    private static final int SEND_QUEUE_SIZE = 100;
+
     private int tcpPort;
 
-    private final ArrayBlockingQueue<ByteBuffer> sendQueue = new ArrayBlockingQueue<>(10);
-    private boolean stopped = false;
+    private final BoundedQueue<ByteBuffer> sendQueue = new BoundedQueue<>("tcpSend", SEND_QUEUE_SIZE,
+            BoundedQueue.DropPolicy.DROP_NEWEST);
+    private volatile boolean stopped = false;
 
-    private Socket source = null;
-    private Socket sink = null;
+    private volatile SocketChannel source = null;
+    private volatile SocketChannel sink = null;
+
+    /**
+     * Called after a packet was queued, lets the connected sink write it.
+     */
+    private volatile Runnable sendListener = null;
+
+    /**
+     * The framing version of neighbors that did not announce a newer one, which every node understands.
+     */
+    private static final int LEGACY_FRAMING_VERSION = 1;
+
+    /**
+     * The latest framing version the neighbor announced in the handshake of its sink, reset once its source is gone.
+     */
+    private volatile int framingVersion = LEGACY_FRAMING_VERSION;
 
     public TCPNeighbor(InetSocketAddress address, boolean isConfigured) {
         super(address, isConfigured);
         this.tcpPort = address.getPort();
     }
 
-    public Socket getSource() {
+    public SocketChannel getSource() {
         return source;
     }
 
     public void clear() {
         setSource(null);
         setSink(null);
+        this.framingVersion = LEGACY_FRAMING_VERSION;
         this.stopped = true;
     }
 
@@ -50,8 +72,8 @@ public class TCPNeighbor extends Neighbor {
         return stopped;
     }
 
-    public void setSource(Socket source) {
-        if (source == null && this.source != null && !this.source.isClosed()) {
+    public void setSource(SocketChannel source) {
+        if (source == null && this.source != null && this.source.isOpen()) {
             try {
                 this.source.close();
                 log.info("Source {} closed", this.getHostAddress());
@@ -62,12 +84,12 @@ public class TCPNeighbor extends Neighbor {
         this.source = source;
     }
 
-    public Socket getSink() {
+    public SocketChannel getSink() {
         return sink;
     }
 
-    public void setSink(Socket sink) {
-        if (sink == null && this.sink != null && !this.sink.isClosed()) {
+    public void setSink(SocketChannel sink) {
+        if (sink == null && this.sink != null && this.sink.isOpen()) {
             try {
                 this.sink.close();
                 log.info("Sink {} closed", this.getHostAddress());
@@ -75,25 +97,36 @@ public class TCPNeighbor extends Neighbor {
                 log.error("Sink {} close failure: {}", this.getHostAddress(), e.toString());
             }
         }
+        if (sink == null) {
+            sendListener = null;
+        }
         this.sink = sink;
     }
 
     /**
-     * This is a non-blocking write and that makes it necessary to make a defensive copy of the sent data.
+     * @param sendListener called after a packet was queued, {@code null} if no sink writes the queued packets
+     */
+    public void setSendListener(Runnable sendListener) {
+        this.sendListener = sendListener;
+    }
+
+    /**
+     * This is a non-blocking write and that makes it necessary to make a defensive copy of the sent data. A packet is
+     * dropped and counted as dropped if the sink cannot keep up and the queue is full.
      *
      * @param packet the data to be queued for sending.
      */
     @Override
     public void send(DatagramPacket packet) {
-        synchronized (sendQueue) {
-            if (sendQueue.remainingCapacity() == 0) {
-                sendQueue.poll();
-                log.debug("Sendqueue full...dropped 1 tx");
-            }
-            byte[] bytes = packet.getData().clone();
-            sendQueue.add(ByteBuffer.wrap(bytes));
+        byte[] bytes = Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength());
+        if (!sendQueue.offer(ByteBuffer.wrap(bytes))) {
+            incDroppedPackets();
+            log.debug("Sendqueue full...dropped 1 tx");
+        }
+        Runnable listener = sendListener;
+        if (listener != null) {
+            listener.run();
         }
-
     }
 
     @Override
@@ -110,8 +143,29 @@ public class TCPNeighbor extends Neighbor {
         this.tcpPort = tcpPort;
     }
 
-    public ByteBuffer getNextMessage() throws InterruptedException {
-        return (this.sendQueue.poll(10000, TimeUnit.MILLISECONDS));
+    /**
+     * @return the latest version of the framing of the tcp replicator the neighbor understands
+     */
+    public int getFramingVersion() {
+        return framingVersion;
+    }
+
+    public void setFramingVersion(int framingVersion) {
+        this.framingVersion = framingVersion;
+    }
+
+    /**
+     * @return the next queued packet or {@code null} if the queue is empty
+     */
+    public ByteBuffer pollNextMessage() {
+        return sendQueue.poll();
+    }
+
+    /**
+     * Counts a queued packet the sink could not send.
+     */
+    public void dropMessage() {
+        incDroppedPackets();
     }
 
-}
\ No newline at end of file
+}
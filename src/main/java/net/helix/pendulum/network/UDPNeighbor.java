@@ -4,8 +4,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Created by paul on 4/15/17.
@@ -13,36 +15,85 @@ import java.net.InetSocketAddress;
 
 /**
  * This class Extends {@link Neighbor} base class with UDP specific functionality.
- * It keeps reference of socket and doesnt maintains any queue for UDP outgoing packets.
+ * It keeps reference of the non-blocking channel of the {@link UDPReceiver} and a queue of the outgoing packets,
+ * which are sent whenever the socket accepts them.
  *
  */
 public class UDPNeighbor extends Neighbor {
 
     private static final Logger log = LoggerFactory.getLogger(UDPNeighbor.class);
 
-    private final DatagramSocket socket;
+    /**
+     * The number of outgoing packets that wait for the socket before new packets are dropped.
+     */
+    private static final int SEND_QUEUE_SIZE = 100;
+
+    private final DatagramChannel channel;
+
+    private final BoundedQueue<ByteBuffer> sendQueue = new BoundedQueue<>("udpSend", SEND_QUEUE_SIZE,
+            BoundedQueue.DropPolicy.DROP_NEWEST);
+    private final ByteBufferPool bufferPool = new ByteBufferPool(SEND_QUEUE_SIZE);
+
+    /**
+     * Set by the thread that writes the queued packets to the socket.
+     */
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    /**
+     * The packet the socket did not accept yet, only accessed by the thread that set {@link #flushing}.
+     */
+    private volatile ByteBuffer pendingPacket;
 
-    UDPNeighbor(final InetSocketAddress address, final DatagramSocket socket, final boolean isConfigured) {
+    UDPNeighbor(final InetSocketAddress address, final DatagramChannel channel, final boolean isConfigured) {
         super(address, isConfigured);
-        this.socket = socket;
+        this.channel = channel;
     }
 
     /**
-     * This is a blocking write and it is not necessary to copy the sent data.
+     * This is a non-blocking write and that makes it necessary to copy the sent data. The copy is queued and the
+     * queued packets are sent as long as the socket accepts them. Packets the socket could not take yet are sent
+     * together with the next packet, a packet is dropped and counted as dropped if the queue is full.
      *
-     * @param packet the packet to be sent immediately.
+     * @param packet the data to be queued for sending.
      */
     @Override
     public void send(DatagramPacket packet) {
-        try {
-            packet.setSocketAddress(getAddress());
-            socket.send(packet);
-            incSentTransactions();
-        } catch (final Exception e) {
-            log.error("Error sending UDP packet to [{}]: {}", getAddress(), e.toString());
+        ByteBuffer buffer = bufferPool.acquire(packet.getLength());
+        buffer.put(packet.getData(), packet.getOffset(), packet.getLength());
+        buffer.flip();
+        if (!sendQueue.offer(buffer)) {
+            bufferPool.release(buffer);
+            incDroppedPackets();
+        }
+        flush();
+    }
+
+    /**
+     * Writes the queued packets until the queue is empty or the socket buffer is full. Only one thread writes at a
+     * time, a thread that finds another one writing leaves its packets to it.
+     */
+    void flush() {
+        while (flushing.compareAndSet(false, true)) {
+            boolean socketFull;
+            try {
+                socketFull = !sendQueuedPackets();
+            } finally {
+                flushing.set(false);
+            }
+            // a packet that was queued while this thread was writing might have been left to it
+            if (socketFull || (pendingPacket == null && sendQueue.isEmpty())) {
+                return;
+            }
         }
     }
 
+    /**
+     * @return the number of packets that wait for the socket
+     */
+    public int getSendQueueSize() {
+        return sendQueue.size() + (pendingPacket == null ? 0 : 1);
+    }
+
     @Override
     public int getPort() {
         return getAddress().getPort();
@@ -53,4 +104,30 @@ public class UDPNeighbor extends Neighbor {
         return "udp";
     }
 
-}
\ No newline at end of file
+    /**
+     * @return <code>false</code> if the socket buffer is full, <code>true</code> if all queued packets were sent
+     */
+    private boolean sendQueuedPackets() {
+        while (true) {
+            ByteBuffer packet = pendingPacket;
+            if (packet == null) {
+                packet = sendQueue.poll();
+                if (packet == null) {
+                    return true;
+                }
+            }
+            try {
+                if (channel.send(packet, getAddress()) == 0) {
+                    pendingPacket = packet;
+                    return false;
+                }
+                incSentTransactions();
+            } catch (final Exception e) {
+                log.error("Error sending UDP packet to [{}]: {}", getAddress(), e.toString());
+            }
+            pendingPacket = null;
+            bufferPool.release(packet);
+        }
+    }
+
+}
@@ -6,101 +6,159 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.DatagramPacket;
-import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.util.Arrays;
-import java.util.concurrent.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by paul on 4/16/17.
  */
+
+/**
+ * Receives the UDP packets of the neighbors on a non-blocking {@link DatagramChannel}, which the {@link UDPNeighbor}s
+ * also use to send their packets.
+ *
+ * <p>
+ *     Several receiver threads read from the channel. Every thread waits on its own {@link Selector} until packets
+ *     arrive and then reads up to {@value #RECEIVE_BATCH_SIZE} packets into its direct buffers, before it passes them
+ *     to {@link Node#preProcessReceivedData}. Reading a batch at once empties the socket buffer quickly, so the kernel
+ *     drops fewer packets while the threads validate the transactions.
+ * </p>
+ */
 public class UDPReceiver {
     private static final Logger log = LoggerFactory.getLogger(UDPReceiver.class);
 
-    private final DatagramPacket receivingPacket;
+    /**
+     * The maximum number of packets a receiver thread reads before it processes them.
+     */
+    private static final int RECEIVE_BATCH_SIZE = 32;
+
+    /**
+     * The time the receiver threads wait for packets, before they check whether the receiver is shutting down.
+     */
+    private static final long SELECT_TIMEOUT_MS = 500;
 
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
     private final int port;
     private final Node node;
     private final int packetSize;
+    private final int receiverThreads;
 
-    private DatagramSocket socket;
+    private final AtomicLong processedPackets = new AtomicLong();
+    private final AtomicLong malformedPackets = new AtomicLong();
 
-    private final int PROCESSOR_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() * 4 );
+    private DatagramChannel channel;
 
-    private final ExecutorService processor = new ThreadPoolExecutor(PROCESSOR_THREADS, PROCESSOR_THREADS, 5000L,
-            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(PROCESSOR_THREADS, true),
-            new ThreadPoolExecutor.AbortPolicy());
-
-    private Thread receivingThread;
+    private final List<Thread> receivingThreads = new ArrayList<>();
 
     public UDPReceiver(Node node, NodeConfig config) {
         this.node = node;
         this.port = config.getUdpReceiverPort();
         this.packetSize = config.getTransactionPacketSize();
-        this.receivingPacket = new DatagramPacket(new byte[packetSize], packetSize);
+        this.receiverThreads = Math.max(1, config.getUdpReceiverThreads());
     }
 
     public void init() throws Exception {
 
-        socket = new DatagramSocket(port);
-        node.setUDPSocket(socket);
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(port));
+        node.setUDPChannel(channel);
         log.info("UDP replicator is accepting connections on udp port " + port);
 
-        receivingThread = new Thread(spawnReceiverThread(), "UDP receiving thread");
-        receivingThread.start();
+        for (int i = 0; i < receiverThreads; i++) {
+            Thread receivingThread = new Thread(spawnReceiverThread(), "UDP receiving thread " + i);
+            receivingThreads.add(receivingThread);
+            receivingThread.start();
+        }
     }
 
     private Runnable spawnReceiverThread() {
         return () -> {
 
-
             log.info("Spawning Receiver Thread");
 
-            int processed = 0;
-            int dropped = 0;
-
-            while (!shuttingDown.get()) {
-
-                if (((processed + dropped) % 50000 == 49999)) {
-                    log.info("Receiver thread processed/dropped ratio: "+processed+"/"+dropped);
-                    processed = 0;
-                    dropped = 0;
-                }
-
-                try {
-                    socket.receive(receivingPacket);
-
-                    if (receivingPacket.getLength() == packetSize) {
-
-                        byte[] bytes = Arrays.copyOf(receivingPacket.getData(), receivingPacket.getLength());
-                        SocketAddress address = receivingPacket.getSocketAddress();
-
-                        processor.submit(() -> node.preProcessReceivedData(bytes, address, "udp"));
-                        processed++;
-
-                        Thread.yield();
-
-                    } else {
-                        receivingPacket.setLength(packetSize);
+            // one extra byte tells packets that are too long from packets of the right size
+            ByteBuffer[] buffers = new ByteBuffer[RECEIVE_BATCH_SIZE];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.allocateDirect(packetSize + 1);
+            }
+            SocketAddress[] senders = new SocketAddress[RECEIVE_BATCH_SIZE];
+
+            try (Selector selector = Selector.open()) {
+                channel.register(selector, SelectionKey.OP_READ);
+
+                while (!shuttingDown.get()) {
+                    try {
+                        if (selector.select(SELECT_TIMEOUT_MS) == 0) {
+                            continue;
+                        }
+                        selector.selectedKeys().clear();
+
+                        int received = receiveBatch(buffers, senders);
+                        for (int i = 0; i < received; i++) {
+                            processPacket(buffers[i], senders[i]);
+                            senders[i] = null;
+                        }
+                    } catch (final Exception e) {
+                        log.error("Receiver Thread Exception:", e);
                     }
-                } catch (final RejectedExecutionException e) {
-                    //no free thread, packet dropped
-                    dropped++;
-
-                } catch (final Exception e) {
-                    log.error("Receiver Thread Exception:", e);
                 }
+            } catch (final IOException e) {
+                log.error("Receiver Thread Exception:", e);
             }
             log.info("Shutting down spawning Receiver Thread");
         };
     }
 
+    /**
+     * Reads the packets that are waiting in the socket buffer, other receiver threads may read some of them first.
+     *
+     * @return the number of packets that were read into the buffers
+     */
+    private int receiveBatch(ByteBuffer[] buffers, SocketAddress[] senders) throws IOException {
+        int received = 0;
+        while (received < buffers.length) {
+            ByteBuffer buffer = buffers[received];
+            buffer.clear();
+            SocketAddress sender = channel.receive(buffer);
+            if (sender == null) {
+                break;
+            }
+            buffer.flip();
+            senders[received++] = sender;
+        }
+        return received;
+    }
+
+    private void processPacket(ByteBuffer buffer, SocketAddress sender) {
+        if (buffer.remaining() != packetSize) {
+            malformedPackets.incrementAndGet();
+            return;
+        }
+        // the transaction keeps the bytes, so every packet needs its own array
+        byte[] bytes = new byte[packetSize];
+        buffer.get(bytes);
+        node.preProcessReceivedData(bytes, sender, "udp");
+
+        if (processedPackets.incrementAndGet() % 50000 == 0) {
+            log.info("Receiver threads processed/malformed packets: " + processedPackets.get() + "/"
+                    + malformedPackets.get());
+        }
+    }
+
     public void send(final DatagramPacket packet) {
         try {
-            if (socket != null) {
-                socket.send(packet);
+            if (channel != null) {
+                channel.send(ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength()),
+                        packet.getSocketAddress());
             }
         } catch (IOException e) {
             // ignore
@@ -109,14 +167,21 @@ public class UDPReceiver {
 
     public void shutdown() throws InterruptedException {
         shuttingDown.set(true);
-        processor.shutdown();
-        processor.awaitTermination(6, TimeUnit.SECONDS);
-        try {
-            receivingThread.join(6000L);
+        for (Thread receivingThread : receivingThreads) {
+            try {
+                receivingThread.join(6000L);
+            }
+            catch (Exception e) {
+                // ignore
+            }
         }
-        catch (Exception e) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
             // ignore
         }
     }
 
-}
\ No newline at end of file
+}
@@ -5,47 +5,59 @@ import net.helix.pendulum.network.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
 
 /**
- * This class manages a set of Source and Sink pool workers {@link ReplicatorSourceProcessor}
- * and {@link ReplicatorSinkProcessor}. The workers are managed by the Pool manager threads
- * {@link ReplicatorSourcePool} and {@link ReplicatorSinkPool}
+ * This class manages the Source and Sink connections of the TCP neighbors, which are read by
+ * {@link ReplicatorSourceProcessor}s and written by {@link ReplicatorSinkProcessor}s. The connections are created by
+ * the Pool managers {@link ReplicatorSourcePool} and {@link ReplicatorSinkPool}
+ * <br>
+ * A **Sink** is the connection we open to a peer, all the transactions we send to the peer are written to it.
  * <br>
- * A **Sink** is basically a received end point for TCP where all  the peers send
- * trnasactions to. Since there is only one global endpoint for all the peers, we need
- * only a single thread to manage all the incoming messages.
+ * A **Source** is the connection a peer opens to us, the peer sends its transactions over it.
  * <br>
- * A **Source** is a single peer which sends packets to us, therefore we need multiple worker
- * threads to manage sending transaction to multiple peers.
+ * All connections are non-blocking and share a small {@link ReplicatorEventLoopGroup}, so the number of threads does
+ * not grow with the number of neighbors.
  *
  */
 
 public class Replicator {
 
-    public static final int NUM_THREADS = 32;
-
     private static final Logger log = LoggerFactory.getLogger(Replicator.class);
     private final ReplicatorSinkPool replicatorSinkPool;
     private final int port;
+    private final int threads;
     private ReplicatorSourcePool replicatorSourcePool;
+    private ReplicatorEventLoopGroup eventLoops;
+    private Thread sinkPoolThread;
 
     public Replicator(Node node, NodeConfig configuration) {
         this.port = configuration.getTcpReceiverPort();
+        this.threads = configuration.getTcpReplicatorThreads();
         replicatorSinkPool = new ReplicatorSinkPool(node, port, configuration.getTransactionPacketSize());
         replicatorSourcePool = new ReplicatorSourcePool(replicatorSinkPool, node, configuration.getMaxPeers(),
                 configuration.isTestnet());
     }
 
-    public void init() {
-        new Thread(replicatorSinkPool).start();
-        new Thread(replicatorSourcePool.init(port)).start();
+    public void init() throws IOException {
+        eventLoops = new ReplicatorEventLoopGroup(threads);
+        eventLoops.start();
+        sinkPoolThread = new Thread(replicatorSinkPool.init(eventLoops), "TCP Replicator Sink Pool");
+        sinkPoolThread.start();
+        replicatorSourcePool.init(port, eventLoops);
         log.info("Started ReplicatorSourcePool");
     }
 
     public void shutdown() throws InterruptedException {
-        // TODO
         replicatorSourcePool.shutdown();
         replicatorSinkPool.shutdown();
+        if (sinkPoolThread != null) {
+            sinkPoolThread.interrupt();
+        }
+        if (eventLoops != null) {
+            eventLoops.shutdown();
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package net.helix.pendulum.network.replicator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A thread that waits on a {@link Selector} for the TCP connections of many neighbors and calls the {@link Handler}
+ * of every connection that can be read or written without blocking.
+ *
+ * <p>
+ *     The selector and the channels registered with it are only used by the thread of the loop. Other threads hand
+ *     their work to the loop with {@link #execute(Runnable)}, which wakes up the selector.
+ * </p>
+ */
+class ReplicatorEventLoop implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicatorEventLoop.class);
+
+    /**
+     * The maximum time the loop waits for a connection, before it checks the timeouts of its connections and whether
+     * it is shutting down.
+     */
+    private static final long SELECT_TIMEOUT_MS = 1000;
+
+    /**
+     * Handles the events of a channel registered with an {@link ReplicatorEventLoop}. All methods are called by the
+     * thread of the loop.
+     */
+    interface Handler {
+
+        /**
+         * Called when the channel is ready for the operations of its selection key.
+         *
+         * @param key the selection key of the channel
+         * @throws IOException if the connection failed, {@link #failed(Exception)} is called next
+         */
+        void handle(SelectionKey key) throws IOException;
+
+        /**
+         * Closes the connection after an error.
+         *
+         * @param e the error
+         */
+        void failed(Exception e);
+
+        /**
+         * Called about once per second, lets the handler close a connection that took too long.
+         *
+         * @param now the current time in milliseconds
+         */
+        default void checkTimeout(long now) {
+        }
+    }
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean shutdown = false;
+    private Thread thread;
+
+    ReplicatorEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    void start() {
+        thread = new Thread(this, name);
+        thread.start();
+    }
+
+    /**
+     * Runs a task on the thread of the loop.
+     *
+     * @param task the task
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * @return the selector of the loop, which may only be used by the thread of the loop
+     */
+    Selector selector() {
+        return selector;
+    }
+
+    /**
+     * Registers a non-blocking channel with the selector of the loop.
+     *
+     * @param channel the channel
+     * @param ops the operations the handler is interested in
+     * @param handler the handler of the events of the channel
+     */
+    void register(SelectableChannel channel, int ops, Handler handler) {
+        execute(() -> {
+            try {
+                channel.register(selector, ops, handler);
+            } catch (IOException e) {
+                handler.failed(e);
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        log.info("Spawning {}", name);
+        long nextTimeoutCheck = System.currentTimeMillis() + SELECT_TIMEOUT_MS;
+
+        while (!shutdown) {
+            try {
+                selector.select(SELECT_TIMEOUT_MS);
+                runTasks();
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    handle(key);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextTimeoutCheck) {
+                    nextTimeoutCheck = now + SELECT_TIMEOUT_MS;
+                    for (SelectionKey key : selector.keys()) {
+                        if (key.isValid()) {
+                            ((Handler) key.attachment()).checkTimeout(now);
+                        }
+                    }
+                }
+            } catch (final Exception e) {
+                log.error("{} Exception:", name, e);
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // don't care.
+        }
+        log.info("Shutting down {}", name);
+    }
+
+    void shutdown() throws InterruptedException {
+        shutdown = true;
+        selector.wakeup();
+        if (thread != null) {
+            thread.join(6000L);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                log.error("{} Exception:", name, e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Handler handler = (Handler) key.attachment();
+        try {
+            if (key.isValid()) {
+                handler.handle(key);
+            }
+        } catch (final IOException | RuntimeException e) {
+            key.cancel();
+            handler.failed(e);
+        }
+    }
+}
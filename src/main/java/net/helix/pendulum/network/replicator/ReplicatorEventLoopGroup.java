@@ -0,0 +1,43 @@
+package net.helix.pendulum.network.replicator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed number of {@link ReplicatorEventLoop}s, which share the TCP connections of all neighbors. New connections
+ * are assigned to the loops in turn.
+ */
+class ReplicatorEventLoopGroup {
+
+    private final List<ReplicatorEventLoop> eventLoops = new ArrayList<>();
+    private final AtomicInteger nextEventLoop = new AtomicInteger();
+
+    /**
+     * @param threads the number of event loops
+     * @throws IOException if a selector could not be opened
+     */
+    ReplicatorEventLoopGroup(int threads) throws IOException {
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            eventLoops.add(new ReplicatorEventLoop("TCP Replicator Event Loop " + i));
+        }
+    }
+
+    void start() {
+        eventLoops.forEach(ReplicatorEventLoop::start);
+    }
+
+    /**
+     * @return the event loop of the next connection
+     */
+    ReplicatorEventLoop next() {
+        return eventLoops.get(Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.size()));
+    }
+
+    void shutdown() throws InterruptedException {
+        for (ReplicatorEventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+}
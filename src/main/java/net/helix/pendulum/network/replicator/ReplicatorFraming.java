@@ -0,0 +1,163 @@
+package net.helix.pendulum.network.replicator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * The formats in which the sinks write packets to the sources of their neighbors.
+ *
+ * <p>
+ *     A sink starts with a handshake of {@value ReplicatorSinkPool#PORT_BYTES} characters, which contains its tcp
+ *     listener port. In {@link #VERSION_1} every packet is followed by its CRC32 checksum as
+ *     {@value ReplicatorSinkProcessor#CRC32_BYTES} hexadecimal digits. Nodes that understand {@link #VERSION_2} write
+ *     their port with a leading <code>+</code>, which older nodes parse like the zero they expect. Once a sink knows
+ *     from the handshake of the source of its neighbor that the neighbor understands version 2, it writes a
+ *     {@link #markerFrame(int, int) marker frame} and continues with version 2 frames.
+ * </p>
+ * <p>
+ *     A version 2 frame holds up to {@value #MAX_PACKETS_PER_FRAME} packets behind a header of
+ *     {@value #HEADER_BYTES} bytes: the length of the packets and their binary CRC32 checksum. The source checks the
+ *     whole frame at once and does not create any strings or arrays for the checksum.
+ * </p>
+ */
+final class ReplicatorFraming {
+
+    /**
+     * Every packet is followed by its checksum as hexadecimal digits.
+     */
+    static final int VERSION_1 = 1;
+
+    /**
+     * Batches of packets behind a binary length and checksum.
+     */
+    static final int VERSION_2 = 2;
+
+    /**
+     * The latest version this node writes and reads.
+     */
+    static final int LATEST_VERSION = VERSION_2;
+
+    /**
+     * The length and the checksum of a version 2 frame.
+     */
+    static final int HEADER_BYTES = 8;
+
+    static final int MAX_PACKETS_PER_FRAME = 64;
+
+    /**
+     * Written instead of the hexadecimal checksum of a marker frame, followed by the two digits of the new version.
+     * Real checksums consist of lowercase hexadecimal digits only.
+     */
+    private static final byte[] MARKER_PREFIX = "FRAMINGVERSION".getBytes(StandardCharsets.US_ASCII);
+
+    private ReplicatorFraming() {
+    }
+
+    /**
+     * @param port the tcp listener port of the node
+     * @return the handshake that announces the port and that the node understands {@link #LATEST_VERSION}
+     */
+    static byte[] handshake(int port) {
+        String fmt = "+%0" + (ReplicatorSinkPool.PORT_BYTES - 1) + "d";
+        return String.format(fmt, port).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param handshake the handshake of a neighbor
+     * @return the tcp listener port of the neighbor
+     * @throws NumberFormatException if the handshake does not contain a number
+     */
+    static int port(byte[] handshake) {
+        return (int) Long.parseLong(new String(handshake, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param handshake the handshake of a neighbor
+     * @return the latest version the neighbor understands
+     */
+    static int version(byte[] handshake) {
+        return handshake[0] == '+' ? VERSION_2 : VERSION_1;
+    }
+
+    /**
+     * Creates the version 1 frame that tells the source to read the following frames in a new version.
+     *
+     * @param packetSize the size of the packets
+     * @param version the new version
+     * @return the frame
+     */
+    static byte[] markerFrame(int packetSize, int version) {
+        byte[] frame = new byte[packetSize + ReplicatorSinkProcessor.CRC32_BYTES];
+        System.arraycopy(MARKER_PREFIX, 0, frame, packetSize, MARKER_PREFIX.length);
+        frame[frame.length - 2] = (byte) ('0' + version / 10);
+        frame[frame.length - 1] = (byte) ('0' + version % 10);
+        return frame;
+    }
+
+    /**
+     * @param frame the read bytes
+     * @param offset the index of a version 1 frame in the bytes
+     * @param packetSize the size of the packets
+     * @return the version announced by the frame or 0 if it is not a marker frame
+     */
+    static int markedVersion(byte[] frame, int offset, int packetSize) {
+        int checksum = offset + packetSize;
+        for (int i = 0; i < MARKER_PREFIX.length; i++) {
+            if (frame[checksum + i] != MARKER_PREFIX[i]) {
+                return 0;
+            }
+        }
+        int digits = checksum + ReplicatorSinkProcessor.CRC32_BYTES - 2;
+        return (frame[digits] - '0') * 10 + (frame[digits + 1] - '0');
+    }
+
+    /**
+     * @param crc32 the checksum, which is reset first
+     * @param data the data of a packet
+     * @param offset the index of the first byte that is checked
+     * @param length the number of bytes that are checked
+     * @return the CRC32 checksum of the bytes as {@value ReplicatorSinkProcessor#CRC32_BYTES} hexadecimal digits
+     */
+    static byte[] hexChecksum(CRC32 crc32, byte[] data, int offset, int length) {
+        long value = checksum(crc32, data, offset, length);
+        byte[] digits = new byte[ReplicatorSinkProcessor.CRC32_BYTES];
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (byte) Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+        return digits;
+    }
+
+    /**
+     * Checks a version 1 frame without creating the hexadecimal digits of its checksum.
+     *
+     * @param crc32 the checksum, which is reset first
+     * @param frame the read bytes
+     * @param offset the index of the packet in the bytes
+     * @param packetSize the size of the packet, which is followed by its checksum
+     * @return <code>true</code> if the checksum is correct
+     */
+    static boolean hasValidHexChecksum(CRC32 crc32, byte[] frame, int offset, int packetSize) {
+        long value = checksum(crc32, frame, offset, packetSize);
+        for (int i = offset + packetSize + ReplicatorSinkProcessor.CRC32_BYTES - 1; i >= offset + packetSize; i--) {
+            if (frame[i] != Character.forDigit((int) (value & 0xF), 16)) {
+                return false;
+            }
+            value >>>= 4;
+        }
+        return true;
+    }
+
+    /**
+     * @param crc32 the checksum, which is reset first
+     * @param data the bytes
+     * @param offset the index of the first byte that is checked
+     * @param length the number of bytes that are checked
+     * @return the CRC32 checksum of the bytes
+     */
+    static long checksum(CRC32 crc32, byte[] data, int offset, int length) {
+        crc32.reset();
+        crc32.update(data, offset, length);
+        return crc32.getValue();
+    }
+}
@@ -7,12 +7,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Opens the sinks to the TCP neighbors and periodically reopens the sinks of the configured neighbors that got
+ * disconnected. The sinks are served by the {@link ReplicatorEventLoopGroup} of the {@link Replicator}, this pool only
+ * needs a thread for the reconnection attempts.
+ */
 public class ReplicatorSinkPool  implements Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(ReplicatorSinkPool.class);
@@ -20,9 +23,9 @@ public class ReplicatorSinkPool  implements Runnable {
     private int transactionPacketSize;
     private final Node node;
 
-    private ExecutorService sinkPool;
+    private ReplicatorEventLoopGroup eventLoops;
 
-    public boolean shutdown = false;
+    public volatile boolean shutdown = false;
 
     public final static int PORT_BYTES = 10;
 
@@ -35,7 +38,6 @@ public class ReplicatorSinkPool  implements Runnable {
     @Override
     public void run() {
 
-        sinkPool = Executors.newFixedThreadPool(Replicator.NUM_THREADS);
         {
             List<Neighbor> neighbors = node.getNeighbors();
             // wait until list is populated
@@ -52,12 +54,13 @@ public class ReplicatorSinkPool  implements Runnable {
                     .forEach(this::createSink);
         }
 
-        while (!Thread.interrupted()) {
+        while (!shutdown && !Thread.interrupted()) {
             // Restart attempt for neighbors that are in the configuration.
             try {
                 Thread.sleep(30000);
             } catch (InterruptedException e) {
                 log.debug("Interrupted: ", e);
+                break;
             }
             List<Neighbor> neighbors = node.getNeighbors();
             neighbors.stream()
@@ -68,16 +71,52 @@ public class ReplicatorSinkPool  implements Runnable {
         }
     }
 
+    /**
+     * Starts to connect a sink to the neighbor unless it already has one. The connection is finished by an event loop.
+     *
+     * @param neighbor the neighbor
+     */
     public void createSink(TCPNeighbor neighbor) {
-        Runnable proc = new ReplicatorSinkProcessor( neighbor, this, port, transactionPacketSize);
-        sinkPool.submit(proc);
+        if (shutdown) {
+            return;
+        }
+        String remoteAddress = neighbor.getHostAddress();
+        SocketChannel channel;
+        synchronized (neighbor) {
+            if (neighbor.getSink() != null) {
+                // Sink already created
+                log.info("Sink {} already created", remoteAddress);
+                return;
+            }
+            log.info("Opening sink {}", remoteAddress);
+            try {
+                channel = SocketChannel.open();
+            } catch (IOException e) {
+                log.error("***** NETWORK ALERT ***** No sink to apiHost {}:{}, reason: {}", remoteAddress,
+                        neighbor.getPort(), e.getMessage());
+                return;
+            }
+            neighbor.setSink(channel);
+        }
+
+        ReplicatorSinkProcessor processor = new ReplicatorSinkProcessor(neighbor, eventLoops.next(), channel,
+                port, transactionPacketSize);
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setSoLinger(true, 0);
+            log.info("Connecting sink {}", remoteAddress);
+            channel.connect(new InetSocketAddress(remoteAddress, neighbor.getPort()));
+            processor.start();
+        } catch (IOException | RuntimeException e) {
+            processor.failed(e);
+        }
     }
 
     public void shutdownSink(TCPNeighbor neighbor) {
-        Socket socket = neighbor.getSink();
-        if (socket != null && !socket.isClosed()) {
+        SocketChannel channel = neighbor.getSink();
+        if (channel != null && channel.isOpen()) {
             try {
-                socket.close();
+                channel.close();
                 log.info("Sink {} closed", neighbor.getHostAddress());
             } catch (IOException e) {
                 // TODO
@@ -86,10 +125,16 @@ public class ReplicatorSinkPool  implements Runnable {
         neighbor.setSink(null);
     }
 
+    /**
+     * @param eventLoops the event loops that serve the sinks
+     * @return this pool, which has to be run by a thread
+     */
+    ReplicatorSinkPool init(ReplicatorEventLoopGroup eventLoops) {
+        this.eventLoops = eventLoops;
+        return this;
+    }
 
     public void shutdown() throws InterruptedException {
         shutdown = true;
-        sinkPool.shutdown();
-        sinkPool.awaitTermination(6, TimeUnit.SECONDS);
     }
-}
\ No newline at end of file
+}
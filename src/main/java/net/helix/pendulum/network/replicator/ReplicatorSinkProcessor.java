@@ -5,136 +5,259 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.CRC32;
 
-class ReplicatorSinkProcessor implements Runnable {
+/**
+ * Writes the packets queued by a {@link TCPNeighbor} to its sink.
+ *
+ * <p>
+ *     The sink is written by an {@link ReplicatorEventLoop}. The processor takes up to
+ *     {@value ReplicatorFraming#MAX_PACKETS_PER_FRAME} queued packets at once and writes them and their checksums with
+ *     a single gathering write. If the connection does not accept all of them, the processor waits until it becomes
+ *     writable again and meanwhile leaves the new packets in the bounded queue of the neighbor, which drops packets
+ *     once the neighbor falls too far behind.
+ * </p>
+ * <p>
+ *     The packets are written in {@link ReplicatorFraming#VERSION_1} until the neighbor announced that it understands
+ *     {@link ReplicatorFraming#VERSION_2}, which needs one header for all gathered packets.
+ * </p>
+ */
+class ReplicatorSinkProcessor implements ReplicatorEventLoop.Handler {
 
     private static final Logger log = LoggerFactory.getLogger(ReplicatorSinkProcessor.class);
 
-    private final TCPNeighbor neighbor;
-
     public final static int CRC32_BYTES = 16;
-    private final ReplicatorSinkPool replicatorSinkPool;
+
+    private static final long CONNECT_TIMEOUT_MS = 30000;
+
+    private static final ByteBuffer[] NO_BUFFERS = new ByteBuffer[0];
+
+    private final TCPNeighbor neighbor;
+    private final ReplicatorEventLoop eventLoop;
+    private final SocketChannel channel;
     private final int port;
     private int transactionPacketSize;
+    private final long connectDeadline;
+
+    /**
+     * Set while a flush of the sink is waiting for the event loop, so a burst of packets schedules only one flush.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private SelectionKey key;
+
+    /**
+     * The packets and checksums that are being written, the ones before {@link #pendingOffset} are written already.
+     */
+    private ByteBuffer[] pending = NO_BUFFERS;
+    private int pendingOffset;
+    private int pendingMessages;
+
+    /**
+     * The framing of the packets, which only changes after a marker frame.
+     */
+    private int writingVersion = ReplicatorFraming.VERSION_1;
+    private final CRC32 crc32 = new CRC32();
+    private final ByteBuffer header = ByteBuffer.allocate(ReplicatorFraming.HEADER_BYTES);
 
     public ReplicatorSinkProcessor(final TCPNeighbor neighbor,
-                                   final ReplicatorSinkPool replicatorSinkPool,
+                                   final ReplicatorEventLoop eventLoop,
+                                   final SocketChannel channel,
                                    final int port, int transactionPacketSize) {
         this.neighbor = neighbor;
-        this.replicatorSinkPool = replicatorSinkPool;
+        this.eventLoop = eventLoop;
+        this.channel = channel;
         this.port = port;
         this.transactionPacketSize = transactionPacketSize;
+        this.connectDeadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+    }
+
+    /**
+     * Registers the connecting sink with the event loop.
+     */
+    void start() {
+        eventLoop.execute(() -> {
+            try {
+                key = channel.register(eventLoop.selector(), SelectionKey.OP_CONNECT, this);
+                if (channel.isConnected()) {
+                    connected();
+                }
+            } catch (IOException | RuntimeException e) {
+                failed(e);
+            }
+        });
     }
 
     @Override
-    public void run() {
-        try {
-            Thread.sleep(1000);
-        }
-        catch (InterruptedException e) {
-            log.info("Interrupted");
+    public void handle(SelectionKey key) throws IOException {
+        if (key.isConnectable()) {
+            if (channel.finishConnect()) {
+                connected();
+            }
+        } else if (key.isWritable()) {
+            flush();
         }
+    }
 
-        String remoteAddress = neighbor.getHostAddress();
+    @Override
+    public void checkTimeout(long now) {
+        if (!channel.isConnected() && now > connectDeadline) {
+            key.cancel();
+            failed(new IOException("connect timed out"));
+        }
+    }
 
-        try {
-            Socket socket;
-            synchronized (neighbor) {
-                Socket sink = neighbor.getSink();
-                if ( sink == null ) {
-                    log.info("Opening sink {}", remoteAddress);
-                    socket = new Socket();
-                    socket.setSoLinger(true, 0);
-                    socket.setSoTimeout(30000);
-                    neighbor.setSink(socket);
-                }
-                else {
-                    // Sink already created
-                    log.info("Sink {} already created", remoteAddress);
-                    return;
+    @Override
+    public void failed(Exception e) {
+        String reason = e.getMessage();
+        if (reason == null || reason.equals("null")) {
+            reason = "closed";
+        }
+        log.error("***** NETWORK ALERT ***** No sink to apiHost {}:{}, reason: {}", neighbor.getHostAddress(),
+                neighbor.getPort(), reason);
+        synchronized (neighbor) {
+            if (neighbor.getSink() == channel) {
+                SocketChannel sourceChannel = neighbor.getSource();
+                if (sourceChannel != null && (!sourceChannel.isOpen() || !sourceChannel.isConnected())) {
+                    neighbor.setSource(null);
                 }
+                neighbor.setSink(null);
             }
+        }
+        try {
+            channel.close();
+        } catch (IOException e1) {
+            // don't care.
+        }
+    }
+
+    private void connected() throws IOException {
+        log.info("----- NETWORK INFO ----- Sink {} is connected", neighbor.getHostAddress());
+
+        // Let neighbor know our tcp listener port and framing version
+        pending = new ByteBuffer[] {ByteBuffer.wrap(ReplicatorFraming.handshake(port))};
+        pendingOffset = 0;
+        pendingMessages = 0;
+
+        key.interestOps(0);
+        neighbor.setSendListener(this::scheduleFlush);
+        flush();
+    }
 
-            if (socket != null) {
-                log.info("Connecting sink {}", remoteAddress);
-                socket.connect(new InetSocketAddress(remoteAddress, neighbor.getPort()), 30000);
-                if (!socket.isClosed() && socket.isConnected()) {
-                    OutputStream out = socket.getOutputStream();
-                    log.info("----- NETWORK INFO ----- Sink {} is connected", remoteAddress);
-
-                    // Let neighbor know our tcp listener port
-                    String fmt = "%0"+ ReplicatorSinkPool.PORT_BYTES +"d";
-                    byte [] portAsByteArray = new byte [10];
-                    System.arraycopy(String.format(fmt, port).getBytes(), 0,
-                            portAsByteArray, 0, ReplicatorSinkPool.PORT_BYTES);
-                    out.write(portAsByteArray);
-
-                    while (!replicatorSinkPool.shutdown && !neighbor.isStopped()) {
-                        try {
-                            ByteBuffer message = neighbor.getNextMessage();
-                            if (neighbor.getSink() != null) {
-                                if (neighbor.getSink().isClosed() || !neighbor.getSink().isConnected()) {
-                                    log.info("----- NETWORK INFO ----- Sink {} got disconnected", remoteAddress);
-                                    return;
-                                } else {
-                                    if ((message != null) && (neighbor.getSink() != null && neighbor.getSink().isConnected())
-                                            && (neighbor.getSource() != null && neighbor.getSource().isConnected())) {
-
-                                        byte[] bytes = message.array();
-
-                                        if (bytes.length == transactionPacketSize) {
-                                            try {
-                                                CRC32 crc32 = new CRC32();
-                                                crc32.update(message.array());
-                                                String crc32String = Long.toHexString(crc32.getValue());
-                                                while (crc32String.length() < CRC32_BYTES) {
-                                                    crc32String = "0"+crc32String;
-                                                }
-                                                out.write(message.array());
-                                                out.write(crc32String.getBytes());
-                                                out.flush();
-                                                neighbor.incSentTransactions();
-                                            } catch (IOException e2) {
-                                                if (!neighbor.getSink().isClosed() && neighbor.getSink().isConnected()) {
-                                                    out.close();
-                                                    out = neighbor.getSink().getOutputStream();
-                                                } else {
-                                                    log.info("----- NETWORK INFO ----- Sink {} thread terminating",
-                                                            remoteAddress);
-                                                    return;
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        } catch (InterruptedException e) {
-                            log.error("Interrupted while waiting for send buffer");
-                        }
-                    }
+    /**
+     * Lets the event loop write the queued packets, called by the threads that queue packets.
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(() -> {
+                flushScheduled.set(false);
+                if (key == null || !key.isValid() || !channel.isConnected()) {
+                    return;
+                }
+                try {
+                    flush();
+                } catch (IOException | RuntimeException e) {
+                    key.cancel();
+                    failed(e);
                 }
+            });
+        }
+    }
+
+    /**
+     * Writes the pending buffers and then the queued packets, until the queue is empty or the connection does not
+     * accept more data.
+     */
+    private void flush() throws IOException {
+        while (true) {
+            if (pendingOffset == pending.length && !gatherMessages()) {
+                key.interestOps(0);
+                return;
             }
-        } catch (Exception e) {
-            String reason = e.getMessage();
-            if (reason == null || reason.equals("null")) {
-                reason = "closed";
+            channel.write(pending, pendingOffset, pending.length - pendingOffset);
+            while (pendingOffset < pending.length && !pending[pendingOffset].hasRemaining()) {
+                pending[pendingOffset++] = null;
             }
-            log.error("***** NETWORK ALERT ***** No sink to apiHost {}:{}, reason: {}", remoteAddress, neighbor.getPort(),
-                    reason);
-            synchronized (neighbor) {
-                Socket sourceSocket = neighbor.getSource();
-                if (sourceSocket != null && (sourceSocket.isClosed() || !sourceSocket.isConnected())) {
-                    neighbor.setSource(null);
-                }
-                neighbor.setSink(null);
+            if (pendingOffset < pending.length) {
+                // the socket buffer is full, wait until the neighbor has read some data
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            for (int i = 0; i < pendingMessages; i++) {
+                neighbor.incSentTransactions();
+            }
+            pendingMessages = 0;
+        }
+    }
+
+    /**
+     * Takes the next queued packets and their checksums as the pending buffers. Packets are only sent while the source
+     * of the neighbor is connected as well, the others are dropped.
+     *
+     * @return <code>true</code> if there are packets to write
+     */
+    private boolean gatherMessages() {
+        ByteBuffer[] messages = new ByteBuffer[ReplicatorFraming.MAX_PACKETS_PER_FRAME];
+        int count = 0;
+        ByteBuffer message;
+        while (count < messages.length && (message = neighbor.pollNextMessage()) != null) {
+            byte[] bytes = message.array();
+            if (bytes.length != transactionPacketSize) {
+                continue;
+            }
+            SocketChannel source = neighbor.getSource();
+            if (source == null || !source.isConnected()) {
+                neighbor.dropMessage();
+                continue;
             }
+            messages[count++] = message;
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        ByteBuffer marker = null;
+        if (writingVersion == ReplicatorFraming.VERSION_1
+                && neighbor.getFramingVersion() >= ReplicatorFraming.VERSION_2) {
+            marker = ByteBuffer.wrap(ReplicatorFraming.markerFrame(transactionPacketSize,
+                    ReplicatorFraming.VERSION_2));
+            writingVersion = ReplicatorFraming.VERSION_2;
+            log.info("Sink {} switches to framing version {}", neighbor.getHostAddress(), writingVersion);
         }
 
+        ByteBuffer[] buffers;
+        int index = 0;
+        if (writingVersion == ReplicatorFraming.VERSION_1) {
+            buffers = new ByteBuffer[2 * count];
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = messages[i].array();
+                buffers[index++] = messages[i];
+                buffers[index++] = ByteBuffer.wrap(ReplicatorFraming.hexChecksum(crc32, bytes, 0, bytes.length));
+            }
+        } else {
+            buffers = new ByteBuffer[(marker == null ? 1 : 2) + count];
+            if (marker != null) {
+                buffers[index++] = marker;
+            }
+            crc32.reset();
+            for (int i = 0; i < count; i++) {
+                crc32.update(messages[i].array(), 0, transactionPacketSize);
+            }
+            header.clear();
+            header.putInt(count * transactionPacketSize);
+            header.putInt((int) crc32.getValue());
+            header.flip();
+            buffers[index++] = header;
+            System.arraycopy(messages, 0, buffers, index, count);
+        }
+        pending = buffers;
+        pendingOffset = 0;
+        pendingMessages = count;
+        return true;
     }
 
 }
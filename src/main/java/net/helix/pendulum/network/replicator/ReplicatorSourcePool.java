@@ -5,13 +5,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
-public class ReplicatorSourcePool implements Runnable {
+/**
+ * Accepts the TCP connections of the neighbors and hands them to the {@link ReplicatorEventLoopGroup} of the
+ * {@link Replicator}, which reads their transactions with {@link ReplicatorSourceProcessor}s.
+ */
+public class ReplicatorSourcePool implements ReplicatorEventLoop.Handler {
 
     private final ReplicatorSinkPool replicatorSinkPool;
     private final Node node;
@@ -20,7 +23,8 @@ public class ReplicatorSourcePool implements Runnable {
     private volatile boolean shutdown = false;
 
     private static final Logger log = LoggerFactory.getLogger(ReplicatorSourcePool.class);
-    private ExecutorService pool;
+    private ReplicatorEventLoopGroup eventLoops;
+    private ServerSocketChannel server;
     private int port;
 
     public ReplicatorSourcePool(final ReplicatorSinkPool replicatorSinkPool,
@@ -34,49 +38,61 @@ public class ReplicatorSourcePool implements Runnable {
     }
 
     @Override
-    public void run() {
-        ExecutorService pool;
-        ServerSocket server = null;
-        pool = Executors.newFixedThreadPool(Replicator.NUM_THREADS);
-        this.pool = pool;
-        try {
-            server = new ServerSocket(port);
-            log.info("TCP replicator is accepting connections on tcp port " + server.getLocalPort());
-            while (!shutdown) {
-                try {
-                    Socket request = server.accept();
-                    request.setSoLinger(true, 0);
-                    Runnable proc = new ReplicatorSourceProcessor( replicatorSinkPool, request, node, maxPeers, testnet);
-                    pool.submit(proc);
-                } catch (IOException ex) {
-                    log.error("Error accepting connection", ex);
-                }
-            }
-            log.info("ReplicatorSinkPool shutting down");
-        } catch (IOException e) {
-            log.error("***** NETWORK ALERT ***** Cannot create server socket on port {}, {}", port, e.getMessage());
-        } finally {
-            if (server != null) {
-                try {
-                    server.close();
-                }
-                catch (Exception e) {
-                    // don't care.
+    public void handle(SelectionKey key) throws IOException {
+        SocketChannel request;
+        while (!shutdown && (request = server.accept()) != null) {
+            try {
+                request.configureBlocking(false);
+                request.socket().setSoLinger(true, 0);
+                ReplicatorSourceProcessor proc = new ReplicatorSourceProcessor(replicatorSinkPool, request, node,
+                        maxPeers, testnet);
+                if (proc.open()) {
+                    eventLoops.next().register(request, SelectionKey.OP_READ, proc);
                 }
+            } catch (IOException ex) {
+                log.error("Error accepting connection", ex);
+                request.close();
             }
         }
     }
 
+    @Override
+    public void failed(Exception e) {
+        log.error("***** NETWORK ALERT ***** TCP replicator stopped accepting connections on port {}, {}", port,
+                e.getMessage());
+    }
+
     public void shutdown() throws InterruptedException {
         shutdown = true;
-        //notify();
-        pool.shutdown();
-        pool.awaitTermination(6, TimeUnit.SECONDS);
+        if (server != null) {
+            try {
+                server.close();
+            } catch (Exception e) {
+                // don't care.
+            }
+        }
     }
 
-    public ReplicatorSourcePool init(int port) {
+    /**
+     * Starts to accept connections.
+     *
+     * @param port the TCP port of the replicator
+     * @param eventLoops the event loops that serve the connections
+     * @return this pool
+     */
+    ReplicatorSourcePool init(int port, ReplicatorEventLoopGroup eventLoops) {
         this.port = port;
+        this.eventLoops = eventLoops;
+        try {
+            server = ServerSocketChannel.open();
+            server.configureBlocking(false);
+            server.bind(new InetSocketAddress(port));
+            log.info("TCP replicator is accepting connections on tcp port " + server.socket().getLocalPort());
+            eventLoops.next().register(server, SelectionKey.OP_ACCEPT, this);
+        } catch (IOException e) {
+            log.error("***** NETWORK ALERT ***** Cannot create server socket on port {}, {}", port, e.getMessage());
+        }
         return this;
     }
 
-}
\ No newline at end of file
+}
@@ -9,32 +9,55 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.List;
 import java.util.zip.CRC32;
 
-class ReplicatorSourceProcessor implements Runnable {
+/**
+ * Reads the transactions a neighbor sends over an accepted connection.
+ *
+ * <p>
+ *     The connection is read by an {@link ReplicatorEventLoop} whenever data arrives. Every read fills a buffer that
+ *     holds many packets, the processor passes all complete packets to the {@link Node} and keeps the rest for the
+ *     next read.
+ * </p>
+ * <p>
+ *     The packets arrive in {@link ReplicatorFraming#VERSION_1} until the sink of the neighbor writes a marker frame.
+ *     Version 2 frames are checked as a whole, the packets are only copied once they are known to be intact.
+ * </p>
+ */
+class ReplicatorSourceProcessor implements ReplicatorEventLoop.Handler {
 
     private static final Logger log = LoggerFactory.getLogger(ReplicatorSourceProcessor.class);
 
-    private final Socket connection;
+    /**
+     * The number of packets that fit into the read buffer.
+     */
+    private static final int PACKETS_PER_READ = 32;
+
+    private final SocketChannel connection;
 
-    private final boolean shutdown = false;
     private final Node node;
     private final int maxPeers;
     private final boolean testnet;
     private final ReplicatorSinkPool replicatorSinkPool;
     private final int packetSize;
+    private final ByteBuffer data;
+    private final CRC32 crc32 = new CRC32();
 
+    private InetSocketAddress address;
     private boolean existingNeighbor;
+    private boolean portReceived;
+    private int readingVersion = ReplicatorFraming.VERSION_1;
 
     private TCPNeighbor neighbor;
 
     public ReplicatorSourceProcessor(final ReplicatorSinkPool replicatorSinkPool,
-                                     final Socket connection,
+                                     final SocketChannel connection,
                                      final Node node,
                                      final int maxPeers,
                                      final boolean testnet) {
@@ -46,152 +69,196 @@ class ReplicatorSourceProcessor implements Runnable {
         this.packetSize = testnet
                 ? TestnetConfig.Defaults.PACKET_SIZE
                 : MainnetConfig.Defaults.PACKET_SIZE;
+        this.data = ByteBuffer.allocate(Math.max(PACKETS_PER_READ * (packetSize + ReplicatorSinkProcessor.CRC32_BYTES),
+                ReplicatorFraming.HEADER_BYTES + ReplicatorFraming.MAX_PACKETS_PER_FRAME * packetSize));
     }
 
-    @Override
-    public void run() {
-        int count;
-        byte[] data = new byte[2000];
-        int offset = 0;
-        //boolean isNew;
-        boolean finallyClose = true;
+    /**
+     * Finds the neighbor of the connection or, if the node accepts new peers, adds it as a new neighbor.
+     *
+     * @return <code>true</code> if the connection is the source of the neighbor, <code>false</code> if it was closed
+     * @throws IOException if the connection could not be closed
+     */
+    boolean open() throws IOException {
+        address = (InetSocketAddress) connection.getRemoteAddress();
+        InetSocketAddress inetSocketAddress = address;
 
-        try {
-            SocketAddress address = connection.getRemoteSocketAddress();
-            InetSocketAddress inetSocketAddress = (InetSocketAddress) address;
-
-            existingNeighbor = false;
-            List<Neighbor> neighbors = node.getNeighbors();
-            neighbors.stream().filter(n -> n instanceof TCPNeighbor)
-                    .map(n -> ((TCPNeighbor) n))
-                    .forEach(n -> {
-                        String hisAddress = inetSocketAddress.getAddress().getHostAddress();
-                        if (n.getHostAddress().equals(hisAddress)) {
-                            existingNeighbor = true;
-                            neighbor = n;
-                        }
-                    });
-
-            if (!existingNeighbor) {
-                int maxPeersAllowed = maxPeers;
-                if (!testnet || Neighbor.getNumPeers() >= maxPeersAllowed) {
-                    String hostAndPort = inetSocketAddress.getHostName() + ":" + inetSocketAddress.getPort();
-                    if (Node.rejectedAddresses.add(inetSocketAddress.getHostName())) {
-                        String sb = "***** NETWORK ALERT ***** Got connected from unknown neighbor tcp://"
-                                + hostAndPort
-                                + " (" + inetSocketAddress.getAddress().getHostAddress() + ") - closing connection";
-                        if (testnet && Neighbor.getNumPeers() >= maxPeersAllowed) {
-                            sb = sb + (" (max-peers allowed is "+ maxPeersAllowed +")");
-                        }
-                        log.info(sb);
+        existingNeighbor = false;
+        List<Neighbor> neighbors = node.getNeighbors();
+        neighbors.stream().filter(n -> n instanceof TCPNeighbor)
+                .map(n -> ((TCPNeighbor) n))
+                .forEach(n -> {
+                    String hisAddress = inetSocketAddress.getAddress().getHostAddress();
+                    if (n.getHostAddress().equals(hisAddress)) {
+                        existingNeighbor = true;
+                        neighbor = n;
                     }
-                    connection.getInputStream().close();
-                    connection.shutdownInput();
-                    connection.shutdownOutput();
-                    connection.close();
-                    return;
-                } else {
-                    final TCPNeighbor freshNeighbor = new TCPNeighbor(inetSocketAddress, false);
-                    node.getNeighbors().add(freshNeighbor);
-                    neighbor = freshNeighbor;
-                    Neighbor.incNumPeers();
+                });
+
+        if (!existingNeighbor) {
+            int maxPeersAllowed = maxPeers;
+            if (!testnet || Neighbor.getNumPeers() >= maxPeersAllowed) {
+                String hostAndPort = inetSocketAddress.getHostName() + ":" + inetSocketAddress.getPort();
+                if (Node.rejectedAddresses.add(inetSocketAddress.getHostName())) {
+                    String sb = "***** NETWORK ALERT ***** Got connected from unknown neighbor tcp://"
+                            + hostAndPort
+                            + " (" + inetSocketAddress.getAddress().getHostAddress() + ") - closing connection";
+                    if (testnet && Neighbor.getNumPeers() >= maxPeersAllowed) {
+                        sb = sb + (" (max-peers allowed is "+ maxPeersAllowed +")");
+                    }
+                    log.info(sb);
                 }
+                connection.close();
+                return false;
+            } else {
+                final TCPNeighbor freshNeighbor = new TCPNeighbor(inetSocketAddress, false);
+                node.getNeighbors().add(freshNeighbor);
+                neighbor = freshNeighbor;
+                Neighbor.incNumPeers();
             }
+        }
 
-            if ( neighbor.getSource() != null ) {
+        synchronized (neighbor) {
+            if (neighbor.getSource() != null) {
                 log.info("Source {} already connected", inetSocketAddress.getAddress().getHostAddress());
-                finallyClose = false;
-                return;
+                connection.close();
+                return false;
             }
             neighbor.setSource(connection);
+        }
+        return true;
+    }
 
-            // Read neighbors tcp listener port number.
-            InputStream stream = connection.getInputStream();
-            offset = 0;
-            while (((count = stream.read(data, offset, ReplicatorSinkPool.PORT_BYTES - offset)) != -1) && (offset < ReplicatorSinkPool.PORT_BYTES)) {
-                offset += count;
-            }
+    @Override
+    public void handle(SelectionKey key) throws IOException {
+        if (neighbor.isStopped()) {
+            throw new IOException("neighbor removed");
+        }
+        if (connection.read(data) == -1) {
+            throw new IOException("closed");
+        }
+        data.flip();
 
-            if ( count == -1 || connection.isClosed() ) {
-                log.error("Did not receive neighbors listener port");
+        // Read neighbors tcp listener port number.
+        if (!portReceived) {
+            if (data.remaining() < ReplicatorSinkPool.PORT_BYTES) {
+                data.compact();
                 return;
             }
-
-            byte [] pbytes = new byte [10];
-            System.arraycopy(data, 0, pbytes, 0, ReplicatorSinkPool.PORT_BYTES);
-            neighbor.setTcpPort((int)Long.parseLong(new String(pbytes)));
+            byte [] pbytes = new byte [ReplicatorSinkPool.PORT_BYTES];
+            data.get(pbytes);
+            neighbor.setTcpPort(ReplicatorFraming.port(pbytes));
+            neighbor.setFramingVersion(ReplicatorFraming.version(pbytes));
+            portReceived = true;
 
             if (neighbor.getSink() == null) {
                 log.info("Creating sink for {}", neighbor.getHostAddress());
                 replicatorSinkPool.createSink(neighbor);
             }
+            log.info("----- NETWORK INFO ----- Source {} is connected", address.getAddress().getHostAddress());
+        }
 
-            if (connection.isConnected()) {
-                log.info("----- NETWORK INFO ----- Source {} is connected", inetSocketAddress.getAddress().getHostAddress());
-            }
-
-            connection.setSoTimeout(0);  // infinite timeout - blocking read
-
-            offset = 0;
-            while (!shutdown && !neighbor.isStopped()) {
-
-                while ( ((count = stream.read(data, offset, (packetSize- offset + ReplicatorSinkProcessor.CRC32_BYTES))) != -1)
-                        && (offset < (packetSize + ReplicatorSinkProcessor.CRC32_BYTES))) {
-                    offset += count;
-                }
-
-                if ( count == -1 || connection.isClosed() ) {
-                    break;
-                }
+        boolean complete = true;
+        while (complete) {
+            complete = readingVersion == ReplicatorFraming.VERSION_1 ? processHexFrame() : processBinaryFrame();
+        }
+        data.compact();
+    }
 
-                offset = 0;
+    /**
+     * Processes the next {@link ReplicatorFraming#VERSION_1} frame in the read buffer.
+     *
+     * @return <code>true</code> if a frame was processed, <code>false</code> if the frame is not complete yet
+     * @throws IOException if the frame announces a framing version this node does not understand
+     */
+    private boolean processHexFrame() throws IOException {
+        int frameSize = packetSize + ReplicatorSinkProcessor.CRC32_BYTES;
+        if (data.remaining() < frameSize) {
+            return false;
+        }
+        int offset = data.arrayOffset() + data.position();
+        int version = ReplicatorFraming.markedVersion(data.array(), offset, packetSize);
+        if (version == 0) {
+            if (ReplicatorFraming.hasValidHexChecksum(crc32, data.array(), offset, packetSize)) {
+                processPacket(data.array(), offset);
+            }
+        } else if (version == ReplicatorFraming.VERSION_2) {
+            readingVersion = version;
+            log.info("Source {} switches to framing version {}", neighbor.getHostAddress(), readingVersion);
+        } else {
+            throw new IOException("unsupported framing version " + version);
+        }
+        data.position(data.position() + frameSize);
+        return true;
+    }
 
-                try {
-                    CRC32 crc32 = new CRC32();
-                    for (int i=0; i<packetSize; i++) {
-                        crc32.update(data[i]);
-                    }
-                    String crc32String = Long.toHexString(crc32.getValue());
-                    while (crc32String.length() < ReplicatorSinkProcessor.CRC32_BYTES) {
-                        crc32String = "0"+crc32String;
-                    }
-                    byte [] crc32Bytes = crc32String.getBytes();
-
-                    boolean crcError = false;
-                    for (int i=0; i<ReplicatorSinkProcessor.CRC32_BYTES; i++) {
-                        if (crc32Bytes[i] != data[packetSize + i]) {
-                            crcError = true;
-                            break;
-                        }
-                    }
-                    if (!crcError) {
-                        node.preProcessReceivedData(data, address, "tcp");
-                    }
-                }
-                catch (IllegalStateException e) {
-                    log.error("Queue is full for neighbor IP {}",inetSocketAddress.getAddress().getHostAddress());
-                } catch (final RuntimeException e) {
-                    log.error("Transaction processing runtime exception ",e);
-                    neighbor.incInvalidTransactions();
-                } catch (Exception e) {
-                    log.info("Transaction processing exception " + e.getMessage());
-                    log.error("Transaction processing exception ",e);
-                }
+    /**
+     * Processes the next {@link ReplicatorFraming#VERSION_2} frame in the read buffer. A frame with a wrong checksum is
+     * skipped, a frame with an invalid length closes the connection, since the following frames cannot be found.
+     *
+     * @return <code>true</code> if a frame was processed, <code>false</code> if the frame is not complete yet
+     * @throws IOException if the header of the frame is invalid
+     */
+    private boolean processBinaryFrame() throws IOException {
+        if (data.remaining() < ReplicatorFraming.HEADER_BYTES) {
+            return false;
+        }
+        int start = data.position();
+        int length = data.getInt(start);
+        if (length <= 0 || length % packetSize != 0
+                || length > ReplicatorFraming.MAX_PACKETS_PER_FRAME * packetSize) {
+            throw new IOException("invalid frame length " + length);
+        }
+        if (data.remaining() < ReplicatorFraming.HEADER_BYTES + length) {
+            return false;
+        }
+        int checksum = data.getInt(start + 4);
+        int offset = data.arrayOffset() + start + ReplicatorFraming.HEADER_BYTES;
+        if ((int) ReplicatorFraming.checksum(crc32, data.array(), offset, length) == checksum) {
+            for (int i = offset; i < offset + length; i += packetSize) {
+                processPacket(data.array(), i);
             }
-        } catch (IOException e) {
-            log.error("***** NETWORK ALERT ***** TCP connection reset by neighbor {}, source closed, {}", neighbor.getHostAddress(), e.getMessage());
-            replicatorSinkPool.shutdownSink(neighbor);
-        } finally {
-            if (neighbor != null) {
-                if (finallyClose) {
-                    replicatorSinkPool.shutdownSink(neighbor);
-                    neighbor.setSource(null);
-                    neighbor.setSink(null);
-                    //if (!neighbor.isFlagged() ) {
-                    //   Node.instance().getNeighbors().remove(neighbor);
-                    //}
-                }
+        }
+        data.position(start + ReplicatorFraming.HEADER_BYTES + length);
+        return true;
+    }
+
+    @Override
+    public void failed(Exception e) {
+        if (neighbor == null) {
+            return;
+        }
+        log.error("***** NETWORK ALERT ***** TCP connection reset by neighbor {}, source closed, {}",
+                neighbor.getHostAddress(), e.getMessage());
+        synchronized (neighbor) {
+            if (neighbor.getSource() == connection) {
+                // the neighbor may reconnect with an older version, which announces itself in the next handshake
+                neighbor.setFramingVersion(ReplicatorFraming.VERSION_1);
+                replicatorSinkPool.shutdownSink(neighbor);
+                neighbor.setSource(null);
+                neighbor.setSink(null);
             }
         }
+        try {
+            connection.close();
+        } catch (IOException e1) {
+            // don't care.
+        }
+    }
+
+    /**
+     * Passes a checked packet to the node.
+     *
+     * @param frame the read bytes
+     * @param offset the index of the packet in the bytes
+     */
+    private void processPacket(byte[] frame, int offset) {
+        try {
+            // the transaction keeps the bytes, so every packet needs its own array
+            node.preProcessReceivedData(Arrays.copyOfRange(frame, offset, offset + packetSize), address, "tcp");
+        } catch (final RuntimeException e) {
+            log.error("Transaction processing runtime exception ",e);
+            neighbor.incInvalidTransactions();
+        }
     }
-}
\ No newline at end of file
+}
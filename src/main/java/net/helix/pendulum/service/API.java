@@ -27,6 +27,8 @@ import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.spentaddresses.SpentAddressesService;
 import net.helix.pendulum.service.tipselection.TipSelector;
 import net.helix.pendulum.service.tipselection.impl.WalkValidatorImpl;
+import net.helix.pendulum.storage.AsyncTangle;
+import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.storage.Tangle;
 import net.helix.pendulum.utils.Serializer;
 import net.helix.pendulum.utils.bundle.BundleTypes;
@@ -46,6 +48,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * <p>
@@ -100,6 +103,7 @@ public class API {
     private final TransactionRequester transactionRequester;
     private final SpentAddressesService spentAddressesService;
     private final Tangle tangle;
+    private final AsyncTangle asyncTangle;
     private final BundleValidator bundleValidator;
     private final SnapshotProvider snapshotProvider;
     private final LedgerService ledgerService;
@@ -142,6 +146,7 @@ public class API {
         this.transactionRequester = args.getTransactionRequester();
         this.spentAddressesService = args.getSpentAddressesService();
         this.tangle = args.getTangle();
+        this.asyncTangle = args.getAsyncTangle();
         this.bundleValidator = args.getBundleValidator();
         this.snapshotProvider = args.getSnapshotProvider();
         this.ledgerService = args.getLedgerService();
@@ -171,6 +176,7 @@ public class API {
         commandRoute.put(ApiCommand.GET_NEIGHBORS, getNeighbors());
         commandRoute.put(ApiCommand.GET_NODE_INFO, getNodeInfo());
         commandRoute.put(ApiCommand.GET_NODE_API_CONFIG, getNodeAPIConfiguration());
+        commandRoute.put(ApiCommand.GET_METRICS, getMetrics());
         commandRoute.put(ApiCommand.GET_TIPS, getTips());
         commandRoute.put(ApiCommand.GET_TRANSACTIONS_TO_APPROVE, getTransactionsToApprove());
         commandRoute.put(ApiCommand.GET_TRANSACTION_STRINGS, getTransactionStrings());
@@ -315,11 +321,11 @@ public class API {
 
         // As long as the index is bigger than 0 and we are still traversing the same bundle
         // If the hash we asked about is already a tail, this loop never starts
-        while (index-- > 0 && tx.getBundleHash().equals(bundleHash)) {
+        while (index-- > 0 && tx.getView().bundleEquals(bundleHash)) {
             Set<Hash> approvees = tx.getApprovers(tangle).getHashes();
             for (Hash approvee : approvees) {
                 TransactionViewModel nextTx = TransactionViewModel.fromHash(tangle, approvee);
-                if (nextTx.getBundleHash().equals(bundleHash)) {
+                if (nextTx.getView().bundleEquals(bundleHash)) {
                     tx = nextTx;
                     foundApprovee = true;
                     break;
@@ -483,15 +489,25 @@ public class API {
      * @return {@link GetTransactionStringsResponse}
      **/
     private synchronized AbstractResponse getTransactionStringsStatement(List<String> hashes) throws Exception {
+        // every hash yields an element, so we can reject the request before loading anything
+        if (hashes.size() > maxGetTransactionStrings){
+            return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+        }
+        final List<Hash> transactionHashes = hashes.stream()
+                .map(HashFactory.TRANSACTION::create)
+                .collect(Collectors.toList());
         final List<String> elements = new LinkedList<>();
-        for (final String hash : hashes) {
-            final TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, HashFactory.TRANSACTION.create(hash));
-            if (transactionViewModel != null) {
-                elements.add(Hex.toHexString(transactionViewModel.getBytes()));
+        if (asyncTangle != null) {
+            // the chunks of large requests are loaded in parallel
+            List<Persistable> transactions = asyncTangle.multiGetAsync(Transaction.class, transactionHashes).get();
+            for (int i = 0; i < transactionHashes.size(); i++) {
+                elements.add(Hex.toHexString(new TransactionViewModel((Transaction) transactions.get(i),
+                        transactionHashes.get(i)).getBytes()));
             }
+            return GetTransactionStringsResponse.create(elements);
         }
-        if (elements.size() > maxGetTransactionStrings){
-            return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+        for (final TransactionViewModel transactionViewModel : TransactionViewModel.fromHashes(tangle, transactionHashes)) {
+            elements.add(Hex.toHexString(transactionViewModel.getBytes()));
         }
         return GetTransactionStringsResponse.create(elements);
     }
@@ -603,8 +619,8 @@ public class API {
 
         for (final TransactionViewModel transactionViewModel : elements) {
             //store transactions
+            transactionViewModel.setArrivalTime(System.currentTimeMillis() / 1000L);
             if(transactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot())) { // v
-                transactionViewModel.setArrivalTime(System.currentTimeMillis() / 1000L);
                 if (transactionViewModel.isMilestoneBundle(tangle) == null) {
                     transactionValidator.updateStatus(transactionViewModel);
                 }
@@ -653,10 +669,22 @@ public class API {
                 System.currentTimeMillis(),
                 tipsViewModel.size(),
                 transactionRequester.numberOfTransactionsToRequest(),
-                features
+                features,
+                tangle.getStatistics()
         );
     }
 
+    /**
+     * Returns runtime metrics of this node, to size its caches by measurement.
+     *
+     * @return {@link net.helix.pendulum.service.dto.GetMetricsResponse}
+     **/
+    private AbstractResponse getMetricsStatement() throws Exception {
+        return GetMetricsResponse.create(tangle.getStatistics(), node.getGroupCommitStatistics(),
+                asyncTangle == null ? Collections.emptyMap() : asyncTangle.getStatistics(),
+                node.getQueueStatistics());
+    }
+
     /**
      *  Returns information about this node configuration.
      *
@@ -696,10 +724,10 @@ public class API {
         int numberOfNonMetTransactions = trans.size();
         final byte[] inclusionStates = new byte[numberOfNonMetTransactions];
 
+        final List<TransactionViewModel> tipViewModels = TransactionViewModel.fromHashes(tangle, tps);
         List<Integer> tipsIndex = new LinkedList<>();
         {
-            for(Hash tip: tps) {
-                TransactionViewModel tx = TransactionViewModel.fromHash(tangle, tip);
+            for(TransactionViewModel tx: tipViewModels) {
                 if (tx.getType() != TransactionViewModel.PREFILLED_SLOT) {
                     tipsIndex.add(tx.snapshotIndex());
                 }
@@ -722,8 +750,8 @@ public class API {
             // or has no index, or index is above the max tip index (not included).
 
             // Sets to 1 if the transaction index is below the max index of tips (included).
-            for(Hash hash: trans) {
-                TransactionViewModel transaction = TransactionViewModel.fromHash(tangle, hash);
+            final List<TransactionViewModel> transactionViewModels = TransactionViewModel.fromHashes(tangle, trans);
+            for(TransactionViewModel transaction: transactionViewModels) {
                 if(transaction.getType() == TransactionViewModel.PREFILLED_SLOT || transaction.snapshotIndex() == 0) {
                     inclusionStates[count] = -1;
                 } else if(transaction.snapshotIndex() > maxTipsIndex) {
@@ -739,8 +767,9 @@ public class API {
             Map<Integer, Queue<Hash>> sameIndexTips = new HashMap<>();
 
             // Sorts all tips per snapshot index. Stops if a tip is not in our database, or just as a hash.
-            for (final Hash tip : tps) {
-                TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, tip);
+            for (int i = 0; i < tps.size(); i++) {
+                final Hash tip = tps.get(i);
+                TransactionViewModel transactionViewModel = tipViewModels.get(i);
                 if (transactionViewModel.getType() == TransactionViewModel.PREFILLED_SLOT){
                     return ErrorResponse.create("One of the tips is absent");
                 }
@@ -752,7 +781,7 @@ public class API {
             // Loop over all transactions without a state, and counts the amount per snapshot index
             for(int i = 0; i < inclusionStates.length; i++) {
                 if(inclusionStates[i] == 0) {
-                    TransactionViewModel transactionViewModel = TransactionViewModel.fromHash(tangle, trans.get(i));
+                    TransactionViewModel transactionViewModel = transactionViewModels.get(i);
                     int snapshotIndex = transactionViewModel.snapshotIndex();
                     sameIndexTransactionCount.putIfAbsent(snapshotIndex, 0);
                     sameIndexTransactionCount.put(snapshotIndex, sameIndexTransactionCount.get(snapshotIndex) + 1);
@@ -876,13 +905,19 @@ public class API {
         final Set<Hash> foundTransactions =  new HashSet<>();
         boolean containsKey = false;
 
+        // with a single input field its transactions are the result, so we stop loading once there are too many
+        final int limit = Stream.of("bundles", "addresses", "tags", "approvees").filter(request::containsKey).count() == 1
+                ? maxFindTxs
+                : Integer.MAX_VALUE;
+
         final Set<Hash> bundlesTransactions = new HashSet<>();
         if (request.containsKey("bundles")) {
             final Set<String> bundles = getParameterAsSet(request,"bundles",HASH_SIZE);
             for (final String bundle : bundles) {
-                bundlesTransactions.addAll(
-                        BundleViewModel.load(tangle, HashFactory.BUNDLE.create(bundle))
-                                .getHashes());
+                if (!collectHashes(BundleViewModel.iterate(tangle, HashFactory.BUNDLE.create(bundle)),
+                        bundlesTransactions, limit)) {
+                    return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+                }
             }
             foundTransactions.addAll(bundlesTransactions);
             containsKey = true;
@@ -892,9 +927,10 @@ public class API {
         if (request.containsKey("addresses")) {
             final Set<String> addresses = getParameterAsSet(request,"addresses",HASH_SIZE);
             for (final String address : addresses) {
-                addressesTransactions.addAll(
-                        AddressViewModel.load(tangle, HashFactory.ADDRESS.create(address))
-                                .getHashes());
+                if (!collectHashes(AddressViewModel.iterate(tangle, HashFactory.ADDRESS.create(address)),
+                        addressesTransactions, limit)) {
+                    return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+                }
             }
             foundTransactions.addAll(addressesTransactions);
             containsKey = true;
@@ -924,10 +960,10 @@ public class API {
         if (request.containsKey("approvees")) {
             final Set<String> approvees = getParameterAsSet(request,"approvees",HASH_SIZE);
             for (final String approvee : approvees) {
-                approveeTransactions.addAll(
-                        TransactionViewModel.fromHash(tangle, HashFactory.TRANSACTION.create(approvee))
-                                .getApprovers(tangle)
-                                .getHashes());
+                if (!collectHashes(ApproveeViewModel.iterate(tangle, HashFactory.TRANSACTION.create(approvee)),
+                        approveeTransactions, limit)) {
+                    return ErrorResponse.create(OVER_MAX_ERROR_MESSAGE);
+                }
             }
             foundTransactions.addAll(approveeTransactions);
             containsKey = true;
@@ -961,6 +997,23 @@ public class API {
         return FindTransactionsResponse.create(elements);
     }
 
+    /**
+     * Adds the streamed hashes to the target set, until it holds more than <tt>limit</tt> hashes.
+     *
+     * @param hashes the hashes to add
+     * @param target the set to add the hashes to
+     * @param limit the maximum size of the target set
+     * @return <tt>false</tt> if the target set exceeded the limit, otherwise <tt>true</tt>
+     */
+    private static boolean collectHashes(Iterable<Hash> hashes, Set<Hash> target, int limit) {
+        for (Hash hash : hashes) {
+            if (target.add(hash) && target.size() > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Runs {@link #getParameterAsList(Map, String, int)} and transforms it into a {@link Set}.
      *
@@ -1708,6 +1761,16 @@ public class API {
         };
     }
 
+    private Function<Map<String, Object>, AbstractResponse> getMetrics() {
+        return request -> {
+            try {
+                return getMetricsStatement();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
     private Function<Map<String, Object>, AbstractResponse> getNodeAPIConfiguration() {
         return request -> getNodeAPIConfigurationStatement();
     }
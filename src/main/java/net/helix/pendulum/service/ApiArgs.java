@@ -15,6 +15,7 @@ import net.helix.pendulum.service.nominee.NomineeTracker;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.spentaddresses.SpentAddressesService;
 import net.helix.pendulum.service.tipselection.TipSelector;
+import net.helix.pendulum.storage.AsyncTangle;
 import net.helix.pendulum.storage.Tangle;
 
 public class ApiArgs {
@@ -45,6 +46,11 @@ public class ApiArgs {
      */
     private Tangle tangle;
 
+    /**
+     *  Runs database operations asynchronously, {@code null} if they run on the calling threads
+     */
+    private AsyncTangle asyncTangle;
+
     /**
      * Validates bundles
      */
@@ -106,6 +112,7 @@ public class ApiArgs {
         this.transactionRequester = pendulum.transactionRequester;
         this.spentAddressesService = pendulum.spentAddressesService;
         this.tangle = pendulum.tangle;
+        this.asyncTangle = pendulum.asyncTangle;
         this.bundleValidator = pendulum.bundleValidator;
         this.snapshotProvider = pendulum.snapshotProvider;
         this.ledgerService = pendulum.ledgerService;
@@ -158,6 +165,14 @@ public class ApiArgs {
         this.tangle = tangle;
     }
 
+    public AsyncTangle getAsyncTangle() {
+        return asyncTangle;
+    }
+
+    public void setAsyncTangle(AsyncTangle asyncTangle) {
+        this.asyncTangle = asyncTangle;
+    }
+
     public BundleValidator getBundleValidator() {
         return bundleValidator;
     }
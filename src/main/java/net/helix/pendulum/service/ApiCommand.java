@@ -57,6 +57,11 @@ public enum ApiCommand {
      */
     GET_NODE_API_CONFIG("getNodeAPIConfiguration"),
 
+    /**
+     * Get runtime metrics of this node, like the usage of the database caches
+     */
+    GET_METRICS("getMetrics"),
+
     /**
      * Get all tips currently on this node
      */
@@ -0,0 +1,28 @@
+package net.helix.pendulum.service.checkpoint;
+
+/**
+ * This class is used to wrap exceptions that are specific to the creation and restoration of checkpoints.
+ *
+ * It allows us to distinct between the different kinds of errors that can happen during the execution of the code.
+ */
+public class CheckpointException extends Exception {
+    /**
+     * Constructor of the exception which allows us to provide a specific error message and the cause of the error.
+     *
+     * @param message reason why this error occurred
+     * @param cause wrapped exception that caused this error
+     */
+    public CheckpointException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Constructor of the exception which allows us to provide a specific error message without having an underlying
+     * cause.
+     *
+     * @param message reason why this error occurred
+     */
+    public CheckpointException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package net.helix.pendulum.service.checkpoint;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Represents the manager for checkpoints of the ledger database, that takes care of periodically creating a new
+ * checkpoint and of deleting the ones that are no longer retained.
+ *
+ * A checkpoint contains a consistent copy of the database together with the local snapshot files it belongs to, so a
+ * new node can be started from it (see {@link net.helix.pendulum.conf.DbConfig#getDbRestoreCheckpoint()}).
+ */
+public interface CheckpointManager {
+    /**
+     * Starts the periodic creation of checkpoints by spawning a background {@link Thread}, that creates a checkpoint
+     * whenever {@link net.helix.pendulum.conf.DbConfig#getDbCheckpointInterval()} has passed.
+     *
+     * If the interval is 0, no {@link Thread} is spawned and checkpoints are only created on demand.
+     */
+    void start();
+
+    /**
+     * Stops the {@link Thread} that was spawned by the {@link #start()} method.
+     */
+    void shutdown();
+
+    /**
+     * Creates a new checkpoint and deletes the oldest ones that exceed
+     * {@link net.helix.pendulum.conf.DbConfig#getDbCheckpointRetention()}.
+     *
+     * @return the folder of the created checkpoint
+     * @throws CheckpointException if the checkpoint could not be created
+     */
+    File createCheckpoint() throws CheckpointException;
+
+    /**
+     * Lists the complete checkpoints in the checkpoint folder.
+     *
+     * @return the checkpoint folders ordered from the oldest to the latest one
+     */
+    List<File> getCheckpoints();
+
+    /**
+     * Returns the lock that {@link #createCheckpoint()} holds while it copies the database and the local snapshot
+     * files. Whoever writes the local snapshot files holds it as well, so a checkpoint never contains files of a
+     * different snapshot than the one the database was pruned for, or a partly written snapshot.
+     *
+     * @return the lock of the local snapshot files
+     */
+    Lock getLocalSnapshotLock();
+}
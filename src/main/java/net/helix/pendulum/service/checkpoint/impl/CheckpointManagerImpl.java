@@ -0,0 +1,312 @@
+package net.helix.pendulum.service.checkpoint.impl;
+
+import net.helix.pendulum.conf.PendulumConfig;
+import net.helix.pendulum.service.checkpoint.CheckpointException;
+import net.helix.pendulum.service.checkpoint.CheckpointManager;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.thread.ThreadIdentifier;
+import net.helix.pendulum.utils.thread.ThreadUtils;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates a manager for checkpoints of the ledger database.<br />
+ * <br />
+ * A checkpoint is a folder named {@value #CHECKPOINT_PREFIX}&lt;id&gt; in
+ * {@link PendulumConfig#getDbCheckpointPath()}, which contains the checkpoint of the database in
+ * {@value #DB_FOLDER} and a copy of the local snapshot files in {@value #SNAPSHOT_FOLDER}. It is created in a
+ * temporary folder first and renamed once it is complete, so an interrupted checkpoint is never picked up.<br />
+ * <br />
+ * It incorporates a background worker that periodically creates checkpoints (see {@link #start()} and
+ * {@link #shutdown()}).<br />
+ */
+public class CheckpointManagerImpl implements CheckpointManager {
+    /**
+     * Logger for this class allowing us to dump debug and status messages.
+     */
+    private static final Logger log = LoggerFactory.getLogger(CheckpointManagerImpl.class);
+
+    /**
+     * The prefix of the folder names of the checkpoints, followed by an increasing id.
+     */
+    public static final String CHECKPOINT_PREFIX = "checkpoint-";
+
+    /**
+     * The folder inside of a checkpoint that contains the database.
+     */
+    public static final String DB_FOLDER = "db";
+
+    /**
+     * The folder inside of a checkpoint that contains the local snapshot files.
+     */
+    public static final String SNAPSHOT_FOLDER = "snapshot";
+
+    /**
+     * The suffix of checkpoints that are not complete yet.
+     */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * The local snapshot files that belong to the database.
+     */
+    private static final String[] SNAPSHOT_FILES = {"snapshot.state", "snapshot.meta"};
+
+    /**
+     * Tangle object which acts as a database interface.
+     */
+    private Tangle tangle;
+
+    /**
+     * Configuration with the checkpoint and local snapshot related parameters.
+     */
+    private PendulumConfig config;
+
+    /**
+     * The id of the last created checkpoint, which makes sure that ids increase even if two checkpoints are created
+     * within the same millisecond.
+     */
+    private long lastCheckpointId;
+
+    /**
+     * Holds a reference to the {@link ThreadIdentifier} for the checkpoint thread.
+     *
+     * Using a {@link ThreadIdentifier} for spawning the thread allows the {@link ThreadUtils} to spawn exactly one
+     * thread for this instance even when we call the {@link #start()} method multiple times.
+     */
+    private final ThreadIdentifier checkpointThreadIdentifier = new ThreadIdentifier("Checkpoint Creator");
+
+    /**
+     * Held while a checkpoint copies the database and the local snapshot files (see {@link #getLocalSnapshotLock()}).
+     */
+    private final Lock localSnapshotLock = new ReentrantLock();
+
+    /**
+     * This method initializes the instance and registers its dependencies.<br />
+     * <br />
+     * It simply stores the passed in values in their corresponding private properties.<br />
+     *
+     * @param tangle Tangle object which acts as a database interface
+     * @param config checkpoint and local snapshot related configuration parameters
+     * @return the initialized instance itself to allow chaining
+     */
+    public CheckpointManagerImpl init(Tangle tangle, PendulumConfig config) {
+        this.tangle = tangle;
+        this.config = config;
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        if (config.getDbCheckpointInterval() > 0) {
+            ThreadUtils.spawnThread(this::checkpointThread, checkpointThreadIdentifier);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        ThreadUtils.stopThread(checkpointThreadIdentifier);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br />
+     * Checkpoints are created one at a time, a concurrent call waits for the running one to finish.
+     */
+    @Override
+    public synchronized File createCheckpoint() throws CheckpointException {
+        File checkpointPath = new File(config.getDbCheckpointPath());
+        if (!checkpointPath.isDirectory() && !checkpointPath.mkdirs()) {
+            throw new CheckpointException("could not create the checkpoint folder " + checkpointPath);
+        }
+
+        lastCheckpointId = Math.max(System.currentTimeMillis(), lastCheckpointId + 1);
+        File checkpoint = new File(checkpointPath, CHECKPOINT_PREFIX + lastCheckpointId);
+        File temporaryCheckpoint = new File(checkpointPath, checkpoint.getName() + TEMPORARY_SUFFIX);
+
+        long start = System.currentTimeMillis();
+        try {
+            FileUtils.deleteDirectory(temporaryCheckpoint);
+            if (!temporaryCheckpoint.mkdirs()) {
+                throw new IOException("could not create " + temporaryCheckpoint);
+            }
+            localSnapshotLock.lock();
+            try {
+                if (!tangle.createCheckpoint(new File(temporaryCheckpoint, DB_FOLDER).getPath())) {
+                    throw new CheckpointException("the database does not support checkpoints");
+                }
+                copySnapshotFiles(new File(config.getLocalSnapshotsBasePath()),
+                        new File(temporaryCheckpoint, SNAPSHOT_FOLDER));
+            } finally {
+                localSnapshotLock.unlock();
+            }
+
+            Files.move(temporaryCheckpoint.toPath(), checkpoint.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (CheckpointException e) {
+            FileUtils.deleteQuietly(temporaryCheckpoint);
+            throw e;
+        } catch (Exception e) {
+            FileUtils.deleteQuietly(temporaryCheckpoint);
+            throw new CheckpointException("could not create the checkpoint " + checkpoint, e);
+        }
+        log.info("Created checkpoint {} in {} ms", checkpoint, System.currentTimeMillis() - start);
+
+        deleteExpiredCheckpoints();
+
+        return checkpoint;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<File> getCheckpoints() {
+        return listCheckpoints(new File(config.getDbCheckpointPath()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Lock getLocalSnapshotLock() {
+        return localSnapshotLock;
+    }
+
+    /**
+     * Replaces the database and the local snapshot files of a node with the ones of a checkpoint. It has to be called
+     * before the database and the snapshots are loaded.<br />
+     * <br />
+     * The SST files of the database are hard linked if possible, which makes starting from a checkpoint on the same
+     * file system almost instant. All other files are copied, since RocksDB modifies them.<br />
+     *
+     * @param checkpoint a checkpoint or a checkpoint folder, in which case its latest checkpoint is used
+     * @param config configuration with the paths of the database and the local snapshots
+     * @throws CheckpointException if the folder does not contain a checkpoint or it could not be restored
+     */
+    public static void restoreCheckpoint(File checkpoint, PendulumConfig config) throws CheckpointException {
+        if (!new File(checkpoint, DB_FOLDER).isDirectory()) {
+            List<File> checkpoints = listCheckpoints(checkpoint);
+            if (checkpoints.isEmpty()) {
+                throw new CheckpointException(checkpoint + " does not contain a checkpoint");
+            }
+            checkpoint = checkpoints.get(checkpoints.size() - 1);
+        }
+
+        log.info("Restoring checkpoint {}", checkpoint);
+        try {
+            File dbPath = new File(config.getDbPath());
+            FileUtils.deleteDirectory(dbPath);
+            if (!dbPath.mkdirs()) {
+                throw new IOException("could not create " + dbPath);
+            }
+            File[] files = new File(checkpoint, DB_FOLDER).listFiles();
+            if (files == null) {
+                throw new IOException("could not read " + checkpoint);
+            }
+            for (File file : files) {
+                File target = new File(dbPath, file.getName());
+                if (file.getName().endsWith(".sst")) {
+                    try {
+                        Files.createLink(target.toPath(), file.toPath());
+                        continue;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        log.debug("could not link {}, copying it instead", file, e);
+                    }
+                }
+                Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            copySnapshotFiles(new File(checkpoint, SNAPSHOT_FOLDER), new File(config.getLocalSnapshotsBasePath()));
+        } catch (IOException e) {
+            throw new CheckpointException("could not restore the checkpoint " + checkpoint, e);
+        }
+    }
+
+    /**
+     * This method contains the logic for the checkpoint Thread.
+     *
+     * It creates a checkpoint every {@link PendulumConfig#getDbCheckpointInterval()} minutes until the {@link Thread}
+     * is terminated.
+     */
+    private void checkpointThread() {
+        while (ThreadUtils.sleep(TimeUnit.MINUTES.toMillis(config.getDbCheckpointInterval()))) {
+            try {
+                createCheckpoint();
+            } catch (CheckpointException e) {
+                log.error("error while creating checkpoint", e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest checkpoints until no more than {@link PendulumConfig#getDbCheckpointRetention()} are left.
+     */
+    private void deleteExpiredCheckpoints() {
+        List<File> checkpoints = getCheckpoints();
+        for (int i = 0; i < checkpoints.size() - Math.max(1, config.getDbCheckpointRetention()); i++) {
+            try {
+                FileUtils.deleteDirectory(checkpoints.get(i));
+                log.info("Deleted expired checkpoint {}", checkpoints.get(i));
+            } catch (IOException e) {
+                log.error("could not delete expired checkpoint " + checkpoints.get(i), e);
+            }
+        }
+    }
+
+    private static List<File> listCheckpoints(File checkpointPath) {
+        List<File> checkpoints = new ArrayList<>();
+        File[] files = checkpointPath.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory() && checkpointId(file) >= 0) {
+                    checkpoints.add(file);
+                }
+            }
+        }
+        checkpoints.sort(Comparator.comparingLong(CheckpointManagerImpl::checkpointId));
+        return checkpoints;
+    }
+
+    /**
+     * @param checkpoint a folder
+     * @return the id of the checkpoint or -1 if the folder is no complete checkpoint
+     */
+    private static long checkpointId(File checkpoint) {
+        String name = checkpoint.getName();
+        if (!name.startsWith(CHECKPOINT_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void copySnapshotFiles(File source, File target) throws IOException {
+        for (String snapshotFile : SNAPSHOT_FILES) {
+            File file = new File(source, snapshotFile);
+            if (file.isFile()) {
+                FileUtils.copyFile(file, new File(target, snapshotFile));
+            }
+        }
+    }
+}
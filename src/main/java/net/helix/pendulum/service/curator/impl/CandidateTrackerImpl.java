@@ -188,7 +188,7 @@ public class CandidateTrackerImpl implements CandidateTracker {
     //@VisibleForTesting
     private void collectNewCandidates() throws CuratorException {
         try {
-            for (Hash hash : AddressViewModel.load(tangle, this.config.getCuratorAddress()).getHashes()) {
+            for (Hash hash : AddressViewModel.iterate(tangle, this.config.getCuratorAddress())) {
                 if (Thread.currentThread().isInterrupted()) {
                     return;
                 }
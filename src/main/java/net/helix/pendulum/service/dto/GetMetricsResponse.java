@@ -0,0 +1,89 @@
+package net.helix.pendulum.service.dto;
+
+import net.helix.pendulum.service.API;
+
+import java.util.Map;
+
+/**
+ *
+ * Contains information about the result of a successful {@code getMetrics} API call.
+ * See {@link API#getMetricsStatement} for how this response is created.
+ *
+ */
+public class GetMetricsResponse extends AbstractResponse {
+
+	/**
+	 * Counters of the database, like the hits, misses and evictions of its block cache and row cache.
+	 */
+	private Map<String, Long> database;
+
+	/**
+	 * Number of batches and transactions written by the group commit writer of received transactions, and the latency
+	 * of these batches in microseconds. Empty if group commits are disabled.
+	 */
+	private Map<String, Long> groupCommit;
+
+	/**
+	 * Size, queue length and number of completed, failed and caller-run operations of the pool running asynchronous
+	 * database operations. Empty if asynchronous database operations are disabled.
+	 */
+	private Map<String, Long> databaseIo;
+
+	/**
+	 * Depth, capacity and number of offered, dropped and polled transactions of the receive, reply and broadcast
+	 * queues of the node, and how long the polled transactions waited in microseconds.
+	 */
+	private Map<String, Long> networkQueues;
+
+	/**
+	 * Creates a new {@link GetMetricsResponse}
+	 *
+	 * @param database {@link #database}
+	 * @param groupCommit {@link #groupCommit}
+	 * @param databaseIo {@link #databaseIo}
+	 * @param networkQueues {@link #networkQueues}
+	 * @return a {@link GetMetricsResponse} filled with the provided metrics
+	 */
+	public static AbstractResponse create(Map<String, Long> database, Map<String, Long> groupCommit,
+										  Map<String, Long> databaseIo, Map<String, Long> networkQueues) {
+		GetMetricsResponse res = new GetMetricsResponse();
+		res.database = database;
+		res.groupCommit = groupCommit;
+		res.databaseIo = databaseIo;
+		res.networkQueues = networkQueues;
+		return res;
+	}
+
+	/**
+	 *
+	 * @return {@link #database}
+	 */
+	public Map<String, Long> getDatabase() {
+		return database;
+	}
+
+	/**
+	 *
+	 * @return {@link #groupCommit}
+	 */
+	public Map<String, Long> getGroupCommit() {
+		return groupCommit;
+	}
+
+	/**
+	 *
+	 * @return {@link #databaseIo}
+	 */
+	public Map<String, Long> getDatabaseIo() {
+		return databaseIo;
+	}
+
+	/**
+	 *
+	 * @return {@link #networkQueues}
+	 */
+	public Map<String, Long> getNetworkQueues() {
+		return networkQueues;
+	}
+
+}
@@ -24,6 +24,7 @@ public class GetNeighborsResponse extends AbstractResponse {
      *     <li>numberOfInvalidTransactions</li>
      *     <li>numberOfSentTransactions</li>
      *     <li>numberOfStaleTransactions</li>
+     *     <li>numberOfDroppedPackets</li>
      * </ol>
      * @see {@link net.helix.pendulum.service.dto.GetNeighborsResponse.Neighbor}
      */
@@ -66,7 +67,8 @@ public class GetNeighborsResponse extends AbstractResponse {
                 numberOfNewTransactions,
                 numberOfInvalidTransactions,
                 numberOfStaleTransactions,
-                numberOfSentTransactions;
+                numberOfSentTransactions,
+                numberOfDroppedPackets;
         public String connectionType;
 
         /**
@@ -125,6 +127,15 @@ public class GetNeighborsResponse extends AbstractResponse {
             return numberOfSentTransactions;
         }
 
+        /**
+         * Packets from or to your neighbor which were dropped because a receive, reply or send queue was full.
+         *
+         * @return the number
+         */
+        public long getNumberOfDroppedPackets() {
+            return numberOfDroppedPackets;
+        }
+
         /**
          * The method type your neighbor is using to connect (TCP / UDP)
          *
@@ -149,6 +160,7 @@ public class GetNeighborsResponse extends AbstractResponse {
             ne.numberOfNewTransactions = n.getNumberOfNewTransactions();
             ne.numberOfRandomTransactionRequests = n.getNumberOfRandomTransactionRequests();
             ne.numberOfSentTransactions = n.getNumberOfSentTransactions();
+            ne.numberOfDroppedPackets = n.getNumberOfDroppedPackets();
             ne.connectionType = n.connectionType();
             return ne;
         }
@@ -5,6 +5,8 @@ import net.helix.pendulum.service.API;
 import net.helix.pendulum.service.Feature;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.util.Map;
+
 /**
  *
  * Contains information about the result of a successful {@code getNodeInfo} API call.
@@ -113,6 +115,11 @@ public class GetNodeInfoResponse extends AbstractResponse {
 	 */
 	private String[] features;
 
+	/**
+	 * Counters of the database, like the hits and misses of its block cache and row cache.
+	 */
+	private Map<String, Long> dbStatistics;
+
 	/**
 	 * Creates a new {@link GetNodeInfoResponse}
 	 *
@@ -134,13 +141,15 @@ public class GetNodeInfoResponse extends AbstractResponse {
 	 * @param tips {@link #tips}
 	 * @param numberOfTransactionsToRequest {@link #transactionsToRequest}
 	 * @param features {@link #features}
+	 * @param dbStatistics {@link #dbStatistics}
 	 * @return a {@link GetNodeInfoResponse} filled with all the provided parameters
 	 */
 	public static AbstractResponse create(String appName, String appVersion, int jreAvailableProcessors, long jreFreeMemory,
 	        String jreVersion, long maxMemory, long totalMemory, int currentRoundIndex,
 	        Hash latestSolidRoundHash, int latestSolidRoundIndex, int roundStartIndex, int lastSnapshottedRoundIndex,
 	        int neighbors, int packetsQueueSize,
-	        long currentTimeMillis, int tips, int numberOfTransactionsToRequest, String[] features) {
+	        long currentTimeMillis, int tips, int numberOfTransactionsToRequest, String[] features,
+	        Map<String, Long> dbStatistics) {
 		final GetNodeInfoResponse res = new GetNodeInfoResponse();
 		res.appName = appName;
 		res.appVersion = appVersion;
@@ -165,6 +174,7 @@ public class GetNodeInfoResponse extends AbstractResponse {
 		res.transactionsToRequest = numberOfTransactionsToRequest;
 
 		res.features = features;
+		res.dbStatistics = dbStatistics;
 
 		return res;
 	}
@@ -304,4 +314,12 @@ public class GetNodeInfoResponse extends AbstractResponse {
 	public String[] getFeatures() {
 		return features;
 	}
+
+	/**
+	 *
+	 * @return {@link #dbStatistics}
+	 */
+	public Map<String, Long> getDbStatistics() {
+		return dbStatistics;
+	}
 }
@@ -7,6 +7,7 @@ import net.helix.pendulum.controllers.RoundViewModel;
 import net.helix.pendulum.controllers.StateDiffViewModel;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.service.ledger.LedgerException;
 import net.helix.pendulum.service.ledger.LedgerService;
 import net.helix.pendulum.service.milestone.MilestoneService;
@@ -15,6 +16,8 @@ import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.snapshot.SnapshotService;
 import net.helix.pendulum.service.snapshot.impl.SnapshotStateDiffImpl;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.collections.impl.FlatHashLongMap;
+import net.helix.pendulum.utils.collections.impl.FlatHashSet;
 
 import java.util.*;
 
@@ -114,7 +117,7 @@ public class LedgerServiceImpl implements LedgerService {
 
     @Override
     public boolean tipsConsistent(List<Hash> tips) throws LedgerException {
-        Set<Hash> visitedHashes = new HashSet<>();
+        Set<Hash> visitedHashes = new FlatHashSet();
         Map<Hash, Long> diff = new HashMap<>();
         for (Hash tip : tips) {
             if (!isBalanceDiffConsistent(visitedHashes, diff, tip)) {
@@ -140,7 +143,7 @@ public class LedgerServiceImpl implements LedgerService {
         if (approvedHashes.contains(tip)) {
             return true;
         }
-        Set<Hash> visitedHashes = new HashSet<>(approvedHashes);
+        Set<Hash> visitedHashes = new FlatHashSet(approvedHashes);
         Set<Hash> startHashes = new HashSet<>(Collections.singleton(tip));
         Map<Hash, Long> currentState = generateBalanceDiff(visitedHashes, startHashes,
                 snapshotProvider.getLatestSnapshot().getIndex());
@@ -167,8 +170,8 @@ public class LedgerServiceImpl implements LedgerService {
 
         //System.out.println("Generate balance diff for round " + milestoneIndex);
 
-        Map<Hash, Long> state = new HashMap<>();
-        Set<Hash> countedTx = new HashSet<>();
+        FlatHashLongMap state = new FlatHashLongMap(0, HashFactory.ADDRESS);
+        Set<Hash> countedTx = new FlatHashSet();
 
         snapshotProvider.getInitialSnapshot().getSolidEntryPoints().keySet().forEach(solidEntryPointHash -> {
             visitedTransactions.add(solidEntryPointHash);
@@ -206,10 +209,8 @@ public class LedgerServiceImpl implements LedgerService {
 
                                             if (bundleTransactionViewModel.value() != 0 && countedTx.add(bundleTransactionViewModel.getHash())) {
 
-                                                final Hash address = bundleTransactionViewModel.getAddressHash();
-                                                final Long value = state.get(address);
-                                                state.put(address, value == null ? bundleTransactionViewModel.value()
-                                                        : Math.addExact(value, bundleTransactionViewModel.value()));
+                                                state.addExact(bundleTransactionViewModel.getAddressHash(),
+                                                        bundleTransactionViewModel.value());
                                             }
                                         }
 
@@ -234,7 +235,7 @@ public class LedgerServiceImpl implements LedgerService {
             }
         }
 
-        return state;
+        return state.toMap();
     }
 
     /**
@@ -277,7 +278,7 @@ public class LedgerServiceImpl implements LedgerService {
                     Set<Hash> confirmedTips = milestoneService.getConfirmedTips(round.index());
                     //System.out.println("Confirmed Tips:");
                     //confirmedTips.forEach(tip -> System.out.println(tip.toString()));
-                    Map<Hash, Long> balanceChanges = generateBalanceDiff(new HashSet<>(), confirmedTips == null? new HashSet<>() : confirmedTips,
+                    Map<Hash, Long> balanceChanges = generateBalanceDiff(new FlatHashSet(), confirmedTips == null? new HashSet<>() : confirmedTips,
                             snapshotProvider.getLatestSnapshot().getIndex() + 1);
                     successfullyProcessed = balanceChanges != null;
                     if (successfullyProcessed) {
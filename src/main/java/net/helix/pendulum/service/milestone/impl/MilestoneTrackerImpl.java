@@ -406,7 +406,7 @@ public class MilestoneTrackerImpl implements MilestoneTracker {
                 allNominees.addAll(candidateTracker.getNominees());
             }
             for (Hash address : allNominees) {
-                for (Hash hash : AddressViewModel.load(tangle, address).getHashes()) {
+                for (Hash hash : AddressViewModel.iterate(tangle, address)) {
                     if (Thread.currentThread().isInterrupted()) {
                         return;
                     }
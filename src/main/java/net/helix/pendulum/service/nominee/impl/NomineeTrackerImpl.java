@@ -196,7 +196,7 @@ public class NomineeTrackerImpl implements NomineeTracker {
     @Override
     public void collectNewCuratorTransactions() throws Exception {
         try {
-            for (Hash hash : AddressViewModel.load(tangle, Curator_Address).getHashes()) {
+            for (Hash hash : AddressViewModel.iterate(tangle, Curator_Address)) {
                 if (Thread.currentThread().isInterrupted()) {
                     return;
                 }
@@ -6,6 +6,8 @@ import net.helix.pendulum.controllers.RoundViewModel;
 import net.helix.pendulum.controllers.StateDiffViewModel;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.service.checkpoint.CheckpointException;
+import net.helix.pendulum.service.checkpoint.CheckpointManager;
 import net.helix.pendulum.service.milestone.MilestoneTracker;
 import net.helix.pendulum.service.snapshot.*;
 import net.helix.pendulum.service.spentaddresses.SpentAddressesProvider;
@@ -27,6 +29,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -83,6 +86,11 @@ public class SnapshotServiceImpl implements SnapshotService {
 
     private SpentAddressesProvider spentAddressesProvider;
 
+    /**
+     * Holds the manager that creates a checkpoint of the database after local snapshots if this is enabled.<br />
+     */
+    private CheckpointManager checkpointManager;
+
     /**
      * This method initializes the instance and registers its dependencies.<br />
      * <br />
@@ -97,17 +105,19 @@ public class SnapshotServiceImpl implements SnapshotService {
      *
      * @param tangle Tangle object which acts as a database interface
      * @param snapshotProvider data provider for the snapshots that are relevant for the node
+     * @param checkpointManager manager for the checkpoints of the database or null if no checkpoints are created
      * @param config important snapshot related configuration parameters
      * @return the initialized instance itself to allow chaining
      */
     public SnapshotServiceImpl init(Tangle tangle, SnapshotProvider snapshotProvider,
                                     SpentAddressesService spentAddressesService, SpentAddressesProvider spentAddressesProvider,
-                                    PendulumConfig config) {
+                                    CheckpointManager checkpointManager, PendulumConfig config) {
 
         this.tangle = tangle;
         this.snapshotProvider = snapshotProvider;
         this.spentAddressesService = spentAddressesService;
         this.spentAddressesProvider = spentAddressesProvider;
+        this.checkpointManager = checkpointManager;
         this.config = config;
 
         return this;
@@ -207,6 +217,11 @@ public class SnapshotServiceImpl implements SnapshotService {
 
     /**
      * {@inheritDoc}
+     * <br />
+     * If {@link PendulumConfig#isDbCheckpointAfterLocalSnapshot()} is enabled, a checkpoint of the database is created
+     * once the new snapshot was persisted. A failing checkpoint is only logged, since the snapshot itself succeeded.
+     * No checkpoint is created while the old data is queued for pruning and the new snapshot is persisted. The pruner
+     * removes the old transactions in the background, so a checkpoint may still contain some of them.
      */
     @Override
     public void takeLocalSnapshot(MilestoneTracker milestoneTracker, TransactionPruner transactionPruner)
@@ -216,14 +231,32 @@ public class SnapshotServiceImpl implements SnapshotService {
 
         Snapshot newSnapshot = generateSnapshot(milestoneTracker, targetMilestone);
 
-        if (transactionPruner != null) {
-            cleanupExpiredSolidEntryPoints(tangle, snapshotProvider.getInitialSnapshot().getSolidEntryPoints(),
-                    newSnapshot.getSolidEntryPoints(), transactionPruner);
+        Lock localSnapshotLock = checkpointManager == null ? null : checkpointManager.getLocalSnapshotLock();
+        if (localSnapshotLock != null) {
+            localSnapshotLock.lock();
+        }
+        try {
+            if (transactionPruner != null) {
+                cleanupExpiredSolidEntryPoints(tangle, snapshotProvider.getInitialSnapshot().getSolidEntryPoints(),
+                        newSnapshot.getSolidEntryPoints(), transactionPruner);
+
+                cleanupOldData(config, transactionPruner, targetMilestone);
+            }
 
-            cleanupOldData(config, transactionPruner, targetMilestone);
+            persistLocalSnapshot(snapshotProvider, newSnapshot, config);
+        } finally {
+            if (localSnapshotLock != null) {
+                localSnapshotLock.unlock();
+            }
         }
 
-        persistLocalSnapshot(snapshotProvider, newSnapshot, config);
+        if (checkpointManager != null && config.isDbCheckpointAfterLocalSnapshot()) {
+            try {
+                checkpointManager.createCheckpoint();
+            } catch (CheckpointException e) {
+                log.error("error while creating checkpoint after local snapshot", e);
+            }
+        }
     }
 
     /**
@@ -2,19 +2,24 @@ package net.helix.pendulum.service.snapshot.impl;
 
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.service.snapshot.SnapshotException;
 import net.helix.pendulum.service.snapshot.SnapshotState;
 import net.helix.pendulum.service.snapshot.SnapshotStateDiff;
+import net.helix.pendulum.utils.collections.impl.CopyOnWriteHashLongMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Implements the basic contract of the {@link SnapshotState} interface.
+ *
+ * The balances are stored in a {@link CopyOnWriteHashLongMap}, which keeps the addresses inline in primitive arrays.
+ * Cloning a state only shares the storage of the balances, the clone and the original copy the parts of it that they
+ * change afterwards.
  */
 public class SnapshotStateImpl implements SnapshotState {
     /**
@@ -25,15 +30,17 @@ public class SnapshotStateImpl implements SnapshotState {
     /**
      * Holds the balances of the addresses.
      */
-    private final Map<Hash, Long> balances;
+    private CopyOnWriteHashLongMap balances;
 
     /**
      * Creates a deep clone of the passed in {@link SnapshotState}.
      *
+     * The balances of a {@link SnapshotStateImpl} are not copied but shared until either state changes them.
+     *
      * @param snapshotState the object that shall be cloned
      */
     public SnapshotStateImpl(SnapshotState snapshotState) {
-        this(snapshotState.getBalances());
+        this(copyBalances(snapshotState));
     }
 
     /**
@@ -45,6 +52,11 @@ public class SnapshotStateImpl implements SnapshotState {
      * @param balances map with the addresses associated to their balance
      */
     protected SnapshotStateImpl(Map<Hash, Long> balances) {
+        this(new CopyOnWriteHashLongMap(HashFactory.ADDRESS));
+        this.balances.putAll(balances);
+    }
+
+    private SnapshotStateImpl(CopyOnWriteHashLongMap balances) {
         this.balances = balances;
     }
 
@@ -53,7 +65,10 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public Long getBalance(Hash address) {
-        return this.balances.get(address);
+        if (address == null || !balances.containsKey(address)) {
+            return null;
+        }
+        return balances.getOrDefault(address, 0L);
     }
 
     /**
@@ -61,7 +76,7 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public Map<Hash, Long> getBalances() {
-        return new HashMap<>(balances);
+        return balances.toMap();
     }
 
     /**
@@ -69,7 +84,11 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public boolean isConsistent() {
-        return getInconsistentAddresses().isEmpty();
+        // scan the values first, so the addresses are only created to log the inconsistent ones
+        boolean[] negative = {false};
+        balances.forEachValue(balance -> negative[0] |= balance < 0);
+
+        return !negative[0] || getInconsistentAddresses().isEmpty();
     }
 
     /**
@@ -77,12 +96,14 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public boolean hasCorrectSupply() {
-        long supply = balances.values()
-                .stream()
-                .reduce(Math::addExact)
-                .orElse(Long.MAX_VALUE);
+        if (balances.isEmpty()) {
+            return false;
+        }
+
+        long[] supply = {0};
+        balances.forEachValue(balance -> supply[0] = Math.addExact(supply[0], balance));
 
-        return supply == TransactionViewModel.SUPPLY;
+        return supply[0] == TransactionViewModel.SUPPLY;
     }
 
     /**
@@ -90,8 +111,7 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public void update(SnapshotState newState) {
-        balances.clear();
-        balances.putAll(newState.getBalances());
+        balances = copyBalances(newState);
     }
 
     /**
@@ -104,12 +124,11 @@ public class SnapshotStateImpl implements SnapshotState {
         }
 
         diff.getBalanceChanges().forEach((addressHash, balance) -> {
-            if (balances.computeIfPresent(addressHash, (hash, aLong) -> balance + aLong) == null) {
-                balances.putIfAbsent(addressHash, balance);
-            }
-
-            if (balances.get(addressHash) == 0) {
+            long newBalance = balances.getOrDefault(addressHash, 0L) + balance;
+            if (newBalance == 0) {
                 balances.remove(addressHash);
+            } else {
+                balances.put(addressHash, newBalance);
             }
         });
     }
@@ -119,12 +138,9 @@ public class SnapshotStateImpl implements SnapshotState {
      */
     @Override
     public SnapshotState patchedState(SnapshotStateDiff snapshotStateDiff) {
-        Map<Hash, Long> patchedBalances = snapshotStateDiff.getBalanceChanges()
-                .entrySet()
-                .stream()
-                .map(hashLongEntry -> new HashMap.SimpleEntry<>(hashLongEntry.getKey(),
-                        balances.getOrDefault(hashLongEntry.getKey(), 0L) + hashLongEntry.getValue()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        CopyOnWriteHashLongMap patchedBalances = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        snapshotStateDiff.getBalanceChanges().forEach((address, balance) ->
+                patchedBalances.put(address, balances.getOrDefault(address, 0L) + balance));
 
         return new SnapshotStateImpl(patchedBalances);
     }
@@ -168,4 +184,19 @@ public class SnapshotStateImpl implements SnapshotState {
 
         return result;
     }
+
+    /**
+     * Copies the balances of a state, which only shares the storage if the state is a {@link SnapshotStateImpl}.
+     *
+     * @param snapshotState the state whose balances are copied
+     * @return the copy of the balances
+     */
+    private static CopyOnWriteHashLongMap copyBalances(SnapshotState snapshotState) {
+        if (snapshotState instanceof SnapshotStateImpl) {
+            return ((SnapshotStateImpl) snapshotState).balances.copy();
+        }
+        CopyOnWriteHashLongMap balances = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        balances.putAll(snapshotState.getBalances());
+        return balances;
+    }
 }
@@ -9,6 +9,7 @@ import net.helix.pendulum.utils.dag.TraversalException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class to count the number of distinct approvees that have an arrival time within the given time window.
@@ -72,6 +73,27 @@ class TimeWindowedApproveeCounter {
         return transactionCounter.getCount();
     }
 
+    /**
+     * Counts the transactions that arrived within the validity time window with a range scan of the arrival time
+     * index, which must be enabled (@see Tangle#isArrivalTimeIndexed()).
+     *
+     * @param now           current time epoch in seconds
+     * @param onlyConfirmed only count transactions that are confirmed, which requires to load them
+     * @return the number of transactions in the time window
+     * @throws Exception if the index or the transactions could not be read
+     */
+    protected long getArrivedCount(Instant now, boolean onlyConfirmed) throws Exception {
+        AtomicLong count = new AtomicLong();
+        TransactionViewModel.forEachArrivedBetween(tangle, now.getEpochSecond() - maxTransactionAgeSeconds,
+                now.getEpochSecond() - minTransactionAgeSeconds + 1, hash -> {
+                    if (!onlyConfirmed || isConfirmed(TransactionViewModel.fromHash(tangle, hash))) {
+                        count.incrementAndGet();
+                    }
+                    return true;
+                });
+        return count.get();
+    }
+
     /**
      * Counts the consumed transactions that arrived in the valid interval.
      *
@@ -22,6 +22,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * For the confirmed transactions, the normal tip selection is performed to determine a supertip. The number of
  * transactions in its past set is then published to ZMQ.
+ *
+ * If the arrival time index is enabled, both numbers are determined by a range scan of the transactions that arrived
+ * in the time window instead of traversing the tangle.
  */
 public class TransactionStatsPublisher {
 
@@ -92,11 +95,17 @@ public class TransactionStatsPublisher {
     }
 
     private long getConfirmedTransactionsCount(Instant now) throws Exception {
+        if (tangle.isArrivalTimeIndexed()) {
+            return approveeCounter.getArrivedCount(now, true);
+        }
 
         return approveeCounter.getCount(now, getSuperTip(), new HashSet<>(), true);
     }
 
     private long getAllTransactionsCount(Instant now) throws Exception {
+        if (tangle.isArrivalTimeIndexed()) {
+            return approveeCounter.getArrivedCount(now, false);
+        }
 
         // count all transactions in a scalable way, by counting the approvees of all the tips
         HashSet<Hash> processedTransactions = new HashSet<>();
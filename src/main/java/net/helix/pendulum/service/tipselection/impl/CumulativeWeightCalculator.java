@@ -8,6 +8,8 @@ import net.helix.pendulum.model.HashPrefix;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.tipselection.RatingCalculator;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.collections.impl.FlatHashIntMap;
+import net.helix.pendulum.utils.collections.impl.FlatHashSet;
 import net.helix.pendulum.utils.collections.impl.TransformingBoundedHashSet;
 import net.helix.pendulum.utils.collections.impl.TransformingMap;
 import net.helix.pendulum.utils.collections.interfaces.BoundedSet;
@@ -92,7 +94,7 @@ public class CumulativeWeightCalculator implements RatingCalculator{
         if (txApprovers == null) {
             ApproveeViewModel approvers = ApproveeViewModel.load(tangle, txHash);
             Collection<Hash> appHashes = CollectionUtils.emptyIfNull(approvers.getHashes());
-            txApprovers = new HashSet<>(appHashes.size());
+            txApprovers = new FlatHashSet(appHashes.size());
             for (Hash appHash : appHashes) {
                 //if not genesis (the tx that confirms itself)
                 if (!snapshotProvider.getInitialSnapshot().hasSolidEntryPoint(appHash)) {
@@ -160,7 +162,7 @@ public class CumulativeWeightCalculator implements RatingCalculator{
     }
 
     private static UnIterableMap<HashId, Integer> createTxHashToCumulativeWeightMap(int size) {
-        return new TransformingMap<>(size, HashPrefix::createPrefix, null);
+        return new FlatHashIntMap(size);
     }
 
     private static  BoundedSet<HashId> createTransformingBoundedSet(Collection<HashId> c) {
@@ -34,12 +34,12 @@ public class TailFinderImpl implements TailFinder {
     public Optional<Hash> findTailFromTx(TransactionViewModel tx) throws Exception {
         final Hash bundleHash = tx.getBundleHash();
         long index = tx.getCurrentIndex();
-        while (index-- > 0 && bundleHash.equals(tx.getBundleHash())) {
+        while (index-- > 0 && tx.getView().bundleEquals(bundleHash)) {
             Set<Hash> approvees = tx.getApprovers(tangle).getHashes();
             boolean foundApprovee = false;
             for (Hash approvee : approvees) {
                 TransactionViewModel nextTx = TransactionViewModel.fromHash(tangle, approvee);
-                if (nextTx.getCurrentIndex() == index && bundleHash.equals(nextTx.getBundleHash())) {
+                if (nextTx.getCurrentIndex() == index && nextTx.getView().bundleEquals(bundleHash)) {
                     tx = nextTx;
                     foundApprovee = true;
                     break;
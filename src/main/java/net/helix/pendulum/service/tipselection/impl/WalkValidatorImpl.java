@@ -7,6 +7,7 @@ import net.helix.pendulum.service.ledger.LedgerService;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.tipselection.WalkValidator;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.collections.impl.FlatHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,9 +51,9 @@ public class WalkValidatorImpl implements WalkValidator {
         this.ledgerService = ledgerService;
         this.config = config;
 
-        maxDepthOkMemoization = new HashSet<>();
+        maxDepthOkMemoization = new FlatHashSet();
         myDiff = new HashMap<>();
-        myApprovedHashes = new HashSet<>();
+        myApprovedHashes = new FlatHashSet();
     }
 
     @Override
@@ -95,7 +96,7 @@ public class WalkValidatorImpl implements WalkValidator {
         }
         //if tip unconfirmed, check if any referenced tx is confirmed below maxDepth
         Queue<Hash> nonAnalyzedTransactions = new LinkedList<>(Collections.singleton(tip));
-        Set<Hash> analyzedTransactions = new HashSet<>();
+        Set<Hash> analyzedTransactions = new FlatHashSet();
         Hash hash;
         final int maxAnalyzedTransactions = config.getBelowMaxDepthTransactionLimit();
         while ((hash = nonAnalyzedTransactions.poll()) != null) {
@@ -1,8 +1,10 @@
 package net.helix.pendulum.service.transactionpruning.jobs;
 
 import net.helix.pendulum.controllers.RoundViewModel;
+import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.IntegerIndex;
+import net.helix.pendulum.model.StateDiff;
 import net.helix.pendulum.model.persistables.Round;
 import net.helix.pendulum.model.persistables.Transaction;
 import net.helix.pendulum.service.transactionpruning.TransactionPrunerJobStatus;
@@ -12,7 +14,11 @@ import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.utils.Pair;
 import net.helix.pendulum.utils.dag.DAGHelper;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -26,6 +32,23 @@ import java.util.List;
  */
 public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
 
+    /**
+     * Logger for this class allowing us to dump debug and status messages.
+     */
+    private static final Logger log = LoggerFactory.getLogger(MilestonePrunerJob.class);
+
+    /**
+     * Holds the maximum number of milestones whose rounds are kept after their transactions were cleaned up, before
+     * they get removed with a single range deletion.
+     */
+    private static final int ROUND_RANGE_SIZE = 100;
+
+    /**
+     * Holds the round indexed models, which are removed in ranges instead of one by one.
+     */
+    private static final List<Class<? extends Persistable>> ROUND_INDEXED_MODELS = Arrays.asList(Round.class,
+            StateDiff.class);
+
     /**
      * Holds the milestone index where this job starts cleaning up.
      */
@@ -41,6 +64,11 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
      */
     private int currentIndex;
 
+    /**
+     * Holds the milestone index of the oldest milestone whose round indexed models may not have been removed yet.
+     */
+    private int roundRangeIndex;
+
     /**
      * This method parses the string representation of a {@link MilestonePrunerJob} and creates the corresponding
      * object.
@@ -107,6 +135,11 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
      * It iterates from the {@link #currentIndex} to the provided {@link #targetIndex} and processes every milestone
      * one by one. After each step is finished we persist the progress to be able to continue with the current progress
      * upon IRI restarts.
+     *
+     * The rounds and state diffs of the cleaned up milestones are removed in ranges of {@link #ROUND_RANGE_SIZE}
+     * milestones and once the job is done, which is why the last range gets removed before the job is marked as DONE.
+     * The removed ranges are compacted at the end, so the deleted entries do not slow down reads until RocksDB
+     * compacts them on its own.
      */
     @Override
     public void process() throws TransactionPruningException {
@@ -119,15 +152,25 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
 
                     setCurrentIndex(getCurrentIndex() + 1);
 
+                    if (getCurrentIndex() - roundRangeIndex >= ROUND_RANGE_SIZE) {
+                        cleanupRoundRange();
+                    }
+
                     // synchronize this call because the MilestonePrunerJobQueue needs it to check if we can be extended
                     synchronized (this) {
                         if (getCurrentIndex() > getTargetIndex()) {
+                            cleanupRoundRange();
+
                             setStatus(TransactionPrunerJobStatus.DONE);
                         }
                     }
 
                     getTransactionPruner().saveState();
                 }
+
+                if (getStatus() == TransactionPrunerJobStatus.DONE) {
+                    compactRoundRange();
+                }
             } catch (TransactionPruningException e) {
                 setStatus(TransactionPrunerJobStatus.FAILED);
 
@@ -163,6 +206,7 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
      */
     public void setStartingIndex(int startingIndex) {
         this.startingIndex = startingIndex;
+        this.roundRangeIndex = startingIndex;
     }
 
     /**
@@ -226,8 +270,6 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
                     if (!getSnapshot().hasSolidEntryPoint((Hash) element.low)) {
                         getTransactionPruner().addJob(new UnconfirmedSubtanglePrunerJob((Hash) element.low));
                     }
-                } else if(Round.class.equals(element.hi)) {
-                    RoundViewModel.clear(((IntegerIndex) element.low).getValue());
                 }
             }
 
@@ -237,11 +279,56 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
         }
     }
 
+    /**
+     * This method removes the round indexed models of all milestones that were cleaned up since the last call.
+     *
+     * Since rounds and state diffs are keyed by their {@link IntegerIndex}, the models of consecutive milestones are
+     * stored next to each other and can be removed with a single range deletion, instead of leaving a tombstone per
+     * milestone. The {@link net.helix.pendulum.storage.Tangle} also drops the removed rounds from its round cache.
+     * Removing a range again (after a restart) is harmless.
+     *
+     * @throws TransactionPruningException if the range could not be removed
+     */
+    private void cleanupRoundRange() throws TransactionPruningException {
+        if (roundRangeIndex >= getCurrentIndex()) {
+            return;
+        }
+
+        try {
+            for (Class<? extends Persistable> model : ROUND_INDEXED_MODELS) {
+                getTangle().deleteRange(model, new IntegerIndex(roundRangeIndex), new IntegerIndex(getCurrentIndex()));
+            }
+
+            roundRangeIndex = getCurrentIndex();
+        } catch (Exception e) {
+            throw new TransactionPruningException("failed to cleanup the rounds #" + roundRangeIndex + " to #" +
+                    (getCurrentIndex() - 1), e);
+        }
+    }
+
+    /**
+     * This method compacts the round indexed models of all milestones cleaned up by this job, which physically removes
+     * the deleted ranges.
+     *
+     * A failed compaction does not fail the job, since RocksDB will compact the ranges eventually.
+     */
+    private void compactRoundRange() {
+        try {
+            for (Class<? extends Persistable> model : ROUND_INDEXED_MODELS) {
+                getTangle().compactRange(model, new IntegerIndex(getStartingIndex()),
+                        new IntegerIndex(getTargetIndex() + 1));
+            }
+        } catch (Exception e) {
+            log.error("failed to compact the rounds #" + getStartingIndex() + " to #" + getTargetIndex(), e);
+        }
+    }
+
     /**
      * Collects all database items that belong to the current milestone and that shall be deleted.
      *
      * It does that by iterating through all the transactions that belong to the current milestone (that are directly or
-     * indirectly referenced by the chosen milestone) and collecting them in a List of items to delete.
+     * indirectly referenced by the chosen milestone) and collecting them in a List of items to delete. The round itself
+     * is removed later together with the rounds of the following milestones (see {@link #cleanupRoundRange()}).
      *
      * @return list of elements that shall be deleted from the database
      * @throws TransactionPruningException if anything goes wrong while collecting the elements
@@ -254,10 +341,9 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
 
             RoundViewModel roundViewModel = RoundViewModel.get(getTangle(), getCurrentIndex());
             if (roundViewModel != null) {
-                elementsToDelete.add(new Pair<>(new IntegerIndex(roundViewModel.index()), Round.class));
-
                 for (Hash milestoneHash : roundViewModel.getHashes()) {
-                    elementsToDelete.add(new Pair<>(milestoneHash, Transaction.class));
+                    elementsToDelete.addAll(TransactionViewModel.fromHash(getTangle(), milestoneHash)
+                            .getDeleteBatch(getTangle()));
 
                     DAGHelper.get(getTangle()).traverseApprovees(milestoneHash,
                             approvedTransaction -> approvedTransaction.snapshotIndex() >= roundViewModel.index(),
@@ -269,7 +355,7 @@ public class MilestonePrunerJob extends AbstractTransactionPrunerJob {
                                     spentAddressesService
                                             .persistSpentAddresses(Collections.singletonList(approvedTransaction));
                                 }*/ //todo patchfixes
-                                elementsToDelete.add(new Pair<>(approvedTransaction.getHash(), Transaction.class));
+                                elementsToDelete.addAll(approvedTransaction.getDeleteBatch(getTangle()));
                             });
                 }
             }
@@ -3,7 +3,6 @@ package net.helix.pendulum.service.transactionpruning.jobs;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.HashFactory;
-import net.helix.pendulum.model.persistables.Transaction;
 import net.helix.pendulum.service.transactionpruning.TransactionPrunerJobStatus;
 import net.helix.pendulum.service.transactionpruning.TransactionPruningException;
 import net.helix.pendulum.storage.Indexable;
@@ -11,10 +10,10 @@ import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.utils.Pair;
 import net.helix.pendulum.utils.dag.DAGHelper;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Represents a job for the {@link net.helix.pendulum.service.transactionpruning.TransactionPruner} that cleans up all
@@ -73,15 +72,16 @@ public class UnconfirmedSubtanglePrunerJob extends AbstractTransactionPrunerJob
 
                 //Only persist to db
                 spentAddressesService.persistSpentAddresses(unconfirmedTxs);
-                List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete = unconfirmedTxs.stream()
-                        .map(tx -> new Pair<>((Indexable) tx.getHash(), Transaction.class))
-                        .collect(Collectors.toList());
+                List<Pair<Indexable, ? extends Class<? extends Persistable>>> elementsToDelete = new ArrayList<>();
+                for (TransactionViewModel unconfirmedTx : unconfirmedTxs) {
+                    elementsToDelete.addAll(unconfirmedTx.getDeleteBatch(getTangle()));
+                }
 
                 // clean database entries
                 getTangle().deleteBatch(elementsToDelete);
 
                 // clean runtime caches
-                elementsToDelete.forEach(element -> getTipsViewModel().removeTipHash((Hash) element.low));
+                unconfirmedTxs.forEach(tx -> getTipsViewModel().removeTipHash(tx.getHash()));
 
                 setStatus(TransactionPrunerJobStatus.DONE);
             } catch (Exception e) {
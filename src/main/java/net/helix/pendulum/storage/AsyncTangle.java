@@ -0,0 +1,215 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.utils.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking facade of a {@link Tangle}, which runs the blocking database operations on a dedicated pool of I/O
+ * threads and returns their results as {@link CompletableFuture}s.
+ *
+ * <p>
+ *     Callers can issue reads and writes and continue with hashing, validation or other requests while the database
+ *     works, instead of holding a thread per in-flight read. Operations that fail complete their future
+ *     exceptionally with the exception thrown by the {@link Tangle}.
+ * </p>
+ * <p>
+ *     The queue of the pool is bounded. Once it is full, the calling thread runs the operation itself, which slows down
+ *     producers to the pace of the database instead of buffering an unlimited number of operations (back-pressure).
+ * </p>
+ */
+public class AsyncTangle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTangle.class);
+
+    /**
+     * Number of models loaded by a single task of {@link #multiGetAsync}, so large requests are spread over several
+     * I/O threads.
+     */
+    static final int MULTI_GET_CHUNK_SIZE = 100;
+
+    private final Tangle tangle;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    /**
+     * @param tangle the tangle that executes the operations
+     * @param threads the number of I/O threads
+     * @param queueSize the maximum number of operations waiting for an I/O thread
+     */
+    public AsyncTangle(Tangle tangle, int threads, int queueSize) {
+        this.tangle = tangle;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), new IoThreadFactory(), (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("the tangle I/O pool is shut down");
+                    }
+                    callerRuns.incrementAndGet();
+                    task.run();
+                });
+    }
+
+    /**
+     * Loads a model asynchronously (@see Tangle#load).
+     *
+     * @param model the model class
+     * @param index the key of the model
+     * @return a future of the model, which is empty if it does not exist
+     */
+    public CompletableFuture<Persistable> loadAsync(Class<?> model, Indexable index) {
+        return callAsync(() -> tangle.load(model, index));
+    }
+
+    /**
+     * Loads several models of the same class asynchronously (@see Tangle#loadBatch). Large requests are split into
+     * chunks of {@value #MULTI_GET_CHUNK_SIZE} models, which are loaded in parallel.
+     *
+     * @param model the model class
+     * @param indexes the keys of the models
+     * @return a future of the models in the order of {@code indexes}, a model that no persistence provider loaded is
+     *         <code>null</code> like in {@link #loadAsync}
+     */
+    public CompletableFuture<List<Persistable>> multiGetAsync(Class<?> model, List<? extends Indexable> indexes) {
+        if (indexes.size() <= MULTI_GET_CHUNK_SIZE) {
+            return callAsync(() -> loadBatch(model, indexes));
+        }
+
+        List<CompletableFuture<List<Persistable>>> chunks = new ArrayList<>();
+        for (int i = 0; i < indexes.size(); i += MULTI_GET_CHUNK_SIZE) {
+            List<? extends Indexable> chunk = indexes.subList(i, Math.min(indexes.size(), i + MULTI_GET_CHUNK_SIZE));
+            chunks.add(callAsync(() -> loadBatch(model, chunk)));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<Persistable> models = new ArrayList<>(indexes.size());
+            for (CompletableFuture<List<Persistable>> chunk : chunks) {
+                models.addAll(chunk.join());
+            }
+            return models;
+        });
+    }
+
+    /**
+     * Loads a chunk of {@link #multiGetAsync}. The tangle returns <code>null</code> instead of a list if no persistence
+     * provider loaded the models, which keeps a <code>null</code> at the position of every model.
+     */
+    private List<Persistable> loadBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception {
+        List<Persistable> models = tangle.loadBatch(model, indexes);
+        return models == null ? new ArrayList<>(Collections.<Persistable>nCopies(indexes.size(), null)) : models;
+    }
+
+    /**
+     * Checks asynchronously if a model exists (@see Tangle#exists).
+     *
+     * @param model the model class
+     * @param index the key of the model
+     * @return a future of <code>true</code> if the model exists
+     */
+    public CompletableFuture<Boolean> existsAsync(Class<?> model, Indexable index) {
+        return callAsync(() -> tangle.exists(model, index));
+    }
+
+    /**
+     * Saves several models atomically and asynchronously (@see Tangle#saveBatch).
+     *
+     * @param models the models with their keys
+     * @return a future of the result of {@link Tangle#saveBatch}
+     */
+    public CompletableFuture<Boolean> saveBatchAsync(List<Pair<Indexable, Persistable>> models) {
+        return callAsync(() -> tangle.saveBatch(models));
+    }
+
+    /**
+     * Runs any blocking operation on the tangle asynchronously, like loading a view model.
+     *
+     * @param operation the operation
+     * @param <T> the type of the result
+     * @return a future of the result of the operation
+     */
+    public <T> CompletableFuture<T> callAsync(TangleOperation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(operation.call());
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @return the size of the pool, the number of waiting and running operations, the number of completed and failed
+     *         operations and how often a caller had to run an operation itself because the queue was full
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("threads", (long) executor.getMaximumPoolSize());
+        statistics.put("queued", (long) executor.getQueue().size());
+        statistics.put("active", (long) executor.getActiveCount());
+        statistics.put("completed", completed.get());
+        statistics.put("failed", failed.get());
+        statistics.put("callerRuns", callerRuns.get());
+        return statistics;
+    }
+
+    /**
+     * Stops accepting operations and waits for the queued ones to finish, so they do not run against a closed
+     * database.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Tangle I/O operations did not finish in time");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A blocking operation on the tangle.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface TangleOperation<T> {
+        T call() throws Exception;
+    }
+
+    private static class IoThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Tangle I/O " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.helix.pendulum.storage;
+
+/**
+ * Marks a {@link PersistenceProvider} that can create a consistent copy of its data while it keeps serving reads and
+ * writes.
+ *
+ * <p>
+ *     Such a checkpoint is a database of its own that can be opened in place of the original one, which allows to
+ *     start new nodes from the data of a running node instead of synchronizing the whole ledger from the network.
+ * </p>
+ */
+public interface Checkpointable {
+
+    /**
+     * Creates a checkpoint of all column families.
+     *
+     * @param path the folder of the checkpoint, which must not exist yet
+     * @throws Exception if the checkpoint could not be created
+     */
+    void createCheckpoint(String path) throws Exception;
+}
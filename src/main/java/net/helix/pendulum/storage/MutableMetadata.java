@@ -0,0 +1,42 @@
+package net.helix.pendulum.storage;
+
+/**
+ * Marks a {@link Persistable} whose metadata contains a small, fixed-width part that changes much more often than the
+ * rest, like the solidity, height and validity of a transaction.
+ *
+ * <p>
+ *     The state is stored in a column family of its own next to the full metadata. Updates which only touch state
+ *     fields (@see #isStateUpdate(String)) rewrite these few bytes instead of the whole metadata. When a model is
+ *     loaded, its state is read after the metadata and takes precedence over the state fields stored in there.
+ * </p>
+ */
+public interface MutableMetadata {
+
+    /**
+     * Get the frequently changing part of the metadata as byte stream
+     * @return a <code> byte[] </code>
+     */
+    byte[] state();
+
+    /**
+     * Set the frequently changing part of the metadata from a byte stream
+     * @param bytes is a <code> byte[] </code> or <code> null </code> if no state was stored yet
+     */
+    void readState(byte[] bytes);
+
+    /**
+     * Checks if an update only changes fields that are part of the state.
+     *
+     * @param item the updated fields, separated by <code>|</code>
+     * @return <code> true </code> if writing the state is enough to persist the update
+     */
+    boolean isStateUpdate(String item);
+
+    /**
+     * Checks if a stored state marks the model as solid, without reading it into this instance.
+     *
+     * @param state a <code> byte[] </code> written by {@link #state()}
+     * @return <code> true </code> if the state has the solid flag
+     */
+    boolean isSolid(byte[] state);
+}
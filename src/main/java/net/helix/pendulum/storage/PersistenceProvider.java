@@ -1,9 +1,11 @@
 package net.helix.pendulum.storage;
 
+import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.utils.Pair;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -34,14 +36,73 @@ public interface PersistenceProvider {
 
       Persistable get(Class<?> model, Indexable index) throws Exception;
 
+      /**
+       * Loads several models of the same class at once, including their metadata.
+       * @param model the model class
+       * @param indexes the keys of the models
+       * @return the models in the order of {@code indexes}, missing models are empty like in {@link #get}
+       * @throws Exception
+       */
+      List<Persistable> getBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception;
+
+      /**
+       * Loads the serialized value of a model without deserializing it and without its metadata.
+       * @param model the model class
+       * @param index the key of the entry
+       * @return the serialized value or {@code null} if there is no entry
+       * @throws Exception
+       */
+      byte[] getBytes(Class<?> model, Indexable index) throws Exception;
+
+      /**
+       * Loads a page of the hashes stored for an index of a {@link PrefixKeyed} model, ordered by hash.
+       * @param model the model class
+       * @param index the key of the set
+       * @param after the last hash of the previous page, or {@code null} to start with the first hash
+       * @param limit the maximum number of hashes to load
+       * @return up to {@code limit} hashes following {@code after}, empty if there are no more hashes
+       * @throws Exception
+       */
+      List<Hash> getPage(Class<?> model, Indexable index, Indexable after, int limit) throws Exception;
+
+      /**
+       * Loads the hashes stored for a range of indexes of a {@link PrefixKeyed} model, ordered by index and hash.
+       * @param model the model class
+       * @param from the first index of the range
+       * @param after the last hash of the previous page, which belongs to {@code from}, or {@code null} to start with
+       *              the first hash of {@code from}
+       * @param to the end of the range, which is not included
+       * @param limit the maximum number of hashes to load
+       * @return up to {@code limit} pairs of an index and one of its hashes, empty if there are no more hashes
+       * @throws Exception
+       */
+      List<Pair<Indexable, Hash>> getRange(Class<?> model, Indexable from, Hash after, Indexable to, int limit)
+              throws Exception;
+
       boolean mayExist(Class<?> model, Indexable index) throws Exception;
 
+      /**
+       * Counts the stored entries of a model. A {@link PrefixKeyed} model stores one entry per element of its sets, so
+       * its count is the number of index and hash pairs and not the number of indexes.
+       * @param model the model class
+       * @return the number of entries
+       * @throws Exception
+       */
       long count(Class<?> model) throws Exception;
 
       Set<Indexable> keysStartingWith(Class<?> modelClass, byte[] value);
 
       Persistable seek(Class<?> model, byte[] key) throws Exception;
 
+      /**
+       * Finds the model with the lowest key that starts with the given prefix.
+       * @param model the class of the model
+       * @param prefix the first bytes of the key
+       * @return the key and the model, or a pair of {@code null}s if no key starts with the prefix
+       * @throws Exception
+       */
+      Pair<Indexable, Persistable> findByPrefix(Class<?> model, byte[] prefix) throws Exception;
+
       Pair<Indexable, Persistable> next(Class<?> model, Indexable index) throws Exception;
       Pair<Indexable, Persistable> previous(Class<?> model, Indexable index) throws Exception;
 
@@ -50,14 +111,42 @@ public interface PersistenceProvider {
       boolean saveBatch(List<Pair<Indexable, Persistable>> models) throws Exception;
 
       /**
-       * Atomically delete all {@code models}.
+       * Atomically delete all {@code models}. The key of a {@link PrefixKeyed} model removes the whole set of the
+       * index, unless it is the key of a single hash (@see net.helix.pendulum.model.ElementIndex).
        * @param models key value pairs that to be expunged from the db
        * @throws Exception
        */
       void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models) throws Exception;
 
+      /**
+       * Atomically deletes all entries of a model whose keys are in a range, including their metadata. Unlike
+       * {@link #deleteBatch}, the keys do not have to be known and the deletion does not leave a tombstone per key.
+       * @param model the model class
+       * @param from the first key of the range
+       * @param to the end of the range, which is not deleted
+       * @throws Exception
+       */
+      void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception;
+
+      /**
+       * Compacts the entries of a model whose keys are in a range, which removes deleted entries from the storage.
+       * Providers that do not need compactions do nothing.
+       * @param model the model class
+       * @param from the first key of the range
+       * @param to the end of the range
+       * @throws Exception
+       */
+      void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception;
+
       void clear(Class<?> column) throws Exception;
       void clearMetadata(Class<?> column) throws Exception;
 
       List<byte[]> loadAllKeysFromTable(Class<? extends Persistable> model);
+
+      /**
+       * Reports internal counters of the provider, such as cache hits and misses.
+       * @return counter values by name, empty if the provider keeps no counters
+       * @throws Exception
+       */
+      Map<String, Long> getStatistics() throws Exception;
  }
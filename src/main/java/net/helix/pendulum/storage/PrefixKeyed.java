@@ -0,0 +1,14 @@
+package net.helix.pendulum.storage;
+
+/**
+ * Marks a {@link net.helix.pendulum.model.persistables.Hashes} model which is stored with one key per hash instead of
+ * one merged value per index.
+ *
+ * <p>
+ *     Every key consists of the index of the set followed by one of its hashes, so all hashes of an index are adjacent
+ *     and ordered. This allows to page through sets with millions of hashes, like the transactions of an exchange
+ *     address, without loading them at once (@see PersistenceProvider#getPage(Class, Indexable, Indexable, int)).
+ * </p>
+ */
+public interface PrefixKeyed {
+}
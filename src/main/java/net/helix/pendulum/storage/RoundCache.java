@@ -0,0 +1,211 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.model.persistables.Round;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded cache of the {@link Round}s of a {@link Tangle}, which are shared by the
+ * {@link net.helix.pendulum.controllers.RoundViewModel}s of the same round.
+ *
+ * <p>
+ *     Most lookups are for the latest rounds, which the milestone tracker and tip selection read over and over. These
+ *     are kept in a fixed window of slots indexed by the round index, so they are found without a lock and never evict
+ *     each other. Rounds that drop out of the window, and older rounds loaded by historical lookups like inclusion
+ *     states, are kept in a small least recently used map instead.
+ * </p>
+ * <p>
+ *     The cached rounds are not copied, callers that change a round see each other's changes like before.
+ * </p>
+ */
+public class RoundCache {
+
+    private static final int MAX_RECENT_ROUNDS = 256;
+
+    private final int capacity;
+    private final int window;
+
+    private final AtomicReferenceArray<Round> recent;
+    private final AtomicInteger latestIndex = new AtomicInteger(Integer.MIN_VALUE);
+    private final Historical historical;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of cached rounds, half of them at most {@value #MAX_RECENT_ROUNDS} are
+     *                 reserved for the latest rounds
+     */
+    public RoundCache(int capacity) {
+        this.capacity = capacity;
+        this.window = Math.max(1, Math.min(MAX_RECENT_ROUNDS, capacity / 2));
+        this.recent = new AtomicReferenceArray<>(window);
+        this.historical = new Historical(Math.max(1, capacity - window));
+    }
+
+    /**
+     * @param index the index of the round
+     * @return the cached round or {@code null} if it is not cached
+     */
+    public Round get(int index) {
+        Round round = recent.get(slotOf(index));
+        if (round == null || round.index.getValue() != index) {
+            synchronized (historical) {
+                round = historical.get(index);
+            }
+        }
+        if (round == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return round;
+    }
+
+    /**
+     * Caches a round unless another round with the same index was cached meanwhile, so concurrent loads of a round
+     * end up sharing the same instance.
+     *
+     * @param round the round
+     * @return the cached round with the index of the given round
+     */
+    public Round putIfAbsent(Round round) {
+        int index = round.index.getValue();
+        int latest = latestIndex.accumulateAndGet(index, Math::max);
+        if (index > latest - window) {
+            int slot = slotOf(index);
+            while (true) {
+                Round previous = recent.get(slot);
+                if (previous != null && previous.index.getValue() == index) {
+                    return previous;
+                }
+                // a newer round was cached concurrently and pushed this one out of the window
+                if (previous != null && previous.index.getValue() > index) {
+                    break;
+                }
+                if (recent.compareAndSet(slot, previous, round)) {
+                    // the previous round is older than the window now, so it moves to the historical rounds
+                    if (previous != null) {
+                        synchronized (historical) {
+                            historical.putIfAbsent(previous.index.getValue(), previous);
+                        }
+                    }
+                    return round;
+                }
+            }
+        }
+        synchronized (historical) {
+            Round previous = historical.putIfAbsent(index, round);
+            return previous == null ? round : previous;
+        }
+    }
+
+    /**
+     * Removes a round from the cache.
+     *
+     * @param index the index of the round
+     */
+    public void invalidate(int index) {
+        Round round = recent.get(slotOf(index));
+        if (round != null && round.index.getValue() == index) {
+            recent.compareAndSet(slotOf(index), round, null);
+        }
+        synchronized (historical) {
+            historical.remove(index);
+        }
+    }
+
+    /**
+     * Removes the rounds of a range of indexes from the cache.
+     *
+     * @param from the first index of the range
+     * @param to the end of the range, which is not removed
+     */
+    public void invalidateRange(int from, int to) {
+        for (int slot = 0; slot < window; slot++) {
+            Round round = recent.get(slot);
+            if (round != null && round.index.getValue() >= from && round.index.getValue() < to) {
+                recent.compareAndSet(slot, round, null);
+            }
+        }
+        synchronized (historical) {
+            historical.keySet().removeIf(index -> index >= from && index < to);
+        }
+    }
+
+    /**
+     * Removes all rounds from the cache.
+     */
+    public void clear() {
+        for (int slot = 0; slot < window; slot++) {
+            recent.set(slot, null);
+        }
+        synchronized (historical) {
+            historical.clear();
+        }
+        latestIndex.set(Integer.MIN_VALUE);
+    }
+
+    /**
+     * @return the number of cached rounds
+     */
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < window; slot++) {
+            if (recent.get(slot) != null) {
+                size++;
+            }
+        }
+        synchronized (historical) {
+            return size + historical.size();
+        }
+    }
+
+    /**
+     * Reports the usage of the cache. The hit ratio is given in percent of all lookups.
+     *
+     * @return the counters by name
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        stats.put("roundCacheHits", hitCount);
+        stats.put("roundCacheMisses", lookups - hitCount);
+        stats.put("roundCacheHitRatio", lookups == 0 ? 0L : 100 * hitCount / lookups);
+        stats.put("roundCacheEvictions", evictions.get());
+        stats.put("roundCacheSize", (long) size());
+        stats.put("roundCacheCapacity", (long) capacity);
+        return stats;
+    }
+
+    private int slotOf(int index) {
+        return Math.floorMod(index, window);
+    }
+
+    /**
+     * The rounds older than the window, which evicts its least recently used round when it is full.
+     */
+    private class Historical extends LinkedHashMap<Integer, Round> {
+        private final int capacity;
+
+        private Historical(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Round> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package net.helix.pendulum.storage;
 
+import net.helix.pendulum.conf.BasePendulumConfig;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.IntegerIndex;
 import net.helix.pendulum.model.StateDiff;
 import net.helix.pendulum.model.persistables.*;
 import net.helix.pendulum.utils.Pair;
@@ -28,14 +31,89 @@ public class Tangle {
                 put("bundleNonce", BundleNonce.class);
                 put("tag", Tag.class);
                 put("nominees", Nominees.class);
+                put("arrivalTime", ArrivalTime.class);
             }};
 
     public static final Map.Entry<String, Class<? extends Persistable>> METADATA_COLUMN_FAMILY =
             new AbstractMap.SimpleImmutableEntry<>("transaction-metadata", Transaction.class);
 
+    /**
+     * Number of hashes loaded at once when iterating a {@link PrefixKeyed} set.
+     */
+    public static final int PAGE_SIZE = 1000;
+
     private final List<PersistenceProvider> persistenceProviders = new ArrayList<>();
     private final List<MessageQProvider> messageQProviders = new ArrayList<>();
 
+    /**
+     * Caches parsed transactions in front of the persistence providers, {@code null} if caching is disabled.
+     */
+    private final TransactionCache transactionCache;
+
+    /**
+     * Caches the rounds shared by the {@link net.helix.pendulum.controllers.RoundViewModel}s of this tangle,
+     * {@code null} if caching is disabled.
+     */
+    private final RoundCache roundCache;
+
+    /**
+     * Whether transactions are indexed by their arrival time (@see ArrivalTime).
+     */
+    private final boolean arrivalTimeIndexed;
+
+    /**
+     * Creates a tangle without a transaction cache.
+     */
+    public Tangle() {
+        this(0);
+    }
+
+    /**
+     * Creates a tangle without the arrival time index.
+     *
+     * @param transactionCacheSize the maximum number of parsed transactions kept in memory, 0 disables the cache
+     */
+    public Tangle(int transactionCacheSize) {
+        this(transactionCacheSize, false);
+    }
+
+    /**
+     * Creates a tangle with the default round cache size of the configuration
+     * ({@value BasePendulumConfig.Defaults#DB_ROUND_CACHE_SIZE} rounds).
+     *
+     * @param transactionCacheSize the maximum number of parsed transactions kept in memory, 0 disables the cache
+     * @param arrivalTimeIndexed whether stored transactions are also indexed by their arrival time
+     */
+    public Tangle(int transactionCacheSize, boolean arrivalTimeIndexed) {
+        this(transactionCacheSize, arrivalTimeIndexed, BasePendulumConfig.Defaults.DB_ROUND_CACHE_SIZE);
+    }
+
+    /**
+     * @param transactionCacheSize the maximum number of parsed transactions kept in memory, 0 disables the cache
+     * @param arrivalTimeIndexed whether stored transactions are also indexed by their arrival time
+     * @param roundCacheSize the maximum number of rounds kept in memory, 0 disables the cache
+     */
+    public Tangle(int transactionCacheSize, boolean arrivalTimeIndexed, int roundCacheSize) {
+        this.transactionCache = transactionCacheSize > 0 ? new TransactionCache(transactionCacheSize) : null;
+        this.roundCache = roundCacheSize > 0 ? new RoundCache(roundCacheSize) : null;
+        this.arrivalTimeIndexed = arrivalTimeIndexed;
+    }
+
+    /**
+     * @return the cache of the rounds of this tangle or {@code null} if rounds are not cached
+     */
+    public RoundCache getRoundCache() {
+        return roundCache;
+    }
+
+    /**
+     * @return <code>true</code> if stored transactions are also indexed by their arrival time, which allows to read
+     *         them in arrival order (@see #getRange)
+     */
+    public boolean isArrivalTimeIndexed() {
+        return arrivalTimeIndexed;
+    }
+
 
     public void addPersistenceProvider(PersistenceProvider provider) {
         this.persistenceProviders.add(provider);
@@ -63,6 +141,20 @@ public class Tangle {
     }
 
     public Persistable load(Class<?> model, Indexable index) throws Exception {
+        if (isCached(model) && index != null) {
+            Transaction cached = transactionCache.get(index);
+            if (cached != null) {
+                return cached;
+            }
+            long version = transactionCache.version(index);
+            Persistable out = loadFromProviders(model, index);
+            transactionCache.putIfUnchanged(index, (Transaction) out, version);
+            return out;
+        }
+        return loadFromProviders(model, index);
+    }
+
+    private Persistable loadFromProviders(Class<?> model, Indexable index) throws Exception {
         Persistable out = null;
         for(PersistenceProvider provider: this.persistenceProviders) {
             if((out = provider.get(model, index)) != null) {
@@ -72,6 +164,129 @@ public class Tangle {
         return out;
     }
 
+    /**
+     * Loads several models of the same class with a single lookup per persistence provider instead of one lookup
+     * per model.
+     *
+     * @param model the model class
+     * @param indexes the keys of the models
+     * @return the models in the order of {@code indexes}, missing models are empty like in {@link #load}
+     * @throws Exception if the models cannot be loaded
+     */
+    public List<Persistable> loadBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception {
+        if (!isCached(model)) {
+            return loadBatchFromProviders(model, indexes);
+        }
+
+        List<Persistable> out = new ArrayList<>(indexes.size());
+        List<Indexable> missing = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        for (Indexable index : indexes) {
+            Transaction cached = transactionCache.get(index);
+            out.add(cached);
+            if (cached == null) {
+                missing.add(index);
+                versions.add(transactionCache.version(index));
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Persistable> loadedList = loadBatchFromProviders(model, missing);
+            if (loadedList == null) {
+                return null;
+            }
+            Iterator<Persistable> loaded = loadedList.iterator();
+            for (int i = 0, m = 0; i < out.size(); i++) {
+                if (out.get(i) == null) {
+                    Persistable transaction = loaded.next();
+                    transactionCache.putIfUnchanged(missing.get(m), (Transaction) transaction, versions.get(m++));
+                    out.set(i, transaction);
+                }
+            }
+        }
+        return out;
+    }
+
+    private List<Persistable> loadBatchFromProviders(Class<?> model, List<? extends Indexable> indexes)
+            throws Exception {
+        List<Persistable> out = null;
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            if ((out = provider.getBatch(model, indexes)) != null) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Iterates the hashes stored for the given index without materializing them as a set, for callers that only
+     * iterate them once. {@link PrefixKeyed} sets are loaded page by page, so only one page is held in memory. For
+     * other models, different from {@link #load(Class, Indexable)}, a hash that was merged into the entry more than
+     * once is also returned more than once.
+     *
+     * @param model the {@link Hashes} model of the entry
+     * @param index the key of the entry
+     * @return the hashes of the entry, empty if there is no entry
+     * @throws Exception if the entry cannot be loaded
+     */
+    public Iterable<Hash> iterateHashes(Class<? extends Hashes> model, Indexable index) throws Exception {
+        if (PrefixKeyed.class.isAssignableFrom(model)) {
+            return () -> new PagingIterator(model, index);
+        }
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            byte[] bytes = provider.getBytes(model, index);
+            if (bytes != null) {
+                Hashes hashes = model.newInstance();
+                return () -> hashes.iterator(bytes);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Loads a page of the hashes stored for an index of a {@link PrefixKeyed} model, ordered by hash. Passing the
+     * last hash of a page as {@code after} resumes with the next page.
+     *
+     * @param model the {@link PrefixKeyed} model of the set
+     * @param index the key of the set
+     * @param after the last hash of the previous page, or {@code null} to start with the first hash
+     * @param limit the maximum number of hashes to load
+     * @return up to {@code limit} hashes, empty if there are no more hashes
+     * @throws Exception if the hashes cannot be loaded
+     */
+    public List<Hash> loadPage(Class<? extends Hashes> model, Indexable index, Indexable after, int limit)
+            throws Exception {
+        List<Hash> page = Collections.emptyList();
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            if (!(page = provider.getPage(model, index, after, limit)).isEmpty()) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Loads the hashes stored for a range of indexes of a {@link PrefixKeyed} model, ordered by index and hash
+     * (@see PersistenceProvider#getRange).
+     *
+     * @param model the model class
+     * @param from the first index of the range
+     * @param after the last hash of the previous page, which belongs to {@code from}, or {@code null}
+     * @param to the end of the range, which is not included
+     * @param limit the maximum number of hashes to load
+     * @return up to {@code limit} pairs of an index and one of its hashes
+     * @throws Exception if a provider fails to read the range
+     */
+    public List<Pair<Indexable, Hash>> getRange(Class<?> model, Indexable from, Hash after, Indexable to, int limit)
+            throws Exception {
+        List<Pair<Indexable, Hash>> range = Collections.emptyList();
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            if (!(range = provider.getRange(model, from, after, to, limit)).isEmpty()) {
+                break;
+            }
+        }
+        return range;
+    }
+
     public Boolean saveBatch(List<Pair<Indexable, Persistable>> models) throws Exception {
         boolean exists = false;
         for(PersistenceProvider provider: persistenceProviders) {
@@ -81,6 +296,20 @@ public class Tangle {
                 exists = provider.saveBatch(models);
             }
         }
+        if (transactionCache != null) {
+            for (Pair<Indexable, Persistable> entry : models) {
+                if (entry.hi instanceof Transaction) {
+                    transactionCache.put(entry.low, (Transaction) entry.hi);
+                }
+            }
+        }
+        if (roundCache != null) {
+            for (Pair<Indexable, Persistable> entry : models) {
+                if (entry.hi instanceof Round) {
+                    roundCache.invalidate(((IntegerIndex) entry.low).getValue());
+                }
+            }
+        }
         return exists;
     }
     public Boolean save(Persistable model, Indexable index) throws Exception {
@@ -92,6 +321,12 @@ public class Tangle {
                 exists = provider.save(model, index);
             }
         }
+        if (transactionCache != null && model instanceof Transaction) {
+            transactionCache.put(index, (Transaction) model);
+        }
+        if (roundCache != null && model instanceof Round) {
+            roundCache.invalidate(((IntegerIndex) index).getValue());
+        }
         return exists;
     }
 
@@ -99,12 +334,66 @@ public class Tangle {
         for(PersistenceProvider provider: persistenceProviders) {
             provider.deleteBatch(models);
         }
+        if (transactionCache != null) {
+            for (Pair<Indexable, ? extends Class<? extends Persistable>> entry : models) {
+                if (isCached(entry.hi)) {
+                    transactionCache.invalidate(entry.low);
+                }
+            }
+        }
+        if (roundCache != null) {
+            for (Pair<Indexable, ? extends Class<? extends Persistable>> entry : models) {
+                if (entry.hi == Round.class) {
+                    roundCache.invalidate(((IntegerIndex) entry.low).getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes all entries of a model whose keys are in a range (@see PersistenceProvider#deleteRange).
+     *
+     * @param model the model class
+     * @param from the first key of the range
+     * @param to the end of the range, which is not deleted
+     * @throws Exception if a provider fails to delete the range
+     */
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        for (PersistenceProvider provider : persistenceProviders) {
+            provider.deleteRange(model, from, to);
+        }
+        if (isCached(model)) {
+            transactionCache.clear();
+        }
+        if (roundCache != null && model == Round.class) {
+            roundCache.invalidateRange(((IntegerIndex) from).getValue(), ((IntegerIndex) to).getValue());
+        }
+    }
+
+    /**
+     * Compacts the entries of a model whose keys are in a range (@see PersistenceProvider#compactRange).
+     *
+     * @param model the model class
+     * @param from the first key of the range
+     * @param to the end of the range
+     * @throws Exception if a provider fails to compact the range
+     */
+    public void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        for (PersistenceProvider provider : persistenceProviders) {
+            provider.compactRange(model, from, to);
+        }
     }
 
     public void delete(Class<?> model, Indexable index) throws Exception {
         for(PersistenceProvider provider: persistenceProviders) {
             provider.delete(model, index);
         }
+        if (isCached(model)) {
+            transactionCache.invalidate(index);
+        }
+        if (roundCache != null && model == Round.class) {
+            roundCache.invalidate(((IntegerIndex) index).getValue());
+        }
     }
 
     public Pair<Indexable, Persistable> getLatest(Class<?> model, Class<?> index) throws Exception {
@@ -119,6 +408,9 @@ public class Tangle {
 
     public void update(Persistable model, Indexable index, String item) throws Exception {
         updatePersistenceProvider(model, index, item);
+        if (isCached(model.getClass())) {
+            transactionCache.invalidate(index);
+        }
         updateMessageQueueProvider(model, index, item);
     }
 
@@ -215,6 +507,63 @@ public class Tangle {
         return value;
     }
 
+    /**
+     * Collects the counters of all persistence providers. Counters reported by several providers are summed up.
+     *
+     * @return counter values by name
+     * @throws Exception if a provider fails to report its counters
+     */
+    public Map<String, Long> getStatistics() throws Exception {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            provider.getStatistics().forEach((name, value) -> statistics.merge(name, value, Long::sum));
+        }
+        if (transactionCache != null) {
+            statistics.putAll(transactionCache.getStatistics());
+        }
+        if (roundCache != null) {
+            statistics.putAll(roundCache.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Creates a checkpoint of the first persistence provider that supports it (@see Checkpointable).
+     *
+     * @param path the folder of the checkpoint, which must not exist yet
+     * @return <code>true</code> if a checkpoint was created, <code>false</code> if no provider supports checkpoints
+     * @throws Exception if the checkpoint could not be created
+     */
+    public boolean createCheckpoint(String path) throws Exception {
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            if (provider instanceof Checkpointable) {
+                ((Checkpointable) provider).createCheckpoint(path);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the model with the lowest key that starts with the given prefix, like a transaction requested by the first
+     * bytes of its hash. Unlike {@link #find(Class, byte[])} it stops at the first match, so providers can bound the
+     * lookup to the prefix.
+     *
+     * @param model the class of the model
+     * @param prefix the first bytes of the key
+     * @return the key and the model, or a pair of {@code null}s if no key starts with the prefix
+     * @throws Exception if a provider fails to read the model
+     */
+    public Pair<Indexable, Persistable> findByPrefix(Class<?> model, byte[] prefix) throws Exception {
+        Pair<Indexable, Persistable> found = new Pair<>(null, null);
+        for (PersistenceProvider provider : this.persistenceProviders) {
+            if ((found = provider.findByPrefix(model, prefix)).low != null) {
+                break;
+            }
+        }
+        return found;
+    }
+
     public Persistable find(Class<?> model, byte[] key) throws Exception {
         Persistable out = null;
         for (PersistenceProvider provider : this.persistenceProviders) {
@@ -259,12 +608,25 @@ public class Tangle {
         for(PersistenceProvider provider: persistenceProviders) {
             provider.clear(column);
         }
+        if (isCached(column)) {
+            transactionCache.clear();
+        }
+        if (roundCache != null && column == Round.class) {
+            roundCache.clear();
+        }
     }
 
     public void clearMetadata(Class<?> column) throws Exception {
         for(PersistenceProvider provider: persistenceProviders) {
             provider.clearMetadata(column);
         }
+        if (isCached(column)) {
+            transactionCache.clear();
+        }
+    }
+
+    private boolean isCached(Class<?> model) {
+        return transactionCache != null && model == Transaction.class;
     }
 
     /*
@@ -280,4 +642,42 @@ public class Tangle {
         return exists;
     }
     */
+
+    /**
+     * Iterates the hashes of a {@link PrefixKeyed} set by loading one page of {@link #PAGE_SIZE} hashes at a time.
+     */
+    private class PagingIterator implements Iterator<Hash> {
+        private final Class<? extends Hashes> model;
+        private final Indexable index;
+        private Iterator<Hash> page = Collections.emptyIterator();
+        private Hash last;
+        private boolean exhausted;
+
+        PagingIterator(Class<? extends Hashes> model, Indexable index) {
+            this.model = model;
+            this.index = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !exhausted) {
+                try {
+                    List<Hash> hashes = loadPage(model, index, last, PAGE_SIZE);
+                    exhausted = hashes.size() < PAGE_SIZE;
+                    page = hashes.iterator();
+                } catch (Exception e) {
+                    throw new IllegalStateException("failed to load the next page of " + index, e);
+                }
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Hash next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return last = page.next();
+        }
+    }
 }
@@ -0,0 +1,204 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.persistables.Transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of parsed {@link Transaction}s in front of the persistence providers of the {@link Tangle}.
+ *
+ * <p>
+ *     Transactions close to the tips are loaded over and over by tip selection, solidification and bundle validation.
+ *     The cache keeps the most recently used ones, so these loads don't have to read and parse the transaction bytes
+ *     and metadata again. It is split into segments with their own lock and least recently used eviction, so
+ *     concurrent readers rarely wait for each other.
+ * </p>
+ * <p>
+ *     Callers mutate the transactions they receive, the cache therefore only hands out and stores copies (@see
+ *     Transaction#copy()). A transaction loaded from the database is only added if its key was not invalidated while
+ *     it was loaded (@see #version(Indexable) and @see #putIfUnchanged(Indexable, Transaction, long)).
+ * </p>
+ */
+public class TransactionCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of cached transactions
+     */
+    public TransactionCache(int capacity) {
+        this.capacity = capacity;
+        int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * @param index the hash of the transaction
+     * @return a copy of the cached transaction or {@code null} if it is not cached
+     */
+    public Transaction get(Indexable index) {
+        Segment segment = segmentOf(index);
+        Transaction transaction;
+        synchronized (segment) {
+            transaction = segment.get(index);
+        }
+        if (transaction == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return transaction.copy();
+    }
+
+    /**
+     * Caches a copy of a transaction that was written to the database. Empty transactions are ignored.
+     *
+     * @param index the hash of the transaction
+     * @param transaction the written transaction
+     */
+    public void put(Indexable index, Transaction transaction) {
+        if (!isCacheable(transaction)) {
+            return;
+        }
+        Segment segment = segmentOf(index);
+        Transaction copy = transaction.copy();
+        synchronized (segment) {
+            segment.version++;
+            segment.put(index, copy);
+        }
+    }
+
+    /**
+     * Returns the version of the segment of a key, which has to be read before the transaction is loaded from the
+     * database and passed to {@link #putIfUnchanged(Indexable, Transaction, long)} afterwards.
+     *
+     * @param index the hash of the transaction
+     * @return the current version of the segment of the key
+     */
+    public long version(Indexable index) {
+        Segment segment = segmentOf(index);
+        synchronized (segment) {
+            return segment.version;
+        }
+    }
+
+    /**
+     * Caches a copy of a transaction loaded from the database, unless its segment was modified since the load
+     * started. This prevents a slow load from overwriting a newer update with outdated data.
+     *
+     * @param index the hash of the transaction
+     * @param transaction the loaded transaction
+     * @param version the version of the segment before the transaction was loaded
+     */
+    public void putIfUnchanged(Indexable index, Transaction transaction, long version) {
+        if (!isCacheable(transaction)) {
+            return;
+        }
+        Segment segment = segmentOf(index);
+        Transaction copy = transaction.copy();
+        synchronized (segment) {
+            if (segment.version == version) {
+                segment.put(index, copy);
+            }
+        }
+    }
+
+    /**
+     * Removes a transaction from the cache.
+     *
+     * @param index the hash of the transaction
+     */
+    public void invalidate(Indexable index) {
+        Segment segment = segmentOf(index);
+        synchronized (segment) {
+            segment.version++;
+            segment.remove(index);
+        }
+    }
+
+    /**
+     * Removes all transactions from the cache.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.version++;
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached transactions
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reports the usage of the cache. The hit ratio is given in percent of all lookups.
+     *
+     * @return the counters by name
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        stats.put("transactionCacheHits", hitCount);
+        stats.put("transactionCacheMisses", lookups - hitCount);
+        stats.put("transactionCacheHitRatio", lookups == 0 ? 0L : 100 * hitCount / lookups);
+        stats.put("transactionCacheEvictions", evictions.get());
+        stats.put("transactionCacheSize", (long) size());
+        stats.put("transactionCacheCapacity", (long) capacity);
+        return stats;
+    }
+
+    private static boolean isCacheable(Transaction transaction) {
+        return transaction != null && transaction.bytes != null && transaction.type == TransactionViewModel.FILLED_SLOT;
+    }
+
+    private Segment segmentOf(Indexable index) {
+        return segments[(index.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+    }
+
+    /**
+     * A part of the cache guarded by its own monitor, which evicts its least recently used transaction when it is
+     * full. Its version is increased on every modification.
+     */
+    private class Segment extends LinkedHashMap<Indexable, Transaction> {
+        private final int capacity;
+        private long version;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Indexable, Transaction> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,606 @@
+package net.helix.pendulum.storage.memory;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+import net.helix.pendulum.model.persistables.Hashes;
+import net.helix.pendulum.storage.Indexable;
+import net.helix.pendulum.storage.MutableMetadata;
+import net.helix.pendulum.storage.Persistable;
+import net.helix.pendulum.storage.PersistenceProvider;
+import net.helix.pendulum.storage.PrefixKeyed;
+import net.helix.pendulum.utils.Pair;
+import org.apache.commons.lang3.ArrayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link PersistenceProvider} that keeps all column families in sorted maps on the heap.
+ *
+ * <p>
+ *     It stores the same keys and values as the {@link net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider}:
+ *     keys are ordered bytewise like in RocksDB, {@link PrefixKeyed} models use one key per hash, merges append the new
+ *     value separated by the delimiter of the string append operator and {@link MutableMetadata} models keep their
+ *     state next to their metadata. Iteration, paging and seeking therefore behave exactly the same, which makes this
+ *     provider a drop-in replacement for unit tests, benchmarks and ephemeral nodes that don't need their data after
+ *     a restart.
+ * </p>
+ * <p>
+ *     Reads don't lock. Writes are serialized, so merges and batches are atomic for other writers.
+ * </p>
+ */
+public class InMemoryPersistenceProvider implements PersistenceProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPersistenceProvider.class);
+
+    private static final Pair<Indexable, Persistable> PAIR_OF_NULLS = new Pair<>(null, null);
+
+    // keys of PrefixKeyed models consist of the index followed by one hash and have no value
+    private static final int PREFIX_LENGTH = Hash.SIZE_IN_BYTES;
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    // the delimiter the string append operator of RocksDB puts between merged values
+    private static final byte MERGE_DELIMITER = ',';
+
+    /**
+     * Orders keys like the bytewise comparator of RocksDB: lexicographically by unsigned bytes, shorter keys first.
+     */
+    private static final Comparator<byte[]> KEY_ORDER = (left, right) -> {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return left.length - right.length;
+    };
+
+    private final SecureRandom seed = new SecureRandom();
+    private final Object writeLock = new Object();
+
+    private final Map<String, Class<? extends Persistable>> columnFamilies;
+    private final Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily;
+
+    private Map<Class<?>, ConcurrentNavigableMap<byte[], byte[]>> classTreeMap = Collections.emptyMap();
+    private Map<Class<?>, ConcurrentNavigableMap<byte[], byte[]>> metadataReference = Collections.emptyMap();
+    private Map<Class<?>, ConcurrentNavigableMap<byte[], byte[]>> stateReference = Collections.emptyMap();
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile boolean available;
+
+    /**
+     * @param columnFamilies column family names mapped to the models they store
+     * @param metadataColumnFamily the column family storing model metadata or {@code null} if there is none
+     */
+    public InMemoryPersistenceProvider(Map<String, Class<? extends Persistable>> columnFamilies,
+                                       Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily) {
+        this.columnFamilies = columnFamilies;
+        this.metadataColumnFamily = metadataColumnFamily;
+    }
+
+    @Override
+    public void init() throws Exception {
+        Map<Class<?>, ConcurrentNavigableMap<byte[], byte[]>> classMap = new LinkedHashMap<>();
+        for (Class<? extends Persistable> model : columnFamilies.values()) {
+            classMap.put(model, new ConcurrentSkipListMap<>(KEY_ORDER));
+        }
+        classTreeMap = Collections.unmodifiableMap(classMap);
+
+        if (metadataColumnFamily != null) {
+            Class<? extends Persistable> model = metadataColumnFamily.getValue();
+            metadataReference = Collections.singletonMap(model, new ConcurrentSkipListMap<>(KEY_ORDER));
+            if (MutableMetadata.class.isAssignableFrom(model)) {
+                stateReference = Collections.singletonMap(model, new ConcurrentSkipListMap<>(KEY_ORDER));
+            }
+        }
+        available = true;
+        log.info("In-memory persistence provider initialized.");
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public void shutdown() {
+        available = false;
+        classTreeMap = Collections.emptyMap();
+        metadataReference = Collections.emptyMap();
+        stateReference = Collections.emptyMap();
+    }
+
+    @Override
+    public boolean save(Persistable thing, Indexable index) throws Exception {
+        synchronized (writeLock) {
+            ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(thing.getClass());
+            if (thing instanceof PrefixKeyed) {
+                putElements(map, index, (Hashes) thing);
+                return true;
+            }
+            put(map, index.bytes(), thing.bytes());
+            putMetadata(thing, index);
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(Class<?> model, Indexable index) throws Exception {
+        synchronized (writeLock) {
+            ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+            if (isPrefixKeyed(model)) {
+                elementsOf(map, index.bytes()).clear();
+                return;
+            }
+            map.remove(index.bytes());
+            writes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Persists the metadata of a model after the given items changed. Like in RocksDB, updates of {@link
+     * MutableMetadata} models which only touch state fields leave the full metadata untouched.
+     */
+    @Override
+    public boolean update(Persistable thing, Indexable index, String item) throws Exception {
+        synchronized (writeLock) {
+            ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(thing.getClass());
+            ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(thing.getClass());
+            if (metadata != null && (state == null || !((MutableMetadata) thing).isStateUpdate(item))) {
+                put(metadata, index.bytes(), thing.metadata());
+            }
+            if (state != null) {
+                put(state, index.bytes(), ((MutableMetadata) thing).state());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean exists(Class<?> model, Indexable key) throws Exception {
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        reads.incrementAndGet();
+        if (map != null && isPrefixKeyed(model)) {
+            byte[] ceiling = map.ceilingKey(key.bytes());
+            return ceiling != null && keyStartsWithValue(key.bytes(), ceiling);
+        }
+        return map != null && map.containsKey(key.bytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Pair<Indexable, Persistable> latest(Class<?> model, Class<?> indexModel) throws Exception {
+        return modelAndIndex(model, (Class<Indexable>) indexModel, classTreeMap.get(model).lastEntry());
+    }
+
+    @Override
+    public Set<Indexable> keysWithMissingReferences(Class<?> model, Class<?> other) throws Exception {
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        ConcurrentNavigableMap<byte[], byte[]> otherMap = classTreeMap.get(other);
+        boolean prefixKeyed = isPrefixKeyed(model);
+
+        Set<Indexable> indexables = null;
+        for (byte[] key : map.keySet()) {
+            byte[] index = prefixKeyed ? Arrays.copyOf(key, PREFIX_LENGTH) : key.clone();
+            if (!otherMap.containsKey(index)) {
+                indexables = indexables == null ? new HashSet<>() : indexables;
+                indexables.add(HashFactory.GENERIC.create(model, index));
+            }
+        }
+        return indexables == null ? Collections.emptySet() : Collections.unmodifiableSet(indexables);
+    }
+
+    @Override
+    public Persistable get(Class<?> model, Indexable index) throws Exception {
+        Persistable object = (Persistable) model.newInstance();
+        byte[] key = index == null ? new byte[0] : index.bytes();
+        if (object instanceof PrefixKeyed) {
+            if (index != null) {
+                for (byte[] element : elementsOf(classTreeMap.get(model), key).keySet()) {
+                    ((Hashes) object).set.add(HashFactory.TRANSACTION.create(element, key.length,
+                            Hash.SIZE_IN_BYTES));
+                }
+            }
+            reads.incrementAndGet();
+            return object;
+        }
+        object.read(value(classTreeMap.get(model), key));
+        readMetadata(object, model, key);
+        return object;
+    }
+
+    @Override
+    public List<Persistable> getBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception {
+        List<Persistable> models = new ArrayList<>(indexes.size());
+        for (Indexable index : indexes) {
+            models.add(get(model, index));
+        }
+        return models;
+    }
+
+    @Override
+    public byte[] getBytes(Class<?> model, Indexable index) throws Exception {
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        if (map != null && isPrefixKeyed(model)) {
+            Hashes hashes = (Hashes) get(model, index);
+            return hashes.set.isEmpty() ? null : hashes.bytes();
+        }
+        return map == null ? null : value(map, index.bytes());
+    }
+
+    @Override
+    public List<Hash> getPage(Class<?> model, Indexable index, Indexable after, int limit) throws Exception {
+        if (!isPrefixKeyed(model)) {
+            throw new IllegalArgumentException(model.getSimpleName() + " is not stored with prefix keys");
+        }
+        List<Hash> page = new ArrayList<>(Math.min(limit, 1024));
+        if (limit > 0) {
+            byte[] prefix = index.bytes();
+            NavigableMap<byte[], byte[]> elements = elementsOf(classTreeMap.get(model), prefix);
+            if (after != null) {
+                elements = elements.tailMap(ArrayUtils.addAll(prefix, after.bytes()), false);
+            }
+            for (byte[] key : elements.keySet()) {
+                page.add(HashFactory.TRANSACTION.create(key, prefix.length, Hash.SIZE_IN_BYTES));
+                if (page.size() >= limit) {
+                    break;
+                }
+            }
+            reads.incrementAndGet();
+        }
+        return page;
+    }
+
+    @Override
+    public List<Pair<Indexable, Hash>> getRange(Class<?> model, Indexable from, Hash after, Indexable to, int limit)
+            throws Exception {
+        if (!isPrefixKeyed(model)) {
+            throw new IllegalArgumentException(model.getSimpleName() + " is not stored with prefix keys");
+        }
+        List<Pair<Indexable, Hash>> range = new ArrayList<>(Math.min(limit, 1024));
+        if (limit > 0) {
+            byte[] fromBytes = from.bytes();
+            int indexLength = fromBytes.length;
+            byte[] start = after == null ? fromBytes : ArrayUtils.addAll(fromBytes, after.bytes());
+            for (byte[] key : classTreeMap.get(model).subMap(start, after == null, to.bytes(), false).keySet()) {
+                Indexable index = from.getClass().newInstance();
+                index.read(Arrays.copyOf(key, indexLength));
+                range.add(new Pair<>(index, HashFactory.TRANSACTION.create(key, indexLength, Hash.SIZE_IN_BYTES)));
+                if (range.size() >= limit) {
+                    break;
+                }
+            }
+            reads.incrementAndGet();
+        }
+        return range;
+    }
+
+    @Override
+    public boolean mayExist(Class<?> model, Indexable index) throws Exception {
+        return exists(model, index);
+    }
+
+    @Override
+    public long count(Class<?> model) throws Exception {
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        return map == null ? 0 : map.size();
+    }
+
+    @Override
+    public Set<Indexable> keysStartingWith(Class<?> modelClass, byte[] value) {
+        Objects.requireNonNull(value, "value byte[] cannot be null");
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(modelClass);
+        Set<Indexable> keys = null;
+        if (map != null) {
+            byte[] start = HashFactory.GENERIC.create(modelClass, value, 0, value.length).bytes();
+            for (byte[] found : map.tailMap(start, true).keySet()) {
+                if (!keyStartsWithValue(value, found)) {
+                    break;
+                }
+                keys = keys == null ? new HashSet<>() : keys;
+                keys.add(HashFactory.GENERIC.create(modelClass, found.clone()));
+            }
+        }
+        return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public Persistable seek(Class<?> model, byte[] key) throws Exception {
+        Set<Indexable> hashes = keysStartingWith(model, key);
+        if (hashes.isEmpty()) {
+            return get(model, null);
+        }
+        if (hashes.size() == 1) {
+            return get(model, (Indexable) hashes.toArray()[0]);
+        }
+        return get(model, (Indexable) hashes.toArray()[seed.nextInt(hashes.size())]);
+    }
+
+    @Override
+    public Pair<Indexable, Persistable> findByPrefix(Class<?> model, byte[] prefix) throws Exception {
+        Objects.requireNonNull(prefix, "prefix byte[] cannot be null");
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        if (map == null) {
+            return PAIR_OF_NULLS;
+        }
+        Map.Entry<byte[], byte[]> entry = map.ceilingEntry(prefix);
+        if (entry == null || !keyStartsWithValue(prefix, entry.getKey())) {
+            return PAIR_OF_NULLS;
+        }
+        return modelAndIndex(model, HashFactory.GENERIC.create(model, entry.getKey()).getClass(), entry);
+    }
+
+    @Override
+    public Pair<Indexable, Persistable> next(Class<?> model, Indexable index) throws Exception {
+        ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(model);
+        // like seeking a RocksDB iterator to the index and advancing it once
+        Map.Entry<byte[], byte[]> entry = map.ceilingEntry(index.bytes());
+        if (isPrefixKeyed(model)) {
+            // skip all hashes of the current index
+            while (entry != null && keyStartsWithValue(index.bytes(), entry.getKey())) {
+                entry = map.higherEntry(entry.getKey());
+            }
+        } else if (entry != null) {
+            entry = map.higherEntry(entry.getKey());
+        }
+        return modelAndIndex(model, index.getClass(), entry);
+    }
+
+    @Override
+    public Pair<Indexable, Persistable> previous(Class<?> model, Indexable index) throws Exception {
+        return modelAndIndex(model, index.getClass(), classTreeMap.get(model).lowerEntry(index.bytes()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Pair<Indexable, Persistable> first(Class<?> model, Class<?> indexModel) throws Exception {
+        return modelAndIndex(model, (Class<Indexable>) indexModel, classTreeMap.get(model).firstEntry());
+    }
+
+    @Override
+    public boolean saveBatch(List<Pair<Indexable, Persistable>> models) throws Exception {
+        synchronized (writeLock) {
+            for (Pair<Indexable, Persistable> entry : models) {
+                Indexable key = entry.low;
+                Persistable value = entry.hi;
+                ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(value.getClass());
+
+                if (value instanceof PrefixKeyed) {
+                    putElements(map, key, (Hashes) value);
+                } else if (value.merge()) {
+                    byte[] existing = map.get(key.bytes());
+                    put(map, key.bytes(), existing == null ? value.bytes()
+                            : ArrayUtils.addAll(ArrayUtils.add(existing, MERGE_DELIMITER), value.bytes()));
+                } else {
+                    put(map, key.bytes(), value.bytes());
+                }
+                putMetadata(value, key);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models)
+            throws Exception {
+        synchronized (writeLock) {
+            for (Pair<Indexable, ? extends Class<? extends Persistable>> entry : models) {
+                byte[] keyBytes = entry.low.bytes();
+                ConcurrentNavigableMap<byte[], byte[]> map = classTreeMap.get(entry.hi);
+                if (isPrefixKeyed(entry.hi)) {
+                    elementsOf(map, keyBytes).clear();
+                } else {
+                    map.remove(keyBytes);
+                }
+                ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(entry.hi);
+                if (metadata != null) {
+                    metadata.remove(keyBytes);
+                }
+                ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(entry.hi);
+                if (state != null) {
+                    state.remove(keyBytes);
+                }
+                writes.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        byte[] fromBytes = from.bytes();
+        byte[] toBytes = to.bytes();
+        synchronized (writeLock) {
+            classTreeMap.get(model).subMap(fromBytes, toBytes).clear();
+            ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(model);
+            if (metadata != null) {
+                metadata.subMap(fromBytes, toBytes).clear();
+            }
+            ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(model);
+            if (state != null) {
+                state.subMap(fromBytes, toBytes).clear();
+            }
+            writes.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void compactRange(Class<?> model, Indexable from, Indexable to) {
+        // deleted entries do not take up any space
+    }
+
+    @Override
+    public void clear(Class<?> column) throws Exception {
+        log.info("Deleting: {} entries", column.getSimpleName());
+        synchronized (writeLock) {
+            classTreeMap.get(column).clear();
+        }
+    }
+
+    @Override
+    public void clearMetadata(Class<?> column) throws Exception {
+        log.info("Deleting: {} metadata", column.getSimpleName());
+        synchronized (writeLock) {
+            ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(column);
+            if (metadata != null) {
+                metadata.clear();
+            }
+            ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(column);
+            if (state != null) {
+                state.clear();
+            }
+        }
+    }
+
+    @Override
+    public List<byte[]> loadAllKeysFromTable(Class<? extends Persistable> column) {
+        List<byte[]> keyBytes = new ArrayList<>();
+        boolean prefixKeyed = isPrefixKeyed(column);
+        for (byte[] key : classTreeMap.get(column).keySet()) {
+            if (!prefixKeyed) {
+                keyBytes.add(key.clone());
+            } else if (keyBytes.isEmpty() || !keyStartsWithValue(keyBytes.get(keyBytes.size() - 1), key)) {
+                keyBytes.add(Arrays.copyOf(key, PREFIX_LENGTH));
+            }
+        }
+        return keyBytes;
+    }
+
+    /**
+     * Reports the number of reads and writes and the number of stored entries over all column families.
+     */
+    @Override
+    public Map<String, Long> getStatistics() throws Exception {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        if (!available) {
+            return stats;
+        }
+        long entries = 0;
+        for (ConcurrentNavigableMap<byte[], byte[]> map : classTreeMap.values()) {
+            entries += map.size();
+        }
+        stats.put("memoryReads", reads.get());
+        stats.put("memoryWrites", writes.get());
+        stats.put("memoryEntries", entries);
+        return stats;
+    }
+
+    private Pair<Indexable, Persistable> modelAndIndex(Class<?> model, Class<? extends Indexable> index,
+                                                      Map.Entry<byte[], byte[]> entry) throws Exception {
+        if (entry == null) {
+            return PAIR_OF_NULLS;
+        }
+
+        if (isPrefixKeyed(model)) {
+            Indexable indexable = HashFactory.createIndex(index, Arrays.copyOf(entry.getKey(), PREFIX_LENGTH));
+            return new Pair<>(indexable, get(model, indexable));
+        }
+        Indexable indexable = HashFactory.createIndex(index, entry.getKey().clone());
+
+        Persistable object = (Persistable) model.newInstance();
+        object.read(entry.getValue().clone());
+        readMetadata(object, model, entry.getKey());
+        reads.incrementAndGet();
+        return new Pair<>(indexable, object);
+    }
+
+    private void readMetadata(Persistable object, Class<?> model, byte[] key) {
+        ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(model);
+        if (metadata != null) {
+            object.readMetadata(value(metadata, key));
+        }
+        ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(model);
+        if (state != null) {
+            ((MutableMetadata) object).readState(value(state, key));
+        }
+    }
+
+    private void putMetadata(Persistable thing, Indexable index) {
+        ConcurrentNavigableMap<byte[], byte[]> metadata = metadataReference.get(thing.getClass());
+        if (metadata != null) {
+            put(metadata, index.bytes(), thing.metadata());
+        }
+        ConcurrentNavigableMap<byte[], byte[]> state = stateReference.get(thing.getClass());
+        if (state != null) {
+            put(state, index.bytes(), ((MutableMetadata) thing).state());
+        }
+    }
+
+    /**
+     * Stores copies of the key and value, so later modifications of the passed arrays don't leak into the store.
+     */
+    private void put(ConcurrentNavigableMap<byte[], byte[]> map, byte[] key, byte[] value) {
+        map.put(key.clone(), value.clone());
+        writes.incrementAndGet();
+    }
+
+    /**
+     * @return a copy of the stored value, so callers may keep or modify it like a value read from RocksDB
+     */
+    private byte[] value(ConcurrentNavigableMap<byte[], byte[]> map, byte[] key) {
+        reads.incrementAndGet();
+        byte[] value = map.get(key);
+        return value == null ? null : value.clone();
+    }
+
+    /**
+     * Adds a key for every hash of a {@link PrefixKeyed} model.
+     */
+    private void putElements(ConcurrentNavigableMap<byte[], byte[]> map, Indexable index, Hashes hashes) {
+        byte[] prefix = index.bytes();
+        for (Hash hash : hashes.set) {
+            map.put(ArrayUtils.addAll(prefix, hash.bytes()), EMPTY_VALUE);
+        }
+        writes.incrementAndGet();
+    }
+
+    /**
+     * @return a view of the keys of all hashes stored for the given index of a {@link PrefixKeyed} model
+     */
+    private static NavigableMap<byte[], byte[]> elementsOf(ConcurrentNavigableMap<byte[], byte[]> map,
+                                                           byte[] prefix) {
+        byte[] end = prefixEnd(prefix);
+        return end == null ? map.tailMap(prefix, true) : map.subMap(prefix, true, end, false);
+    }
+
+    /**
+     * @return the smallest key that is bigger than all keys starting with the prefix or {@code null} if there is none
+     */
+    private static byte[] prefixEnd(byte[] prefix) {
+        byte[] end = prefix.clone();
+        for (int i = end.length - 1; i >= 0; i--) {
+            if (end[i] != (byte) 0xFF) {
+                end[i]++;
+                return Arrays.copyOf(end, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPrefixKeyed(Class<?> model) {
+        return model != null && PrefixKeyed.class.isAssignableFrom(model);
+    }
+
+    /**
+     * @param value What we are looking for.
+     * @param key   The bytes we are searching in.
+     * @return true If the {@code key} starts with the {@code value}.
+     */
+    private static boolean keyStartsWithValue(byte[] value, byte[] key) {
+        if (key == null || key.length < value.length) {
+            return false;
+        }
+        for (int n = 0; n < value.length; n++) {
+            if (value[n] != key[n]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,318 @@
+package net.helix.pendulum.storage.rocksdb;
+
+import net.helix.pendulum.model.StateDiff;
+import net.helix.pendulum.model.persistables.ArrivalTime;
+import net.helix.pendulum.model.persistables.Hashes;
+import net.helix.pendulum.model.persistables.Nominees;
+import net.helix.pendulum.model.persistables.Round;
+import net.helix.pendulum.model.persistables.Transaction;
+import net.helix.pendulum.storage.Persistable;
+import org.apache.commons.lang3.StringUtils;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.util.SizeUnit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuning parameters of a single RocksDB column family.
+ *
+ * <p>
+ *     The column families of the {@link net.helix.pendulum.storage.Tangle} have very different access patterns:
+ *     transactions and their metadata are mostly read by key, the {@link Hashes} based indexes are append-heavy merges
+ *     and the round indexed families are small and written in order. Every family therefore gets a built-in profile
+ *     based on its {@link Persistable} class (see {@link #forModel(Class)}), which can be overridden per column family
+ *     name through the node configuration (see {@link #resolve(Map, Map.Entry, List)}).
+ * </p>
+ */
+public class ColumnFamilyProfile {
+
+    /**
+     * Separates the column family name from its options in an override.
+     */
+    private static final String NAME_SEPARATOR = ":";
+
+    /**
+     * Separates the options of an override.
+     */
+    private static final String OPTION_SEPARATOR = ",";
+
+    /**
+     * Separates the key and value of a single option.
+     */
+    private static final String VALUE_SEPARATOR = "=";
+
+    /**
+     * Length of the fixed prefix of transaction hashes that is added to the bloom filters of the transaction column
+     * family. Requests for shortened hashes carry at least that many bytes, so their lookups can use the filters.
+     */
+    public static final int TRANSACTION_PREFIX_LENGTH = 16;
+
+    private long writeBufferSize = 2 * SizeUnit.MB;
+    private int maxWriteBufferNumber = 2;
+    private CompactionStyle compactionStyle = CompactionStyle.LEVEL;
+    private CompressionType compressionType = CompressionType.LZ4_COMPRESSION;
+    private long blockSize = 4 * SizeUnit.KB;
+    private int bloomBitsPerKey = 10;
+    private int prefixLength = 0;
+    private boolean optimizeForPointLookup = false;
+
+    /**
+     * Creates the built-in profile for the column family storing the given model.
+     *
+     * @param model class of the {@link Persistable} stored in the column family
+     * @return a new profile with the defaults for the given model
+     */
+    public static ColumnFamilyProfile forModel(Class<? extends Persistable> model) {
+        if (model == Transaction.class) {
+            // raw transactions are dominated by signatures, which don't compress - we only need fast point reads and
+            // lookups by hash prefix
+            return new ColumnFamilyProfile()
+                    .setWriteBufferSize(8 * SizeUnit.MB)
+                    .setMaxWriteBufferNumber(3)
+                    .setCompressionType(CompressionType.NO_COMPRESSION)
+                    .setPrefixLength(TRANSACTION_PREFIX_LENGTH)
+                    .setOptimizeForPointLookup(true);
+        }
+        if (model == Round.class || model == Nominees.class || model == StateDiff.class) {
+            // small families that are written in ascending round order and mostly scanned
+            return new ColumnFamilyProfile()
+                    .setBlockSize(16 * SizeUnit.KB);
+        }
+        if (model == ArrivalTime.class) {
+            // written in ascending time order and only read by range scans
+            return new ColumnFamilyProfile()
+                    .setWriteBufferSize(4 * SizeUnit.MB)
+                    .setBlockSize(16 * SizeUnit.KB);
+        }
+        if (model != null && Hashes.class.isAssignableFrom(model)) {
+            // append-heavy indexes - bigger memtables let the merges collapse before they are flushed
+            return new ColumnFamilyProfile()
+                    .setWriteBufferSize(4 * SizeUnit.MB)
+                    .setMaxWriteBufferNumber(3)
+                    .setBlockSize(16 * SizeUnit.KB);
+        }
+        return new ColumnFamilyProfile();
+    }
+
+    /**
+     * Creates the built-in profile for the column family storing the metadata of a model. The metadata is rewritten
+     * frequently (solidity, height, validity) and read by key together with the model itself.
+     *
+     * @return a new profile with the defaults for metadata column families
+     */
+    public static ColumnFamilyProfile forMetadata() {
+        return new ColumnFamilyProfile()
+                .setWriteBufferSize(4 * SizeUnit.MB)
+                .setMaxWriteBufferNumber(3)
+                .setOptimizeForPointLookup(true);
+    }
+
+    /**
+     * Creates the built-in profile for the column family storing the state of {@link
+     * net.helix.pendulum.storage.MutableMetadata} models. Its values are tiny and overwritten on every solidity,
+     * height or validity change, so small blocks and memtables that absorb the overwrites pay off.
+     *
+     * @return a new profile with the defaults for state column families
+     */
+    public static ColumnFamilyProfile forState() {
+        return new ColumnFamilyProfile()
+                .setWriteBufferSize(4 * SizeUnit.MB)
+                .setMaxWriteBufferNumber(3)
+                .setBlockSize(SizeUnit.KB)
+                .setOptimizeForPointLookup(true);
+    }
+
+    /**
+     * Determines the profile of every column family by starting from the built-in defaults and applying the
+     * configured overrides.
+     *
+     * Every override has the form {@code <column family>:<option>=<value>[,<option>=<value>...]}. Supported options
+     * are {@code writeBufferSize}, {@code maxWriteBufferNumber}, {@code compactionStyle}, {@code compression},
+     * {@code blockSize}, {@code bloomBits}, {@code prefixLength} and {@code pointLookup}.
+     *
+     * @param columnFamilies column family names mapped to the models they store
+     * @param metadataColumnFamily the metadata column family or {@code null} if there is none
+     * @param overrides the configured overrides
+     * @return the profile of every column family by name
+     * @throws IllegalArgumentException if an override is malformed or references an unknown column family
+     */
+    public static Map<String, ColumnFamilyProfile> resolve(Map<String, Class<? extends Persistable>> columnFamilies,
+            Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily, List<String> overrides) {
+
+        Map<String, ColumnFamilyProfile> profiles = new HashMap<>();
+        columnFamilies.forEach((name, model) -> profiles.put(name, forModel(model)));
+        if (metadataColumnFamily != null) {
+            profiles.put(metadataColumnFamily.getKey(), forMetadata());
+            String stateColumnFamily = RocksDBPersistenceProvider.stateColumnFamilyName(metadataColumnFamily);
+            if (stateColumnFamily != null) {
+                profiles.put(stateColumnFamily, forState());
+            }
+        }
+
+        if (overrides != null) {
+            for (String override : overrides) {
+                String name = StringUtils.substringBefore(override, NAME_SEPARATOR).trim();
+                ColumnFamilyProfile profile = profiles.get(name);
+                if (profile == null || !override.contains(NAME_SEPARATOR)) {
+                    throw new IllegalArgumentException("Invalid column family profile: " + override);
+                }
+                for (String option : StringUtils.substringAfter(override, NAME_SEPARATOR).split(OPTION_SEPARATOR)) {
+                    if (StringUtils.isNotBlank(option)) {
+                        profile.apply(option.trim());
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Applies a single {@code <option>=<value>} override to this profile.
+     *
+     * @param option the option to apply
+     * @throws IllegalArgumentException if the option is unknown or its value cannot be parsed
+     */
+    private void apply(String option) {
+        String key = StringUtils.substringBefore(option, VALUE_SEPARATOR).trim();
+        String value = StringUtils.substringAfter(option, VALUE_SEPARATOR).trim();
+        try {
+            switch (key) {
+                case "writeBufferSize":
+                    setWriteBufferSize(Long.parseLong(value));
+                    break;
+                case "maxWriteBufferNumber":
+                    setMaxWriteBufferNumber(Integer.parseInt(value));
+                    break;
+                case "compactionStyle":
+                    setCompactionStyle(CompactionStyle.valueOf(value.toUpperCase()));
+                    break;
+                case "compression":
+                    setCompressionType(parseCompressionType(value));
+                    break;
+                case "blockSize":
+                    setBlockSize(Long.parseLong(value));
+                    break;
+                case "bloomBits":
+                    setBloomBitsPerKey(Integer.parseInt(value));
+                    break;
+                case "prefixLength":
+                    setPrefixLength(Integer.parseInt(value));
+                    break;
+                case "pointLookup":
+                    setOptimizeForPointLookup(Boolean.parseBoolean(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown column family option: " + key);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for column family option " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Accepts both the enum names ({@code LZ4_COMPRESSION}) and their short forms ({@code lz4}).
+     */
+    private static CompressionType parseCompressionType(String value) {
+        String name = value.toUpperCase();
+        return CompressionType.valueOf(name.endsWith("_COMPRESSION") ? name : name + "_COMPRESSION");
+    }
+
+    public long getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public ColumnFamilyProfile setWriteBufferSize(long writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+        return this;
+    }
+
+    public int getMaxWriteBufferNumber() {
+        return maxWriteBufferNumber;
+    }
+
+    public ColumnFamilyProfile setMaxWriteBufferNumber(int maxWriteBufferNumber) {
+        this.maxWriteBufferNumber = maxWriteBufferNumber;
+        return this;
+    }
+
+    public CompactionStyle getCompactionStyle() {
+        return compactionStyle;
+    }
+
+    public ColumnFamilyProfile setCompactionStyle(CompactionStyle compactionStyle) {
+        this.compactionStyle = compactionStyle;
+        return this;
+    }
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public ColumnFamilyProfile setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+        return this;
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    public ColumnFamilyProfile setBlockSize(long blockSize) {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public int getBloomBitsPerKey() {
+        return bloomBitsPerKey;
+    }
+
+    /**
+     * @param bloomBitsPerKey bits per key of the bloom filter or 0 to disable the filter
+     * @return this profile
+     */
+    public ColumnFamilyProfile setBloomBitsPerKey(int bloomBitsPerKey) {
+        this.bloomBitsPerKey = bloomBitsPerKey;
+        return this;
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * @param prefixLength length of the fixed key prefix used for prefix seeks or 0 to disable the prefix extractor
+     * @return this profile
+     */
+    public ColumnFamilyProfile setPrefixLength(int prefixLength) {
+        this.prefixLength = prefixLength;
+        return this;
+    }
+
+    public boolean isOptimizeForPointLookup() {
+        return optimizeForPointLookup;
+    }
+
+    public ColumnFamilyProfile setOptimizeForPointLookup(boolean optimizeForPointLookup) {
+        this.optimizeForPointLookup = optimizeForPointLookup;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnFamilyProfile{" +
+                "writeBufferSize=" + writeBufferSize +
+                ", maxWriteBufferNumber=" + maxWriteBufferNumber +
+                ", compactionStyle=" + compactionStyle +
+                ", compressionType=" + compressionType +
+                ", blockSize=" + blockSize +
+                ", bloomBitsPerKey=" + bloomBitsPerKey +
+                ", prefixLength=" + prefixLength +
+                ", optimizeForPointLookup=" + optimizeForPointLookup +
+                '}';
+    }
+}
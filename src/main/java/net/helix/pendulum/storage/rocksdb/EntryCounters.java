@@ -0,0 +1,492 @@
+package net.helix.pendulum.storage.rocksdb;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Exact counts of the entries of RocksDB column families, which RocksDB itself can only estimate.
+ *
+ * <p>
+ *     Each counter counts the keys of one column family whose value matches a condition, like all transactions or
+ *     the transaction states with the solid flag. All writes to counted column families go through a {@link Batch},
+ *     which looks up whether the written keys already existed and adds the changes of the counters to the same write
+ *     batch, so the persisted counters never disagree with the data.
+ * </p>
+ * <p>
+ *     The counters are stored in the default column family, which uses the {@value #MERGE_OPERATOR} merge operator:
+ *     a batch merges the change of a counter into its key instead of reading and writing the whole value, so batches
+ *     only have to exclude each other while they write the same keys. Databases without stored counters are counted
+ *     once when they are opened.
+ * </p>
+ */
+class EntryCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(EntryCounters.class);
+
+    /**
+     * The merge operator of the column family storing the counters, which adds little endian 64 bit values.
+     */
+    static final String MERGE_OPERATOR = "uint64add";
+
+    // stored in the default column family once the counters match the data
+    private static final byte[] COUNTERS_MARKER = "counters".getBytes();
+    private static final String COUNTER_KEY_PREFIX = "counter:";
+
+    // batches writing keys of the same stripe are written one after the other
+    private static final int LOCK_STRIPES = 1024;
+
+    private static final Predicate<byte[]> ALL_VALUES = value -> true;
+
+    private final RocksDB db;
+    private final ColumnFamilyHandle defaultHandle;
+    private final ReadOptions readOptions;
+    private final Map<ColumnFamilyHandle, Counter> counters = new LinkedHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * @param db the database
+     * @param defaultHandle the default column family, which stores the counters
+     * @param readOptions the options of iterators used to count the entries
+     */
+    EntryCounters(RocksDB db, ColumnFamilyHandle defaultHandle, ReadOptions readOptions) {
+        this.db = db;
+        this.defaultHandle = defaultHandle;
+        this.readOptions = readOptions;
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            locks[stripe] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Counts the keys of a column family.
+     *
+     * @param name the name of the counter
+     * @param handle the column family
+     */
+    void countKeys(String name, ColumnFamilyHandle handle) {
+        countValues(name, handle, ALL_VALUES);
+    }
+
+    /**
+     * Counts the keys of a column family whose value matches a condition.
+     *
+     * @param name the name of the counter
+     * @param handle the column family
+     * @param condition decides if a value is counted
+     */
+    void countValues(String name, ColumnFamilyHandle handle, Predicate<byte[]> condition) {
+        counters.put(handle, new Counter(name, condition));
+    }
+
+    /**
+     * Counts the entries of all counted column families and stores the counters, unless the database already has
+     * them.
+     *
+     * @throws RocksDBException if the counters cannot be read or written
+     */
+    void load() throws RocksDBException {
+        if (db.get(defaultHandle, COUNTERS_MARKER) == null) {
+            recount();
+        }
+    }
+
+    /**
+     * @param handle a column family
+     * @return the exact number of counted entries or {@code null} if the column family is not counted
+     * @throws RocksDBException if the counter cannot be read
+     */
+    Long get(ColumnFamilyHandle handle) throws RocksDBException {
+        Counter counter = counters.get(handle);
+        return counter == null ? null : read(counter);
+    }
+
+    /**
+     * @return the value of every counter by its name
+     * @throws RocksDBException if the counters cannot be read
+     */
+    Map<String, Long> getCounts() throws RocksDBException {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Counter counter : counters.values()) {
+            result.put(counter.name, read(counter));
+        }
+        return result;
+    }
+
+    /**
+     * @return a new batch
+     */
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Removes all entries of a column family and resets its counter. The counters are marked as invalid while the
+     * entries are removed, so an interrupted clear leads to a recount instead of a wrong counter.
+     *
+     * @param handle the column family
+     * @param clear removes the entries
+     * @throws RocksDBException if the entries or the counters cannot be written
+     */
+    void clear(ColumnFamilyHandle handle, RocksAction clear) throws RocksDBException {
+        Counter counter = counters.get(handle);
+        if (counter == null) {
+            clear.run();
+            return;
+        }
+        lockAll();
+        try {
+            db.delete(defaultHandle, COUNTERS_MARKER);
+            clear.run();
+            try (WriteBatch writeBatch = new WriteBatch();
+                 WriteOptions writeOptions = new WriteOptions()) {
+                writeBatch.put(defaultHandle, counterKey(counter.name), encode(0L));
+                writeBatch.put(defaultHandle, COUNTERS_MARKER, COUNTERS_MARKER);
+                db.write(writeOptions, writeBatch);
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void recount() throws RocksDBException {
+        log.info("Counting the entries of the database, this may take a while...");
+        try (WriteBatch writeBatch = new WriteBatch();
+             WriteOptions writeOptions = new WriteOptions()) {
+            for (Map.Entry<ColumnFamilyHandle, Counter> entry : counters.entrySet()) {
+                Counter counter = entry.getValue();
+                long count = 0;
+                try (RocksIterator iterator = db.newIterator(entry.getKey(), readOptions)) {
+                    for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+                        if (counter.condition.test(iterator.value())) {
+                            count++;
+                        }
+                    }
+                }
+                writeBatch.put(defaultHandle, counterKey(counter.name), encode(count));
+                log.info("Counted {} {} entries", count, counter.name);
+            }
+            writeBatch.put(defaultHandle, COUNTERS_MARKER, COUNTERS_MARKER);
+            db.write(writeOptions, writeBatch);
+        }
+    }
+
+    private long read(Counter counter) throws RocksDBException {
+        byte[] value = db.get(defaultHandle, counterKey(counter.name));
+        return value == null ? 0L : ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int stripe = LOCK_STRIPES - 1; stripe >= 0; stripe--) {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Compares keys like the bytewise comparator of RocksDB: lexicographically by unsigned bytes, shorter keys first.
+     */
+    private static int compare(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    private static byte[] counterKey(String name) {
+        return (COUNTER_KEY_PREFIX + name).getBytes();
+    }
+
+    /**
+     * @return the value in the little endian layout of the {@value #MERGE_OPERATOR} operator, which adds negative
+     *         values as their two's complement
+     */
+    private static byte[] encode(long value) {
+        return ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+    }
+
+    /**
+     * A write batch that keeps track of the counted entries it adds and removes. When it is written, it looks up
+     * which of these entries existed before and merges the changed counters into the batch. Batches writing the same
+     * keys are written one after the other, so both of them see if a key existed.
+     */
+    class Batch implements AutoCloseable {
+        private final WriteBatch writeBatch = new WriteBatch();
+        // the final state of every counted key written by this batch
+        private final Map<ColumnFamilyHandle, Map<ByteBuffer, Change>> changes = new HashMap<>();
+        private final List<Range> ranges = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        void put(ColumnFamilyHandle handle, byte[] key, byte[] value) throws RocksDBException {
+            if (counters.containsKey(handle)) {
+                change(handle, key).set(value, false);
+            }
+            writeBatch.put(handle, key, value);
+        }
+
+        /**
+         * Merges the value into an entry. The merged value is counted like the first value of the key, merging into
+         * an existing entry does not change the counters.
+         */
+        void merge(ColumnFamilyHandle handle, byte[] key, byte[] value) throws RocksDBException {
+            if (counters.containsKey(handle)) {
+                Change change = changes.computeIfAbsent(handle, h -> new HashMap<>()).get(ByteBuffer.wrap(key));
+                if (change == null) {
+                    // a key deleted by a range of this batch is stored again
+                    change(handle, key).set(value, !isDeletedByRange(handle, key));
+                } else if (change.value == null) {
+                    change.set(value, false);
+                }
+            }
+            writeBatch.merge(handle, key, value);
+        }
+
+        void delete(ColumnFamilyHandle handle, byte[] key) throws RocksDBException {
+            if (counters.containsKey(handle)) {
+                change(handle, key).set(null, false);
+            }
+            writeBatch.delete(handle, key);
+        }
+
+        /**
+         * Deletes all keys from {@code from} up to {@code to}. The deleted entries are counted by iterating the range
+         * when the batch is written, which is much cheaper than deleting them one by one.
+         */
+        void deleteRange(ColumnFamilyHandle handle, byte[] from, byte[] to) throws RocksDBException {
+            if (counters.containsKey(handle)) {
+                Map<ByteBuffer, Change> written = changes.get(handle);
+                if (written != null) {
+                    for (Change change : written.values()) {
+                        if (compare(change.key, from) >= 0 && compare(change.key, to) < 0) {
+                            change.set(null, false);
+                        }
+                    }
+                }
+                ranges.add(new Range(handle, from, to));
+            }
+            writeBatch.deleteRange(handle, from, to);
+        }
+
+        /**
+         * Adds the changed counters to the batch and writes it. A batch is only written once.
+         *
+         * @param writeOptions the options of the write
+         * @throws RocksDBException if the batch cannot be written
+         */
+        void write(WriteOptions writeOptions) throws RocksDBException {
+            // ranges cover keys nobody knows in advance, so they exclude all other batches
+            TreeSet<Integer> stripes = ranges.isEmpty() ? stripes() : null;
+            lock(stripes);
+            try {
+                for (Map.Entry<Counter, Long> change : count().entrySet()) {
+                    if (change.getValue() != 0) {
+                        writeBatch.merge(defaultHandle, counterKey(change.getKey().name), encode(change.getValue()));
+                    }
+                }
+                db.write(writeOptions, writeBatch);
+            } finally {
+                unlock(stripes);
+            }
+        }
+
+        /**
+         * Looks up the previous values of the written keys: keys that cannot exist according to the bloom filters are
+         * new, all others are read with a single lookup.
+         *
+         * @return the changes of the counters
+         */
+        private Map<Counter, Long> count() throws RocksDBException {
+            Map<Counter, Long> counts = new HashMap<>();
+            List<ColumnFamilyHandle> handles = new ArrayList<>();
+            List<byte[]> keys = new ArrayList<>();
+            List<Change> lookups = new ArrayList<>();
+            for (Map.Entry<ColumnFamilyHandle, Map<ByteBuffer, Change>> written : changes.entrySet()) {
+                ColumnFamilyHandle handle = written.getKey();
+                Counter counter = counters.get(handle);
+                for (Change change : written.getValue().values()) {
+                    // counters of all keys only have to know if a key exists, the bloom filters can answer that for
+                    // new keys
+                    if (counter.condition == ALL_VALUES && !db.keyMayExist(handle, change.key, new StringBuilder())) {
+                        count(counts, counter, change, null);
+                    } else {
+                        handles.add(handle);
+                        keys.add(change.key);
+                        lookups.add(change);
+                    }
+                }
+            }
+            if (!keys.isEmpty()) {
+                List<byte[]> previous = db.multiGetAsList(handles, keys);
+                for (int i = 0; i < lookups.size(); i++) {
+                    count(counts, counters.get(handles.get(i)), lookups.get(i), previous.get(i));
+                }
+            }
+
+            for (Range range : ranges) {
+                Counter counter = counters.get(range.handle);
+                Map<ByteBuffer, Change> written = changes.getOrDefault(range.handle, new HashMap<>());
+                long deleted = 0;
+                try (RocksIterator iterator = db.newIterator(range.handle, readOptions)) {
+                    for (iterator.seek(range.from); iterator.isValid() && compare(iterator.key(), range.to) < 0;
+                         iterator.next()) {
+                        // the keys written by this batch were counted above
+                        if (!written.containsKey(ByteBuffer.wrap(iterator.key()))
+                                && counter.condition.test(iterator.value())) {
+                            deleted++;
+                        }
+                    }
+                }
+                counts.merge(counter, -deleted, Long::sum);
+            }
+            return counts;
+        }
+
+        private void count(Map<Counter, Long> counts, Counter counter, Change change, byte[] previous) {
+            long before = previous != null && counter.condition.test(previous) ? 1 : 0;
+            long after;
+            if (change.value == null) {
+                after = 0;
+            } else if (change.merged && previous != null) {
+                after = before;
+            } else {
+                after = counter.condition.test(change.value) ? 1 : 0;
+            }
+            if (after != before) {
+                counts.merge(counter, after - before, Long::sum);
+            }
+        }
+
+        private Change change(ColumnFamilyHandle handle, byte[] key) {
+            return changes.computeIfAbsent(handle, h -> new HashMap<>())
+                    .computeIfAbsent(ByteBuffer.wrap(key), k -> new Change(key.clone()));
+        }
+
+        private boolean isDeletedByRange(ColumnFamilyHandle handle, byte[] key) {
+            for (Range range : ranges) {
+                if (range.handle == handle && compare(key, range.from) >= 0 && compare(key, range.to) < 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the lock stripes of the written keys in the order they are locked
+         */
+        private TreeSet<Integer> stripes() {
+            TreeSet<Integer> stripes = new TreeSet<>();
+            for (Map<ByteBuffer, Change> written : changes.values()) {
+                for (ByteBuffer key : written.keySet()) {
+                    stripes.add(Math.floorMod(key.hashCode(), LOCK_STRIPES));
+                }
+            }
+            return stripes;
+        }
+
+        /**
+         * @param stripes the stripes to lock or {@code null} to lock all of them
+         */
+        private void lock(TreeSet<Integer> stripes) {
+            if (stripes == null) {
+                lockAll();
+                return;
+            }
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+            }
+        }
+
+        private void unlock(TreeSet<Integer> stripes) {
+            if (stripes == null) {
+                unlockAll();
+                return;
+            }
+            for (int stripe : stripes.descendingSet()) {
+                locks[stripe].unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            writeBatch.close();
+        }
+    }
+
+    /**
+     * An operation on the database.
+     */
+    @FunctionalInterface
+    interface RocksAction {
+        void run() throws RocksDBException;
+    }
+
+    private static class Counter {
+        private final String name;
+        private final Predicate<byte[]> condition;
+
+        private Counter(String name, Predicate<byte[]> condition) {
+            this.name = name;
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * The last write of a batch to a counted key.
+     */
+    private static class Change {
+        private final byte[] key;
+        // the written value or null if the key was deleted
+        private byte[] value;
+        // true if the value was merged into an entry that may have existed before the batch
+        private boolean merged;
+
+        private Change(byte[] key) {
+            this.key = key;
+        }
+
+        private void set(byte[] value, boolean merged) {
+            this.value = value;
+            this.merged = merged;
+        }
+    }
+
+    private static class Range {
+        private final ColumnFamilyHandle handle;
+        private final byte[] from;
+        private final byte[] to;
+
+        private Range(ColumnFamilyHandle handle, byte[] from, byte[] to) {
+            this.handle = handle;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package net.helix.pendulum.storage.rocksdb;
 
+import net.helix.pendulum.conf.DbConfig;
+import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.HashFactory;
+import net.helix.pendulum.model.persistables.Hashes;
+import net.helix.pendulum.storage.Checkpointable;
 import net.helix.pendulum.storage.Indexable;
+import net.helix.pendulum.storage.MutableMetadata;
 import net.helix.pendulum.storage.Persistable;
 import net.helix.pendulum.storage.PersistenceProvider;
+import net.helix.pendulum.storage.PrefixKeyed;
 import net.helix.pendulum.utils.Pair;
 import net.helix.pendulum.utils.PendulumIOUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.rocksdb.*;
 import org.rocksdb.util.SizeUnit;
@@ -19,14 +27,32 @@ import java.nio.file.Paths;
 import java.security.SecureRandom;
 import java.util.*;
 
-public class RocksDBPersistenceProvider implements PersistenceProvider {
+public class RocksDBPersistenceProvider implements PersistenceProvider, Checkpointable {
 
     private static final Logger log = LoggerFactory.getLogger(RocksDBPersistenceProvider.class);
-    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
 
     private static final Pair<Indexable, Persistable> PAIR_OF_NULLS = new Pair<>(null, null);
 
+    private static final String CACHE_TYPE_LRU = "lru";
+    private static final String CACHE_TYPE_CLOCK = "clock";
+    // the block cache of the providers that are not configured by the node, e.g. the spent addresses db
+    private static final int LEGACY_CACHE_SHARD_BITS = 2;
+
+    // keys of PrefixKeyed models consist of the index followed by one hash and have no value
+    private static final int PREFIX_LENGTH = Hash.SIZE_IN_BYTES;
+    private static final byte[] EMPTY_VALUE = new byte[0];
+    // stored in the default column family once all PrefixKeyed column families use one key per hash
+    private static final byte[] PREFIX_KEY_LAYOUT_MARKER = "prefix-key-layout".getBytes();
+
+    // the state of MutableMetadata models lives in a column family named after their metadata column family
+    private static final String STATE_COLUMN_FAMILY_SUFFIX = "-state";
+
+    // the number of keys looked up with one multiGet when a whole column family is checked
+    private static final int MULTI_GET_BATCH_SIZE = 1000;
+
     private final List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+    // options and filters of the column families are closeable and have to outlive the db - we keep them for shutdown.
+    private final List<AbstractNativeReference> columnFamilyResources = new ArrayList<>();
     private final SecureRandom seed = new SecureRandom();
 
     private final String dbPath;
@@ -34,25 +60,93 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     private final int cacheSize;
     private final Map<String, Class<? extends Persistable>> columnFamilies;
     private final Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily;
+    private final Map<String, ColumnFamilyProfile> columnFamilyProfiles;
+    private final String cacheType;
+    private final int cacheShardBits;
+    private final int rowCacheSize;
 
     private Map<Class<?>, ColumnFamilyHandle> classTreeMap;
     private Map<Class<?>, ColumnFamilyHandle> metadataReference = Collections.emptyMap();
+    private Map<Class<?>, ColumnFamilyHandle> stateReference = Collections.emptyMap();
+    // length of the fixed prefix extractor of the model column families that have one
+    private Map<Class<?>, Integer> prefixLengths = Collections.emptyMap();
+    // every column family by name, in the order of their descriptors
+    private Map<String, ColumnFamilyHandle> handlesByName = Collections.emptyMap();
+    private EntryCounters counters;
 
     private RocksDB db;
     // DBOptions is only used in initDB(). However, it is closeable - so we keep a reference for shutdown.
     private DBOptions options;
-    private BloomFilter bloomFilter;
+    // shared by the table configs of all column families, so the memory budget does not grow with their number.
+    private Cache blockCache;
+    private Cache rowCache;
+    private Statistics statistics;
+    // iterators of column families with a prefix extractor are only guaranteed to see keys sharing the prefix of
+    // their seek key, unless they are created with total order seek
+    private ReadOptions totalOrderReadOptions;
+    private ReadOptions prefixReadOptions;
     private boolean available;
 
+    /**
+     * Creates a provider with an LRU block cache of {@value #LEGACY_CACHE_SHARD_BITS} shard bits, no row cache and the
+     * default tuning for every column family.
+     *
+     * @param dbPath path of the database
+     * @param logPath path of the database logs
+     * @param cacheSize size of the block cache in KB
+     * @param columnFamilies column family names mapped to the models they store
+     * @param metadataColumnFamily the column family storing model metadata
+     */
     public RocksDBPersistenceProvider(String dbPath, String logPath, int cacheSize,
                                       Map<String, Class<? extends Persistable>> columnFamilies,
                                       Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily) {
+        this(dbPath, logPath, cacheSize, CACHE_TYPE_LRU, LEGACY_CACHE_SHARD_BITS, 0, columnFamilies,
+                metadataColumnFamily, ColumnFamilyProfile.resolve(columnFamilies, metadataColumnFamily,
+                        Collections.emptyList()));
+    }
+
+    /**
+     * Creates a provider that takes the location, caches and column family tuning of the database from the node
+     * configuration.
+     *
+     * @param config the database configuration of the node
+     * @param columnFamilies column family names mapped to the models they store
+     * @param metadataColumnFamily the column family storing model metadata
+     */
+    public RocksDBPersistenceProvider(DbConfig config,
+                                      Map<String, Class<? extends Persistable>> columnFamilies,
+                                      Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily) {
+        this(config.getDbPath(), config.getDbLogPath(), config.getDbCacheSize(), config.getDbCacheType(),
+                config.getDbCacheShardBits(), config.getDbRowCacheSize(), columnFamilies, metadataColumnFamily,
+                ColumnFamilyProfile.resolve(columnFamilies, metadataColumnFamily,
+                        config.getDbColumnFamilyProfiles()));
+    }
+
+    /**
+     * @param dbPath path of the database
+     * @param logPath path of the database logs
+     * @param cacheSize size of the block cache shared by all column families in KB
+     * @param cacheType type of the block cache and the row cache, {@code lru} or {@code clock}
+     * @param cacheShardBits the caches are split into {@code 2^cacheShardBits} shards
+     * @param rowCacheSize size of the row cache in KB, {@code 0} disables it
+     * @param columnFamilies column family names mapped to the models they store
+     * @param metadataColumnFamily the column family storing model metadata
+     * @param columnFamilyProfiles tuning profiles by column family name, families without one use the defaults
+     */
+    public RocksDBPersistenceProvider(String dbPath, String logPath, int cacheSize, String cacheType,
+                                      int cacheShardBits, int rowCacheSize,
+                                      Map<String, Class<? extends Persistable>> columnFamilies,
+                                      Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily,
+                                      Map<String, ColumnFamilyProfile> columnFamilyProfiles) {
         this.dbPath = dbPath;
         this.logPath = logPath;
         this.cacheSize = cacheSize;
+        this.cacheType = cacheType;
+        this.cacheShardBits = cacheShardBits;
+        this.rowCacheSize = rowCacheSize;
         this.columnFamilies = columnFamilies;
         this.metadataColumnFamily = metadataColumnFamily;
-
+        this.columnFamilyProfiles = columnFamilyProfiles;
     }
 
     @Override
@@ -74,17 +168,36 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         for (final ColumnFamilyHandle columnFamilyHandle : columnFamilyHandles) {
             PendulumIOUtils.closeQuietly(columnFamilyHandle);
         }
-        PendulumIOUtils.closeQuietly(db, options, bloomFilter);
+        columnFamilyHandles.clear();
+        PendulumIOUtils.closeQuietly(db, options);
+        for (final AbstractNativeReference resource : columnFamilyResources) {
+            PendulumIOUtils.closeQuietly(resource);
+        }
+        columnFamilyResources.clear();
+        PendulumIOUtils.closeQuietly(blockCache, rowCache, statistics);
     }
 
     @Override
     public boolean save(Persistable thing, Indexable index) throws Exception {
         ColumnFamilyHandle handle = classTreeMap.get(thing.getClass());
-        db.put(handle, index.bytes(), thing.bytes());
+        try (EntryCounters.Batch writeBatch = counters.newBatch();
+             WriteOptions writeOptions = new WriteOptions()) {
+            if (thing instanceof PrefixKeyed) {
+                putElements(writeBatch, handle, index, (Hashes) thing);
+                writeBatch.write(writeOptions);
+                return true;
+            }
+            writeBatch.put(handle, index.bytes(), thing.bytes());
 
-        ColumnFamilyHandle referenceHandle = metadataReference.get(thing.getClass());
-        if (referenceHandle != null) {
-            db.put(referenceHandle, index.bytes(), thing.metadata());
+            ColumnFamilyHandle referenceHandle = metadataReference.get(thing.getClass());
+            if (referenceHandle != null) {
+                writeBatch.put(referenceHandle, index.bytes(), thing.metadata());
+            }
+            ColumnFamilyHandle stateHandle = stateReference.get(thing.getClass());
+            if (stateHandle != null) {
+                writeBatch.put(stateHandle, index.bytes(), ((MutableMetadata) thing).state());
+            }
+            writeBatch.write(writeOptions);
         }
 
         /*if (thing.getClass() == Round.class) {
@@ -100,12 +213,27 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
     @Override
     public void delete(Class<?> model, Indexable index) throws Exception {
-        db.delete(classTreeMap.get(model), index.bytes());
+        ColumnFamilyHandle handle = classTreeMap.get(model);
+        try (EntryCounters.Batch writeBatch = counters.newBatch();
+             WriteOptions writeOptions = new WriteOptions()) {
+            if (isPrefixKeyed(model)) {
+                removeElements(writeBatch, handle, index.bytes());
+            } else {
+                writeBatch.delete(handle, index.bytes());
+            }
+            writeBatch.write(writeOptions);
+        }
     }
 
     @Override
     public boolean exists(Class<?> model, Indexable key) throws Exception {
         ColumnFamilyHandle handle = classTreeMap.get(model);
+        if (handle != null && isPrefixKeyed(model)) {
+            try (RocksIterator iterator = newIterator(handle)) {
+                iterator.seek(key.bytes());
+                return iterator.isValid() && keyStartsWithValue(key.bytes(), iterator.key());
+            }
+        }
         return handle != null && db.get(handle, key.bytes()) != null;
     }
 
@@ -114,28 +242,60 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         ColumnFamilyHandle handle = classTreeMap.get(model);
         ColumnFamilyHandle otherHandle = classTreeMap.get(other);
 
-        try (RocksIterator iterator = db.newIterator(handle)) {
-            Set<Indexable> indexables = null;
+        try (RocksIterator iterator = newIterator(handle)) {
+            Set<Indexable> indexables = new HashSet<>();
+            boolean prefixKeyed = isPrefixKeyed(model);
+            List<byte[]> keys = new ArrayList<>(MULTI_GET_BATCH_SIZE);
+            byte[] previous = null;
 
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-                if (db.get(otherHandle, iterator.key()) == null) {
-                    indexables = indexables == null ? new HashSet<>() : indexables;
-                    indexables.add(HashFactory.GENERIC.create(model, iterator.key()));
+                byte[] key = prefixKeyed ? Arrays.copyOf(iterator.key(), PREFIX_LENGTH) : iterator.key();
+                // the elements of a prefix keyed set follow each other and share their index
+                if (prefixKeyed && Arrays.equals(previous, key)) {
+                    continue;
+                }
+                previous = key;
+                keys.add(key);
+                if (keys.size() == MULTI_GET_BATCH_SIZE) {
+                    addMissingReferences(model, otherHandle, keys, indexables);
+                    keys.clear();
                 }
             }
-            return indexables == null ? Collections.emptySet() : Collections.unmodifiableSet(indexables);
+            addMissingReferences(model, otherHandle, keys, indexables);
+            return indexables.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(indexables);
+        }
+    }
+
+    private void addMissingReferences(Class<?> model, ColumnFamilyHandle otherHandle, List<byte[]> keys,
+                                      Set<Indexable> missing) throws RocksDBException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<byte[]> values = db.multiGetAsList(Collections.nCopies(keys.size(), otherHandle), keys);
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) == null) {
+                missing.add(HashFactory.GENERIC.create(model, keys.get(i)));
+            }
         }
     }
 
     @Override
     public Persistable get(Class<?> model, Indexable index) throws Exception {
         Persistable object = (Persistable) model.newInstance();
-        object.read(db.get(classTreeMap.get(model), index == null ? new byte[0] : index.bytes()));
-
-        ColumnFamilyHandle referenceHandle = metadataReference.get(model);
-        if (referenceHandle != null) {
-            object.readMetadata(db.get(referenceHandle, index == null ? new byte[0] : index.bytes()));
+        if (object instanceof PrefixKeyed) {
+            if (index != null) {
+                Set<Hash> set = ((Hashes) object).set;
+                forEachElement(classTreeMap.get(model), index.bytes(), null, (key, hash) -> {
+                    set.add(hash);
+                    return true;
+                });
+            }
+            return object;
         }
+        // the value, metadata and state of the model are read with a single lookup
+        List<byte[]> values = lookup(handlesOf(model), index == null ? new byte[0] : index.bytes());
+        object.read(values.get(0));
+        readMetadataAndState(model, object, values, 1);
 
         /*if (model == Round.class) {
             System.out.println("Get " + model.getName());
@@ -149,14 +309,132 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     }
 
     @Override
-    public boolean mayExist(Class<?> model, Indexable index) {
+    public List<Persistable> getBatch(Class<?> model, List<? extends Indexable> indexes) throws Exception {
+        List<Persistable> models = new ArrayList<>(indexes.size());
+        if (isPrefixKeyed(model)) {
+            for (Indexable index : indexes) {
+                models.add(get(model, index));
+            }
+            return models;
+        }
+
+        ColumnFamilyHandle handle = classTreeMap.get(model);
+        ColumnFamilyHandle referenceHandle = metadataReference.get(model);
+        ColumnFamilyHandle stateHandle = stateReference.get(model);
+        List<ColumnFamilyHandle> handles = new ArrayList<>(3 * indexes.size());
+        List<byte[]> keys = new ArrayList<>(3 * indexes.size());
+        addLookups(handles, keys, handle, indexes);
+        int metadataOffset = keys.size();
+        if (referenceHandle != null) {
+            addLookups(handles, keys, referenceHandle, indexes);
+        }
+        int stateOffset = keys.size();
+        if (stateHandle != null) {
+            addLookups(handles, keys, stateHandle, indexes);
+        }
+
+        List<byte[]> values = keys.isEmpty() ? Collections.emptyList() : db.multiGetAsList(handles, keys);
+        for (int i = 0; i < indexes.size(); i++) {
+            Persistable object = (Persistable) model.newInstance();
+            object.read(values.get(i));
+            if (referenceHandle != null) {
+                object.readMetadata(values.get(metadataOffset + i));
+            }
+            if (stateHandle != null) {
+                ((MutableMetadata) object).readState(values.get(stateOffset + i));
+            }
+            models.add(object);
+        }
+        return models;
+    }
+
+    private static void addLookups(List<ColumnFamilyHandle> handles, List<byte[]> keys, ColumnFamilyHandle handle,
+                                   List<? extends Indexable> indexes) {
+        for (Indexable index : indexes) {
+            handles.add(handle);
+            keys.add(index.bytes());
+        }
+    }
+
+    @Override
+    public byte[] getBytes(Class<?> model, Indexable index) throws Exception {
         ColumnFamilyHandle handle = classTreeMap.get(model);
+        if (handle != null && isPrefixKeyed(model)) {
+            Hashes hashes = (Hashes) get(model, index);
+            return hashes.set.isEmpty() ? null : hashes.bytes();
+        }
+        return handle == null ? null : db.get(handle, index.bytes());
+    }
+
+    @Override
+    public List<Hash> getPage(Class<?> model, Indexable index, Indexable after, int limit) throws Exception {
+        if (!isPrefixKeyed(model)) {
+            throw new IllegalArgumentException(model.getSimpleName() + " is not stored with prefix keys");
+        }
+        List<Hash> page = new ArrayList<>(Math.min(limit, 1024));
+        if (limit > 0) {
+            byte[] prefix = index.bytes();
+            byte[] start = after == null ? null : ArrayUtils.addAll(prefix, after.bytes());
+            forEachElement(classTreeMap.get(model), prefix, start, (key, hash) -> {
+                if (start != null && Arrays.equals(start, key)) {
+                    return true;
+                }
+                page.add(hash);
+                return page.size() < limit;
+            });
+        }
+        return page;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br />
+     * The end of the range is the upper bound of the iterator, so RocksDB stops reading at the end of the range
+     * instead of loading the following block.
+     */
+    @Override
+    public List<Pair<Indexable, Hash>> getRange(Class<?> model, Indexable from, Hash after, Indexable to, int limit)
+            throws Exception {
+        if (!isPrefixKeyed(model)) {
+            throw new IllegalArgumentException(model.getSimpleName() + " is not stored with prefix keys");
+        }
+        List<Pair<Indexable, Hash>> range = new ArrayList<>(Math.min(limit, 1024));
+        if (limit > 0) {
+            byte[] fromBytes = from.bytes();
+            int indexLength = fromBytes.length;
+            byte[] start = after == null ? fromBytes : ArrayUtils.addAll(fromBytes, after.bytes());
+            try (Slice upperBound = new Slice(to.bytes());
+                 ReadOptions readOptions = new ReadOptions()
+                         .setTotalOrderSeek(true)
+                         .setIterateUpperBound(upperBound);
+                 RocksIterator iterator = db.newIterator(classTreeMap.get(model), readOptions)) {
+                for (iterator.seek(start); iterator.isValid() && range.size() < limit; iterator.next()) {
+                    byte[] key = iterator.key();
+                    if (key.length < indexLength + Hash.SIZE_IN_BYTES || (after != null && Arrays.equals(start, key))) {
+                        continue;
+                    }
+                    Indexable index = from.getClass().newInstance();
+                    index.read(Arrays.copyOf(key, indexLength));
+                    range.add(new Pair<>(index, HashFactory.TRANSACTION.create(key, indexLength, Hash.SIZE_IN_BYTES)));
+                }
+            }
+        }
+        return range;
+    }
+
+    @Override
+    public boolean mayExist(Class<?> model, Indexable index) throws Exception {
+        ColumnFamilyHandle handle = classTreeMap.get(model);
+        if (isPrefixKeyed(model)) {
+            return exists(model, index);
+        }
         return db.keyMayExist(handle, index.bytes(), new StringBuilder());
     }
 
     @Override
     public long count(Class<?> model) throws Exception {
-        return getCountEstimate(model);
+        Long count = counters.get(classTreeMap.get(model));
+        return count == null ? getCountEstimate(model) : count;
     }
 
     private long getCountEstimate(Class<?> model) throws RocksDBException {
@@ -164,13 +442,66 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         return db.getLongProperty(handle, "rocksdb.estimate-num-keys");
     }
 
+    /**
+     * Reports the usage of the block cache and the row cache. All column families share the same block cache, so
+     * its usage and capacity are read from the default column family.
+     *
+     * RocksDB has no eviction ticker, the evicted bytes are therefore derived from the bytes ever inserted into the
+     * block cache minus the bytes it currently holds.
+     */
+    @Override
+    public Map<String, Long> getStatistics() throws Exception {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        if (!available) {
+            return stats;
+        }
+        long usage = db.getLongProperty("rocksdb.block-cache-usage");
+        stats.put("blockCacheHits", statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT));
+        stats.put("blockCacheMisses", statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS));
+        stats.put("blockCacheAdds", statistics.getTickerCount(TickerType.BLOCK_CACHE_ADD));
+        stats.put("blockCacheAddFailures", statistics.getTickerCount(TickerType.BLOCK_CACHE_ADD_FAILURES));
+        stats.put("blockCacheEvictedBytes",
+                Math.max(0, statistics.getTickerCount(TickerType.BLOCK_CACHE_BYTES_WRITE) - usage));
+        stats.put("blockCacheUsage", usage);
+        stats.put("blockCacheCapacity", db.getLongProperty("rocksdb.block-cache-capacity"));
+        stats.put("rowCacheHits", statistics.getTickerCount(TickerType.ROW_CACHE_HIT));
+        stats.put("rowCacheMisses", statistics.getTickerCount(TickerType.ROW_CACHE_MISS));
+        stats.put("rowCacheCapacity", rowCache == null ? 0L : rowCacheSize * SizeUnit.KB);
+        for (Map.Entry<String, Long> count : counters.getCounts().entrySet()) {
+            stats.put(count.getKey() + "Count", count.getValue());
+        }
+        for (Map.Entry<String, ColumnFamilyHandle> columnFamily : handlesByName.entrySet()) {
+            String name = statisticsName(columnFamily.getKey());
+            ColumnFamilyHandle handle = columnFamily.getValue();
+            stats.put(name + "SstFilesSize", db.getLongProperty(handle, "rocksdb.total-sst-files-size"));
+            stats.put(name + "MemtableSize", db.getLongProperty(handle, "rocksdb.cur-size-all-mem-tables"));
+            stats.put(name + "PendingCompactionBytes",
+                    db.getLongProperty(handle, "rocksdb.estimate-pending-compaction-bytes"));
+            stats.put(name + "LiveDataSize", db.getLongProperty(handle, "rocksdb.estimate-live-data-size"));
+            stats.put(name + "EstimatedKeys", db.getLongProperty(handle, "rocksdb.estimate-num-keys"));
+        }
+        return stats;
+    }
+
+    /**
+     * @param columnFamily the name of a column family, like {@code transaction-metadata}
+     * @return the name in camel case, like {@code transactionMetadata}
+     */
+    private static String statisticsName(String columnFamily) {
+        StringBuilder name = new StringBuilder();
+        for (String part : columnFamily.split("-")) {
+            name.append(name.length() == 0 ? part : StringUtils.capitalize(part));
+        }
+        return name.toString();
+    }
+
     @Override
     public Set<Indexable> keysStartingWith(Class<?> modelClass, byte[] value) {
         Objects.requireNonNull(value, "value byte[] cannot be null");
         ColumnFamilyHandle handle = classTreeMap.get(modelClass);
         Set<Indexable> keys = null;
         if (handle != null) {
-            try (RocksIterator iterator = db.newIterator(handle)) {
+            try (RocksIterator iterator = newPrefixIterator(modelClass, handle, value)) {
                 iterator.seek(HashFactory.GENERIC.create(modelClass, value, 0, value.length).bytes());
 
                 byte[] found;
@@ -184,6 +515,44 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br />
+     * If the prefix covers the fixed prefix of the column family, the iterator only visits keys with the same prefix
+     * and the prefix bloom filters let it skip every SST file that doesn't contain one.
+     */
+    @Override
+    public Pair<Indexable, Persistable> findByPrefix(Class<?> model, byte[] prefix) throws Exception {
+        Objects.requireNonNull(prefix, "prefix byte[] cannot be null");
+        ColumnFamilyHandle handle = classTreeMap.get(model);
+        if (handle == null) {
+            return PAIR_OF_NULLS;
+        }
+        try (RocksIterator iterator = newPrefixIterator(model, handle, prefix)) {
+            iterator.seek(prefix);
+            if (!iterator.isValid() || !keyStartsWithValue(prefix, iterator.key())) {
+                return PAIR_OF_NULLS;
+            }
+            return modelAndIndex(model, HashFactory.GENERIC.create(model, iterator.key()).getClass(), iterator);
+        }
+    }
+
+    private RocksIterator newIterator(ColumnFamilyHandle handle) {
+        return db.newIterator(handle, totalOrderReadOptions);
+    }
+
+    /**
+     * Creates an iterator for the keys starting with the given prefix. It is bound to the fixed prefix of the column
+     * family if the given prefix covers it, otherwise it falls back to a total order iterator.
+     */
+    private RocksIterator newPrefixIterator(Class<?> model, ColumnFamilyHandle handle, byte[] prefix) {
+        Integer prefixLength = prefixLengths.get(model);
+        if (prefixLength != null && prefix.length >= prefixLength) {
+            return db.newIterator(handle, prefixReadOptions);
+        }
+        return newIterator(handle);
+    }
+
     /**
      * @param value What we are looking for.
      * @param key   The bytes we are searching in.
@@ -214,37 +583,79 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     }
 
     private Pair<Indexable, Persistable> modelAndIndex(Class<?> model, Class<? extends Indexable> index, RocksIterator iterator)
-            throws InstantiationException, IllegalAccessException, RocksDBException {
+            throws Exception {
 
         if (!iterator.isValid()) {
             return PAIR_OF_NULLS;
         }
 
-        Indexable indexable = index.newInstance();
-        indexable.read(iterator.key());
+        if (isPrefixKeyed(model)) {
+            Indexable indexable = HashFactory.createIndex(index, Arrays.copyOf(iterator.key(), PREFIX_LENGTH));
+            return new Pair<>(indexable, get(model, indexable));
+        }
+        Indexable indexable = HashFactory.createIndex(index, iterator.key());
 
         Persistable object = (Persistable) model.newInstance();
         object.read(iterator.value());
 
-        ColumnFamilyHandle referenceHandle = metadataReference.get(model);
-        if (referenceHandle != null) {
-            object.readMetadata(db.get(referenceHandle, iterator.key()));
+        List<ColumnFamilyHandle> handles = handlesOf(model);
+        if (handles.size() > 1) {
+            // the value is read by the iterator already
+            readMetadataAndState(model, object, lookup(handles.subList(1, handles.size()), iterator.key()), 0);
         }
         return new Pair<>(indexable, object);
     }
 
+    /**
+     * Looks up the same key in several column families with one multiGet.
+     *
+     * @param handles the column families
+     * @param key the key
+     * @return the values in the order of the column families, {@code null} if there is no value
+     * @throws RocksDBException if the lookup failed
+     */
+    private List<byte[]> lookup(List<ColumnFamilyHandle> handles, byte[] key) throws RocksDBException {
+        if (handles.size() == 1) {
+            return Collections.singletonList(db.get(handles.get(0), key));
+        }
+        return db.multiGetAsList(handles, Collections.nCopies(handles.size(), key));
+    }
+
+    /**
+     * @param model the model class
+     * @param object the model, whose value was read already
+     * @param values the values of the metadata and the state of the model, in this order
+     * @param offset the index of the first of these values
+     */
+    private void readMetadataAndState(Class<?> model, Persistable object, List<byte[]> values, int offset) {
+        int i = offset;
+        if (metadataReference.containsKey(model)) {
+            object.readMetadata(values.get(i++));
+        }
+        if (stateReference.containsKey(model)) {
+            ((MutableMetadata) object).readState(values.get(i));
+        }
+    }
+
     @Override
     public Pair<Indexable, Persistable> next(Class<?> model, Indexable index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seek(index.bytes());
-            iterator.next();
+            if (isPrefixKeyed(model)) {
+                // skip all hashes of the current index
+                while (iterator.isValid() && keyStartsWithValue(index.bytes(), iterator.key())) {
+                    iterator.next();
+                }
+            } else {
+                iterator.next();
+            }
             return modelAndIndex(model, index.getClass(), iterator);
         }
     }
 
     @Override
     public Pair<Indexable, Persistable> previous(Class<?> model, Indexable index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seek(index.bytes());
             iterator.prev();
             return modelAndIndex(model, index.getClass(), iterator);
@@ -254,7 +665,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     @SuppressWarnings("unchecked")
     @Override
     public Pair<Indexable, Persistable> latest(Class<?> model, Class<?> indexModel) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seekToLast();
             return modelAndIndex(model, (Class<Indexable>) indexModel, iterator);
         }
@@ -263,7 +674,7 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     @SuppressWarnings("unchecked")
     @Override
     public Pair<Indexable, Persistable> first(Class<?> model, Class<?> index) throws Exception {
-        try (RocksIterator iterator = db.newIterator(classTreeMap.get(model))) {
+        try (RocksIterator iterator = newIterator(classTreeMap.get(model))) {
             iterator.seekToFirst();
             return modelAndIndex(model, (Class<Indexable>) index, iterator);
         }
@@ -272,13 +683,17 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     // 2018 March 28 - Unused code
     public boolean merge(Persistable model, Indexable index) throws Exception {
         boolean exists = mayExist(model.getClass(), index);
-        db.merge(classTreeMap.get(model.getClass()), index.bytes(), model.bytes());
+        try (EntryCounters.Batch writeBatch = counters.newBatch();
+             WriteOptions writeOptions = new WriteOptions()) {
+            writeBatch.merge(classTreeMap.get(model.getClass()), index.bytes(), model.bytes());
+            writeBatch.write(writeOptions);
+        }
         return exists;
     }
 
     @Override
     public boolean saveBatch(List<Pair<Indexable, Persistable>> models) throws Exception {
-        try (WriteBatch writeBatch = new WriteBatch();
+        try (EntryCounters.Batch writeBatch = counters.newBatch();
              WriteOptions writeOptions = new WriteOptions()) {
 
             for (Pair<Indexable, Persistable> entry : models) {
@@ -288,8 +703,11 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
                 ColumnFamilyHandle handle = classTreeMap.get(value.getClass());
                 ColumnFamilyHandle referenceHandle = metadataReference.get(value.getClass());
+                ColumnFamilyHandle stateHandle = stateReference.get(value.getClass());
 
-                if (value.merge()) {
+                if (value instanceof PrefixKeyed) {
+                    putElements(writeBatch, handle, key, (Hashes) value);
+                } else if (value.merge()) {
                     writeBatch.merge(handle, key.bytes(), value.bytes());
                 } else {
                     writeBatch.put(handle, key.bytes(), value.bytes());
@@ -297,9 +715,12 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
                 if (referenceHandle != null) {
                     writeBatch.put(referenceHandle, key.bytes(), value.metadata());
                 }
+                if (stateHandle != null) {
+                    writeBatch.put(stateHandle, key.bytes(), ((MutableMetadata) value).state());
+                }
             }
 
-            db.write(writeOptions, writeBatch);
+            writeBatch.write(writeOptions);
             return true;
         }
     }
@@ -307,38 +728,95 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
     public void deleteBatch(Collection<Pair<Indexable, ? extends Class<? extends Persistable>>> models)
             throws Exception {
         if (CollectionUtils.isNotEmpty(models)) {
-            try (WriteBatch writeBatch = new WriteBatch()) {
-                models.forEach(entry -> {
+            try (EntryCounters.Batch writeBatch = counters.newBatch()) {
+                for (Pair<Indexable, ? extends Class<? extends Persistable>> entry : models) {
                     Indexable indexable = entry.low;
                     byte[] keyBytes = indexable.bytes();
                     ColumnFamilyHandle handle = classTreeMap.get(entry.hi);
-                    writeBatch.remove(handle, keyBytes);
+                    if (isPrefixKeyed(entry.hi)) {
+                        removeElements(writeBatch, handle, keyBytes);
+                    } else {
+                        writeBatch.delete(handle, keyBytes);
+                    }
                     ColumnFamilyHandle metadataHandle = metadataReference.get(entry.hi);
                     if (metadataHandle != null) {
-                        writeBatch.remove(metadataHandle, keyBytes);
+                        writeBatch.delete(metadataHandle, keyBytes);
                     }
-                });
+                    ColumnFamilyHandle stateHandle = stateReference.get(entry.hi);
+                    if (stateHandle != null) {
+                        writeBatch.delete(stateHandle, keyBytes);
+                    }
+                }
 
                 WriteOptions writeOptions = new WriteOptions()
                         //We are explicit about what happens if the node reboots before a flush to the db
                         .setDisableWAL(false)
                         //We want to make sure deleted data was indeed deleted
                         .setSync(true);
-                db.write(writeOptions, writeBatch);
+                writeBatch.write(writeOptions);
             }
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br />
+     * The range is deleted with a single range tombstone per column family, which RocksDB drops together with the
+     * covered entries during compaction (@see #compactRange).
+     */
+    @Override
+    public void deleteRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        byte[] fromBytes = from.bytes();
+        byte[] toBytes = to.bytes();
+        try (EntryCounters.Batch writeBatch = counters.newBatch();
+             WriteOptions writeOptions = new WriteOptions().setSync(true)) {
+            for (ColumnFamilyHandle handle : handlesOf(model)) {
+                writeBatch.deleteRange(handle, fromBytes, toBytes);
+            }
+            writeBatch.write(writeOptions);
+        }
+    }
+
+    @Override
+    public void compactRange(Class<?> model, Indexable from, Indexable to) throws Exception {
+        byte[] fromBytes = from.bytes();
+        byte[] toBytes = to.bytes();
+        for (ColumnFamilyHandle handle : handlesOf(model)) {
+            db.compactRange(handle, fromBytes, toBytes);
+        }
+    }
+
+    /**
+     * @return the column families that store the entries of a model and their metadata
+     */
+    private List<ColumnFamilyHandle> handlesOf(Class<?> model) {
+        List<ColumnFamilyHandle> handles = new ArrayList<>(3);
+        handles.add(classTreeMap.get(model));
+        if (metadataReference.containsKey(model)) {
+            handles.add(metadataReference.get(model));
+        }
+        if (stateReference.containsKey(model)) {
+            handles.add(stateReference.get(model));
+        }
+        return handles;
+    }
+
     @Override
     public void clear(Class<?> column) throws Exception {
         log.info("Deleting: {} entries", column.getSimpleName());
-        flushHandle(classTreeMap.get(column));
+        ColumnFamilyHandle handle = classTreeMap.get(column);
+        counters.clear(handle, () -> flushHandle(handle));
     }
 
     @Override
     public void clearMetadata(Class<?> column) throws Exception {
         log.info("Deleting: {} metadata", column.getSimpleName());
-        flushHandle(metadataReference.get(column));
+        ColumnFamilyHandle metadataHandle = metadataReference.get(column);
+        counters.clear(metadataHandle, () -> flushHandle(metadataHandle));
+        ColumnFamilyHandle stateHandle = stateReference.get(column);
+        if (stateHandle != null) {
+            counters.clear(stateHandle, () -> flushHandle(stateHandle));
+        }
     }
 
     @Override
@@ -346,17 +824,146 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         List<byte[]> keyBytes = new ArrayList<>();
 
         ColumnFamilyHandle columnFamilyHandle = classTreeMap.get(column);
-        try (RocksIterator iterator = db.newIterator(columnFamilyHandle)) {
+        boolean prefixKeyed = isPrefixKeyed(column);
+        try (RocksIterator iterator = newIterator(columnFamilyHandle)) {
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-                keyBytes.add(iterator.key());
+                byte[] key = iterator.key();
+                if (!prefixKeyed) {
+                    keyBytes.add(key);
+                } else if (keyBytes.isEmpty() || !keyStartsWithValue(keyBytes.get(keyBytes.size() - 1), key)) {
+                    keyBytes.add(Arrays.copyOf(key, PREFIX_LENGTH));
+                }
             }
         }
         return keyBytes;
     }
 
+    private static boolean isPrefixKeyed(Class<?> model) {
+        return model != null && PrefixKeyed.class.isAssignableFrom(model);
+    }
+
+    /**
+     * Adds a key for every hash of a {@link PrefixKeyed} model to the batch.
+     */
+    private static void putElements(EntryCounters.Batch writeBatch, ColumnFamilyHandle handle, Indexable index,
+                                    Hashes hashes)
+            throws RocksDBException {
+        byte[] prefix = index.bytes();
+        for (Hash hash : hashes.set) {
+            writeBatch.put(handle, ArrayUtils.addAll(prefix, hash.bytes()), EMPTY_VALUE);
+        }
+    }
+
+    /**
+     * Adds the removal of every hash stored for the given index of a {@link PrefixKeyed} model to the batch. If the
+     * prefix is the key of a single hash (@see ElementIndex), only this hash is removed.
+     */
+    private void removeElements(EntryCounters.Batch writeBatch, ColumnFamilyHandle handle, byte[] prefix)
+            throws RocksDBException {
+        List<byte[]> keys = new ArrayList<>();
+        try (RocksIterator iterator = newIterator(handle)) {
+            for (iterator.seek(prefix); iterator.isValid() && keyStartsWithValue(prefix, iterator.key());
+                 iterator.next()) {
+                keys.add(iterator.key());
+            }
+        }
+        for (byte[] key : keys) {
+            writeBatch.delete(handle, key);
+        }
+    }
+
+    /**
+     * Visits the hashes stored for the given index of a {@link PrefixKeyed} model in key order.
+     *
+     * @param handle the column family of the model
+     * @param prefix the index of the set
+     * @param start the key to start at or {@code null} to start at the first hash of the index
+     * @param visitor receives the key and the hash, returns {@code false} to stop
+     */
+    private void forEachElement(ColumnFamilyHandle handle, byte[] prefix, byte[] start, ElementVisitor visitor) {
+        try (RocksIterator iterator = newIterator(handle)) {
+            for (iterator.seek(start == null ? prefix : start); iterator.isValid(); iterator.next()) {
+                byte[] key = iterator.key();
+                if (!keyStartsWithValue(prefix, key) || key.length < prefix.length + Hash.SIZE_IN_BYTES ||
+                        !visitor.visit(key, HashFactory.TRANSACTION.create(key, prefix.length, Hash.SIZE_IN_BYTES))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementVisitor {
+        boolean visit(byte[] key, Hash hash);
+    }
+
+    /**
+     * Rewrites the {@link PrefixKeyed} column families of databases created before they were stored with one key
+     * per hash. Every merged value is split into keys of its index and hashes, duplicates collapse on the way.
+     * The migration runs once, afterwards a marker in the default column family skips it.
+     *
+     * @throws Exception if the database cannot be read or written
+     */
+    private void migrateToPrefixKeys() throws Exception {
+        if (db.get(PREFIX_KEY_LAYOUT_MARKER) != null) {
+            return;
+        }
+        for (Map.Entry<Class<?>, ColumnFamilyHandle> entry : classTreeMap.entrySet()) {
+            if (!isPrefixKeyed(entry.getKey())) {
+                continue;
+            }
+            ColumnFamilyHandle handle = entry.getValue();
+            long migrated = 0;
+            try (RocksIterator iterator = newIterator(handle);
+                 WriteOptions writeOptions = new WriteOptions()) {
+                for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+                    byte[] key = iterator.key();
+                    if (key.length != PREFIX_LENGTH) {
+                        continue;
+                    }
+                    Hashes hashes = (Hashes) entry.getKey().newInstance();
+                    hashes.read(iterator.value());
+                    try (WriteBatch writeBatch = new WriteBatch()) {
+                        for (Hash hash : hashes.set) {
+                            writeBatch.put(handle, ArrayUtils.addAll(key, hash.bytes()), EMPTY_VALUE);
+                        }
+                        writeBatch.delete(handle, key);
+                        db.write(writeOptions, writeBatch);
+                    }
+                    if (++migrated % 10000 == 0) {
+                        log.info("Migrated {} {} entries", migrated, entry.getKey().getSimpleName());
+                    }
+                }
+            }
+            if (migrated > 0) {
+                log.info("Migrated {} {} entries to prefix keys", migrated, entry.getKey().getSimpleName());
+            }
+        }
+        db.put(PREFIX_KEY_LAYOUT_MARKER, EMPTY_VALUE);
+    }
+
+    /**
+     * Sets up the exact counters of the entries of every model column family and of the solid models in the state
+     * column family.
+     *
+     * @throws Exception if the counters cannot be read or the entries cannot be counted
+     */
+    private void initCounters() throws Exception {
+        counters = new EntryCounters(db, columnFamilyHandles.get(0), totalOrderReadOptions);
+        for (Map.Entry<String, Class<? extends Persistable>> columnFamily : columnFamilies.entrySet()) {
+            counters.countKeys(columnFamily.getKey(), classTreeMap.get(columnFamily.getValue()));
+        }
+        for (Map.Entry<Class<?>, ColumnFamilyHandle> state : stateReference.entrySet()) {
+            MutableMetadata model = (MutableMetadata) state.getKey().newInstance();
+            counters.countValues("solid" + StringUtils.capitalize(state.getKey().getSimpleName()), state.getValue(),
+                    model::isSolid);
+        }
+        counters.load();
+    }
+
     private void flushHandle(ColumnFamilyHandle handle) throws RocksDBException {
         List<byte[]> itemsToDelete = new ArrayList<>();
-        try (RocksIterator iterator = db.newIterator(handle)) {
+        try (RocksIterator iterator = newIterator(handle)) {
 
             for (iterator.seekToLast(); iterator.isValid(); iterator.prev()) {
                 itemsToDelete.add(iterator.key());
@@ -374,10 +981,25 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         }
     }
 
+    /**
+     * Persists the metadata of a model after the given items changed. For {@link MutableMetadata} models, updates
+     * which only touch state fields write the small state record and leave the full metadata untouched.
+     */
     @Override
     public boolean update(Persistable thing, Indexable index, String item) throws Exception {
         ColumnFamilyHandle referenceHandle = metadataReference.get(thing.getClass());
-        if (referenceHandle != null) {
+        ColumnFamilyHandle stateHandle = stateReference.get(thing.getClass());
+        if (stateHandle != null) {
+            MutableMetadata mutableMetadata = (MutableMetadata) thing;
+            try (EntryCounters.Batch writeBatch = counters.newBatch();
+                 WriteOptions writeOptions = new WriteOptions()) {
+                if (referenceHandle != null && !mutableMetadata.isStateUpdate(item)) {
+                    writeBatch.put(referenceHandle, index.bytes(), thing.metadata());
+                }
+                writeBatch.put(stateHandle, index.bytes(), mutableMetadata.state());
+                writeBatch.write(writeOptions);
+            }
+        } else if (referenceHandle != null) {
             db.put(referenceHandle, index.bytes(), thing.metadata());
         }
 
@@ -392,6 +1014,20 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br />
+     * The memtables are flushed first, so the checkpoint does not depend on the write ahead log. Files of the checkpoint
+     * are hard links to the immutable SST files of the database if both are on the same file system, which makes
+     * creating it cheap and lets checkpoints share the files that did not change in between.
+     */
+    @Override
+    public void createCheckpoint(String path) throws RocksDBException {
+        try (Checkpoint checkpoint = Checkpoint.create(db)) {
+            checkpoint.createCheckpoint(path);
+        }
+    }
+
     // 2018 March 28 - Unused Code
     public void createBackup(String path) throws RocksDBException {
         try (Env env = Env.getDefault();
@@ -442,8 +1078,8 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
 
             int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
             RocksEnv.getDefault()
-                    .setBackgroundThreads(numThreads, RocksEnv.FLUSH_POOL)
-                    .setBackgroundThreads(numThreads, RocksEnv.COMPACTION_POOL);
+                    .setBackgroundThreads(numThreads, Priority.HIGH)
+                    .setBackgroundThreads(numThreads, Priority.LOW);
 
             options = new DBOptions()
                     .setCreateIfMissing(true)
@@ -455,46 +1091,53 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
                     .setMaxBackgroundCompactions(1);
 
             options.setMaxSubcompactions(Runtime.getRuntime().availableProcessors());
+            options.setAllowConcurrentMemtableWrite(true);
 
-            bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY);
-
-            BlockBasedTableConfig blockBasedTableConfig = new BlockBasedTableConfig().setFilter(bloomFilter);
-            blockBasedTableConfig
-                    .setFilter(bloomFilter)
-                    .setCacheNumShardBits(2)
-                    .setBlockSizeDeviation(10)
-                    .setBlockRestartInterval(16)
-                    .setBlockCacheSize(cacheSize * SizeUnit.KB)
-                    .setBlockCacheCompressedNumShardBits(10)
-                    .setBlockCacheCompressedSize(32 * SizeUnit.KB);
+            totalOrderReadOptions = new ReadOptions().setTotalOrderSeek(true);
+            prefixReadOptions = new ReadOptions().setPrefixSameAsStart(true);
+            columnFamilyResources.add(totalOrderReadOptions);
+            columnFamilyResources.add(prefixReadOptions);
 
-            options.setAllowConcurrentMemtableWrite(true);
+            statistics = new Statistics();
+            // timers would cost two clock reads per operation, the counters are all we report
+            statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+            options.setStatistics(statistics);
 
-            MergeOperator mergeOperator = new StringAppendOperator();
-            ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions()
-                    .setMergeOperator(mergeOperator)
-                    .setTableFormatConfig(blockBasedTableConfig)
-                    .setMaxWriteBufferNumber(2)
-                    .setWriteBufferSize(2 * SizeUnit.MB);
+            blockCache = createCache(cacheSize * SizeUnit.KB);
+            if (rowCacheSize > 0) {
+                rowCache = createCache(rowCacheSize * SizeUnit.KB);
+                options.setRowCache(rowCache);
+            }
 
             List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
             //Add default column family. Main motivation is to not change legacy code
-            columnFamilyDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamilyOptions));
+            //It stores the entry counters, which are changed by merging the difference into them
+            columnFamilyDescriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY,
+                    createColumnFamilyOptions(new ColumnFamilyProfile())
+                            .setMergeOperatorName(EntryCounters.MERGE_OPERATOR)));
             for (String name : columnFamilies.keySet()) {
-                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(name.getBytes(), columnFamilyOptions));
+                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(name.getBytes(),
+                        createColumnFamilyOptions(profileOf(name))));
             }
             // metadata descriptor is always last
             if (metadataColumnFamily != null) {
-                columnFamilyDescriptors.add(
-                        new ColumnFamilyDescriptor(metadataColumnFamily.getKey().getBytes(), columnFamilyOptions));
+                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(metadataColumnFamily.getKey().getBytes(),
+                        createColumnFamilyOptions(profileOf(metadataColumnFamily.getKey()))));
                 metadataReference = new HashMap<>();
             }
+            String stateColumnFamily = stateColumnFamilyName(metadataColumnFamily);
+            if (stateColumnFamily != null) {
+                columnFamilyDescriptors.add(new ColumnFamilyDescriptor(stateColumnFamily.getBytes(),
+                        createColumnFamilyOptions(profileOf(stateColumnFamily))));
+            }
 
 
             db = RocksDB.open(options, path, columnFamilyDescriptors, columnFamilyHandles);
             db.enableFileDeletions(true);
 
             initClassTreeMap(columnFamilyDescriptors);
+            migrateToPrefixKeys();
+            initCounters();
 
         } catch (Exception e) {
             PendulumIOUtils.closeQuietly(db);
@@ -502,21 +1145,120 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         }
     }
 
+    /**
+     * @param capacity capacity of the cache in bytes
+     * @return a new cache of the configured type, split into {@code 2^cacheShardBits} shards
+     */
+    private Cache createCache(long capacity) {
+        switch (cacheType.toLowerCase()) {
+            case CACHE_TYPE_LRU:
+                return new LRUCache(capacity, cacheShardBits);
+            case CACHE_TYPE_CLOCK:
+                return new ClockCache(capacity, cacheShardBits);
+            default:
+                throw new IllegalArgumentException("Unknown DB cache type: " + cacheType);
+        }
+    }
+
+    /**
+     * @param metadataColumnFamily the metadata column family or {@code null} if there is none
+     * @return the name of the column family storing the state of the metadata model or {@code null} if the model
+     *         is no {@link MutableMetadata}
+     */
+    static String stateColumnFamilyName(Map.Entry<String, Class<? extends Persistable>> metadataColumnFamily) {
+        if (metadataColumnFamily == null || !MutableMetadata.class.isAssignableFrom(metadataColumnFamily.getValue())) {
+            return null;
+        }
+        return metadataColumnFamily.getKey() + STATE_COLUMN_FAMILY_SUFFIX;
+    }
+
+    private ColumnFamilyProfile profileOf(String columnFamilyName) {
+        ColumnFamilyProfile profile = columnFamilyProfiles.get(columnFamilyName);
+        if (profile == null) {
+            if (columnFamilyName.equals(metadataColumnFamily == null ? null : metadataColumnFamily.getKey())) {
+                profile = ColumnFamilyProfile.forMetadata();
+            } else if (columnFamilyName.equals(stateColumnFamilyName(metadataColumnFamily))) {
+                profile = ColumnFamilyProfile.forState();
+            } else {
+                profile = ColumnFamilyProfile.forModel(columnFamilies.get(columnFamilyName));
+            }
+        }
+        log.debug("Column family {}: {}", columnFamilyName, profile);
+        return profile;
+    }
+
+    /**
+     * Translates a {@link ColumnFamilyProfile} into RocksDB options. The created native objects are registered for
+     * release on {@link #shutdown()}.
+     *
+     * @param profile the tuning profile of the column family
+     * @return the options of the column family
+     */
+    private ColumnFamilyOptions createColumnFamilyOptions(ColumnFamilyProfile profile) {
+        BlockBasedTableConfig blockBasedTableConfig = new BlockBasedTableConfig()
+                .setBlockCache(blockCache)
+                .setBlockSize(profile.getBlockSize())
+                .setBlockSizeDeviation(10)
+                .setBlockRestartInterval(16);
+        if (profile.getBloomBitsPerKey() > 0) {
+            BloomFilter bloomFilter = new BloomFilter(profile.getBloomBitsPerKey());
+            columnFamilyResources.add(bloomFilter);
+            blockBasedTableConfig.setFilter(bloomFilter);
+        }
+
+        ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions();
+        columnFamilyResources.add(columnFamilyOptions);
+        if (profile.isOptimizeForPointLookup()) {
+            // only keeps the memtable tuning - the table config below replaces the table factory (and its private
+            // cache) installed by this call
+            columnFamilyOptions.optimizeForPointLookup(Math.max(1, cacheSize / SizeUnit.KB));
+        }
+        if (profile.getPrefixLength() > 0) {
+            // the SST filters then contain the prefixes next to the whole keys, the memtable gets a prefix filter too
+            columnFamilyOptions.useFixedLengthPrefixExtractor(profile.getPrefixLength());
+            columnFamilyOptions.setMemtablePrefixBloomSizeRatio(0.1);
+        }
+
+        MergeOperator mergeOperator = new StringAppendOperator();
+        columnFamilyResources.add(mergeOperator);
+        return columnFamilyOptions
+                .setMergeOperator(mergeOperator)
+                .setTableFormatConfig(blockBasedTableConfig)
+                .setCompactionStyle(profile.getCompactionStyle())
+                .setCompressionType(profile.getCompressionType())
+                .setMaxWriteBufferNumber(profile.getMaxWriteBufferNumber())
+                .setWriteBufferSize(profile.getWriteBufferSize());
+    }
+
     private void initClassTreeMap(List<ColumnFamilyDescriptor> columnFamilyDescriptors) throws Exception {
         Map<Class<?>, ColumnFamilyHandle> classMap = new LinkedHashMap<>();
+        Map<Class<?>, Integer> prefixLengthMap = new HashMap<>();
+        Map<String, ColumnFamilyHandle> handleMap = new LinkedHashMap<>();
+        handleMap.put(new String(RocksDB.DEFAULT_COLUMN_FAMILY), columnFamilyHandles.get(0));
         String mcfName = metadataColumnFamily == null ? "" : metadataColumnFamily.getKey();
+        String stateName = stateColumnFamilyName(metadataColumnFamily);
         //skip default column
         int i = 1;
         for (; i < columnFamilyDescriptors.size(); i++) {
 
             String name = new String(columnFamilyDescriptors.get(i).columnFamilyName());
+            handleMap.put(name, columnFamilyHandles.get(i));
             if (name.equals(mcfName)) {
                 Map<Class<?>, ColumnFamilyHandle> metadataRef = new HashMap<>();
                 metadataRef.put(metadataColumnFamily.getValue(), columnFamilyHandles.get(i));
                 metadataReference = MapUtils.unmodifiableMap(metadataRef);
             }
+            else if (name.equals(stateName)) {
+                Map<Class<?>, ColumnFamilyHandle> stateRef = new HashMap<>();
+                stateRef.put(metadataColumnFamily.getValue(), columnFamilyHandles.get(i));
+                stateReference = MapUtils.unmodifiableMap(stateRef);
+            }
             else {
                 classMap.put(columnFamilies.get(name), columnFamilyHandles.get(i));
+                ColumnFamilyProfile profile = columnFamilyProfiles.get(name);
+                if (profile != null && profile.getPrefixLength() > 0) {
+                    prefixLengthMap.put(columnFamilies.get(name), profile.getPrefixLength());
+                }
             }
         }
         for (; ++i < columnFamilyHandles.size(); ) {
@@ -524,6 +1266,8 @@ public class RocksDBPersistenceProvider implements PersistenceProvider {
         }
 
         classTreeMap = MapUtils.unmodifiableMap(classMap);
+        prefixLengths = MapUtils.unmodifiableMap(prefixLengthMap);
+        handlesByName = MapUtils.unmodifiableMap(handleMap);
     }
 
 }
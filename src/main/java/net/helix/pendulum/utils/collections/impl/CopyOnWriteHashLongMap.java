@@ -0,0 +1,243 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A map from hashes to primitive <code>long</code> values, which can be copied without copying its entries.
+ *
+ * <p>
+ *     The entries are spread over {@value #SHARDS} shards by the leading bits of their hashes, every shard is a
+ *     {@link FlatHashLongMap}. A {@link #copy()} only copies the references to the shards and marks them as shared.
+ *     Both maps copy a shared shard the first time they change it, so a copy that only changes a few entries (like a
+ *     snapshot that applies the balance changes of a milestone) only duplicates the shards of these entries.
+ * </p>
+ * <p>
+ *     The hashes passed to {@link #forEach} and returned by {@link #toMap()} are new hashes of the type of the
+ *     {@link HashFactory} of the map. Maps are not thread-safe, a map must not be copied while it is changed.
+ * </p>
+ */
+public class CopyOnWriteHashLongMap {
+
+    private static final int SHARD_BITS = 10;
+    private static final int SHARDS = 1 << SHARD_BITS;
+
+    private final HashFactory factory;
+    private final Shard[] shards;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param factory creates the hashes passed to {@link #forEach} and returned by {@link #toMap()}
+     */
+    public CopyOnWriteHashLongMap(HashFactory factory) {
+        this.factory = factory;
+        this.shards = new Shard[SHARDS];
+    }
+
+    private CopyOnWriteHashLongMap(CopyOnWriteHashLongMap map) {
+        this.factory = map.factory;
+        this.shards = map.shards.clone();
+        this.size = map.size;
+    }
+
+    /**
+     * Creates a copy of this map, which shares the shards with this map until either of them changes a shard.
+     *
+     * @return the copy
+     */
+    public CopyOnWriteHashLongMap copy() {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.shared = true;
+            }
+        }
+        return new CopyOnWriteHashLongMap(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key a hash
+     * @return <code>true</code> if the map contains a value for the hash
+     */
+    public boolean containsKey(Hash key) {
+        Shard shard = shards[shardOf(key)];
+        return shard != null && shard.containsKey(key);
+    }
+
+    /**
+     * @param key a hash
+     * @param defaultValue the value returned if the map does not contain the hash
+     * @return the value of the hash or the default value
+     */
+    public long getOrDefault(Hash key, long defaultValue) {
+        Shard shard = shards[shardOf(key)];
+        return shard == null ? defaultValue : shard.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Sets the value of a hash.
+     *
+     * @param key the hash
+     * @param value the new value
+     */
+    public void put(Hash key, long value) {
+        Shard shard = writableShard(key);
+        int shardSize = shard.size();
+        shard.put(key, value);
+        size += shard.size() - shardSize;
+    }
+
+    /**
+     * Adds the entries of a map to this map.
+     *
+     * @param map the entries
+     */
+    public void putAll(Map<Hash, Long> map) {
+        map.forEach(this::put);
+    }
+
+    /**
+     * Removes a hash and its value.
+     *
+     * @param key the hash
+     * @return <code>true</code> if the map contained the hash
+     */
+    public boolean remove(Hash key) {
+        if (!containsKey(key)) {
+            return false;
+        }
+        writableShard(key).remove(key);
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all entries. Shards shared with other maps are left untouched.
+     */
+    public void clear() {
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Passes every hash and its value to the given action.
+     *
+     * @param action the action
+     */
+    public void forEach(ObjLongConsumer<Hash> action) {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Passes every value to the given action without creating the hashes.
+     *
+     * @param action the action
+     */
+    public void forEachValue(LongConsumer action) {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.forEachValue(action);
+            }
+        }
+    }
+
+    /**
+     * @return a new {@link HashMap} with the hashes and values of this map
+     */
+    public Map<Hash, Long> toMap() {
+        Map<Hash, Long> map = new HashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * Two maps are equal if they contain the same hashes, compared by their bytes, with the same values.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CopyOnWriteHashLongMap)) {
+            return false;
+        }
+        CopyOnWriteHashLongMap other = (CopyOnWriteHashLongMap) obj;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            Shard shard = shards[i];
+            if (shard == null || shard == other.shards[i]) {
+                continue;
+            }
+            boolean[] equal = {true};
+            shard.forEach((key, value) -> equal[0] &= other.containsKey(key) && other.getOrDefault(key, 0) == value);
+            if (!equal[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the hash code like {@link Map#hashCode()}, so it does not depend on the type of the hashes.
+     */
+    @Override
+    public int hashCode() {
+        int[] hashCode = {0};
+        forEach((key, value) -> hashCode[0] += key.hashCode() ^ Long.hashCode(value));
+        return hashCode[0];
+    }
+
+    private Shard writableShard(Hash key) {
+        int index = shardOf(key);
+        Shard shard = shards[index];
+        if (shard == null) {
+            shard = new Shard(factory);
+            shards[index] = shard;
+        } else if (shard.shared) {
+            shard = new Shard(shard);
+            shards[index] = shard;
+        }
+        return shard;
+    }
+
+    private static int shardOf(Hash key) {
+        return (int) (key.word(0) >>> (Long.SIZE - SHARD_BITS));
+    }
+
+    /**
+     * A part of the map, which must not be changed once it is shared by several maps.
+     */
+    private static class Shard extends FlatHashLongMap {
+        private volatile boolean shared;
+
+        private Shard(HashFactory factory) {
+            super(0, factory);
+        }
+
+        private Shard(Shard shard) {
+            super(shard);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+import net.helix.pendulum.model.HashId;
+import net.helix.pendulum.utils.collections.interfaces.UnIterableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map from hashes to primitive <code>int</code> values, like the cumulative weights of transactions. The hashes are
+ * stored inline in a <code>long[]</code> (see {@link FlatHashTable}), so neither entries nor values are boxed.
+ *
+ * <p>
+ *     Keys that are no {@link Hash}, like {@link net.helix.pendulum.model.HashPrefix}es, are converted to a hash of
+ *     the type of the {@link HashFactory} of the map first. The {@link UnIterableMap} methods box the values, the
+ *     primitive {@link #getInt} and {@link #putInt} do not. The map is not thread-safe.
+ * </p>
+ */
+public class FlatHashIntMap extends FlatHashTable implements UnIterableMap<HashId, Integer> {
+
+    private int[] values;
+
+    /**
+     * Creates an empty map of transaction hashes.
+     *
+     * @param expectedSize the number of hashes the map can hold without growing
+     */
+    public FlatHashIntMap(int expectedSize) {
+        this(expectedSize, HashFactory.TRANSACTION);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of hashes the map can hold without growing
+     * @param factory converts keys that are no hashes and creates the hashes passed to {@link #forEach}
+     */
+    public FlatHashIntMap(int expectedSize, HashFactory factory) {
+        super(expectedSize, factory);
+        values = new int[capacity()];
+    }
+
+    /**
+     * @param key a hash
+     * @param defaultValue the value returned if the map does not contain the hash
+     * @return the value of the hash or the default value
+     */
+    public int getInt(HashId key, int defaultValue) {
+        int slot = find(toHash(key));
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Sets the value of a hash.
+     *
+     * @param key the hash
+     * @param value the new value
+     */
+    public void putInt(HashId key, int value) {
+        int slot = insert(toHash(key));
+        values[slot < 0 ? ~slot : slot] = value;
+    }
+
+    /**
+     * Passes every hash and its value to the given action.
+     *
+     * @param action the action
+     */
+    public void forEach(ObjIntConsumer<Hash> action) {
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            action.accept(keyAt(slot), values[slot]);
+        }
+    }
+
+    @Override
+    public boolean containsKey(HashId key) {
+        return find(toHash(key)) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Integer value) {
+        if (value == null) {
+            return false;
+        }
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            if (values[slot] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Integer get(HashId key) {
+        int slot = find(toHash(key));
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Integer put(HashId key, Integer value) {
+        int slot = insert(toHash(key));
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        int previous = values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    @Override
+    public Integer remove(HashId key) {
+        int slot = find(toHash(key));
+        if (slot < 0) {
+            return null;
+        }
+        removeAt(slot);
+        return values[slot];
+    }
+
+    @Override
+    public Collection<Integer> values() {
+        List<Integer> list = new ArrayList<>(size());
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            list.add(values[slot]);
+        }
+        return list;
+    }
+
+    @Override
+    protected void rehashed(int[] slots, int capacity) {
+        int[] moved = new int[capacity];
+        for (int oldSlot = 0; oldSlot < slots.length; oldSlot++) {
+            if (slots[oldSlot] >= 0) {
+                moved[slots[oldSlot]] = values[oldSlot];
+            }
+        }
+        values = moved;
+    }
+
+    private Hash toHash(HashId key) {
+        return key instanceof Hash ? (Hash) key : factory.create(key.bytes());
+    }
+}
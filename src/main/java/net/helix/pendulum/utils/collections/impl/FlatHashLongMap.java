@@ -0,0 +1,148 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A map from hashes to primitive <code>long</code> values, like the balance changes of addresses. The hashes are
+ * stored inline in a <code>long[]</code> (see {@link FlatHashTable}), so neither entries nor values are boxed.
+ *
+ * <p>
+ *     Hashes are compared by their bytes only. The hashes passed to {@link #forEach} and returned by {@link #toMap()}
+ *     are new hashes of the type of the {@link HashFactory} of the map. The map is not thread-safe.
+ * </p>
+ */
+public class FlatHashLongMap extends FlatHashTable {
+
+    private long[] values;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of hashes the map can hold without growing
+     * @param factory creates the hashes passed to {@link #forEach} and returned by {@link #toMap()}
+     */
+    public FlatHashLongMap(int expectedSize, HashFactory factory) {
+        super(expectedSize, factory);
+        values = new long[capacity()];
+    }
+
+    /**
+     * Creates a copy of a map, which only copies its arrays.
+     *
+     * @param map the map to copy
+     */
+    public FlatHashLongMap(FlatHashLongMap map) {
+        super(map);
+        values = map.values.clone();
+    }
+
+    /**
+     * @param key a hash
+     * @return <code>true</code> if the map contains a value for the hash
+     */
+    public boolean containsKey(Hash key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * @param key a hash
+     * @param defaultValue the value returned if the map does not contain the hash
+     * @return the value of the hash or the default value
+     */
+    public long getOrDefault(Hash key, long defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Sets the value of a hash.
+     *
+     * @param key the hash
+     * @param value the new value
+     */
+    public void put(Hash key, long value) {
+        int slot = insert(key);
+        values[slot < 0 ? ~slot : slot] = value;
+    }
+
+    /**
+     * Adds a value to the value of a hash, which starts at 0 if the map does not contain the hash yet.
+     *
+     * @param key the hash
+     * @param value the value to add
+     * @return the new value of the hash
+     * @throws ArithmeticException if the sum overflows, in which case the map is not changed
+     */
+    public long addExact(Hash key, long value) {
+        int slot = insert(key);
+        if (slot < 0) {
+            values[~slot] = value;
+            return value;
+        }
+        values[slot] = Math.addExact(values[slot], value);
+        return values[slot];
+    }
+
+    /**
+     * Removes a hash and its value.
+     *
+     * @param key the hash
+     * @return <code>true</code> if the map contained the hash
+     */
+    public boolean remove(Hash key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Passes every hash and its value to the given action.
+     *
+     * @param action the action
+     */
+    public void forEach(ObjLongConsumer<Hash> action) {
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            action.accept(keyAt(slot), values[slot]);
+        }
+    }
+
+    /**
+     * Passes every value to the given action without creating the hashes.
+     *
+     * @param action the action
+     */
+    public void forEachValue(LongConsumer action) {
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            action.accept(values[slot]);
+        }
+    }
+
+    /**
+     * @return a new {@link HashMap} with the hashes and values of this map
+     */
+    public Map<Hash, Long> toMap() {
+        Map<Hash, Long> map = new HashMap<>(size() * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    protected void rehashed(int[] slots, int capacity) {
+        long[] moved = new long[capacity];
+        for (int oldSlot = 0; oldSlot < slots.length; oldSlot++) {
+            if (slots[oldSlot] >= 0) {
+                moved[slots[oldSlot]] = values[oldSlot];
+            }
+        }
+        values = moved;
+    }
+}
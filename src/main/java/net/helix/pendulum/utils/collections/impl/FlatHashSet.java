@@ -0,0 +1,158 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of hashes, which stores them inline in a <code>long[]</code> (see {@link FlatHashTable}). Unlike a
+ * {@link java.util.HashSet} it needs no entry object per hash, does not keep the added hashes alive and creates no
+ * objects while adding or looking up hashes, which makes it suitable for the visited sets of tangle traversals.
+ *
+ * <p>
+ *     Hashes are compared by their bytes only. Iterating the set creates new hashes of the type of its
+ *     {@link HashFactory}. The set is not thread-safe.
+ * </p>
+ */
+public class FlatHashSet extends AbstractSet<Hash> {
+
+    private final Table table;
+    private int modifications;
+
+    /**
+     * Creates an empty set of transaction hashes.
+     */
+    public FlatHashSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set of transaction hashes.
+     *
+     * @param expectedSize the number of hashes the set can hold without growing
+     */
+    public FlatHashSet(int expectedSize) {
+        this(expectedSize, HashFactory.TRANSACTION);
+    }
+
+    /**
+     * Creates a set of transaction hashes that contains the given hashes.
+     *
+     * @param hashes the hashes
+     */
+    public FlatHashSet(Collection<? extends Hash> hashes) {
+        this(hashes.size());
+        addAll(hashes);
+    }
+
+    /**
+     * Creates an empty set.
+     *
+     * @param expectedSize the number of hashes the set can hold without growing
+     * @param factory creates the hashes returned by the iterators of the set
+     */
+    public FlatHashSet(int expectedSize, HashFactory factory) {
+        table = new Table(expectedSize, factory);
+    }
+
+    @Override
+    public boolean add(Hash hash) {
+        if (table.insert(hash) < 0) {
+            modifications++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Hash && table.find((Hash) o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Hash)) {
+            return false;
+        }
+        int slot = table.find((Hash) o);
+        if (slot < 0) {
+            return false;
+        }
+        table.removeAt(slot);
+        modifications++;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+        modifications++;
+    }
+
+    @Override
+    public Iterator<Hash> iterator() {
+        return new Iterator<Hash>() {
+            private int next = table.nextSlot(0);
+            private int current = -1;
+            private int expectedModifications = modifications;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Hash next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                current = next;
+                next = table.nextSlot(next + 1);
+                return table.keyAt(current);
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                // removing a key leaves its slot marked as removed, so the remaining slots do not move
+                table.removeAt(current);
+                current = -1;
+                expectedModifications = ++modifications;
+            }
+        };
+    }
+
+    private static class Table extends FlatHashTable {
+        private Table(int expectedSize, HashFactory factory) {
+            super(expectedSize, factory);
+        }
+
+        @Override
+        protected void rehashed(int[] slots, int capacity) {
+            // a set has no values to move
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table of {@link Hash} keys, which stores the keys inline as four <code>long</code> words per
+ * slot instead of one entry object per key.
+ *
+ * <p>
+ *     Collisions are resolved by linear probing. Removed keys leave a marker behind, so iterators can remove keys
+ *     without moving the remaining ones. Subclasses store their values in arrays indexed by slot and move them when
+ *     the table is rehashed.
+ * </p>
+ * <p>
+ *     Keys are compared by their bytes only, the hashes returned by iterators are created by the {@link HashFactory} of
+ *     the table. Tables are not thread-safe.
+ * </p>
+ */
+abstract class FlatHashTable {
+
+    private static final int WORDS = Hash.SIZE_IN_BYTES / Long.BYTES;
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    /**
+     * Creates the hashes of the stored keys.
+     */
+    final HashFactory factory;
+
+    private long[] keys;
+    private byte[] states;
+    private int mask;
+    private int size;
+    // full and removed slots, which both extend probe sequences
+    private int used;
+    private int threshold;
+
+    /**
+     * @param expectedSize the number of keys the table can hold without being rehashed
+     * @param factory creates the hashes returned by iterators
+     */
+    FlatHashTable(int expectedSize, HashFactory factory) {
+        this.factory = factory;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Creates a copy of a table with the same keys and capacity.
+     *
+     * @param table the table to copy
+     */
+    FlatHashTable(FlatHashTable table) {
+        this.factory = table.factory;
+        this.keys = table.keys.clone();
+        this.states = table.states.clone();
+        this.mask = table.mask;
+        this.size = table.size;
+        this.used = table.used;
+        this.threshold = table.threshold;
+    }
+
+    /**
+     * Is called after the table was rehashed, so subclasses can move their values.
+     *
+     * @param slots the new slot of every old slot or -1 if the old slot is not full
+     * @param capacity the new number of slots
+     */
+    protected abstract void rehashed(int[] slots, int capacity);
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys but keeps the capacity of the table.
+     */
+    public void clear() {
+        Arrays.fill(states, FREE);
+        size = 0;
+        used = 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the slot of the key or -1 if the table does not contain it
+     */
+    int find(Hash key) {
+        long word0 = key.word(0);
+        long word1 = key.word(1);
+        long word2 = key.word(2);
+        long word3 = key.word(3);
+        for (int slot = slot(word0, word1, word2, word3); ; slot = (slot + 1) & mask) {
+            byte state = states[slot];
+            if (state == FREE) {
+                return -1;
+            }
+            if (state == FULL && matches(slot, word0, word1, word2, word3)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of a key and adds the key if the table does not contain it yet.
+     *
+     * @param key the key
+     * @return the slot of a contained key or the bitwise complement (<code>~slot</code>) of the slot of an added key
+     */
+    int insert(Hash key) {
+        if (used >= threshold) {
+            // only grow if the table is really full, otherwise getting rid of the removed slots is enough
+            rehash(size >= threshold / 2 ? keys.length / WORDS * 2 : keys.length / WORDS);
+        }
+        long word0 = key.word(0);
+        long word1 = key.word(1);
+        long word2 = key.word(2);
+        long word3 = key.word(3);
+        int removed = -1;
+        for (int slot = slot(word0, word1, word2, word3); ; slot = (slot + 1) & mask) {
+            byte state = states[slot];
+            if (state == FREE) {
+                if (removed == -1) {
+                    used++;
+                    removed = slot;
+                }
+                int offset = removed * WORDS;
+                keys[offset] = word0;
+                keys[offset + 1] = word1;
+                keys[offset + 2] = word2;
+                keys[offset + 3] = word3;
+                states[removed] = FULL;
+                size++;
+                return ~removed;
+            }
+            if (state == REMOVED) {
+                if (removed == -1) {
+                    removed = slot;
+                }
+            } else if (matches(slot, word0, word1, word2, word3)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Removes the key of a full slot.
+     *
+     * @param slot the slot
+     */
+    void removeAt(int slot) {
+        states[slot] = REMOVED;
+        size--;
+    }
+
+    /**
+     * @param slot the first slot to check
+     * @return the first full slot starting at the given one or -1 if there is none
+     */
+    int nextSlot(int slot) {
+        for (; slot < states.length; slot++) {
+            if (states[slot] == FULL) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param slot a full slot
+     * @return a new hash of the key stored in the slot
+     */
+    Hash keyAt(int slot) {
+        byte[] bytes = new byte[Hash.SIZE_IN_BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (keys[slot * WORDS + i / Long.BYTES] >>> (Long.SIZE - Byte.SIZE * (i % Long.BYTES + 1)));
+        }
+        return factory.create(bytes);
+    }
+
+    /**
+     * @return the number of slots
+     */
+    int capacity() {
+        return states.length;
+    }
+
+    private boolean matches(int slot, long word0, long word1, long word2, long word3) {
+        int offset = slot * WORDS;
+        return keys[offset] == word0 && keys[offset + 1] == word1 && keys[offset + 2] == word2
+                && keys[offset + 3] == word3;
+    }
+
+    private int slot(long word0, long word1, long word2, long word3) {
+        long hash = ((word0 * 0x9E3779B97F4A7C15L + word1) * 0x9E3779B97F4A7C15L + word2) * 0x9E3779B97F4A7C15L
+                + word3;
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldStates = states;
+        allocate(capacity);
+
+        int[] slots = new int[oldStates.length];
+        for (int oldSlot = 0; oldSlot < oldStates.length; oldSlot++) {
+            if (oldStates[oldSlot] != FULL) {
+                slots[oldSlot] = -1;
+                continue;
+            }
+            int offset = oldSlot * WORDS;
+            int slot = slot(oldKeys[offset], oldKeys[offset + 1], oldKeys[offset + 2], oldKeys[offset + 3]);
+            while (states[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            System.arraycopy(oldKeys, offset, keys, slot * WORDS, WORDS);
+            states[slot] = FULL;
+            slots[oldSlot] = slot;
+            size++;
+            used++;
+        }
+        rehashed(slots, capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity * WORDS];
+        states = new byte[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+        size = 0;
+        used = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -122,7 +122,7 @@ public class ThreadUtils {
      * @param timeoutInMS milliseconds that the current Thread should wait
      * @return true if the sleep was successful and false if it got interrupted
      */
-    public static boolean sleep(int timeoutInMS) {
+    public static boolean sleep(long timeoutInMS) {
         if(Thread.currentThread().isInterrupted()) {
             return false;
         }
@@ -1,8 +1,11 @@
 package net.helix.pendulum.benchmarks;
 
+import net.helix.pendulum.benchmarks.dbbenchmark.PrefixLookupBenchmark;
 import net.helix.pendulum.benchmarks.dbbenchmark.RocksDbBenchmark;
+import net.helix.pendulum.benchmarks.model.HashBenchmark;
 import org.junit.Assert;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
@@ -32,6 +35,25 @@ public class BenchmarkRunner {
         }
     }
 
+    //@Test
+    public void launchPrefixLookupBenchmarks() {
+        Options opts = new OptionsBuilder()
+                .include(PrefixLookupBenchmark.class.getName() + ".*")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .warmupIterations(2)
+                .forks(1)
+                .measurementIterations(5)
+                .shouldFailOnError(true)
+                .shouldDoGC(false)
+                .build();
+        try {
+            new Runner(opts).run();
+        } catch (Throwable t) {
+            Assert.fail();
+        }
+    }
+
     //@Test
     public void launchCryptoBenchmark() {
         Options opts = new OptionsBuilder()
@@ -50,4 +72,24 @@ public class BenchmarkRunner {
             Assert.fail();
         }
     }
+
+    //@Test
+    public void launchHashBenchmarks() {
+        Options opts = new OptionsBuilder()
+                .include(HashBenchmark.class.getName() + ".*")
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .warmupIterations(3)
+                .forks(1)
+                .measurementIterations(5)
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .shouldDoGC(false)
+                .build();
+        try {
+            new Runner(opts).run();
+        } catch (Throwable t) {
+            Assert.fail();
+        }
+    }
 }
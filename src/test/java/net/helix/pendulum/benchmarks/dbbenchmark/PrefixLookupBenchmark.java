@@ -0,0 +1,26 @@
+package net.helix.pendulum.benchmarks.dbbenchmark;
+
+import net.helix.pendulum.benchmarks.dbbenchmark.states.PrefixState;
+import net.helix.pendulum.model.persistables.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares lookups of transactions by the first bytes of their hash with and without a prefix extractor on the
+ * transaction column family (see {@link PrefixState}).
+ */
+public class PrefixLookupBenchmark {
+    @Benchmark
+    public void findByPrefix(PrefixState state, Blackhole blackhole) throws Exception {
+        for (byte[] prefix : state.getPrefixes()) {
+            blackhole.consume(state.getTangle().findByPrefix(Transaction.class, prefix));
+        }
+    }
+
+    @Benchmark
+    public void keysStartingWith(PrefixState state, Blackhole blackhole) {
+        for (byte[] prefix : state.getPrefixes()) {
+            blackhole.consume(state.getTangle().keysStartingWith(Transaction.class, prefix));
+        }
+    }
+}
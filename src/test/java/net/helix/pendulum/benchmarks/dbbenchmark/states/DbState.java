@@ -9,6 +9,7 @@ import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.snapshot.impl.SnapshotProviderImpl;
 import net.helix.pendulum.storage.PersistenceProvider;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.memory.InMemoryPersistenceProvider;
 import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
 import org.apache.commons.io.FileUtils;
 import org.openjdk.jmh.annotations.Param;
@@ -32,16 +33,24 @@ public abstract class DbState {
     @Param({"10", "100", "500", "1000", "3000"})
     private int numTxsToTest;
 
+    @Param({"rocksdb", "memory"})
+    private String mainDb;
+
     public void setUp() throws Exception {
         System.out.println("-----------------------trial setup--------------------------------");
-        boolean mkdirs = dbFolder.mkdirs();
-        if (!mkdirs) {
-            throw new IllegalStateException("db didn't start with a clean slate. Please delete "
-                    + dbFolder.getAbsolutePath());
+        PersistenceProvider dbProvider;
+        if ("memory".equals(mainDb)) {
+            dbProvider = new InMemoryPersistenceProvider(Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
+        } else {
+            boolean mkdirs = dbFolder.mkdirs();
+            if (!mkdirs) {
+                throw new IllegalStateException("db didn't start with a clean slate. Please delete "
+                        + dbFolder.getAbsolutePath());
+            }
+            logFolder.mkdirs();
+            dbProvider = new RocksDBPersistenceProvider(
+                    dbFolder.getAbsolutePath(), logFolder.getAbsolutePath(),  BasePendulumConfig.Defaults.DB_CACHE_SIZE, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
         }
-        logFolder.mkdirs();
-        PersistenceProvider dbProvider = new RocksDBPersistenceProvider(
-                dbFolder.getAbsolutePath(), logFolder.getAbsolutePath(),  BasePendulumConfig.Defaults.DB_CACHE_SIZE, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
         dbProvider.init();
         tangle = new Tangle();
         snapshotProvider = new SnapshotProviderImpl().init(new MainnetConfig());
@@ -61,8 +70,10 @@ public abstract class DbState {
         System.out.println("-----------------------trial shutdown--------------------------------");
         tangle.shutdown();
         snapshotProvider.shutdown();
-        FileUtils.forceDelete(dbFolder);
-        FileUtils.forceDelete(logFolder);
+        if (dbFolder.exists()) {
+            FileUtils.forceDelete(dbFolder);
+            FileUtils.forceDelete(logFolder);
+        }
     }
 
     public void clearDb() throws Exception {
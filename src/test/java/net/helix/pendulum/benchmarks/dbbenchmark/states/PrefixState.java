@@ -0,0 +1,89 @@
+package net.helix.pendulum.benchmarks.dbbenchmark.states;
+
+import net.helix.pendulum.TransactionTestUtils;
+import net.helix.pendulum.conf.MainnetConfig;
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A database filled with random transactions, whose transaction column family is created with or without a fixed
+ * prefix extractor. Half of the looked up prefixes belong to stored transactions, the other half to missing ones.
+ */
+@State(Scope.Benchmark)
+public class PrefixState {
+    private final File dbFolder = new File("db-prefix-bench");
+    private final File logFolder = new File("db-prefix-log-bench");
+
+    private Tangle tangle;
+    private List<byte[]> prefixes;
+
+    @Param({"0", "16"})
+    private int prefixLength;
+
+    @Param({"20", "32"})
+    private int requestHashSize;
+
+    @Param({"20000"})
+    private int numTxsToTest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (!dbFolder.mkdirs()) {
+            throw new IllegalStateException("db didn't start with a clean slate. Please delete "
+                    + dbFolder.getAbsolutePath());
+        }
+        logFolder.mkdirs();
+        MainnetConfig config = new MainnetConfig();
+        config.parseConfigFromArgs(new String[]{
+                "--db-path", dbFolder.getAbsolutePath(),
+                "--db-log-path", logFolder.getAbsolutePath(),
+                "--db-cf-profiles", "transaction:prefixLength=" + prefixLength});
+        tangle = new Tangle();
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(config, Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+
+        // enough transactions to spread them over several SST files
+        List<byte[]> lookups = new ArrayList<>(numTxsToTest);
+        for (int i = 0; i < numTxsToTest; i++) {
+            Hash hash = TransactionTestUtils.getTransactionHash();
+            if (i % 2 == 0) {
+                tangle.saveBatch(new TransactionViewModel(TransactionTestUtils.getTransactionBytes(), hash)
+                        .getSaveBatch());
+            }
+            lookups.add(Arrays.copyOf(hash.bytes(), requestHashSize));
+        }
+        Collections.shuffle(lookups);
+        prefixes = Collections.unmodifiableList(lookups);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() throws Exception {
+        tangle.shutdown();
+        FileUtils.forceDelete(dbFolder);
+        FileUtils.forceDelete(logFolder);
+    }
+
+    public Tangle getTangle() {
+        return tangle;
+    }
+
+    public List<byte[]> getPrefixes() {
+        return prefixes;
+    }
+}
@@ -0,0 +1,39 @@
+package net.helix.pendulum.benchmarks.model;
+
+import net.helix.pendulum.benchmarks.model.states.HashState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the compact hashes with the previous byte array based representation (see {@link HashState}). Run it with
+ * the GC profiler to compare the heap footprint, which is reported as the normalized allocation rate of
+ * {@link #create}.
+ */
+public class HashBenchmark {
+    @Benchmark
+    public void create(HashState state, Blackhole blackhole) {
+        for (byte[] bytes : state.getBytes()) {
+            blackhole.consume(state.create(bytes));
+        }
+    }
+
+    @Benchmark
+    public Map<Object, Object> hashMapPut(HashState state) {
+        Map<Object, Object> map = new HashMap<>(state.getHashes().size() * 2);
+        for (Object hash : state.getHashes()) {
+            map.put(hash, hash);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void hashMapGet(HashState state, Blackhole blackhole) {
+        Map<Object, Object> map = state.getMap();
+        for (Object hash : state.getLookups()) {
+            blackhole.consume(map.get(hash));
+        }
+    }
+}
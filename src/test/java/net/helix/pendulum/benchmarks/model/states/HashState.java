@@ -0,0 +1,107 @@
+package net.helix.pendulum.benchmarks.model.states;
+
+import net.helix.pendulum.model.HashFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Random hashes in the compact representation or in the previous one, which kept a byte array, a boxed hash code and
+ * a lock object per hash. Half of the looked up hashes are contained in the map, all of them are distinct instances
+ * of the stored ones.
+ */
+@State(Scope.Benchmark)
+public class HashState {
+    @Param({"compact", "legacy"})
+    private String representation;
+
+    @Param({"100000"})
+    private int numHashes;
+
+    private List<byte[]> bytes;
+    private List<Object> hashes;
+    private List<Object> lookups;
+    private Map<Object, Object> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        bytes = new ArrayList<>(numHashes);
+        hashes = new ArrayList<>(numHashes);
+        lookups = new ArrayList<>(numHashes);
+        map = new HashMap<>(numHashes * 2);
+        for (int i = 0; i < numHashes; i++) {
+            byte[] hashBytes = new byte[32];
+            random.nextBytes(hashBytes);
+            bytes.add(hashBytes);
+            Object hash = create(hashBytes);
+            hashes.add(hash);
+            if (i % 2 == 0) {
+                map.put(hash, hash);
+            }
+            lookups.add(create(hashBytes.clone()));
+        }
+    }
+
+    public Object create(byte[] hashBytes) {
+        return "legacy".equals(representation) ? new LegacyHash(hashBytes) : HashFactory.TRANSACTION.create(hashBytes);
+    }
+
+    public List<byte[]> getBytes() {
+        return bytes;
+    }
+
+    public List<Object> getHashes() {
+        return hashes;
+    }
+
+    public List<Object> getLookups() {
+        return lookups;
+    }
+
+    public Map<Object, Object> getMap() {
+        return map;
+    }
+
+    /**
+     * The previous representation of hashes.
+     */
+    private static class LegacyHash {
+        private byte[] data;
+        private Integer hashCode;
+        private final Object lock = new Object();
+
+        private LegacyHash(byte[] source) {
+            synchronized (lock) {
+                data = new byte[32];
+                System.arraycopy(source, 0, data, 0, data.length);
+                hashCode = Arrays.hashCode(data);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(data, ((LegacyHash) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
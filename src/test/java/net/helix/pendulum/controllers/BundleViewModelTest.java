@@ -2,7 +2,10 @@ package net.helix.pendulum.controllers;
 
 import net.helix.pendulum.conf.MainnetConfig;
 import net.helix.pendulum.crypto.SpongeFactory;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.model.TransactionHash;
+import net.helix.pendulum.model.persistables.Bundle;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.snapshot.impl.SnapshotProviderImpl;
 import net.helix.pendulum.storage.Tangle;
@@ -13,7 +16,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
 
 
 public class BundleViewModelTest {
@@ -79,4 +88,35 @@ public class BundleViewModelTest {
         Assert.assertTrue(result.getHashes().contains(transactionViewModel.getHash()));
     }
 
+    @Test
+    public void loadPageTest() throws Exception {
+        Hash bundleHash = HashFactory.BUNDLE.create(getTransactionHash().bytes());
+        Bundle bundle = new Bundle();
+        for (int i = 0; i < 5; i++) {
+            bundle.set.add(getTransactionHash());
+        }
+        tangle.save(bundle, bundleHash);
+        // the database orders keys by their unsigned bytes
+        List<Hash> sorted = bundle.set.stream()
+                .sorted((a, b) -> new BigInteger(1, a.bytes()).compareTo(new BigInteger(1, b.bytes())))
+                .collect(Collectors.toList());
+
+        List<Hash> firstPage = BundleViewModel.loadPage(tangle, bundleHash, null, 2);
+        List<Hash> secondPage = BundleViewModel.loadPage(tangle, bundleHash, firstPage.get(1), 2);
+        List<Hash> lastPage = BundleViewModel.loadPage(tangle, bundleHash, secondPage.get(1), 2);
+        Assert.assertEquals(sorted.subList(0, 2), firstPage);
+        Assert.assertEquals(sorted.subList(2, 4), secondPage);
+        Assert.assertEquals(sorted.subList(4, 5), lastPage);
+        Assert.assertTrue(BundleViewModel.loadPage(tangle, bundleHash, lastPage.get(0), 2).isEmpty());
+
+        List<Hash> iterated = new ArrayList<>();
+        BundleViewModel.iterate(tangle, bundleHash).forEach(iterated::add);
+        Assert.assertEquals(sorted, iterated);
+        Assert.assertEquals(bundle.set, BundleViewModel.load(tangle, bundleHash).getHashes());
+
+        BundleViewModel.load(tangle, bundleHash).delete(tangle);
+        Assert.assertEquals(0, BundleViewModel.load(tangle, bundleHash).size());
+        Assert.assertFalse(tangle.exists(Bundle.class, bundleHash));
+    }
+
 }
@@ -55,7 +55,7 @@ public class RoundViewModelTest {
         snapshotProvider.shutdown();
         dbFolder.delete();
         logFolder.delete();
-        RoundViewModel.clear();
+        RoundViewModel.clear(tangle);
     }
 
 
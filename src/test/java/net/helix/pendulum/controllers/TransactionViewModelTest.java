@@ -7,6 +7,7 @@ import net.helix.pendulum.model.TransactionHash;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.service.snapshot.impl.SnapshotProviderImpl;
 import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.memory.InMemoryPersistenceProvider;
 import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
 import org.junit.After;
 import org.junit.Assert;
@@ -16,8 +17,12 @@ import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -102,6 +107,59 @@ public class TransactionViewModelTest {
         Assert.assertNotEquals(approvers.size(), 0);
     }
 
+    @Test
+    public void fromHashesTest() throws Exception {
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            byte[] bytes = getTransactionBytes();
+            TransactionViewModel transactionViewModel = new TransactionViewModel(bytes, TransactionHash.calculate(SpongeFactory.Mode.S256, bytes));
+            transactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot());
+            transactionViewModel.setSnapshot(tangle, snapshotProvider.getInitialSnapshot(), i + 1);
+            hashes.add(transactionViewModel.getHash());
+        }
+        Hash missing = getTransactionHash();
+        hashes.add(5, missing);
+
+        List<TransactionViewModel> transactionViewModels = TransactionViewModel.fromHashes(tangle, hashes);
+        Assert.assertEquals(hashes.size(), transactionViewModels.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            TransactionViewModel expected = TransactionViewModel.fromHash(tangle, hashes.get(i));
+            TransactionViewModel actual = transactionViewModels.get(i);
+            Assert.assertEquals(hashes.get(i), actual.getHash());
+            Assert.assertEquals(expected.getType(), actual.getType());
+            Assert.assertArrayEquals(expected.getBytes(), actual.getBytes());
+            Assert.assertEquals("metadata should be loaded", expected.snapshotIndex(), actual.snapshotIndex());
+        }
+        Assert.assertEquals(TransactionViewModel.PREFILLED_SLOT, transactionViewModels.get(5).getType());
+    }
+
+    @Test
+    public void updateStateTest() throws Exception {
+        byte[] bytes = getTransactionBytes();
+        TransactionViewModel transactionViewModel = new TransactionViewModel(bytes, TransactionHash.calculate(SpongeFactory.Mode.S256, bytes));
+        transactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot());
+
+        transactionViewModel.updateSender("sender");
+        transactionViewModel.update(tangle, snapshotProvider.getInitialSnapshot(), "sender");
+        transactionViewModel.setValidity(tangle, snapshotProvider.getInitialSnapshot(), -1);
+        transactionViewModel.setSnapshot(tangle, snapshotProvider.getInitialSnapshot(), 7);
+        transactionViewModel.isMilestone(tangle, snapshotProvider.getInitialSnapshot(), true);
+        transactionViewModel.updateSolid(true);
+        transactionViewModel.update(tangle, snapshotProvider.getInitialSnapshot(), "solid|height");
+
+        TransactionViewModel loaded = TransactionViewModel.fromHash(tangle, transactionViewModel.getHash());
+        Assert.assertEquals("sender", loaded.getSender());
+        Assert.assertEquals(-1, loaded.getValidity());
+        Assert.assertEquals(7, loaded.snapshotIndex());
+        Assert.assertTrue(loaded.isMilestone());
+        Assert.assertTrue(loaded.isSolid());
+
+        loaded = TransactionViewModel.fromHashes(tangle, Collections.singletonList(transactionViewModel.getHash())).get(0);
+        Assert.assertEquals("sender", loaded.getSender());
+        Assert.assertEquals(7, loaded.snapshotIndex());
+        Assert.assertTrue(loaded.isSolid());
+    }
+
     //@Test
     public void fromHash() throws Exception {
         // TODO implementation needed
@@ -403,4 +461,37 @@ public class TransactionViewModelTest {
         Assert.assertEquals(transactionViewModel.getHash(), result.getHash());
     }
 
+    @Test
+    public void arrivedBetweenTest() throws Exception {
+        Tangle indexedTangle = new Tangle(0, true);
+        indexedTangle.addPersistenceProvider(new InMemoryPersistenceProvider(Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY));
+        indexedTangle.init();
+        try {
+            List<Hash> hashes = new ArrayList<>();
+            for (long arrivalTime : new long[]{300, 100, 200, 100}) {
+                TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                        getTransactionHash());
+                transactionViewModel.setArrivalTime(arrivalTime);
+                transactionViewModel.store(indexedTangle, snapshotProvider.getInitialSnapshot());
+                hashes.add(transactionViewModel.getHash());
+            }
+
+            List<Hash> arrived = TransactionViewModel.arrivedBetween(indexedTangle, 100, 300, Integer.MAX_VALUE);
+            Assert.assertEquals(3, arrived.size());
+            Assert.assertEquals(new HashSet<>(Arrays.asList(hashes.get(1), hashes.get(3))),
+                    new HashSet<>(arrived.subList(0, 2)));
+            Assert.assertEquals(hashes.get(2), arrived.get(2));
+            Assert.assertEquals(arrived.subList(0, 2), TransactionViewModel.arrivedBetween(indexedTangle, 0, 1000, 2));
+
+            indexedTangle.deleteBatch(TransactionViewModel.fromHash(indexedTangle, hashes.get(1))
+                    .getDeleteBatch(indexedTangle));
+            Assert.assertEquals("the index entry of a deleted transaction should be removed",
+                    Arrays.asList(hashes.get(3), hashes.get(2)),
+                    TransactionViewModel.arrivedBetween(indexedTangle, 100, 300, Integer.MAX_VALUE));
+        } finally {
+            indexedTangle.shutdown();
+        }
+    }
+
 }
@@ -110,4 +110,57 @@ public class HashTest {
         Assert.assertEquals(hash.compareTo(Hash.NULL_HASH), -Hash.NULL_HASH.compareTo(hash));
     }
 
+    @Test
+    public void bytesRoundTripTest() throws Exception {
+        byte[] bytes = TransactionHash.calculate(SpongeFactory.Mode.S256, getTransactionBytes()).bytes();
+        Hash hash = HashFactory.ADDRESS.create(bytes);
+        Assert.assertArrayEquals(bytes, hash.bytes());
+        Assert.assertEquals(hash, HashFactory.ADDRESS.create(bytes.clone()));
+        Assert.assertEquals(hash.hashCode(), HashFactory.ADDRESS.create(bytes.clone()).hashCode());
+        Assert.assertNotEquals(hash, HashFactory.TRANSACTION.create(bytes));
+
+        // the returned bytes are a copy
+        hash.bytes()[0]++;
+        Assert.assertArrayEquals(bytes, hash.bytes());
+    }
+
+    @Test
+    public void shortSourceTest() throws Exception {
+        byte[] bytes = new byte[Hash.SIZE_IN_BYTES];
+        bytes[0] = 1;
+        bytes[9] = 2;
+        Hash hash = HashFactory.TRANSACTION.create(Arrays.copyOf(bytes, 10), 0, 10);
+        Assert.assertArrayEquals(bytes, hash.bytes());
+        Assert.assertEquals(0, hash.leadingZeros());
+        Assert.assertEquals(Hash.SIZE_IN_BYTES - 10, hash.trailingZeros());
+
+        Hash offsetHash = HashFactory.TRANSACTION.create(bytes, 1, 9);
+        Assert.assertEquals(8, offsetHash.leadingZeros());
+        Assert.assertEquals(Hash.SIZE_IN_BYTES - 9, offsetHash.trailingZeros());
+    }
+
+    @Test
+    public void tagHashTest() throws Exception {
+        byte[] tag = new byte[TransactionViewModel.TAG_SIZE];
+        tag[3] = 7;
+        Hash hash = HashFactory.TAG.create(tag, 0, TransactionViewModel.TAG_SIZE);
+        Assert.assertArrayEquals(tag, hash.bytes());
+        Assert.assertEquals(3, hash.leadingZeros());
+        Assert.assertEquals(TransactionViewModel.TAG_SIZE - 4, hash.trailingZeros());
+        Assert.assertEquals(TransactionViewModel.TAG_SIZE, HashFactory.TAG.create(new byte[TransactionViewModel.TAG_SIZE],
+                0, TransactionViewModel.TAG_SIZE).trailingZeros());
+    }
+
+    @Test
+    public void createIndexTest() throws Exception {
+        byte[] bytes = TransactionHash.calculate(SpongeFactory.Mode.S256, getTransactionBytes()).bytes();
+        Assert.assertEquals(HashFactory.BUNDLE.create(bytes), HashFactory.createIndex(BundleHash.class, bytes));
+        Assert.assertEquals(new IntegerIndex(5), HashFactory.createIndex(IntegerIndex.class,
+                new IntegerIndex(5).bytes()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutableTest() throws Exception {
+        Hash.NULL_HASH.read(new byte[Hash.SIZE_IN_BYTES]);
+    }
 }
@@ -0,0 +1,72 @@
+package net.helix.pendulum.model;
+
+import net.helix.pendulum.controllers.TransactionViewModel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class TransactionViewTest {
+
+    @Test
+    public void heapViewTest() {
+        TransactionViewModel transactionViewModel = newTransactionViewModel();
+        assertView(transactionViewModel, TransactionView.of(transactionViewModel.getBytes()));
+        assertView(transactionViewModel, transactionViewModel.getView());
+    }
+
+    @Test
+    public void directViewAtOffsetTest() {
+        TransactionViewModel first = newTransactionViewModel();
+        TransactionViewModel second = newTransactionViewModel();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(7 + 2 * TransactionViewModel.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(7);
+        buffer.put(first.getBytes());
+        buffer.put(second.getBytes());
+
+        TransactionView view = new TransactionView();
+        assertView(first, view.wrap(buffer, 7));
+        assertView(second, view.wrap(buffer, 7 + TransactionViewModel.SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incompleteTransactionTest() {
+        new TransactionView().wrap(ByteBuffer.allocate(TransactionViewModel.SIZE), 1);
+    }
+
+    private static TransactionViewModel newTransactionViewModel() {
+        TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                getTransactionHash());
+        transactionViewModel.setMetadata();
+        transactionViewModel.setAttachmentData();
+        return transactionViewModel;
+    }
+
+    private static void assertView(TransactionViewModel expected, TransactionView view) {
+        Assert.assertEquals(expected.value(), view.getValue());
+        Assert.assertEquals(expected.getTimestamp(), view.getTimestamp());
+        Assert.assertEquals(expected.getCurrentIndex(), view.getCurrentIndex());
+        Assert.assertEquals(expected.lastIndex(), view.getLastIndex());
+        Assert.assertEquals(expected.getAttachmentTimestamp(), view.getAttachmentTimestamp());
+        Assert.assertEquals(expected.getAttachmentTimestampLowerBound(), view.getAttachmentTimestampLowerBound());
+        Assert.assertEquals(expected.getAttachmentTimestampUpperBound(), view.getAttachmentTimestampUpperBound());
+
+        Assert.assertEquals(expected.getAddressHash(), view.getAddressHash());
+        Assert.assertEquals(expected.getBundleNonceHash(), view.getBundleNonceHash());
+        Assert.assertEquals(expected.getBundleHash(), view.getBundleHash());
+        Assert.assertEquals(expected.getTrunkTransactionHash(), view.getTrunkTransactionHash());
+        Assert.assertEquals(expected.getBranchTransactionHash(), view.getBranchTransactionHash());
+        Assert.assertEquals(expected.getTagValue(), view.getTagValue());
+
+        Assert.assertTrue(view.addressEquals(expected.getAddressHash()));
+        Assert.assertTrue(view.bundleEquals(expected.getBundleHash()));
+        Assert.assertTrue(view.trunkEquals(expected.getTrunkTransactionHash()));
+        Assert.assertTrue(view.branchEquals(expected.getBranchTransactionHash()));
+        Assert.assertFalse(view.trunkEquals(expected.getBranchTransactionHash()));
+        Assert.assertFalse(view.bundleEquals(Hash.NULL_HASH));
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasItem;
 
@@ -38,4 +41,31 @@ public class HashesTest {
         Assert.assertArrayEquals(dataIN, dataOUT);
     }
 
+    @Test
+    public void iterateWithDuplicatesTest() {
+        Hash first = TransactionTestUtils.getTransactionHash();
+        Hash second = TransactionTestUtils.getTransactionHash();
+        byte[] dataIN = ByteBuffer.allocate(3 * Hash.SIZE_IN_BYTES + 2)
+                .put(first.bytes()).put(Hashes.delimiter)
+                .put(second.bytes()).put(Hashes.delimiter)
+                .put(first.bytes())
+                .array();
+
+        List<Hash> iterated = new ArrayList<>();
+        new Hashes().iterator(dataIN).forEachRemaining(iterated::add);
+        Assert.assertEquals(Arrays.asList(first, second, first), iterated);
+        Assert.assertEquals(3, Hashes.size(dataIN, 0));
+
+        Hashes h = new Hashes();
+        h.read(dataIN);
+        Assert.assertEquals(2, h.set.size());
+    }
+
+    @Test
+    public void iterateEmptyTest() {
+        Assert.assertFalse(new Hashes().iterator(new byte[0]).hasNext());
+        Assert.assertFalse(new Round().iterator(ByteBuffer.allocate(Integer.BYTES).putInt(1).array()).hasNext());
+        Assert.assertEquals(0, new Hashes().bytes().length);
+    }
+
 }
@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.util.Iterator;
 
 import static org.hamcrest.Matchers.hasItem;
 
@@ -40,6 +41,12 @@ public class RoundTest {
 
         byte[] dataOUT = round.bytes();
         Assert.assertArrayEquals(dataIN, dataOUT);
+
+        Iterator<Hash> iterator = new Round().iterator(dataIN);
+        for (int i = 0; i < hashCount; i++) {
+            Assert.assertEquals(hashes[i], iterator.next());
+        }
+        Assert.assertFalse(iterator.hasNext());
     }
 
 }
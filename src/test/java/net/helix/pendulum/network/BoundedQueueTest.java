@@ -0,0 +1,153 @@
+package net.helix.pendulum.network;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedQueueTest {
+
+    @Test
+    public void dropNewestTest() {
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 3, BoundedQueue.DropPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i < 3, queue.offer(i));
+        }
+        Assert.assertEquals(3, queue.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(i, (int) queue.poll());
+        }
+        Assert.assertNull(queue.poll());
+
+        Map<String, Long> statistics = queue.getStatistics();
+        Assert.assertEquals(5L, (long) statistics.get("testQueueOffered"));
+        Assert.assertEquals(2L, (long) statistics.get("testQueueDropped"));
+        Assert.assertEquals(3L, (long) statistics.get("testQueuePolled"));
+        Assert.assertEquals(0L, (long) statistics.get("testQueueSize"));
+    }
+
+    @Test
+    public void dropOldestTest() {
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 3, BoundedQueue.DropPolicy.DROP_OLDEST);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        for (int i = 7; i < 10; i++) {
+            Assert.assertEquals(i, (int) queue.poll());
+        }
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(7L, (long) queue.getStatistics().get("testQueueDropped"));
+        Assert.assertEquals(3L, (long) queue.getStatistics().get("testQueuePolled"));
+    }
+
+    @Test
+    public void randomEarlyDropTest() {
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 100, BoundedQueue.DropPolicy.RANDOM_EARLY_DROP);
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue("nothing should be dropped below half of the capacity", queue.offer(i));
+        }
+        while (queue.size() < 90) {
+            queue.offer(0);
+        }
+        Assert.assertTrue("elements should be dropped before the queue is full",
+                queue.getStatistics().get("testQueueDropped") > 0);
+        for (int i = 0; i < 10_000; i++) {
+            queue.offer(i);
+        }
+        Assert.assertTrue(queue.size() <= 100);
+    }
+
+    @Test
+    public void pollWaitsForElementTest() throws Exception {
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 8, BoundedQueue.DropPolicy.DROP_NEWEST);
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Integer> polled = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.poll(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        queue.offer(42);
+        Assert.assertEquals(42, (int) polled.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void wakeUpEndsPollTest() throws Exception {
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 8, BoundedQueue.DropPolicy.DROP_NEWEST);
+        AtomicInteger otherWork = new AtomicInteger();
+
+        CompletableFuture<Integer> polled = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.poll(10, TimeUnit.SECONDS, () -> otherWork.get() > 0);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        // a wake up without work does not end the wait
+        queue.wakeUp();
+        Thread.sleep(50);
+        Assert.assertFalse(polled.isDone());
+
+        otherWork.incrementAndGet();
+        queue.wakeUp();
+        Assert.assertNull(polled.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void concurrentProducersAndConsumersTest() throws Exception {
+        int producers = 4;
+        int elementsPerProducer = 50_000;
+        BoundedQueue<Integer> queue = new BoundedQueue<>("test", 64, BoundedQueue.DropPolicy.DROP_NEWEST);
+        Map<Integer, Boolean> received = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+        try {
+            Future<?>[] futures = new Future<?>[producers + 2];
+            for (int p = 0; p < producers; p++) {
+                int offset = p * elementsPerProducer;
+                futures[p] = executor.submit(() -> {
+                    for (int i = 0; i < elementsPerProducer; i++) {
+                        while (!queue.offer(offset + i)) {
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+            for (int c = producers; c < producers + 2; c++) {
+                futures[c] = executor.submit(() -> {
+                    while (received.size() < producers * elementsPerProducer) {
+                        Integer element = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (element != null && received.put(element, true) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(producers * elementsPerProducer, received.size());
+        Assert.assertEquals(0, duplicates.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDropPolicyTest() {
+        BoundedQueue.DropPolicy.fromName("drop-everything");
+    }
+}
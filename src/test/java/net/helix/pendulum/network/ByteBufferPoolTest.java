@@ -0,0 +1,43 @@
+package net.helix.pendulum.network;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void reuseReleasedBufferTest() {
+        ByteBufferPool pool = new ByteBufferPool(2);
+        ByteBuffer buffer = pool.acquire(100);
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(0, buffer.position());
+        Assert.assertEquals(100, buffer.limit());
+
+        buffer.put(new byte[60]);
+        pool.release(buffer);
+        ByteBuffer reused = pool.acquire(80);
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(80, reused.limit());
+    }
+
+    @Test
+    public void smallBufferIsNotReusedTest() {
+        ByteBufferPool pool = new ByteBufferPool(2);
+        ByteBuffer buffer = pool.acquire(10);
+        pool.release(buffer);
+        Assert.assertNotSame(buffer, pool.acquire(20));
+        Assert.assertEquals("the small buffer should be discarded", 0, pool.size());
+    }
+
+    @Test
+    public void poolIsBoundedTest() {
+        ByteBufferPool pool = new ByteBufferPool(2);
+        for (int i = 0; i < 5; i++) {
+            pool.release(ByteBuffer.allocateDirect(10));
+        }
+        Assert.assertEquals(2, pool.size());
+    }
+}
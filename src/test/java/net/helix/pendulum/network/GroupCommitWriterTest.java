@@ -0,0 +1,99 @@
+package net.helix.pendulum.network;
+
+import net.helix.pendulum.conf.MainnetConfig;
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.crypto.SpongeFactory;
+import net.helix.pendulum.model.TransactionHash;
+import net.helix.pendulum.service.snapshot.SnapshotProvider;
+import net.helix.pendulum.service.snapshot.impl.SnapshotProviderImpl;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+
+public class GroupCommitWriterTest {
+
+    private final TemporaryFolder dbFolder = new TemporaryFolder();
+    private final TemporaryFolder logFolder = new TemporaryFolder();
+    private final Tangle tangle = new Tangle();
+    private SnapshotProvider snapshotProvider;
+    private GroupCommitWriter groupCommitWriter;
+
+    @Before
+    public void setUp() throws Exception {
+        dbFolder.create();
+        logFolder.create();
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(
+                dbFolder.getRoot().getAbsolutePath(), logFolder.getRoot().getAbsolutePath(),
+                1000, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+        snapshotProvider = new SnapshotProviderImpl().init(new MainnetConfig());
+        groupCommitWriter = new GroupCommitWriter(tangle, snapshotProvider, 50, 4);
+        groupCommitWriter.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        groupCommitWriter.shutdown();
+        tangle.shutdown();
+        snapshotProvider.shutdown();
+        dbFolder.delete();
+        logFolder.delete();
+    }
+
+    @Test
+    public void storeInBatchesTest() throws Exception {
+        List<TransactionViewModel> transactionViewModels = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            byte[] bytes = getTransactionBytes();
+            TransactionViewModel transactionViewModel = new TransactionViewModel(bytes,
+                    TransactionHash.calculate(SpongeFactory.Mode.S256, bytes));
+            transactionViewModel.setArrivalTime(i + 1);
+            transactionViewModel.updateSender("sender" + i);
+            transactionViewModels.add(transactionViewModel);
+        }
+        // the same transaction received twice is only stored once
+        transactionViewModels.add(transactionViewModels.get(0));
+
+        CountDownLatch committed = new CountDownLatch(transactionViewModels.size());
+        AtomicInteger stored = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        for (TransactionViewModel transactionViewModel : transactionViewModels) {
+            groupCommitWriter.store(transactionViewModel, (isStored, error) -> {
+                if (error != null) {
+                    failed.incrementAndGet();
+                } else if (isStored) {
+                    stored.incrementAndGet();
+                }
+                committed.countDown();
+            });
+        }
+
+        Assert.assertTrue("all stores should be committed", committed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, failed.get());
+        Assert.assertEquals(6, stored.get());
+        for (int i = 0; i < 6; i++) {
+            TransactionViewModel loaded = TransactionViewModel.fromHash(tangle, transactionViewModels.get(i).getHash());
+            Assert.assertEquals(TransactionViewModel.FILLED_SLOT, loaded.getType());
+            Assert.assertEquals("arrival time should be written in the same batch", i + 1, loaded.getArrivalTime());
+            Assert.assertEquals("sender" + i, loaded.getSender());
+        }
+
+        Map<String, Long> statistics = groupCommitWriter.getStatistics();
+        Assert.assertEquals(7L, (long) statistics.get("groupCommitTransactions"));
+        Assert.assertEquals(6L, (long) statistics.get("groupCommitStoredTransactions"));
+        Assert.assertTrue("batches should not exceed the batch size", statistics.get("groupCommitBatches") >= 2);
+    }
+}
@@ -5,9 +5,11 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import net.helix.pendulum.TransactionValidator;
+import net.helix.pendulum.conf.BasePendulumConfig;
 import net.helix.pendulum.conf.NodeConfig;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.service.snapshot.SnapshotProvider;
 import net.helix.pendulum.storage.Tangle;
 import org.junit.*;
@@ -16,6 +18,10 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
 import static org.mockito.Mockito.*;
 
 
@@ -40,12 +46,15 @@ public class NodeTest {
         logger.addAppender(mockAppender);
 
         // set up class under test
-        nodeConfig = mock(NodeConfig.class);
+        nodeConfig = mockNodeConfig();
         classUnderTest = new Node(null, null, null, null, null, null, nodeConfig);
 
         // verify config calls in Node constructor
         verify(nodeConfig).getRequestHashSize();
         verify(nodeConfig).getTransactionPacketSize();
+        verify(nodeConfig).getqSizeNode();
+        verify(nodeConfig).getQueueDropPolicy();
+        verify(nodeConfig).getReceiveThreads();
     }
 
     @After
@@ -71,7 +80,7 @@ public class NodeTest {
 
     @Test
     public void whenProcessReceivedDataSetArrivalTimeToCurrentMillis() throws Exception {
-        Node node = new Node(mock(Tangle.class), mock(SnapshotProvider.class), mock(TransactionValidator.class), null, null, null, mock(NodeConfig.class));
+        Node node = new Node(mock(Tangle.class), mock(SnapshotProvider.class), mock(TransactionValidator.class), null, null, null, mockNodeConfig());
         TransactionViewModel transaction = mock(TransactionViewModel.class);
         // It is important to stub the getHash method here because processReceivedData will broadcast the transaction.
         // This might sometimes (concurrency issue) lead to a NPE in the process receiver thread.
@@ -91,4 +100,31 @@ public class NodeTest {
         ));
     }
 
+    @Test
+    public void receivePartitionDependsOnHashOnlyTest() {
+        Set<Integer> partitions = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Hash hash = getTransactionHash();
+            TransactionViewModel transaction = mock(TransactionViewModel.class);
+            when(transaction.getHash()).thenReturn(hash);
+            TransactionViewModel copy = mock(TransactionViewModel.class);
+            when(copy.getHash()).thenReturn(HashFactory.TRANSACTION.create(hash.bytes()));
+
+            int partition = classUnderTest.receivePartition(transaction);
+            Assert.assertEquals("copies of a transaction should be processed by the same thread", partition,
+                    classUnderTest.receivePartition(copy));
+            partitions.add(partition);
+        }
+        Assert.assertEquals("transactions should be spread over all partitions",
+                BasePendulumConfig.Defaults.RECEIVE_THREADS, partitions.size());
+        Assert.assertTrue(partitions.stream().allMatch(p -> p >= 0 && p < BasePendulumConfig.Defaults.RECEIVE_THREADS));
+    }
+
+    private static NodeConfig mockNodeConfig() {
+        NodeConfig config = mock(NodeConfig.class);
+        when(config.getqSizeNode()).thenReturn(BasePendulumConfig.Defaults.QUEUE_SIZE);
+        when(config.getQueueDropPolicy()).thenReturn(BasePendulumConfig.Defaults.QUEUE_DROP_POLICY);
+        when(config.getReceiveThreads()).thenReturn(BasePendulumConfig.Defaults.RECEIVE_THREADS);
+        return config;
+    }
 }
@@ -1,8 +1,17 @@
 package net.helix.pendulum.network;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.net.DatagramPacket;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -10,6 +19,22 @@ import static org.junit.Assert.assertTrue;
 public class UDPNeighborTest {
     private final UDPNeighbor neighbor = new UDPNeighbor(address("localhost", 42), null, false);
 
+    private DatagramChannel receiver;
+    private DatagramChannel sender;
+
+    @Before
+    public void setUp() throws Exception {
+        receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        sender = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        sender.configureBlocking(false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        receiver.close();
+        sender.close();
+    }
+
     @Test
     public void sameIpWhenMatchesThenTrue() {
         assertTrue("expected match", neighbor.matches(address("localhost", 42)));
@@ -26,6 +51,67 @@ public class UDPNeighborTest {
         assertFalse("expected no match", neighbor.matches(new SocketAddress() {}));
     }
 
+    @Test
+    public void sendTest() throws Exception {
+        UDPNeighbor neighbor = new UDPNeighbor((InetSocketAddress) receiver.getLocalAddress(), sender, false);
+        byte[] payload = new byte[100];
+        Arrays.fill(payload, (byte) 7);
+        DatagramPacket packet = new DatagramPacket(payload, payload.length);
+
+        neighbor.send(packet);
+        // the packet is copied, so changing it should not change the sent data
+        Arrays.fill(payload, (byte) 0);
+
+        ByteBuffer received = ByteBuffer.allocate(200);
+        Assert.assertEquals(sender.getLocalAddress(), receiver.receive(received));
+        received.flip();
+        Assert.assertEquals(100, received.remaining());
+        while (received.hasRemaining()) {
+            Assert.assertEquals(7, received.get());
+        }
+        Assert.assertEquals(1, neighbor.getNumberOfSentTransactions());
+        Assert.assertEquals(0, neighbor.getNumberOfDroppedPackets());
+        Assert.assertEquals(0, neighbor.getSendQueueSize());
+    }
+
+    @Test
+    public void sendFromSeveralThreadsTest() throws Exception {
+        UDPNeighbor neighbor = new UDPNeighbor((InetSocketAddress) receiver.getLocalAddress(), sender, false);
+        int threads = 4;
+        int packetsPerThread = 20;
+        Thread[] senders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            byte value = (byte) t;
+            senders[t] = new Thread(() -> {
+                DatagramPacket packet = new DatagramPacket(new byte[10], 10);
+                for (int i = 0; i < packetsPerThread; i++) {
+                    Arrays.fill(packet.getData(), value);
+                    neighbor.send(packet);
+                }
+            });
+            senders[t].start();
+        }
+        for (Thread thread : senders) {
+            thread.join();
+        }
+        neighbor.flush();
+
+        Assert.assertEquals(threads * packetsPerThread,
+                neighbor.getNumberOfSentTransactions() + neighbor.getNumberOfDroppedPackets()
+                        + neighbor.getSendQueueSize());
+        ByteBuffer received = ByteBuffer.allocate(20);
+        for (long i = 0; i < neighbor.getNumberOfSentTransactions(); i++) {
+            received.clear();
+            receiver.receive(received);
+            received.flip();
+            Assert.assertEquals("packets should not be mixed up", 10, received.remaining());
+            byte value = received.get(0);
+            while (received.hasRemaining()) {
+                Assert.assertEquals(value, received.get());
+            }
+        }
+    }
+
     private InetSocketAddress address(String hostOrIp, int port) {
         return new InetSocketAddress(hostOrIp, port);
     }
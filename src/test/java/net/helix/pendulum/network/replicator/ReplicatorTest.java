@@ -0,0 +1,210 @@
+package net.helix.pendulum.network.replicator;
+
+import net.helix.pendulum.conf.BasePendulumConfig;
+import net.helix.pendulum.network.Neighbor;
+import net.helix.pendulum.network.Node;
+import net.helix.pendulum.network.TCPNeighbor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicatorTest {
+
+    private static final int PACKET_SIZE = BasePendulumConfig.Defaults.PACKET_SIZE;
+
+    private final BlockingQueue<byte[]> receivedPackets = new LinkedBlockingQueue<>();
+    private ReplicatorEventLoopGroup eventLoops;
+    private ReplicatorSinkPool sinkPool;
+    private ReplicatorSourcePool sourcePool;
+    private TCPNeighbor neighbor;
+
+    @Before
+    public void setUp() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // the node talks to itself: its sink connects to its own source pool
+        neighbor = new TCPNeighbor(new InetSocketAddress("127.0.0.1", port), true);
+        List<Neighbor> neighbors = new CopyOnWriteArrayList<>();
+        neighbors.add(neighbor);
+        Node node = mock(Node.class);
+        when(node.getNeighbors()).thenReturn(neighbors);
+        doAnswer(invocation -> receivedPackets.add(invocation.getArgument(0)))
+                .when(node).preProcessReceivedData(any(byte[].class), any(), eq("tcp"));
+
+        eventLoops = new ReplicatorEventLoopGroup(2);
+        eventLoops.start();
+        sinkPool = new ReplicatorSinkPool(node, port, PACKET_SIZE).init(eventLoops);
+        sourcePool = new ReplicatorSourcePool(sinkPool, node, 0, false).init(port, eventLoops);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sourcePool.shutdown();
+        sinkPool.shutdown();
+        neighbor.clear();
+        eventLoops.shutdown();
+    }
+
+    @Test
+    public void sendAndReceiveTest() throws Exception {
+        sinkPool.createSink(neighbor);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (neighbor.getSource() == null || !neighbor.getSink().isConnected()) {
+            Assert.assertTrue("the connections should be established", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        DatagramPacket packet = new DatagramPacket(new byte[PACKET_SIZE], PACKET_SIZE);
+        for (int i = 0; i < 50; i++) {
+            Arrays.fill(packet.getData(), (byte) i);
+            neighbor.send(packet);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            byte[] received = receivedPackets.poll(10, TimeUnit.SECONDS);
+            Assert.assertNotNull("every sent packet should be received", received);
+            Assert.assertEquals(PACKET_SIZE, received.length);
+            byte value = received[0];
+            for (byte b : received) {
+                Assert.assertEquals("packets should not be mixed up", value, b);
+            }
+        }
+        Assert.assertEquals(0, neighbor.getNumberOfDroppedPackets());
+        Assert.assertEquals("the neighbor should announce the latest framing", ReplicatorFraming.LATEST_VERSION,
+                neighbor.getFramingVersion());
+    }
+
+    @Test
+    public void legacyNeighborKeepsVersion1Test() throws Exception {
+        // the handshakes change the port of the neighbor to the listener of the connecting node
+        int sourcePort = neighbor.getPort();
+        try (ServerSocket listener = new ServerSocket(0)) {
+            listener.setSoTimeout(10_000);
+
+            // a newer node connects first and announces version 2
+            try (Socket source = new Socket("127.0.0.1", sourcePort);
+                 Socket sink = connect(source, ReplicatorFraming.handshake(listener.getLocalPort()), listener)) {
+                Assert.assertEquals(ReplicatorFraming.VERSION_2, neighbor.getFramingVersion());
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (neighbor.getSource() != null) {
+                Assert.assertTrue("the closed source should be noticed", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+            Assert.assertEquals("the framing should be reset with the source", ReplicatorFraming.VERSION_1,
+                    neighbor.getFramingVersion());
+
+            // the neighbor comes back as an older node
+            byte[] legacyHandshake = String.format("%010d", listener.getLocalPort()).getBytes();
+            try (Socket source = new Socket("127.0.0.1", sourcePort);
+                 Socket sink = connect(source, legacyHandshake, listener)) {
+                DatagramPacket packet = new DatagramPacket(new byte[PACKET_SIZE], PACKET_SIZE);
+                Arrays.fill(packet.getData(), (byte) 5);
+                for (int i = 0; i < 3; i++) {
+                    neighbor.send(packet);
+                }
+
+                DataInputStream in = new DataInputStream(sink.getInputStream());
+                byte[] checksum = ReplicatorFraming.hexChecksum(new CRC32(), packet.getData(), 0, PACKET_SIZE);
+                for (int i = 0; i < 3; i++) {
+                    byte[] frame = new byte[PACKET_SIZE + ReplicatorSinkProcessor.CRC32_BYTES];
+                    in.readFully(frame);
+                    Assert.assertArrayEquals("an older node should only receive version 1 frames", packet.getData(),
+                            Arrays.copyOf(frame, PACKET_SIZE));
+                    Assert.assertArrayEquals(checksum, Arrays.copyOfRange(frame, PACKET_SIZE, frame.length));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the handshake of a neighbor to the source pool and accepts the sink the node opens in return.
+     *
+     * @return the accepted sink, after the handshake of the node was read
+     */
+    private Socket connect(Socket source, byte[] handshake, ServerSocket listener) throws Exception {
+        OutputStream out = source.getOutputStream();
+        out.write(handshake);
+        out.flush();
+        Socket sink = listener.accept();
+        sink.setSoTimeout(10_000);
+        new DataInputStream(sink.getInputStream()).readFully(new byte[ReplicatorSinkPool.PORT_BYTES]);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (neighbor.getSource() == null) {
+            Assert.assertTrue("the source should be connected", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        return sink;
+    }
+
+    @Test
+    public void crc32MatchesLegacyFormatTest() {
+        byte[] data = new byte[PACKET_SIZE];
+        Arrays.fill(data, (byte) 3);
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        String crc32String = Long.toHexString(crc32.getValue());
+        while (crc32String.length() < ReplicatorSinkProcessor.CRC32_BYTES) {
+            crc32String = "0" + crc32String;
+        }
+        Assert.assertArrayEquals(crc32String.getBytes(),
+                ReplicatorFraming.hexChecksum(new CRC32(), data, 0, data.length));
+
+        byte[] frame = Arrays.copyOf(data, PACKET_SIZE + ReplicatorSinkProcessor.CRC32_BYTES);
+        System.arraycopy(crc32String.getBytes(), 0, frame, PACKET_SIZE, ReplicatorSinkProcessor.CRC32_BYTES);
+        Assert.assertTrue(ReplicatorFraming.hasValidHexChecksum(new CRC32(), frame, 0, PACKET_SIZE));
+        frame[0]++;
+        Assert.assertFalse(ReplicatorFraming.hasValidHexChecksum(new CRC32(), frame, 0, PACKET_SIZE));
+    }
+
+    @Test
+    public void handshakeIsReadByOldAndNewNodesTest() {
+        byte[] legacy = String.format("%010d", 14700).getBytes();
+        Assert.assertEquals(14700, ReplicatorFraming.port(legacy));
+        Assert.assertEquals(ReplicatorFraming.VERSION_1, ReplicatorFraming.version(legacy));
+
+        byte[] handshake = ReplicatorFraming.handshake(14700);
+        Assert.assertEquals(ReplicatorSinkPool.PORT_BYTES, handshake.length);
+        // older nodes parse the port the same way
+        Assert.assertEquals(14700, (int) Long.parseLong(new String(handshake)));
+        Assert.assertEquals(14700, ReplicatorFraming.port(handshake));
+        Assert.assertEquals(ReplicatorFraming.VERSION_2, ReplicatorFraming.version(handshake));
+    }
+
+    @Test
+    public void markerFrameIsNoPacketTest() {
+        byte[] marker = ReplicatorFraming.markerFrame(PACKET_SIZE, ReplicatorFraming.VERSION_2);
+        Assert.assertEquals(PACKET_SIZE + ReplicatorSinkProcessor.CRC32_BYTES, marker.length);
+        Assert.assertEquals(ReplicatorFraming.VERSION_2, ReplicatorFraming.markedVersion(marker, 0, PACKET_SIZE));
+        Assert.assertFalse("older nodes should drop the marker",
+                ReplicatorFraming.hasValidHexChecksum(new CRC32(), marker, 0, PACKET_SIZE));
+
+        byte[] frame = new byte[PACKET_SIZE + ReplicatorSinkProcessor.CRC32_BYTES];
+        System.arraycopy(ReplicatorFraming.hexChecksum(new CRC32(), frame, 0, PACKET_SIZE), 0, frame, PACKET_SIZE,
+                ReplicatorSinkProcessor.CRC32_BYTES);
+        Assert.assertEquals(0, ReplicatorFraming.markedVersion(frame, 0, PACKET_SIZE));
+    }
+}
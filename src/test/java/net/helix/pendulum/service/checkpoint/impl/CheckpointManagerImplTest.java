@@ -0,0 +1,115 @@
+package net.helix.pendulum.service.checkpoint.impl;
+
+import net.helix.pendulum.conf.PendulumConfig;
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.persistables.Transaction;
+import net.helix.pendulum.service.checkpoint.CheckpointException;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+import static org.mockito.Mockito.*;
+
+public class CheckpointManagerImplTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private PendulumConfig config;
+
+    private Tangle tangle;
+    private CheckpointManagerImpl checkpointManager;
+
+    @Before
+    public void setUp() throws Exception {
+        File snapshotPath = folder.newFolder("snapshot");
+        Files.write(new File(snapshotPath, "snapshot.meta").toPath(), "meta".getBytes());
+        Files.write(new File(snapshotPath, "snapshot.state").toPath(), "state".getBytes());
+
+        when(config.getDbPath()).thenReturn(new File(folder.getRoot(), "restored").getPath());
+        when(config.getLocalSnapshotsBasePath()).thenReturn(snapshotPath.getPath());
+        when(config.getDbCheckpointPath()).thenReturn(new File(folder.getRoot(), "checkpoints").getPath());
+        when(config.getDbCheckpointRetention()).thenReturn(2);
+
+        tangle = newTangle(folder.newFolder("db").getPath());
+        checkpointManager = new CheckpointManagerImpl().init(tangle, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        checkpointManager.shutdown();
+        tangle.shutdown();
+    }
+
+    @Test
+    public void retentionTest() throws Exception {
+        File first = checkpointManager.createCheckpoint();
+        File second = checkpointManager.createCheckpoint();
+        File third = checkpointManager.createCheckpoint();
+
+        List<File> checkpoints = checkpointManager.getCheckpoints();
+        Assert.assertEquals(2, checkpoints.size());
+        Assert.assertFalse("the oldest checkpoint should be deleted", first.exists());
+        Assert.assertEquals(second, checkpoints.get(0));
+        Assert.assertEquals(third, checkpoints.get(1));
+        Assert.assertTrue(new File(third, CheckpointManagerImpl.SNAPSHOT_FOLDER + "/snapshot.meta").isFile());
+    }
+
+    @Test
+    public void restoreLatestCheckpointTest() throws Exception {
+        TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                getTransactionHash());
+        tangle.saveBatch(transactionViewModel.getSaveBatch());
+        checkpointManager.createCheckpoint();
+
+        // written after the checkpoint, so it must not be restored
+        TransactionViewModel laterTransactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                getTransactionHash());
+        tangle.saveBatch(laterTransactionViewModel.getSaveBatch());
+
+        File snapshotPath = new File(config.getLocalSnapshotsBasePath());
+        Files.delete(new File(snapshotPath, "snapshot.meta").toPath());
+        CheckpointManagerImpl.restoreCheckpoint(new File(config.getDbCheckpointPath()), config);
+        Assert.assertArrayEquals("meta".getBytes(), Files.readAllBytes(new File(snapshotPath, "snapshot.meta").toPath()));
+
+        Tangle restoredTangle = newTangle(config.getDbPath());
+        try {
+            Assert.assertTrue(restoredTangle.exists(Transaction.class, transactionViewModel.getHash()));
+            Assert.assertFalse(restoredTangle.exists(Transaction.class, laterTransactionViewModel.getHash()));
+        } finally {
+            restoredTangle.shutdown();
+        }
+    }
+
+    @Test(expected = CheckpointException.class)
+    public void restoreWithoutCheckpointTest() throws Exception {
+        CheckpointManagerImpl.restoreCheckpoint(folder.newFolder("empty"), config);
+    }
+
+    private Tangle newTangle(String dbPath) throws Exception {
+        Tangle tangle = new Tangle();
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(dbPath,
+                dbPath + ".log", 1000, Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+        return tangle;
+    }
+}
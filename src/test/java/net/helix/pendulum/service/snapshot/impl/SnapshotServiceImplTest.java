@@ -86,7 +86,7 @@ public class SnapshotServiceImplTest {
     public void setUp() {
         SnapshotMockUtils.mockSnapshotProvider(snapshotProvider);
 
-        RoundViewModel.clear();
+        RoundViewModel.clear(tangle);
     }
 
     //endregion ////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -3,6 +3,7 @@ package net.helix.pendulum.service.snapshot.impl;
 import net.helix.pendulum.TransactionTestUtils;
 import net.helix.pendulum.controllers.TransactionViewModel;
 import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.service.snapshot.SnapshotException;
 import net.helix.pendulum.service.snapshot.SnapshotState;
 import net.helix.pendulum.service.snapshot.SnapshotStateDiff;
@@ -54,7 +55,24 @@ public class SnapshotStateImplTest {
     @Test
     public void getBalancesTest() {
         assertEquals("State should not have balances", new HashMap<>(), state.getBalances());
-        assertEquals("State should have the balances it was created with", map, balanceState.getBalances());
+        assertEquals("State should have the balances it was created with", toAddresses(map),
+                balanceState.getBalances());
+    }
+
+    @Test
+    public void cloneTest() throws SnapshotException {
+        SnapshotStateImpl clone = new SnapshotStateImpl(balanceState);
+        assertEquals("A clone should equal the original state", balanceState, clone);
+
+        Map<Hash, Long> changes = new HashMap<>();
+        changes.put(Hash.NULL_HASH, -10L);
+        changes.put(B, 10L);
+        clone.applyStateDiff(new SnapshotStateDiffImpl(changes));
+
+        assertEquals("Changing a clone should not change the original state", toAddresses(map),
+                balanceState.getBalances());
+        assertEquals(20L, (long) clone.getBalance(A) + clone.getBalance(B));
+        assertNull("The original state should not see addresses added to the clone", balanceState.getBalance(B));
     }
 
     @Test
@@ -134,4 +152,13 @@ public class SnapshotStateImplTest {
         assertEquals("5 should have been removed from A", 5, balance);
     }
 
+    /**
+     * The states store their balances by address, so they return address hashes for the hashes of any type.
+     */
+    private static Map<Hash, Long> toAddresses(Map<Hash, Long> balances) {
+        Map<Hash, Long> addresses = new HashMap<>();
+        balances.forEach((hash, balance) -> addresses.put(HashFactory.ADDRESS.create(hash.bytes()), balance));
+        return addresses;
+    }
+
 }
@@ -2,7 +2,6 @@ package net.helix.pendulum.service.tipselection.impl;
 
 import net.helix.pendulum.TransactionTestUtils;
 import net.helix.pendulum.conf.MainnetConfig;
-import net.helix.pendulum.controllers.RoundViewModel;
 import net.helix.pendulum.model.Hash;
 import net.helix.pendulum.model.IntegerIndex;
 import net.helix.pendulum.model.persistables.Round;
@@ -36,7 +35,6 @@ public class EntryPointSelectorImplTest {
     @BeforeClass
     public static void setUp() throws Exception {
         snapshotProvider = new SnapshotProviderImpl().init(new MainnetConfig());
-        RoundViewModel.clear();
     }
 
     @Test
@@ -0,0 +1,81 @@
+package net.helix.pendulum.service.transactionpruning.jobs;
+
+import net.helix.pendulum.model.IntegerIndex;
+import net.helix.pendulum.model.StateDiff;
+import net.helix.pendulum.model.persistables.Round;
+import net.helix.pendulum.service.snapshot.Snapshot;
+import net.helix.pendulum.service.transactionpruning.TransactionPrunerJobStatus;
+import net.helix.pendulum.service.transactionpruning.TransactionPruner;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.storage.rocksdb.RocksDBPersistenceProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.util.Collections;
+
+public class MilestonePrunerJobTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder dbFolder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder logFolder = new TemporaryFolder();
+
+    @Mock
+    private TransactionPruner transactionPruner;
+
+    @Mock
+    private Snapshot snapshot;
+
+    private Tangle tangle;
+
+    @Before
+    public void setUp() throws Exception {
+        tangle = new Tangle();
+        tangle.addPersistenceProvider(new RocksDBPersistenceProvider(dbFolder.getRoot().getAbsolutePath(),
+                logFolder.getRoot().getAbsolutePath(), 1000, Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tangle.shutdown();
+    }
+
+    @Test
+    public void roundRangeIsDeletedTest() throws Exception {
+        for (int index = 1; index <= 6; index++) {
+            Round round = new Round();
+            round.index = new IntegerIndex(index);
+            tangle.save(round, round.index);
+            StateDiff stateDiff = new StateDiff();
+            stateDiff.state = Collections.emptyMap();
+            tangle.save(stateDiff, round.index);
+        }
+
+        MilestonePrunerJob job = new MilestonePrunerJob(1, 5);
+        job.setTangle(tangle);
+        job.setTransactionPruner(transactionPruner);
+        job.setSnapshot(snapshot);
+        job.process();
+
+        Assert.assertEquals(TransactionPrunerJobStatus.DONE, job.getStatus());
+        for (int index = 1; index <= 6; index++) {
+            Assert.assertEquals("unexpected round #" + index, index == 6,
+                    tangle.exists(Round.class, new IntegerIndex(index)));
+            Assert.assertEquals("unexpected state diff #" + index, index == 6,
+                    tangle.exists(StateDiff.class, new IntegerIndex(index)));
+        }
+    }
+}
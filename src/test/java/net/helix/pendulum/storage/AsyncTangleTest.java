@@ -0,0 +1,122 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.persistables.Transaction;
+import net.helix.pendulum.storage.memory.InMemoryPersistenceProvider;
+import net.helix.pendulum.utils.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class AsyncTangleTest {
+
+    private Tangle tangle;
+    private AsyncTangle asyncTangle;
+
+    @Before
+    public void setUp() throws Exception {
+        tangle = new Tangle();
+        tangle.addPersistenceProvider(new InMemoryPersistenceProvider(Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY));
+        tangle.init();
+        asyncTangle = new AsyncTangle(tangle, 2, 1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        asyncTangle.shutdown();
+        tangle.shutdown();
+    }
+
+    @Test
+    public void saveAndLoadTest() throws Exception {
+        TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                getTransactionHash());
+        Assert.assertTrue(asyncTangle.saveBatchAsync(transactionViewModel.getSaveBatch()).get());
+
+        Assert.assertTrue(asyncTangle.existsAsync(Transaction.class, transactionViewModel.getHash()).get());
+        Transaction transaction = (Transaction) asyncTangle.loadAsync(Transaction.class,
+                transactionViewModel.getHash()).get();
+        Assert.assertArrayEquals(transactionViewModel.getBytes(),
+                new TransactionViewModel(transaction, transactionViewModel.getHash()).getBytes());
+        Assert.assertFalse(asyncTangle.existsAsync(Transaction.class, getTransactionHash()).get());
+    }
+
+    @Test
+    public void multiGetKeepsOrderTest() throws Exception {
+        List<Hash> hashes = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        List<Pair<Indexable, Persistable>> batch = new ArrayList<>();
+        for (int i = 0; i < AsyncTangle.MULTI_GET_CHUNK_SIZE * 3 + 7; i++) {
+            TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                    getTransactionHash());
+            hashes.add(transactionViewModel.getHash());
+            // leave some gaps, which have to be loaded as empty transactions
+            if (i % 10 != 0) {
+                batch.addAll(transactionViewModel.getSaveBatch());
+                bytes.add(transactionViewModel.getBytes());
+            } else {
+                bytes.add(null);
+            }
+        }
+        tangle.saveBatch(batch);
+
+        List<Persistable> transactions = asyncTangle.multiGetAsync(Transaction.class, hashes).get();
+        Assert.assertEquals(hashes.size(), transactions.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            Assert.assertArrayEquals(bytes.get(i), ((Transaction) transactions.get(i)).bytes);
+        }
+    }
+
+    @Test
+    public void multiGetWithoutProviderTest() throws Exception {
+        AsyncTangle withoutProvider = new AsyncTangle(new Tangle(), 2, 1);
+        try {
+            List<Hash> hashes = new ArrayList<>();
+            for (int i = 0; i < AsyncTangle.MULTI_GET_CHUNK_SIZE + 1; i++) {
+                hashes.add(getTransactionHash());
+            }
+            List<Persistable> transactions = withoutProvider.multiGetAsync(Transaction.class, hashes).get();
+            Assert.assertEquals(hashes.size(), transactions.size());
+            Assert.assertNull(transactions.get(0));
+        } finally {
+            withoutProvider.shutdown();
+        }
+    }
+
+    @Test
+    public void failedOperationTest() throws Exception {
+        CompletableFuture<Object> future = asyncTangle.callAsync(() -> {
+            throw new IllegalStateException("failed");
+        });
+        try {
+            future.get();
+            Assert.fail("the operation should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(1L, (long) asyncTangle.getStatistics().get("failed"));
+    }
+
+    @Test
+    public void rejectedAfterShutdownTest() throws Exception {
+        asyncTangle.shutdown();
+        try {
+            asyncTangle.existsAsync(Transaction.class, getTransactionHash()).get();
+            Assert.fail("the operation should be rejected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.model.IntegerIndex;
+import net.helix.pendulum.model.persistables.Round;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class RoundCacheTest {
+
+    @Test
+    public void putIfAbsentSharesRoundTest() {
+        RoundCache cache = new RoundCache(100);
+        Round round = newRound(7);
+        Assert.assertSame(round, cache.putIfAbsent(round));
+        Assert.assertSame("concurrent loads should share the first cached round", round,
+                cache.putIfAbsent(newRound(7)));
+        Assert.assertSame(round, cache.get(7));
+        Assert.assertNull(cache.get(8));
+
+        Map<String, Long> statistics = cache.getStatistics();
+        Assert.assertEquals(1L, (long) statistics.get("roundCacheHits"));
+        Assert.assertEquals(1L, (long) statistics.get("roundCacheMisses"));
+        Assert.assertEquals(50L, (long) statistics.get("roundCacheHitRatio"));
+    }
+
+    @Test
+    public void evictionTest() {
+        RoundCache cache = new RoundCache(20);
+        for (int index = 0; index < 100; index++) {
+            cache.putIfAbsent(newRound(index));
+        }
+        Assert.assertEquals("cache should be bounded", 20, cache.size());
+        Assert.assertEquals(80L, (long) cache.getStatistics().get("roundCacheEvictions"));
+        for (int index = 80; index < 100; index++) {
+            Assert.assertNotNull("the latest rounds should be cached", cache.get(index));
+        }
+        Assert.assertNull(cache.get(79));
+    }
+
+    @Test
+    public void historicalLookupTest() {
+        RoundCache cache = new RoundCache(20);
+        for (int index = 0; index < 100; index++) {
+            cache.putIfAbsent(newRound(index));
+        }
+        Round historical = newRound(5);
+        cache.putIfAbsent(historical);
+        Assert.assertSame(historical, cache.get(5));
+        for (int index = 90; index < 100; index++) {
+            Assert.assertNotNull("historical lookups should not evict the latest rounds", cache.get(index));
+        }
+        Assert.assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void invalidateTest() {
+        RoundCache cache = new RoundCache(20);
+        for (int index = 0; index < 20; index++) {
+            cache.putIfAbsent(newRound(index));
+        }
+        cache.invalidate(19);
+        Assert.assertNull(cache.get(19));
+
+        cache.invalidateRange(0, 15);
+        for (int index = 0; index < 15; index++) {
+            Assert.assertNull(cache.get(index));
+        }
+        Assert.assertNotNull(cache.get(15));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private static Round newRound(int index) {
+        Round round = new Round();
+        round.index = new IntegerIndex(index);
+        return round;
+    }
+}
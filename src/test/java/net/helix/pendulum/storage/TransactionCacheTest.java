@@ -0,0 +1,74 @@
+package net.helix.pendulum.storage;
+
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.persistables.Transaction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class TransactionCacheTest {
+
+    @Test
+    public void getReturnsCopyTest() {
+        TransactionCache cache = new TransactionCache(100);
+        Hash hash = getTransactionHash();
+        cache.put(hash, newTransaction());
+
+        Transaction cached = cache.get(hash);
+        Assert.assertNotNull(cached);
+        cached.solid = true;
+        Assert.assertFalse("modifying a returned transaction should not change the cache", cache.get(hash).solid);
+        Assert.assertNull(cache.get(getTransactionHash()));
+
+        Map<String, Long> statistics = cache.getStatistics();
+        Assert.assertEquals(2L, (long) statistics.get("transactionCacheHits"));
+        Assert.assertEquals(1L, (long) statistics.get("transactionCacheMisses"));
+        Assert.assertEquals(66L, (long) statistics.get("transactionCacheHitRatio"));
+    }
+
+    @Test
+    public void evictionTest() {
+        TransactionCache cache = new TransactionCache(16);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(getTransactionHash(), newTransaction());
+        }
+        Assert.assertTrue("cache should be bounded", cache.size() <= 16);
+        Assert.assertEquals(1000 - cache.size(), (long) cache.getStatistics().get("transactionCacheEvictions"));
+    }
+
+    @Test
+    public void invalidateTest() {
+        TransactionCache cache = new TransactionCache(100);
+        Hash hash = getTransactionHash();
+        long version = cache.version(hash);
+        cache.put(hash, newTransaction());
+        cache.invalidate(hash);
+        Assert.assertNull(cache.get(hash));
+
+        cache.putIfUnchanged(hash, newTransaction(), version);
+        Assert.assertNull("outdated loads should not be cached", cache.get(hash));
+
+        cache.putIfUnchanged(hash, newTransaction(), cache.version(hash));
+        Assert.assertNotNull(cache.get(hash));
+    }
+
+    @Test
+    public void missingTransactionsAreNotCachedTest() {
+        TransactionCache cache = new TransactionCache(100);
+        Hash hash = getTransactionHash();
+        cache.put(hash, new Transaction());
+        Assert.assertNull(cache.get(hash));
+    }
+
+    private static Transaction newTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.read(getTransactionBytes());
+        Assert.assertEquals(TransactionViewModel.FILLED_SLOT, transaction.type);
+        return transaction;
+    }
+}
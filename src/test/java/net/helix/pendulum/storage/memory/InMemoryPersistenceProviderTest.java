@@ -0,0 +1,146 @@
+package net.helix.pendulum.storage.memory;
+
+import net.helix.pendulum.conf.MainnetConfig;
+import net.helix.pendulum.controllers.AddressViewModel;
+import net.helix.pendulum.controllers.TransactionViewModel;
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.IntegerIndex;
+import net.helix.pendulum.model.persistables.Address;
+import net.helix.pendulum.model.persistables.Round;
+import net.helix.pendulum.model.persistables.Tag;
+import net.helix.pendulum.model.persistables.Transaction;
+import net.helix.pendulum.service.snapshot.SnapshotProvider;
+import net.helix.pendulum.service.snapshot.impl.SnapshotProviderImpl;
+import net.helix.pendulum.storage.Indexable;
+import net.helix.pendulum.storage.Persistable;
+import net.helix.pendulum.storage.Tangle;
+import net.helix.pendulum.utils.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionBytes;
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class InMemoryPersistenceProviderTest {
+
+    private InMemoryPersistenceProvider provider;
+    private SnapshotProvider snapshotProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        provider = new InMemoryPersistenceProvider(Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
+        provider.init();
+        snapshotProvider = new SnapshotProviderImpl().init(new MainnetConfig());
+    }
+
+    @After
+    public void tearDown() {
+        provider.shutdown();
+        snapshotProvider.shutdown();
+    }
+
+    @Test
+    public void saveAndGetTransactionTest() throws Exception {
+        Tangle tangle = new Tangle();
+        tangle.addPersistenceProvider(provider);
+        byte[] bytes = getTransactionBytes();
+        TransactionViewModel transactionViewModel = new TransactionViewModel(bytes, getTransactionHash());
+        Assert.assertTrue(transactionViewModel.store(tangle, snapshotProvider.getInitialSnapshot()));
+
+        TransactionViewModel loaded = TransactionViewModel.fromHash(tangle, transactionViewModel.getHash());
+        Assert.assertArrayEquals(bytes, loaded.getBytes());
+        Assert.assertEquals(TransactionViewModel.FILLED_SLOT, loaded.getType());
+        Assert.assertTrue(provider.exists(Transaction.class, transactionViewModel.getHash()));
+
+        Hash address = transactionViewModel.getAddressHash();
+        Assert.assertTrue(AddressViewModel.load(tangle, address).getHashes().contains(transactionViewModel.getHash()));
+    }
+
+    @Test
+    public void mergeAppendsHashesTest() throws Exception {
+        Hash tagHash = getTransactionHash();
+        Hash first = getTransactionHash();
+        Hash second = getTransactionHash();
+        provider.saveBatch(Collections.singletonList(new Pair<>(tagHash, new Tag(first))));
+        provider.saveBatch(Collections.singletonList(new Pair<>(tagHash, new Tag(second))));
+
+        Tag tag = (Tag) provider.get(Tag.class, tagHash);
+        Assert.assertEquals(2, tag.set.size());
+        Assert.assertTrue(tag.set.contains(first));
+        Assert.assertTrue(tag.set.contains(second));
+    }
+
+    @Test
+    public void pagingPrefixKeyedTest() throws Exception {
+        Hash addressHash = getTransactionHash();
+        Address address = new Address();
+        for (int i = 0; i < 25; i++) {
+            address.set.add(getTransactionHash());
+        }
+        provider.save(address, addressHash);
+
+        List<Hash> all = new ArrayList<>();
+        Hash after = null;
+        List<Hash> page;
+        while (!(page = provider.getPage(Address.class, addressHash, after, 10)).isEmpty()) {
+            all.addAll(page);
+            after = page.get(page.size() - 1);
+        }
+        Assert.assertEquals(25, all.size());
+        Assert.assertTrue(all.containsAll(address.set));
+
+        provider.delete(Address.class, addressHash);
+        Assert.assertFalse(provider.exists(Address.class, addressHash));
+    }
+
+    @Test
+    public void iterateInKeyOrderTest() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Round round = new Round();
+            round.index = new IntegerIndex(i);
+            provider.save(round, round.index);
+        }
+
+        Pair<Indexable, Persistable> first = provider.first(Round.class, IntegerIndex.class);
+        Assert.assertEquals(1, ((IntegerIndex) first.low).getValue());
+        Pair<Indexable, Persistable> latest = provider.latest(Round.class, IntegerIndex.class);
+        Assert.assertEquals(5, ((IntegerIndex) latest.low).getValue());
+        Assert.assertEquals(4, ((IntegerIndex) provider.next(Round.class, new IntegerIndex(3)).low).getValue());
+        Assert.assertEquals(2, ((IntegerIndex) provider.previous(Round.class, new IntegerIndex(3)).low).getValue());
+        Assert.assertNull(provider.next(Round.class, new IntegerIndex(5)).low);
+    }
+
+    @Test
+    public void deleteRangeTest() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Round round = new Round();
+            round.index = new IntegerIndex(i);
+            provider.save(round, round.index);
+        }
+
+        provider.deleteRange(Round.class, new IntegerIndex(2), new IntegerIndex(4));
+        Assert.assertTrue(provider.exists(Round.class, new IntegerIndex(1)));
+        Assert.assertFalse(provider.exists(Round.class, new IntegerIndex(2)));
+        Assert.assertFalse(provider.exists(Round.class, new IntegerIndex(3)));
+        Assert.assertTrue(provider.exists(Round.class, new IntegerIndex(4)));
+    }
+
+    @Test
+    public void deleteBatchTest() throws Exception {
+        TransactionViewModel transactionViewModel = new TransactionViewModel(getTransactionBytes(),
+                getTransactionHash());
+        Hash hash = transactionViewModel.getHash();
+        provider.saveBatch(transactionViewModel.getSaveBatch());
+        Assert.assertTrue(provider.exists(Transaction.class, hash));
+
+        provider.deleteBatch(Collections.singletonList(new Pair<>(hash, Transaction.class)));
+        Assert.assertNull(provider.get(Transaction.class, hash).bytes());
+        Assert.assertFalse(provider.exists(Transaction.class, hash));
+    }
+}
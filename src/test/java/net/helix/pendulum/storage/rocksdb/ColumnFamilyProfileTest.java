@@ -0,0 +1,67 @@
+package net.helix.pendulum.storage.rocksdb;
+
+import net.helix.pendulum.storage.Tangle;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class ColumnFamilyProfileTest {
+
+    @Test
+    public void resolveDefaultsTest() {
+        Map<String, ColumnFamilyProfile> profiles = ColumnFamilyProfile.resolve(Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY, Collections.emptyList());
+
+        Assert.assertEquals(Tangle.COLUMN_FAMILIES.size() + 2, profiles.size());
+        Assert.assertTrue("transactions should be tuned for point lookups",
+                profiles.get("transaction").isOptimizeForPointLookup());
+        Assert.assertTrue("transaction metadata should be tuned for point lookups",
+                profiles.get(Tangle.METADATA_COLUMN_FAMILY.getKey()).isOptimizeForPointLookup());
+        Assert.assertTrue("transaction state should be tuned for point lookups",
+                profiles.get(Tangle.METADATA_COLUMN_FAMILY.getKey() + "-state").isOptimizeForPointLookup());
+        Assert.assertFalse("indexes should not be tuned for point lookups",
+                profiles.get("approvee").isOptimizeForPointLookup());
+        Assert.assertEquals(CompressionType.NO_COMPRESSION, profiles.get("transaction").getCompressionType());
+        Assert.assertEquals(ColumnFamilyProfile.TRANSACTION_PREFIX_LENGTH, profiles.get("transaction").getPrefixLength());
+        Assert.assertEquals("indexes should not get a prefix extractor", 0, profiles.get("approvee").getPrefixLength());
+    }
+
+    @Test
+    public void resolveOverridesTest() {
+        Map<String, ColumnFamilyProfile> profiles = ColumnFamilyProfile.resolve(Tangle.COLUMN_FAMILIES,
+                Tangle.METADATA_COLUMN_FAMILY, Arrays.asList(
+                        "address:writeBufferSize=1024, compression=zstd,compactionStyle=universal",
+                        "transaction:bloomBits=0,prefixLength=8,pointLookup=false"));
+
+        ColumnFamilyProfile address = profiles.get("address");
+        Assert.assertEquals(1024, address.getWriteBufferSize());
+        Assert.assertEquals(CompressionType.ZSTD_COMPRESSION, address.getCompressionType());
+        Assert.assertEquals(CompactionStyle.UNIVERSAL, address.getCompactionStyle());
+
+        ColumnFamilyProfile transaction = profiles.get("transaction");
+        Assert.assertEquals(0, transaction.getBloomBitsPerKey());
+        Assert.assertEquals(8, transaction.getPrefixLength());
+        Assert.assertFalse(transaction.isOptimizeForPointLookup());
+
+        Assert.assertEquals("untouched families should keep their defaults",
+                ColumnFamilyProfile.forModel(Tangle.COLUMN_FAMILIES.get("bundle")).toString(),
+                profiles.get("bundle").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveUnknownColumnFamilyTest() {
+        ColumnFamilyProfile.resolve(Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY,
+                Collections.singletonList("unknown:blockSize=4096"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveUnknownOptionTest() {
+        ColumnFamilyProfile.resolve(Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY,
+                Collections.singletonList("address:cacheSize=4096"));
+    }
+}
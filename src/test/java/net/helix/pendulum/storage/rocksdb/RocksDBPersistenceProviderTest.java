@@ -1,6 +1,9 @@
 package net.helix.pendulum.storage.rocksdb;
 
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
 import net.helix.pendulum.model.IntegerIndex;
+import net.helix.pendulum.model.persistables.Bundle;
 import net.helix.pendulum.model.persistables.Transaction;
 import net.helix.pendulum.storage.Indexable;
 import net.helix.pendulum.storage.Persistable;
@@ -8,9 +11,13 @@ import net.helix.pendulum.storage.Tangle;
 import net.helix.pendulum.utils.Pair;
 import org.junit.*;
 import org.junit.rules.TemporaryFolder;
+import org.rocksdb.util.SizeUnit;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -77,4 +84,209 @@ public class RocksDBPersistenceProviderTest {
         }
     }
 
+    @Test
+    public void findByPrefixTest() throws Exception {
+        Transaction tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+
+        // the first two hashes share more than the fixed prefix of the column family, the third one only a part of it
+        Hash first = hashWithBytes(new byte[]{7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 1});
+        Hash second = hashWithBytes(new byte[]{7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 2});
+        Hash third = hashWithBytes(new byte[]{7, 7, 7, 7, 8});
+        for (Hash hash : Arrays.asList(second, first, third)) {
+            rocksDBPersistenceProvider.save(tx, hash);
+        }
+
+        byte[] longPrefix = Arrays.copyOf(first.bytes(), 17);
+        Pair<Indexable, Persistable> found = rocksDBPersistenceProvider.findByPrefix(Transaction.class, longPrefix);
+        Assert.assertEquals("the lowest matching hash should be found", first, found.low);
+        Assert.assertArrayEquals(tx.bytes(), found.hi.bytes());
+        Assert.assertEquals(second, rocksDBPersistenceProvider.findByPrefix(Transaction.class,
+                Arrays.copyOf(second.bytes(), 18)).low);
+        Assert.assertNull(rocksDBPersistenceProvider.findByPrefix(Transaction.class,
+                Arrays.copyOf(hashWithBytes(new byte[]{7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 3}).bytes(),
+                        18)).low);
+
+        // prefixes shorter than the fixed prefix fall back to a total order seek
+        Set<Indexable> keys = rocksDBPersistenceProvider.keysStartingWith(Transaction.class, new byte[]{7, 7, 7, 7});
+        Assert.assertEquals(3, keys.size());
+        Assert.assertEquals(third, rocksDBPersistenceProvider.findByPrefix(Transaction.class,
+                new byte[]{7, 7, 7, 7, 8}).low);
+        Assert.assertEquals(Collections.singleton(first),
+                rocksDBPersistenceProvider.keysStartingWith(Transaction.class, longPrefix));
+    }
+
+    @Test
+    public void exactCountTest() throws Exception {
+        rocksDBPersistenceProvider.clearMetadata(Transaction.class);
+        Transaction tx = newTransaction();
+        for (int i = 0; i < 10; i++) {
+            rocksDBPersistenceProvider.save(tx, new IntegerIndex(i));
+        }
+        rocksDBPersistenceProvider.save(tx, new IntegerIndex(3));
+        rocksDBPersistenceProvider.saveBatch(Arrays.asList(new Pair<>(new IntegerIndex(4), tx),
+                new Pair<>(new IntegerIndex(10), tx), new Pair<>(new IntegerIndex(10), tx)));
+        Assert.assertEquals("overwritten entries should not be counted twice", 11,
+                rocksDBPersistenceProvider.count(Transaction.class));
+        Assert.assertEquals(0L, (long) rocksDBPersistenceProvider.getStatistics().get("solidTransactionCount"));
+
+        tx.solid = true;
+        rocksDBPersistenceProvider.update(tx, new IntegerIndex(3), "solid");
+        rocksDBPersistenceProvider.update(tx, new IntegerIndex(3), "solid");
+        rocksDBPersistenceProvider.update(tx, new IntegerIndex(3), "height");
+        Assert.assertEquals(1L, (long) rocksDBPersistenceProvider.getStatistics().get("solidTransactionCount"));
+        tx.solid = false;
+        rocksDBPersistenceProvider.update(tx, new IntegerIndex(3), "solid|height");
+        Assert.assertEquals(0L, (long) rocksDBPersistenceProvider.getStatistics().get("solidTransactionCount"));
+
+        rocksDBPersistenceProvider.delete(Transaction.class, new IntegerIndex(5));
+        rocksDBPersistenceProvider.delete(Transaction.class, new IntegerIndex(5));
+        rocksDBPersistenceProvider.deleteBatch(Collections.singletonList(new Pair<>(new IntegerIndex(11),
+                Transaction.class)));
+        Assert.assertEquals(10, rocksDBPersistenceProvider.count(Transaction.class));
+        Assert.assertEquals(10L, (long) rocksDBPersistenceProvider.getStatistics().get("transactionCount"));
+
+        rocksDBPersistenceProvider.deleteRange(Transaction.class, new IntegerIndex(4), new IntegerIndex(7));
+        Assert.assertEquals("absent keys of a range should not be counted", 8,
+                rocksDBPersistenceProvider.count(Transaction.class));
+
+        rocksDBPersistenceProvider.clear(Transaction.class);
+        Assert.assertEquals(0, rocksDBPersistenceProvider.count(Transaction.class));
+    }
+
+    @Test
+    public void prefixKeyedCountAndMissingReferencesTest() throws Exception {
+        rocksDBPersistenceProvider.clear(Bundle.class);
+        Hash bundleHash = hashWithBytes(new byte[]{1});
+        Hash orphanHash = hashWithBytes(new byte[]{4});
+        Bundle bundle = new Bundle(hashWithBytes(new byte[]{2}));
+        bundle.set.add(hashWithBytes(new byte[]{3}));
+        rocksDBPersistenceProvider.save(bundle, bundleHash);
+        rocksDBPersistenceProvider.save(new Bundle(hashWithBytes(new byte[]{2})), orphanHash);
+        Assert.assertEquals("every element of a set should be counted", 3,
+                rocksDBPersistenceProvider.count(Bundle.class));
+
+        rocksDBPersistenceProvider.save(newTransaction(), bundleHash);
+        Set<Indexable> missing = rocksDBPersistenceProvider.keysWithMissingReferences(Bundle.class,
+                Transaction.class);
+        Assert.assertEquals("a set should be reported once", 1, missing.size());
+        Assert.assertArrayEquals(orphanHash.bytes(), missing.iterator().next().bytes());
+        rocksDBPersistenceProvider.clear(Bundle.class);
+    }
+
+    @Test
+    public void deleteRangeTest() throws Exception {
+        Transaction tx = newTransaction();
+        for (int i = 0; i < 10; i++) {
+            rocksDBPersistenceProvider.save(tx, new IntegerIndex(i));
+        }
+
+        rocksDBPersistenceProvider.deleteRange(Transaction.class, new IntegerIndex(3), new IntegerIndex(7));
+        rocksDBPersistenceProvider.compactRange(Transaction.class, new IntegerIndex(3), new IntegerIndex(7));
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("unexpected entry at index " + i, i < 3 || i >= 7,
+                    rocksDBPersistenceProvider.exists(Transaction.class, new IntegerIndex(i)));
+        }
+        Assert.assertEquals(6, rocksDBPersistenceProvider.count(Transaction.class));
+    }
+
+    @Test
+    public void countsSurviveRestartTest() throws Exception {
+        TemporaryFolder folder = new TemporaryFolder();
+        folder.create();
+        try {
+            String dbPath = folder.newFolder("db").getAbsolutePath();
+            String logPath = folder.newFolder("log").getAbsolutePath();
+            RocksDBPersistenceProvider provider = new RocksDBPersistenceProvider(dbPath, logPath, 1000,
+                    Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
+            provider.init();
+            Transaction tx = newTransaction();
+            for (int i = 0; i < 5; i++) {
+                provider.save(tx, new IntegerIndex(i));
+            }
+            provider.shutdown();
+
+            provider = new RocksDBPersistenceProvider(dbPath, logPath, 1000,
+                    Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY);
+            provider.init();
+            try {
+                Assert.assertEquals(5, provider.count(Transaction.class));
+                Assert.assertTrue(provider.getStatistics().containsKey("transactionMetadataSstFilesSize"));
+            } finally {
+                provider.shutdown();
+            }
+        } finally {
+            folder.delete();
+        }
+    }
+
+    @Test
+    public void cacheStatisticsTest() throws Exception {
+        Transaction tx = newTransaction();
+        rocksDBPersistenceProvider.save(tx, new IntegerIndex(1));
+        rocksDBPersistenceProvider.get(Transaction.class, new IntegerIndex(1));
+
+        Map<String, Long> stats = rocksDBPersistenceProvider.getStatistics();
+        Assert.assertEquals("all column families should share one block cache", 1000 * SizeUnit.KB,
+                (long) stats.get("blockCacheCapacity"));
+        Assert.assertEquals("the row cache should be disabled by default", 0L, (long) stats.get("rowCacheCapacity"));
+        for (String key : Arrays.asList("blockCacheHits", "blockCacheMisses", "blockCacheAdds",
+                "blockCacheAddFailures", "blockCacheEvictedBytes", "blockCacheUsage", "rowCacheHits",
+                "rowCacheMisses")) {
+            Assert.assertTrue(key + " should be reported", stats.get(key) >= 0);
+        }
+    }
+
+    @Test
+    public void sharedClockCacheAndRowCacheTest() throws Exception {
+        TemporaryFolder folder = new TemporaryFolder();
+        folder.create();
+        RocksDBPersistenceProvider provider = new RocksDBPersistenceProvider(
+                folder.newFolder("db").getAbsolutePath(), folder.newFolder("log").getAbsolutePath(), 2000, "clock",
+                4, 500, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY,
+                ColumnFamilyProfile.resolve(Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY,
+                        Collections.emptyList()));
+        try {
+            provider.init();
+            Map<String, Long> stats = provider.getStatistics();
+            Assert.assertEquals(2000 * SizeUnit.KB, (long) stats.get("blockCacheCapacity"));
+            Assert.assertEquals(500 * SizeUnit.KB, (long) stats.get("rowCacheCapacity"));
+        } finally {
+            provider.shutdown();
+            folder.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCacheTypeTest() throws Exception {
+        TemporaryFolder folder = new TemporaryFolder();
+        folder.create();
+        RocksDBPersistenceProvider provider = new RocksDBPersistenceProvider(
+                folder.newFolder("db").getAbsolutePath(), folder.newFolder("log").getAbsolutePath(), 1000, "fifo",
+                4, 0, Tangle.COLUMN_FAMILIES, Tangle.METADATA_COLUMN_FAMILY, Collections.emptyMap());
+        try {
+            provider.init();
+        } finally {
+            provider.shutdown();
+            folder.delete();
+        }
+    }
+
+    private static Transaction newTransaction() {
+        Transaction tx = new Transaction();
+        byte[] bytes = new byte[Transaction.SIZE];
+        Arrays.fill(bytes, (byte) 1);
+        tx.read(bytes);
+        tx.readMetadata(bytes);
+        tx.solid = false;
+        return tx;
+    }
+
+    private static Hash hashWithBytes(byte[] prefix) {
+        return HashFactory.TRANSACTION.create(Arrays.copyOf(prefix, Hash.SIZE_IN_BYTES));
+    }
 }
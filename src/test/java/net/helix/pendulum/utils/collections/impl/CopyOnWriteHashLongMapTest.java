@@ -0,0 +1,93 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class CopyOnWriteHashLongMapTest {
+
+    @Test
+    public void putAndRemoveTest() {
+        CopyOnWriteHashLongMap map = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        Map<Hash, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            Hash address = newAddress();
+            map.put(address, i);
+            expected.put(address, (long) i);
+        }
+        Hash address = expected.keySet().iterator().next();
+        map.put(address, -1L);
+        expected.put(address, -1L);
+
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(expected, map.toMap());
+        Assert.assertTrue(map.remove(address));
+        Assert.assertFalse(map.remove(address));
+        Assert.assertFalse(map.containsKey(address));
+        Assert.assertEquals(7L, map.getOrDefault(address, 7L));
+        Assert.assertEquals(expected.size() - 1, map.size());
+
+        long[] sum = {0};
+        map.forEachValue(value -> sum[0] += value);
+        Assert.assertEquals(expected.values().stream().mapToLong(Long::longValue).sum() + 1, sum[0]);
+    }
+
+    @Test
+    public void copyOnWriteTest() {
+        CopyOnWriteHashLongMap map = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        List<Hash> addresses = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Hash address = newAddress();
+            addresses.add(address);
+            map.put(address, i);
+        }
+        Map<Hash, Long> original = map.toMap();
+
+        CopyOnWriteHashLongMap copy = map.copy();
+        Assert.assertEquals(map, copy);
+        Assert.assertEquals(map.hashCode(), copy.hashCode());
+
+        copy.put(addresses.get(0), 42L);
+        copy.remove(addresses.get(1));
+        Hash added = newAddress();
+        copy.put(added, 1L);
+        Assert.assertEquals("changing the copy should not change the original", original, map.toMap());
+        Assert.assertNotEquals(map, copy);
+
+        map.put(addresses.get(2), 43L);
+        Assert.assertEquals("changing the original should not change the copy", 2L,
+                copy.getOrDefault(addresses.get(2), -1L));
+        Assert.assertEquals(42L, copy.getOrDefault(addresses.get(0), -1L));
+        Assert.assertFalse(copy.containsKey(addresses.get(1)));
+        Assert.assertFalse(map.containsKey(added));
+
+        copy.clear();
+        Assert.assertTrue(copy.isEmpty());
+        Assert.assertEquals(addresses.size(), map.size());
+    }
+
+    @Test
+    public void equalsIgnoresHashTypeTest() {
+        Hash transaction = getTransactionHash();
+        CopyOnWriteHashLongMap map = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        map.put(transaction, 5L);
+        CopyOnWriteHashLongMap other = new CopyOnWriteHashLongMap(HashFactory.ADDRESS);
+        other.put(HashFactory.ADDRESS.create(transaction.bytes()), 5L);
+
+        Assert.assertEquals(map, other);
+        Assert.assertEquals(map.hashCode(), other.hashCode());
+        Assert.assertEquals(5L, map.getOrDefault(HashFactory.ADDRESS.create(transaction.bytes()), 0L));
+    }
+
+    private static Hash newAddress() {
+        return HashFactory.ADDRESS.create(getTransactionHash().bytes());
+    }
+}
@@ -0,0 +1,35 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashPrefix;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class FlatHashIntMapTest {
+
+    @Test
+    public void putAndGetTest() {
+        FlatHashIntMap map = new FlatHashIntMap(0);
+        Hash[] hashes = new Hash[300];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = getTransactionHash();
+            Assert.assertNull(map.put(hashes[i], i));
+        }
+        Assert.assertEquals(Integer.valueOf(5), map.put(hashes[5], 6));
+        for (int i = 0; i < hashes.length; i++) {
+            int expected = i == 5 ? 6 : i;
+            Assert.assertEquals(Integer.valueOf(expected), map.get(hashes[i]));
+            Assert.assertEquals(expected, map.getInt(HashPrefix.createPrefix(hashes[i]), -1));
+        }
+        Assert.assertNull(map.get(getTransactionHash()));
+        Assert.assertTrue(map.containsValue(299));
+        Assert.assertEquals(hashes.length, map.values().size());
+
+        Assert.assertEquals(Integer.valueOf(6), map.remove(hashes[5]));
+        Assert.assertFalse(map.containsKey(hashes[5]));
+        map.putInt(hashes[5], 1);
+        Assert.assertEquals(1, map.getInt(hashes[5], -1));
+    }
+}
@@ -0,0 +1,43 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import net.helix.pendulum.model.HashFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class FlatHashLongMapTest {
+
+    @Test
+    public void putAndAddTest() {
+        FlatHashLongMap map = new FlatHashLongMap(0, HashFactory.ADDRESS);
+        Map<Hash, Long> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            Hash address = HashFactory.ADDRESS.create(getTransactionHash().bytes());
+            map.put(address, i);
+            Assert.assertEquals(2L * i, map.addExact(address, i));
+            expected.put(address, 2L * i);
+        }
+        Hash missing = HashFactory.ADDRESS.create(getTransactionHash().bytes());
+        Assert.assertEquals(-1L, map.getOrDefault(missing, -1L));
+        Assert.assertEquals(7L, map.addExact(missing, 7L));
+        expected.put(missing, 7L);
+
+        Assert.assertEquals(expected, map.toMap());
+        Assert.assertTrue(map.remove(missing));
+        Assert.assertFalse(map.containsKey(missing));
+        Assert.assertEquals(expected.size() - 1, map.size());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void addExactOverflowTest() {
+        FlatHashLongMap map = new FlatHashLongMap(0, HashFactory.ADDRESS);
+        Hash address = HashFactory.ADDRESS.create(getTransactionHash().bytes());
+        map.put(address, Long.MAX_VALUE);
+        map.addExact(address, 1);
+    }
+}
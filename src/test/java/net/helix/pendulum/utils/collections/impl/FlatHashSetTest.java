@@ -0,0 +1,77 @@
+package net.helix.pendulum.utils.collections.impl;
+
+import net.helix.pendulum.model.Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static net.helix.pendulum.TransactionTestUtils.getTransactionHash;
+
+public class FlatHashSetTest {
+
+    @Test
+    public void addContainsRemoveTest() {
+        Set<Hash> expected = new HashSet<>();
+        FlatHashSet set = new FlatHashSet();
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Hash hash = getTransactionHash();
+            hashes.add(hash);
+            Assert.assertTrue("can't add a new hash", set.add(hash));
+            Assert.assertFalse("can add a contained hash", set.add(hash));
+            expected.add(hash);
+        }
+        for (int i = 0; i < hashes.size(); i += 3) {
+            Assert.assertTrue(set.remove(hashes.get(i)));
+            Assert.assertFalse(set.remove(hashes.get(i)));
+            expected.remove(hashes.get(i));
+        }
+
+        Assert.assertEquals(expected.size(), set.size());
+        for (Hash hash : hashes) {
+            Assert.assertEquals(expected.contains(hash), set.contains(hash));
+        }
+        Assert.assertFalse(set.contains(getTransactionHash()));
+        Assert.assertEquals("iterated hashes differ", expected, new HashSet<>(set));
+    }
+
+    @Test
+    public void reuseRemovedSlotsTest() {
+        FlatHashSet set = new FlatHashSet(4);
+        for (int i = 0; i < 10000; i++) {
+            Hash hash = getTransactionHash();
+            set.add(hash);
+            set.remove(hash);
+        }
+        Assert.assertTrue(set.isEmpty());
+        Hash hash = getTransactionHash();
+        set.add(hash);
+        Assert.assertTrue(set.contains(hash));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        FlatHashSet set = new FlatHashSet();
+        Set<Hash> kept = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Hash hash = getTransactionHash();
+            set.add(hash);
+            if (i % 2 == 0) {
+                kept.add(hash);
+            }
+        }
+        for (Iterator<Hash> iterator = set.iterator(); iterator.hasNext(); ) {
+            if (!kept.contains(iterator.next())) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(kept, new HashSet<>(set));
+        set.clear();
+        Assert.assertFalse(set.iterator().hasNext());
+    }
+}